@@ -0,0 +1,6 @@
+# ProGuard/R8 rules applied to apps that use this library.
+
+# gov.nasa.worldwind.util.Logging loads the Android logging sink by name, through its public constructor.
+-keep class gov.nasa.worldwind.util.AndroidLoggingSink {
+    public <init>();
+}
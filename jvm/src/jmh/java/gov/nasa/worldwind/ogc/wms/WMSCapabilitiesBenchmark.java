@@ -0,0 +1,171 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.util.xml.XMLEventReaderFactory;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a capabilities document and querying the parsed layers, on generated WMS 1.1.1 and 1.3.0 documents
+ * of 10 to 100k layers with different nesting depths and numbers of inherited CRS. See {@link WMSCapabilitiesDocuments}.
+ * <p/>
+ * Each benchmark reports its throughput in operations per second, and the number of layers it processed per second as
+ * the secondary <code>layers</code> result; the inverse of the latter is the latency per layer. Run with the
+ * <code>gc</code> profiler, as the <code>jmh</code> task of the JVM build does, to report the allocation rate and the
+ * bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WMSCapabilitiesBenchmark {
+    /** A generated document, and the capabilities parsed from it. */
+    @State(Scope.Benchmark)
+    public static class Document {
+        @Param({"1.1.1", "1.3.0"})
+        public String version;
+
+        @Param({"10", "1000", "10000", "100000"})
+        public int layerCount;
+
+        /** The number of levels of named layers. */
+        @Param({"1", "4"})
+        public int depth;
+
+        /** The number of CRS declared by the root layer. */
+        @Param({"2", "64"})
+        public int crsCount;
+
+        public byte[] bytes;
+        public WMSCapabilities caps;
+        public String[] layerNames;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            this.bytes = new WMSCapabilitiesDocuments("1.3.0".equals(this.version), this.layerCount, this.depth,
+                    this.crsCount).generate();
+            this.caps = new WMSCapabilities(ByteBuffer.wrap(this.bytes)).parse();
+
+            List<WMSLayerCapabilities> namedLayers = this.caps.getNamedLayers();
+            if (namedLayers.size() != this.layerCount)
+                throw new IllegalStateException("Parsed " + namedLayers.size() + " layers of " + this.layerCount);
+
+            // Look up layers spread over the document, to avoid favoring the first layers of a linear scan.
+            this.layerNames = new String[Math.min(64, this.layerCount)];
+            for (int i = 0; i < this.layerNames.length; i++) {
+                this.layerNames[i] = WMSCapabilitiesDocuments.getLayerName(
+                        (int) ((long) i * this.layerCount / this.layerNames.length));
+            }
+        }
+    }
+
+    /** The reader backend used to parse documents. */
+    @State(Scope.Benchmark)
+    public static class ReaderBackend {
+        @Param({"PULL_PARSER", "UTF8_TOKENIZER"})
+        public XMLEventReaderFactory.Backend backend;
+
+        private XMLEventReaderFactory.Backend defaultBackend;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            this.defaultBackend = XMLEventReaderFactory.getDefaultBackend();
+            XMLEventReaderFactory.setDefaultBackend(this.backend);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            XMLEventReaderFactory.setDefaultBackend(this.defaultBackend);
+        }
+    }
+
+    /** Counts the layers processed by a benchmark, reported as a rate. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class LayerCounter {
+        public long layers;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            this.layers = 0;
+        }
+    }
+
+    /** The index of the next layer name to look up. */
+    @State(Scope.Thread)
+    public static class Lookup {
+        public int next;
+    }
+
+    @Benchmark
+    public WMSCapabilities parse(Document document, ReaderBackend backend, LayerCounter layers) throws Exception {
+        WMSCapabilities caps = new WMSCapabilities(ByteBuffer.wrap(document.bytes)).parse();
+        layers.layers += document.layerCount;
+
+        return caps;
+    }
+
+    @Benchmark
+    public List<WMSLayerCapabilities> getNamedLayers(Document document, LayerCounter layers) {
+        List<WMSLayerCapabilities> namedLayers = document.caps.getNamedLayers();
+        layers.layers += namedLayers.size();
+
+        return namedLayers;
+    }
+
+    @Benchmark
+    public WMSLayerCapabilities getLayerByName(Document document, Lookup lookup, LayerCounter layers) {
+        String[] names = document.layerNames;
+        WMSLayerCapabilities layer = document.caps.getLayerByName(names[lookup.next++ % names.length]);
+        layers.layers++;
+
+        return layer;
+    }
+
+    /** Resolves the inherited attributes of all layers again, as is done once the document has been parsed. */
+    @Benchmark
+    public WMSCapabilities resolveAttributes(Document document, LayerCounter layers) {
+        for (WMSLayerCapabilities layer : document.caps.getCapabilityInformation().getLayerCapabilities()) {
+            layer.resolveAttributes(null);
+        }
+        layers.layers += document.layerCount;
+
+        return document.caps;
+    }
+}
@@ -21,7 +21,9 @@ import gov.nasa.worldwind.avlist.AVKey;
 import gov.nasa.worldwind.avlist.AVListImpl;
 import gov.nasa.worldwind.ogc.wms.WMSCapabilities;
 import gov.nasa.worldwind.ogc.wms.WMSLayerCapabilities;
+import gov.nasa.worldwind.ogc.wms.WMSLayerCapabilitiesListener;
 import gov.nasa.worldwind.ogc.wms.WMSLayerStyle;
+import gov.nasa.worldwind.ogc.wms.WMSParseProfile;
 import gov.nasa.worldwind.util.WWUtil;
 
 import java.net.URI;
@@ -62,6 +64,8 @@ import android.widget.ListView;
  */
 public class AddWMSDialog extends DialogFragment {
     private static final String TAG = "AddWMSDialog";
+    /** Minimum time in milliseconds between list updates while the capabilities are downloaded. */
+    private static final long LIST_UPDATE_INTERVAL = 250;
     public static final String WMSURL_KEY = "WMSURL_KEY";
     private Thread downloadThread;
     LayerInfoAdapter mListViewAdapter = null;
@@ -70,6 +74,7 @@ public class AddWMSDialog extends DialogFragment {
     private OnWMSLayersAddedListener wmsLayersAddedListener;
     private String baseUrl;
     private String forcedWmsVersion;
+    private long lastListUpdate;
 
 
     public interface OnWMSLayersAddedListener {
@@ -223,28 +228,29 @@ public class AddWMSDialog extends DialogFragment {
 
     private void downloadCapabilities(String wmsURL) {
         try {
-            layerInfos.clear();
+            synchronized (layerInfos) {
+                layerInfos.clear();
+            }
             URI serverURI = new URI(wmsURL.trim());
-            WMSCapabilities caps = WMSCapabilities.retrieve(serverURI);
-            caps.parse();
-            final List<WMSLayerCapabilities> namedLayerCaps = caps.getNamedLayers();
-            if (namedLayerCaps == null)
-                return;
-            for (WMSLayerCapabilities lc : namedLayerCaps) {
-                Set<WMSLayerStyle> styles = lc.getStyles();
+            final WMSCapabilities caps = WMSCapabilities.retrieve(serverURI);
+            // Fill the list layer by layer while the document is still being read.
+            caps.setLayerListener(new WMSLayerCapabilitiesListener() {
+                @Override
+                public void layerParsed(WMSLayerCapabilities layer) {
+                    if (layer.getName() == null)
+                        return;
 
-                if (styles == null || styles.size() == 0) {
-                    // Log.d(TAG, "Null or empty styles!");
-                    LayerInfo layerInfo = createLayerInfo(caps, lc, null);
-                    layerInfos.add(layerInfo);
-                } else {
-                    // Log.d(TAG, "Styles is not null and not empty");
-                    for (WMSLayerStyle style : styles) {
-                        LayerInfo layerInfo = createLayerInfo(caps, lc, style);
-                        layerInfos.add(layerInfo);
-                    }
+                    addLayerInfos(caps, layer);
+                    postLayerInfoListUpdate();
                 }
+            });
+            try {
+                caps.parse(getCapabilitiesProfile());
+            } finally {
+                caps.releaseParserContext();
             }
+            if (caps.getCapabilityInformation() == null)
+                return;
 
             String[] urlSplit = wmsURL.split("\\?");
             if (urlSplit.length == 2) {
@@ -264,8 +270,63 @@ public class AddWMSDialog extends DialogFragment {
         }
     }
 
+    /**
+     * Returns the parts of the capabilities document parsed by the dialog. These are the layer names, titles,
+     * abstracts and styles shown in the layer list, plus the request descriptions, coordinate reference systems,
+     * geographic bounding boxes and bounding boxes, because the capabilities are passed on to the
+     * {@link OnWMSLayersAddedListener} with the chosen layers to build GetMap requests. The capabilities are partial:
+     * the service information, scale ranges, dimensions, keywords, attributions, authorities, URLs and last update
+     * times are not parsed, and their getters return null. Override this method to parse more of the document.
+     *
+     * @return the parse profile for the capabilities document.
+     */
+    protected WMSParseProfile getCapabilitiesProfile() {
+        return WMSParseProfile.LAYER_PICKER.with(WMSParseProfile.Part.REQUESTS, WMSParseProfile.Part.COORDINATE_SYSTEMS,
+                WMSParseProfile.Part.GEOGRAPHIC_BOUNDING_BOX, WMSParseProfile.Part.BOUNDING_BOXES);
+    }
+
+    private void addLayerInfos(WMSCapabilities caps, WMSLayerCapabilities lc) {
+        Set<WMSLayerStyle> styles = lc.getStyles();
+
+        synchronized (layerInfos) {
+            if (styles == null || styles.size() == 0) {
+                // Log.d(TAG, "Null or empty styles!");
+                LayerInfo layerInfo = createLayerInfo(caps, lc, null);
+                layerInfos.add(layerInfo);
+            } else {
+                // Log.d(TAG, "Styles is not null and not empty");
+                for (WMSLayerStyle style : styles) {
+                    LayerInfo layerInfo = createLayerInfo(caps, lc, style);
+                    layerInfos.add(layerInfo);
+                }
+            }
+        }
+    }
+
+    private void postLayerInfoListUpdate() {
+        long now = System.currentTimeMillis();
+        if (now - lastListUpdate < LIST_UPDATE_INTERVAL)
+            return;
+        lastListUpdate = now;
+
+        FragmentActivity activity = getActivity();
+        if (activity != null)
+            activity.runOnUiThread(new Runnable() {
+
+                @Override
+                public void run() {
+                    if (getActivity() != null)
+                        updateLayerInfoList(getActivity());
+                }
+            });
+    }
+
     private void updateLayerInfoList(Context context) {
-        mListViewAdapter = new LayerInfoAdapter(getActivity(), layerInfos.toArray(new LayerInfo[layerInfos.size()]));
+        LayerInfo[] infos;
+        synchronized (layerInfos) {
+            infos = layerInfos.toArray(new LayerInfo[layerInfos.size()]);
+        }
+        mListViewAdapter = new LayerInfoAdapter(getActivity(), infos);
         mListView.setAdapter(mListViewAdapter);
         // mListViewAdapter.setLayerInfos(layerInfos.toArray(new LayerInfo[layerInfos.size()]));
         mListViewAdapter.notifyDataSetChanged();
@@ -287,11 +348,32 @@ public class AddWMSDialog extends DialogFragment {
         if (!WWUtil.isEmpty(abs))
             linfo.params.setValue(AVKey.LAYER_ABSTRACT, abs);
 
-        linfo.params.setValue(AVKey.DISPLAY_NAME, makeTitle(caps, linfo));
+        linfo.params.setValue(AVKey.DISPLAY_NAME, makeTitle(layerCaps, style));
 
         return linfo;
     }
 
+    /**
+     * Creates the display name of a layer and style. Unlike {@link #makeTitle(WMSCapabilities, LayerInfo)} it does not
+     * look the layer up in the capabilities, so it can be used while the capabilities are still being parsed.
+     *
+     * @param layerCaps the layer.
+     * @param style     the layer's style, or null.
+     * @return the display name.
+     */
+    protected static String makeTitle(WMSLayerCapabilities layerCaps, WMSLayerStyle style) {
+        String layerTitle = layerCaps.getTitle();
+        StringBuilder sb = new StringBuilder(layerTitle != null ? layerTitle : layerCaps.getName());
+
+        if (style != null) {
+            sb.append(" : ");
+            String styleTitle = style.getTitle();
+            sb.append(styleTitle != null ? styleTitle : style.getName());
+        }
+
+        return sb.toString();
+    }
+
     protected static String makeTitle(WMSCapabilities caps, LayerInfo layerInfo) {
         String layerNames = layerInfo.params.getStringValue(AVKey.LAYER_NAMES);
         String styleNames = layerInfo.params.getStringValue(AVKey.STYLE_NAMES);
@@ -341,6 +423,7 @@ public class AddWMSDialog extends DialogFragment {
     }
 
     public static class LayerInfo {
+        /** The layer's capabilities document, parsed with {@link AddWMSDialog#getCapabilitiesProfile()} and therefore partial. */
         public WMSCapabilities caps;
         public AVListImpl params = new AVListImpl();
         public boolean selected = false;
@@ -103,6 +103,7 @@ public interface AVKey {
 	final String LAYER_ABSTRACT = "gov.nasa.worldwind.avkey.LayerAbstract";
 	final String LAYERS = "gov.nasa.worldwind.avkey.Layers";
 	final String LAYER_FACTORY = "gov.nasa.worldwind.avkey.LayerFactory";
+	final String LAYER_LISTENER = "gov.nasa.worldwind.avkey.LayerListener";
 	final String LAYER_NAMES = "gov.nasa.worldwind.avkey.LayerNames";
 	final String LEVEL_NAME = "gov.nasa.worldwind.avkey.LevelName";
 	final String LEVEL_NUMBER = "gov.nasa.worldwind.avkey.LevelNumber";
@@ -154,6 +155,8 @@ public interface AVKey {
 
 	final String OFFLINE_MODE = "gov.nasa.worldwind.avkey.OfflineMode";
 	final String OPACITY = "gov.nasa.worldwind.avkey.Opacity";
+	final String PARALLEL_LAYER_PARSER = "gov.nasa.worldwind.avkey.ParallelLayerParser";
+	final String PARSE_PROFILE = "gov.nasa.worldwind.avkey.ParseProfile";
 
 	final String PICKED_OBJECT_PARENT_LAYER = "gov.nasa.worldwind.avkey.PickedObject.ParentLayer";
 	final String PIXELS = "gov.nasa.worldwind.avkey.Pixels";
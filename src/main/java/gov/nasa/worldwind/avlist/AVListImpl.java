@@ -17,8 +17,6 @@
  */
 package gov.nasa.worldwind.avlist;
 
-import android.util.Log;
-
 import gov.nasa.worldwind.exception.WWRuntimeException;
 import gov.nasa.worldwind.util.*;
 
@@ -66,7 +64,7 @@ public class AVListImpl implements AVList
         if (key == null)
         {
             String msg = Messages.getMessage("nullValue.KeyIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -81,7 +79,7 @@ public class AVListImpl implements AVList
         if (key == null)
         {
             String msg = Messages.getMessage("nullValue.KeyIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalStateException(msg);
         }
         try
@@ -91,7 +89,7 @@ public class AVListImpl implements AVList
         catch (ClassCastException e)
         {
             String msg = Messages.getMessage("generic.ValueForKeyIsNotAString", key, this.getValue(key));
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new WWRuntimeException(msg, e);
         }
     }
@@ -101,7 +99,7 @@ public class AVListImpl implements AVList
         if (key == null)
         {
             String msg = Messages.getMessage("nullValue.KeyIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -118,7 +116,7 @@ public class AVListImpl implements AVList
         if (list == null)
         {
             String msg = Messages.getMessage("nullValue.ListIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -141,7 +139,7 @@ public class AVListImpl implements AVList
         if (key == null)
         {
             String msg = Messages.getMessage("nullValue.KeyIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -153,7 +151,7 @@ public class AVListImpl implements AVList
         if (key == null)
         {
             String msg = Messages.getMessage("nullValue.KeyIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -210,14 +208,14 @@ public class AVListImpl implements AVList
         if (propertyName == null)
         {
             String msg = Messages.getMessage("nullValue.PropertyNameIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (listener == null)
         {
             String msg = Messages.getMessage("nullValue.ListenerIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -229,13 +227,13 @@ public class AVListImpl implements AVList
         if (propertyName == null)
         {
             String msg = Messages.getMessage("nullValue.PropertyNameIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
         if (listener == null)
         {
             String msg = Messages.getMessage("nullValue.ListenerIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -247,7 +245,7 @@ public class AVListImpl implements AVList
         if (listener == null)
         {
             String msg = Messages.getMessage("nullValue.ListenerIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -259,7 +257,7 @@ public class AVListImpl implements AVList
         if (listener == null)
         {
             String msg = Messages.getMessage("nullValue.ListenerIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -271,7 +269,7 @@ public class AVListImpl implements AVList
         if (propertyName == null)
         {
             String msg = Messages.getMessage("nullValue.PropertyNameIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -283,7 +281,7 @@ public class AVListImpl implements AVList
         if (event == null)
         {
             String msg = Messages.getMessage("nullValue.EventIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -342,7 +340,7 @@ public class AVListImpl implements AVList
         }
         catch (NumberFormatException e)
         {
-            Log.e("NWW_ANDROID", Messages.getMessage("generic.ConversionError", o));
+            Logging.e("NWW_ANDROID", Messages.getMessage("generic.ConversionError", o));
             return null;
         }
     }
@@ -378,7 +376,7 @@ public class AVListImpl implements AVList
         }
         catch (NumberFormatException e)
         {
-            Log.e("NWW_ANDROID", "Configuration.ConversionError" + v, e);
+            Logging.e("NWW_ANDROID", "Configuration.ConversionError" + v, e);
             return null;
         }
     }
@@ -402,7 +400,7 @@ public class AVListImpl implements AVList
         }
         catch (NumberFormatException e)
         {
-            Log.e("NWW_ANDROID", "Configuration.ConversionError" + v, e);
+            Logging.e("NWW_ANDROID", "Configuration.ConversionError" + v, e);
             return null;
         }
     }
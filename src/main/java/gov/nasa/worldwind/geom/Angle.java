@@ -5,8 +5,7 @@
  */
 package gov.nasa.worldwind.geom;
 
-import android.util.Log;
-
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 
 /**
@@ -77,7 +76,7 @@ public class Angle
         if (angle == null)
         {
             String msg = Messages.getMessage("nullValue.AngleIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -162,7 +161,7 @@ public class Angle
         if (angle == null)
         {
             String msg = Messages.getMessage("nullValue.AngleIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -206,7 +205,7 @@ public class Angle
         if (angle == null)
         {
             String msg = Messages.getMessage("nullValue.AngleIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -218,14 +217,14 @@ public class Angle
         if (lhs == null)
         {
             String msg = Messages.getMessage("nullValue.LhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (rhs == null)
         {
             String msg = Messages.getMessage("nullValue.RhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -247,7 +246,7 @@ public class Angle
         if (angle == null)
         {
             String msg = Messages.getMessage("nullValue.AngleIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -278,7 +277,7 @@ public class Angle
         if (angle == null)
         {
             String msg = Messages.getMessage("nullValue.AngleIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -290,14 +289,14 @@ public class Angle
         if (lhs == null)
         {
             String msg = Messages.getMessage("nullValue.LhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (rhs == null)
         {
             String msg = Messages.getMessage("nullValue.RhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -337,7 +336,7 @@ public class Angle
         if (angle == null)
         {
             String msg = Messages.getMessage("nullValue.AngleIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -359,14 +358,14 @@ public class Angle
         if (lhs == null)
         {
             String msg = Messages.getMessage("nullValue.LhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (rhs == null)
         {
             String msg = Messages.getMessage("nullValue.RhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -17,8 +17,7 @@
  */
 package gov.nasa.worldwind.geom;
 
-import android.util.Log;
-
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 
 /**
@@ -39,13 +38,13 @@ public class LatLon {
 	public LatLon(Angle latitude, Angle longitude) {
 		if (latitude == null) {
 			String msg = Messages.getMessage("nullValue.LatitudeIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (longitude == null) {
 			String msg = Messages.getMessage("nullValue.LongitudeIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -80,13 +79,13 @@ public class LatLon {
 	public static LatLon interpolateGreatCircle(double amount, LatLon lhs, LatLon rhs) {
 		if (lhs == null) {
 			String msg = Messages.getMessage("nullValue.LhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (rhs == null) {
 			String msg = Messages.getMessage("nullValue.RhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -120,13 +119,13 @@ public class LatLon {
 	public static LatLon interpolateRhumb(double amount, LatLon lhs, LatLon rhs) {
 		if (lhs == null) {
 			String msg = Messages.getMessage("nullValue.LhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (rhs == null) {
 			String msg = Messages.getMessage("nullValue.RhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -159,13 +158,13 @@ public class LatLon {
 	public static Angle greatCircleAzimuth(LatLon lhs, LatLon rhs) {
 		if (lhs == null) {
 			String msg = Messages.getMessage("nullValue.LhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (rhs == null) {
 			String msg = Messages.getMessage("nullValue.RhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 		double lat1 = lhs.latitude.radians;
@@ -205,13 +204,13 @@ public class LatLon {
 	public static Angle greatCircleDistance(LatLon lhs, LatLon rhs) {
 		if (lhs == null) {
 			String msg = Messages.getMessage("nullValue.LhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (rhs == null) {
 			String msg = Messages.getMessage("nullValue.RhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -248,19 +247,19 @@ public class LatLon {
 	public static LatLon greatCircleEndPosition(LatLon location, Angle greatCircleAzimuth, Angle pathLength) {
 		if (location == null) {
 			String msg = Messages.getMessage("nullValue.LocationIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (greatCircleAzimuth == null) {
 			String msg = Messages.getMessage("nullValue.AzimuthIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (pathLength == null) {
 			String msg = Messages.getMessage("nullValue.PathLengthIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -285,7 +284,7 @@ public class LatLon {
 	public static boolean locationsCrossDateline(LatLon p1, LatLon p2) {
 		if (p1 == null || p2 == null) {
 			String msg = Messages.getMessage("nullValue.LocationIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -314,13 +313,13 @@ public class LatLon {
 	public static Angle rhumbAzimuth(LatLon lhs, LatLon rhs) {
 		if (lhs == null) {
 			String msg = Messages.getMessage("nullValue.LhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (rhs == null) {
 			String msg = Messages.getMessage("nullValue.RhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -362,13 +361,13 @@ public class LatLon {
 	public static Angle rhumbDistance(LatLon lhs, LatLon rhs) {
 		if (lhs == null) {
 			String msg = Messages.getMessage("nullValue.LhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (rhs == null) {
 			String msg = Messages.getMessage("nullValue.RhsIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -414,19 +413,19 @@ public class LatLon {
 	public static LatLon rhumbEndPosition(LatLon location, Angle rhumbAzimuth, Angle pathLength) {
 		if (location == null) {
 			String msg = Messages.getMessage("nullValue.LocationIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (rhumbAzimuth == null) {
 			String msg = Messages.getMessage("nullValue.AzimuthIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (pathLength == null) {
 			String msg = Messages.getMessage("nullValue.PathLengthIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -463,7 +462,7 @@ public class LatLon {
 	public LatLon set(LatLon location) {
 		if (location == null) {
 			String msg = Messages.getMessage("nullValue.LocationIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
@@ -476,13 +475,13 @@ public class LatLon {
 	public LatLon set(Angle latitude, Angle longitude) {
 		if (latitude == null) {
 			String msg = Messages.getMessage("nullValue.LatitudeIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
 		if (longitude == null) {
 			String msg = Messages.getMessage("nullValue.LongitudeIsNull");
-			Log.e("NWW_ANDROID", msg);
+			Logging.e("NWW_ANDROID", msg);
 			throw new IllegalArgumentException(msg);
 		}
 
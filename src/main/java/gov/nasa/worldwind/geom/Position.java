@@ -4,8 +4,7 @@ All Rights Reserved.
 */
 package gov.nasa.worldwind.geom;
 
-import android.util.Log;
-
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 
 import java.util.*;
@@ -71,14 +70,14 @@ public class Position extends LatLon
         if (lhs == null)
         {
             String msg = Messages.getMessage("nullValue.LhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (rhs == null)
         {
             String msg = Messages.getMessage("nullValue.RhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -110,14 +109,14 @@ public class Position extends LatLon
         if (lhs == null)
         {
             String msg = Messages.getMessage("nullValue.LhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (rhs == null)
         {
             String msg = Messages.getMessage("nullValue.RhsIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -153,21 +152,21 @@ public class Position extends LatLon
         if (oldPosition == null)
         {
             String msg = Messages.getMessage("nullValue.OldPositionIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (newPosition == null)
         {
             String msg = Messages.getMessage("nullValue.NewPositionIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (iterable == null)
         {
             String msg = Messages.getMessage("nullValue.IterableIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -200,7 +199,7 @@ public class Position extends LatLon
         if (position == null)
         {
             String msg = Messages.getMessage("nullValue.PositionIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -215,7 +214,7 @@ public class Position extends LatLon
         if (location == null)
         {
             String msg = Messages.getMessage("nullValue.LocationIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -230,14 +229,14 @@ public class Position extends LatLon
         if (latitude == null)
         {
             String msg = Messages.getMessage("nullValue.LatitudeIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (longitude == null)
         {
             String msg = Messages.getMessage("nullValue.LongitudeIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -7,7 +7,10 @@
 package gov.nasa.worldwind.ogc;
 
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
+import gov.nasa.worldwind.util.xml.XMLElementTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
 import gov.nasa.worldwind.util.xml.XMLParserException;
 import javax.xml.namespace.QName;
@@ -26,6 +29,23 @@ public class OGCAddress extends AbstractXMLEventParser {
 	protected QName POST_CODE;
 	protected QName COUNTRY;
 
+	// Identifiers of the child elements, used to dispatch elements through ELEMENTS.
+	protected static final int ADDRESS_TYPE_ID = 0;
+	protected static final int ADDRESS_ID = 1;
+	protected static final int CITY_ID = 2;
+	protected static final int STATE_OR_PROVINCE_ID = 3;
+	protected static final int POST_CODE_ID = 4;
+	protected static final int COUNTRY_ID = 5;
+
+	/** Dispatch table for the child elements of a ContactAddress element. */
+	protected static final XMLElementTable ELEMENTS = new XMLElementTable()
+		.add("AddressType", ADDRESS_TYPE_ID)
+		.add("Address", ADDRESS_ID)
+		.add("City", CITY_ID)
+		.add("StateOrProvince", STATE_OR_PROVINCE_ID)
+		.add("PostCode", POST_CODE_ID)
+		.add("Country", COUNTRY_ID);
+
 	protected String addressType;
 	protected String address;
 	protected String city;
@@ -39,29 +59,45 @@ public class OGCAddress extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != OGCAddress.class) return super.newInstance();
+
+		return new OGCAddress(this.getNamespaceURI());
+	}
+
 	protected void initialize() {
-		ADDRESS_TYPE = new QName(this.getNamespaceURI(), "AddressType");
-		ADDRESS = new QName(this.getNamespaceURI(), "Address");
-		CITY = new QName(this.getNamespaceURI(), "City");
-		STATE_OR_PROVINCE = new QName(this.getNamespaceURI(), "StateOrProvince");
-		POST_CODE = new QName(this.getNamespaceURI(), "PostCode");
-		COUNTRY = new QName(this.getNamespaceURI(), "Country");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		ADDRESS_TYPE = names.get("AddressType");
+		ADDRESS = names.get("Address");
+		CITY = names.get("City");
+		STATE_OR_PROVINCE = names.get("StateOrProvince");
+		POST_CODE = names.get("PostCode");
+		COUNTRY = names.get("Country");
 	}
 
 	@Override
 	protected void doParseEventContent(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
-		if (ctx.isStartElement(event, ADDRESS_TYPE)) {
-			this.setAddressType(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, ADDRESS)) {
-			this.setAddress(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, CITY)) {
-			this.setCity(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, STATE_OR_PROVINCE)) {
-			this.setStateOrProvince(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, POST_CODE)) {
-			this.setPostCode(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, COUNTRY)) {
-			this.setCountry(ctx.getStringParser().parseString(ctx, event));
+		switch (ELEMENTS.getId(ctx, event, this.getNamespaceURI())) {
+			case ADDRESS_TYPE_ID:
+				this.setAddressType(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case ADDRESS_ID:
+				this.setAddress(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case CITY_ID:
+				this.setCity(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case STATE_OR_PROVINCE_ID:
+				this.setStateOrProvince(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case POST_CODE_ID:
+				this.setPostCode(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case COUNTRY_ID:
+				this.setCountry(ctx.getStringParser().parseString(ctx, event));
+				break;
 		}
 	}
 
@@ -6,16 +6,12 @@
 
 package gov.nasa.worldwind.ogc;
 
-import android.util.Log;
-
-import gov.nasa.worldwind.avlist.AVList;
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
-import gov.nasa.worldwind.util.WWUtil;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
-import java.util.Map.Entry;
-import java.util.Set;
 
 /**
  * Parses an OGC BoundingBox element.
@@ -45,7 +41,7 @@ public class OGCBoundingBox extends AbstractXMLEventParser {
 			bbox.resy = resy != null && !resy.equals("") ? Double.parseDouble(resy) : 0;
 		} catch (NumberFormatException e) {
 			String message = Messages.getMessage("XML.ImproperDataType");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw e;
 		}
 
@@ -56,34 +52,40 @@ public class OGCBoundingBox extends AbstractXMLEventParser {
 		super(namespaceURI);
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != OGCBoundingBox.class) return super.newInstance();
+
+		return new OGCBoundingBox(this.getNamespaceURI());
+	}
+
 	@Override
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
 		// Iterator iter = event.asStartElement().getAttributes();
 		// if (iter == null) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (entry.getKey().equals("CRS") && entry.getValue() != null) {
-				String s = entry.getValue().toString();
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			String name = event.getAttributeName(i);
+			String value = event.getAttributeValue(i);
+			if (name.equals("CRS")) {
+				String s = value;
 				if (s != null) this.setCRS(s);
-			} else if (entry.getKey().equals("minx") && entry.getValue() != null) {
-				Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+			} else if (name.equals("minx")) {
+				Double d = this.parseDoubleAttribute(ctx, event, i);
 				if (d != null) this.setMinx(d);
-			} else if (entry.getKey().equals("miny") && entry.getValue() != null) {
-				Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+			} else if (name.equals("miny")) {
+				Double d = this.parseDoubleAttribute(ctx, event, i);
 				if (d != null) this.setMiny(d);
-			} else if (entry.getKey().equals("maxx") && entry.getValue() != null) {
-				Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+			} else if (name.equals("maxx")) {
+				Double d = this.parseDoubleAttribute(ctx, event, i);
 				if (d != null) this.setMaxx(d);
-			} else if (entry.getKey().equals("maxy") && entry.getValue() != null) {
-				Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+			} else if (name.equals("maxy")) {
+				Double d = this.parseDoubleAttribute(ctx, event, i);
 				if (d != null) this.setMaxy(d);
-			} else if (entry.getKey().equals("resx") && entry.getValue() != null) {
-				Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+			} else if (name.equals("resx")) {
+				Double d = this.parseDoubleAttribute(ctx, event, i);
 				if (d != null) this.setResx(d);
-			} else if (entry.getKey().equals("resy") && entry.getValue() != null) {
-				Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+			} else if (name.equals("resy")) {
+				Double d = this.parseDoubleAttribute(ctx, event, i);
 				if (d != null) this.setResy(d);
 			}
 		}
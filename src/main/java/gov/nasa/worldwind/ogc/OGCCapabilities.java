@@ -18,20 +18,20 @@
 
 package gov.nasa.worldwind.ogc;
 
-import android.util.Log;
-
-import gov.nasa.worldwind.avlist.AVList;
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 import gov.nasa.worldwind.util.WWXML;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
 import gov.nasa.worldwind.util.xml.BasicXMLEventParserContext;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
+import gov.nasa.worldwind.util.xml.XMLEventParserContextPool;
+import gov.nasa.worldwind.util.xml.XMLEventParserFactory;
 import gov.nasa.worldwind.util.xml.XMLEventReader;
+import gov.nasa.worldwind.util.xml.XMLParserDiagnostics;
 import gov.nasa.worldwind.util.xml.XMLParserException;
-import java.util.Map.Entry;
-import java.util.Set;
 import javax.xml.namespace.QName;
 
 /**
@@ -64,6 +64,9 @@ abstract public class OGCCapabilities extends AbstractXMLEventParser {
 	protected XMLEventReader eventReader;
 	protected XMLEventParserContext parserContext;
 
+	/** Reusable parser contexts for capabilities documents. Contexts return here from {@link #releaseParserContext()}. */
+	protected static final XMLEventParserContextPool parserContextPool = new XMLEventParserContextPool(new BasicXMLEventParserContext());
+
 	/**
 	 * Determines whether a specified element name is the root element name of the schema.
 	 * 
@@ -93,31 +96,60 @@ abstract public class OGCCapabilities extends AbstractXMLEventParser {
 	private void initialize() {
 		this.parserContext = this.createParserContext(this.eventReader);
 
-		SERVICE = new QName(this.getNamespaceURI(), "Service");
-		CAPABILITY = new QName(this.getNamespaceURI(), "Capability");
-		VERSION = new QName(this.getNamespaceURI(), "version");
-		UPDATE_SEQUENCE = new QName(this.getNamespaceURI(), "updateSequence");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
 
-		this.getParserContext().registerParser(SERVICE, new OGCServiceInformation(this.getNamespaceURI()));
+		SERVICE = names.get("Service");
+		CAPABILITY = names.get("Capability");
+		VERSION = names.get("version");
+		UPDATE_SEQUENCE = names.get("updateSequence");
+
+		final String namespaceURI = this.getNamespaceURI();
+		this.getParserContext().registerParserFactory(SERVICE, new XMLEventParserFactory() {
+			public XMLEventParser createParser() {
+				return new OGCServiceInformation(namespaceURI);
+			}
+		});
 		// Capability parser is registered by subclass.
 	}
 
+	/**
+	 * Opens the event reader for the document. The built-in capabilities parsers detect element ends by depth and do
+	 * not keep events past the next read, so the reader is configured to reuse a single flyweight event for all
+	 * tokens. Subclasses whose parsers keep events should either keep {@link XMLEvent#copy()} or override this method.
+	 * 
+	 * @param docSource
+	 *            the XML source.
+	 * @return the event reader for the document.
+	 */
 	protected XMLEventReader createReader(Object docSource) {
-		return WWXML.openEventReader(docSource);
+		XMLEventReader reader = WWXML.openEventReader(docSource);
+		if (reader != null) reader.setReuseEvents(true);
+
+		return reader;
 	}
 
 	protected XMLEventParserContext createParserContext(XMLEventReader reader) {
-		this.parserContext = new BasicXMLEventParserContext(reader);
-		this.parserContext.setDefaultNamespaceURI(this.getDefaultNamespaceURI());
+		this.parserContext = parserContextPool.acquire(reader, this.getDefaultNamespaceURI());
 
 		return this.parserContext;
 	}
 
+	/**
+	 * Returns the parser context to a pool, to be reused for a later document. Call once the document has been parsed;
+	 * the document cannot be parsed again afterwards. The parsed capabilities remain valid.
+	 */
+	public void releaseParserContext() {
+		if (this.parserContext instanceof BasicXMLEventParserContext) parserContextPool.release((BasicXMLEventParserContext) this.parserContext);
+
+		this.parserContext = null;
+	}
+
 	/** {@inheritDoc} */
 	public XMLEventParser allocate(XMLEventParserContext ctx, XMLEvent event) {
 		if (ctx == null) {
 			String message = Messages.getMessage("nullValue.ParserContextIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -140,12 +172,23 @@ abstract public class OGCCapabilities extends AbstractXMLEventParser {
 	 */
 	public OGCCapabilities parse(Object... args) throws XMLParserException {
 		XMLEventParserContext ctx = this.parserContext;
+		if (ctx == null) {
+			String message = Messages.getMessage("nullValue.ParserContextIsNull");
+			Logging.e("NWW_ANDROID", message);
+			throw new IllegalStateException(message);
+		}
 
 		for (XMLEvent event = ctx.nextEvent(); null != event; event = ctx.nextEvent()) {
 			// old code... if (event == null) continue;
 
 			if (event.isStartElement() && this.isRootElementName(event.getName())) {
 				super.parse(ctx, event, args);
+
+				// Log the document's notifications once, aggregated, instead of once per notification. The report is
+				// built only if warnings are logged.
+				XMLParserDiagnostics diagnostics = ctx.getDiagnostics();
+				if (!diagnostics.isEmpty()) Logging.w("NWW_ANDROID", diagnostics);
+
 				return this;
 			}
 		}
@@ -171,12 +214,11 @@ abstract public class OGCCapabilities extends AbstractXMLEventParser {
 
 	@Override
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (ctx.isSameAttributeName(new QName(entry.getKey()), VERSION)) this.setVersion(entry.getValue().toString());
-			else if (ctx.isSameAttributeName(new QName(entry.getKey()), UPDATE_SEQUENCE)) this.setUpdateSequence(entry.getValue().toString());
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			QName name = event.getAttributeQName(i);
+			String value = event.getAttributeValue(i);
+			if (ctx.isSameAttributeName(name, VERSION)) this.setVersion(value);
+			else if (ctx.isSameAttributeName(name, UPDATE_SEQUENCE)) this.setUpdateSequence(value);
 		}
 
 		// Iterator iter = event.asStartElement().getAttributes();
@@ -18,8 +18,8 @@
 
 package gov.nasa.worldwind.ogc;
 
-import gov.nasa.worldwind.avlist.AVList;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.StringSetXMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
@@ -47,6 +47,7 @@ abstract public class OGCCapabilityInformation extends AbstractXMLEventParser {
 	protected QName EXCEPTION;
 	protected QName FORMAT;
 	protected QName EXTENDED_CAPABILITIES;
+	protected QName VENDOR_SPECIFIC_CAPABILITIES;
 	protected QName USER_DEFINED_SYMBOLIZATION;
 
 	protected Set<String> exceptionFormats = new HashSet<String>();
@@ -60,11 +61,14 @@ abstract public class OGCCapabilityInformation extends AbstractXMLEventParser {
 	}
 
 	private void initialize() {
-		REQUEST = new QName(this.getNamespaceURI(), "Request");
-		EXCEPTION = new QName(this.getNamespaceURI(), "Exception");
-		FORMAT = new QName(this.getNamespaceURI(), "Format");
-		EXTENDED_CAPABILITIES = new QName(this.getNamespaceURI(), "ExtendedCapabilities");
-		USER_DEFINED_SYMBOLIZATION = new QName(this.getNamespaceURI(), "UserDefinedSymbolization");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		REQUEST = names.get("Request");
+		EXCEPTION = names.get("Exception");
+		FORMAT = names.get("Format");
+		EXTENDED_CAPABILITIES = names.get("ExtendedCapabilities");
+		VENDOR_SPECIFIC_CAPABILITIES = names.get("VendorSpecificCapabilities");
+		USER_DEFINED_SYMBOLIZATION = names.get("UserDefinedSymbolization");
 	}
 
 	@Override
@@ -98,6 +102,11 @@ abstract public class OGCCapabilityInformation extends AbstractXMLEventParser {
 		} else if (ctx.isStartElement(event, EXTENDED_CAPABILITIES)) {
 			// Break out the parsing so that it can be overridden by subclasses.
 			this.parseExtendedCapabilities(ctx, event, args);
+		} else if (ctx.isStartElement(event, VENDOR_SPECIFIC_CAPABILITIES)) {
+			ctx.skipElement(event);
+		} else if (event.isStartElement() && this.isForeignElement(ctx, event)) {
+			// Extensions in other namespaces, such as INSPIRE extended capabilities, are not interpreted.
+			ctx.skipElement(event);
 		}
 	}
 
@@ -106,21 +115,38 @@ abstract public class OGCCapabilityInformation extends AbstractXMLEventParser {
 		if (parser != null) {
 			Object o = parser.parse(ctx, event, args);
 			if (o != null) this.setExtendedCapabilities(o);
+		} else {
+			ctx.skipElement(event);
 		}
 	}
 
+	/**
+	 * Indicates whether an element is outside this parser's namespace, taking the context's default namespace into
+	 * account.
+	 * 
+	 * @param ctx
+	 *            the parser context.
+	 * @param event
+	 *            the start element to test.
+	 * @return true if the element is in another namespace, otherwise false.
+	 */
+	protected boolean isForeignElement(XMLEventParserContext ctx, XMLEvent event) {
+		QName name = event.getName();
+
+		// Look the name up without adding it; the local part comes from the document.
+		QName ownName = QNameTable.lookup(this.getNamespaceURI(), name.getLocalPart());
+		if (ownName == null) ownName = new QName(this.getNamespaceURI(), name.getLocalPart());
+
+		return !ctx.isSameName(name, ownName);
+	}
+
 	protected void setExtendedCapabilities(Object extendedCapabilities) {
 		// Override in subclass to handle extended capabilities.
 	}
 
 	protected void parseUserDefinedSymbolization(XMLEvent event) throws XMLParserException {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
-
-		// get attribute entries
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			this.addUserDefinedSymbolization(entry.getKey(), entry.getValue().toString());
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			this.addUserDefinedSymbolization(event.getAttributeName(i), event.getAttributeValue(i));
 		}
 		// Iterator iter = event.asStartElement().getAttributes();
 		// if (iter == null) return;
@@ -7,6 +7,8 @@
 package gov.nasa.worldwind.ogc;
 
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
+import gov.nasa.worldwind.util.xml.XMLElementTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
@@ -29,6 +31,23 @@ public class OGCContactInformation extends AbstractXMLEventParser {
 	protected QName CONTACT_PERSON;
 	protected QName CONTACT_ORGANIZATION;
 
+	// Identifiers of the child elements, used to dispatch elements through ELEMENTS.
+	protected static final int CONTACT_POSITION_ID = 0;
+	protected static final int CONTACT_VOICE_TELEPHONE_ID = 1;
+	protected static final int CONTACT_FACSIMILE_TELEPHONE_ID = 2;
+	protected static final int CONTACT_ELECTRONIC_MAIL_ADDRESS_ID = 3;
+	protected static final int CONTACT_PERSON_PRIMARY_ID = 4;
+	protected static final int CONTACT_ADDRESS_ID = 5;
+
+	/** Dispatch table for the child elements of a ContactInformation element. */
+	protected static final XMLElementTable ELEMENTS = new XMLElementTable()
+		.add("ContactPosition", CONTACT_POSITION_ID)
+		.add("ContactVoiceTelephone", CONTACT_VOICE_TELEPHONE_ID)
+		.add("ContactFacsimileTelephone", CONTACT_FACSIMILE_TELEPHONE_ID)
+		.add("ContactElectronicMailAddress", CONTACT_ELECTRONIC_MAIL_ADDRESS_ID)
+		.add("ContactPersonPrimary", CONTACT_PERSON_PRIMARY_ID)
+		.add("ContactAddress", CONTACT_ADDRESS_ID);
+
 	protected String personPrimary;
 	protected String organization;
 	protected String position;
@@ -43,15 +62,24 @@ public class OGCContactInformation extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != OGCContactInformation.class) return super.newInstance();
+
+		return new OGCContactInformation(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		CONTACT_POSITION = new QName(this.getNamespaceURI(), "ContactPosition");
-		CONTACT_VOICE_TELEPHONE = new QName(this.getNamespaceURI(), "ContactVoiceTelephone");
-		CONTACT_FACSIMILE_TELEPHONE = new QName(this.getNamespaceURI(), "ContactFacsimileTelephone");
-		CONTACT_ELECTRONIC_MAIL_ADDRESS = new QName(this.getNamespaceURI(), "ContactElectronicMailAddress");
-		CONTACT_PERSON_PRIMARY = new QName(this.getNamespaceURI(), "ContactPersonPrimary");
-		CONTACT_ADDRESS = new QName(this.getNamespaceURI(), "ContactAddress");
-		CONTACT_PERSON = new QName(this.getNamespaceURI(), "ContactPerson");
-		CONTACT_ORGANIZATION = new QName(this.getNamespaceURI(), "ContactOrganization");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		CONTACT_POSITION = names.get("ContactPosition");
+		CONTACT_VOICE_TELEPHONE = names.get("ContactVoiceTelephone");
+		CONTACT_FACSIMILE_TELEPHONE = names.get("ContactFacsimileTelephone");
+		CONTACT_ELECTRONIC_MAIL_ADDRESS = names.get("ContactElectronicMailAddress");
+		CONTACT_PERSON_PRIMARY = names.get("ContactPersonPrimary");
+		CONTACT_ADDRESS = names.get("ContactAddress");
+		CONTACT_PERSON = names.get("ContactPerson");
+		CONTACT_ORGANIZATION = names.get("ContactOrganization");
 	}
 
 	@Override
@@ -65,23 +93,32 @@ public class OGCContactInformation extends AbstractXMLEventParser {
 
 	@Override
 	protected void doParseEventContent(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
-		if (ctx.isStartElement(event, CONTACT_POSITION)) {
-			this.setPosition(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, CONTACT_VOICE_TELEPHONE)) {
-			this.setVoiceTelephone(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, CONTACT_FACSIMILE_TELEPHONE)) {
-			this.setFacsimileTelephone(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, CONTACT_ELECTRONIC_MAIL_ADDRESS)) {
-			this.setElectronicMailAddress(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, CONTACT_PERSON_PRIMARY)) {
-			String[] sa = this.parseContactPersonPrimary(ctx, event);
-			this.setPersonPrimary(sa[0]);
-			this.setOrganization(sa[1]);
-		} else if (ctx.isStartElement(event, CONTACT_ADDRESS)) {
-			XMLEventParser parser = this.allocate(ctx, event);
-			if (parser != null) {
-				Object o = parser.parse(ctx, event, args);
-				if (o != null && o instanceof OGCAddress) this.setContactAddress((OGCAddress) o);
+		switch (ELEMENTS.getId(ctx, event, this.getNamespaceURI())) {
+			case CONTACT_POSITION_ID:
+				this.setPosition(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case CONTACT_VOICE_TELEPHONE_ID:
+				this.setVoiceTelephone(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case CONTACT_FACSIMILE_TELEPHONE_ID:
+				this.setFacsimileTelephone(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case CONTACT_ELECTRONIC_MAIL_ADDRESS_ID:
+				this.setElectronicMailAddress(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case CONTACT_PERSON_PRIMARY_ID: {
+				String[] sa = this.parseContactPersonPrimary(ctx, event);
+				this.setPersonPrimary(sa[0]);
+				this.setOrganization(sa[1]);
+				break;
+			}
+			case CONTACT_ADDRESS_ID: {
+				XMLEventParser parser = this.allocate(ctx, event);
+				if (parser != null) {
+					Object o = parser.parse(ctx, event, args);
+					if (o != null && o instanceof OGCAddress) this.setContactAddress((OGCAddress) o);
+				}
+				break;
 			}
 		}
 	}
@@ -89,8 +126,10 @@ public class OGCContactInformation extends AbstractXMLEventParser {
 	protected String[] parseContactPersonPrimary(XMLEventParserContext ctx, XMLEvent cppEvent) throws XMLParserException {
 		String[] items = new String[2];
 
+		int depth = cppEvent.getDepth();
+
 		for (XMLEvent event = ctx.nextEvent(); event != null; event = ctx.nextEvent()) {
-			if (ctx.isEndElement(event, cppEvent)) return items;
+			if (ctx.isEndElement(event, depth)) return items;
 
 			if (ctx.isStartElement(event, CONTACT_PERSON)) {
 				items[0] = ctx.getStringParser().parseString(ctx, event);
@@ -7,6 +7,7 @@
 package gov.nasa.worldwind.ogc;
 
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
@@ -45,6 +46,13 @@ public class OGCDCType extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != OGCDCType.class) return super.newInstance();
+
+		return new OGCDCType(this.getNamespaceURI());
+	}
+
 	@Override
 	public XMLEventParser allocate(XMLEventParserContext ctx, XMLEvent event) {
 		XMLEventParser defaultParser = null;
@@ -55,10 +63,12 @@ public class OGCDCType extends AbstractXMLEventParser {
 	}
 
 	private void initialize() {
-		GET = new QName(this.getNamespaceURI(), "Get");
-		POST = new QName(this.getNamespaceURI(), "Post");
-		HTTP = new QName(this.getNamespaceURI(), "HTTP");
-		ONLINE_RESOURCE = new QName(this.getNamespaceURI(), "OnlineResource");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		GET = names.get("Get");
+		POST = names.get("Post");
+		HTTP = names.get("HTTP");
+		ONLINE_RESOURCE = names.get("OnlineResource");
 	}
 
 	@Override
@@ -6,13 +6,12 @@
 
 package gov.nasa.worldwind.ogc;
 
-import gov.nasa.worldwind.avlist.AVList;
 import gov.nasa.worldwind.util.WWXML;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
-import java.util.Map.Entry;
-import java.util.Set;
 import javax.xml.namespace.QName;
 
 /**
@@ -34,19 +33,27 @@ public class OGCOnlineResource extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != OGCOnlineResource.class) return super.newInstance();
+
+		return new OGCOnlineResource(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		HREF = new QName(WWXML.XLINK_URI, "href");
-		TYPE = new QName(WWXML.XLINK_URI, "type");
+		QNameTable names = QNameTable.forNamespace(WWXML.XLINK_URI);
+
+		HREF = names.get("href");
+		TYPE = names.get("type");
 	}
 
 	@Override
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (ctx.isSameAttributeName(new QName(entry.getKey()), HREF)) this.setHref(entry.getValue().toString());
-			else if (ctx.isSameAttributeName(new QName(entry.getKey()), TYPE)) this.setType(entry.getValue().toString());
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			QName name = event.getAttributeQName(i);
+			String value = event.getAttributeValue(i);
+			if (ctx.isSameAttributeName(name, HREF)) this.setHref(value);
+			else if (ctx.isSameAttributeName(name, TYPE)) this.setType(value);
 		}
 
 		// FIXME tryed to bring this class to Android, XMLEvent is no long part of Java Default Classpath, it uses pull parser
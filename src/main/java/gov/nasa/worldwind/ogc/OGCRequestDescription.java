@@ -8,6 +8,7 @@ package gov.nasa.worldwind.ogc;
 
 import gov.nasa.worldwind.util.WWUtil;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
@@ -37,9 +38,18 @@ public class OGCRequestDescription extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != OGCRequestDescription.class) return super.newInstance();
+
+		return new OGCRequestDescription(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		FORMAT = new QName(this.getNamespaceURI(), "Format");
-		DCPTYPE = new QName(this.getNamespaceURI(), "DCPType");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		FORMAT = names.get("Format");
+		DCPTYPE = names.get("DCPType");
 	}
 
 	@Override
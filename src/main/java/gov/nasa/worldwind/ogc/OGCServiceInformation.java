@@ -7,7 +7,9 @@
 package gov.nasa.worldwind.ogc;
 
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.StringSetXMLEventParser;
+import gov.nasa.worldwind.util.xml.XMLElementTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
@@ -33,6 +35,27 @@ public class OGCServiceInformation extends AbstractXMLEventParser {
 	protected QName ONLINE_RESOURCE;
 	protected QName CONTACT_INFORMATION;
 
+	// Identifiers of the child elements, used to dispatch elements through ELEMENTS.
+	protected static final int NAME_ID = 0;
+	protected static final int TITLE_ID = 1;
+	protected static final int ABSTRACT_ID = 2;
+	protected static final int FEES_ID = 3;
+	protected static final int ACCESS_CONSTRAINTS_ID = 4;
+	protected static final int KEYWORD_LIST_ID = 5;
+	protected static final int ONLINE_RESOURCE_ID = 6;
+	protected static final int CONTACT_INFORMATION_ID = 7;
+
+	/** Dispatch table for the child elements of a Service element. */
+	protected static final XMLElementTable ELEMENTS = new XMLElementTable()
+		.add("Name", NAME_ID)
+		.add("Title", TITLE_ID)
+		.add("Abstract", ABSTRACT_ID)
+		.add("Fees", FEES_ID)
+		.add("AccessConstraints", ACCESS_CONSTRAINTS_ID)
+		.add("KeywordList", KEYWORD_LIST_ID)
+		.add("OnlineResource", ONLINE_RESOURCE_ID)
+		.add("ContactInformation", CONTACT_INFORMATION_ID);
+
 	protected String serviceName;
 	protected String serviceTitle;
 	protected String serviceAbstract;
@@ -48,59 +71,87 @@ public class OGCServiceInformation extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != OGCServiceInformation.class) return super.newInstance();
+
+		return new OGCServiceInformation(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		NAME = new QName(this.getNamespaceURI(), "Name");
-		TITLE = new QName(this.getNamespaceURI(), "Title");
-		ABSTRACT = new QName(this.getNamespaceURI(), "Abstract");
-		FEES = new QName(this.getNamespaceURI(), "Fees");
-		ACCESS_CONSTRAINTS = new QName(this.getNamespaceURI(), "AccessConstraints");
-		KEYWORD_LIST = new QName(this.getNamespaceURI(), "KeywordList");
-		KEYWORD = new QName(this.getNamespaceURI(), "Keyword");
-		ONLINE_RESOURCE = new QName(this.getNamespaceURI(), "OnlineResource");
-		CONTACT_INFORMATION = new QName(this.getNamespaceURI(), "ContactInformation");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		NAME = names.get("Name");
+		TITLE = names.get("Title");
+		ABSTRACT = names.get("Abstract");
+		FEES = names.get("Fees");
+		ACCESS_CONSTRAINTS = names.get("AccessConstraints");
+		KEYWORD_LIST = names.get("KeywordList");
+		KEYWORD = names.get("Keyword");
+		ONLINE_RESOURCE = names.get("OnlineResource");
+		CONTACT_INFORMATION = names.get("ContactInformation");
 	}
 
 	@Override
 	public XMLEventParser allocate(XMLEventParserContext ctx, XMLEvent event) {
 		XMLEventParser defaultParser = null;
 
-		if (ctx.isStartElement(event, ONLINE_RESOURCE)) {
-			defaultParser = new OGCOnlineResource(this.getNamespaceURI());
-		} else if (ctx.isStartElement(event, CONTACT_INFORMATION)) defaultParser = new OGCContactInformation(this.getNamespaceURI());
-		else if (ctx.isStartElement(event, KEYWORD_LIST)) defaultParser = new StringSetXMLEventParser(this.getNamespaceURI(), KEYWORD);
+		switch (ELEMENTS.getId(ctx, event, this.getNamespaceURI())) {
+			case ONLINE_RESOURCE_ID:
+				defaultParser = new OGCOnlineResource(this.getNamespaceURI());
+				break;
+			case CONTACT_INFORMATION_ID:
+				defaultParser = new OGCContactInformation(this.getNamespaceURI());
+				break;
+			case KEYWORD_LIST_ID:
+				defaultParser = new StringSetXMLEventParser(this.getNamespaceURI(), KEYWORD);
+				break;
+		}
 
 		return ctx.allocate(event, defaultParser);
 	}
 
 	@Override
 	protected void doParseEventContent(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
-		if (ctx.isStartElement(event, NAME)) {
-			this.setServiceName(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, TITLE)) {
-			this.setServiceTitle(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, ABSTRACT)) {
-			this.setServiceAbstract(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, FEES)) {
-			this.setFees(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, ACCESS_CONSTRAINTS)) {
-			this.setAccessConstraints(ctx.getStringParser().parseString(ctx, event));
-		} else if (ctx.isStartElement(event, KEYWORD_LIST)) {
-			XMLEventParser parser = this.allocate(ctx, event);
-			if (parser != null) {
-				Object o = parser.parse(ctx, event, args);
-				if (o != null && o instanceof StringSetXMLEventParser) this.setKeywords(((StringSetXMLEventParser) o).getStrings());
+		switch (ELEMENTS.getId(ctx, event, this.getNamespaceURI())) {
+			case NAME_ID:
+				this.setServiceName(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case TITLE_ID:
+				this.setServiceTitle(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case ABSTRACT_ID:
+				this.setServiceAbstract(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case FEES_ID:
+				this.setFees(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case ACCESS_CONSTRAINTS_ID:
+				this.setAccessConstraints(ctx.getStringParser().parseString(ctx, event));
+				break;
+			case KEYWORD_LIST_ID: {
+				XMLEventParser parser = this.allocate(ctx, event);
+				if (parser != null) {
+					Object o = parser.parse(ctx, event, args);
+					if (o != null && o instanceof StringSetXMLEventParser) this.setKeywords(((StringSetXMLEventParser) o).getStrings());
+				}
+				break;
 			}
-		} else if (ctx.isStartElement(event, ONLINE_RESOURCE)) {
-			XMLEventParser parser = this.allocate(ctx, event);
-			if (parser != null) {
-				Object o = parser.parse(ctx, event, args);
-				if (o != null && o instanceof OGCOnlineResource) this.setOnlineResource((OGCOnlineResource) o);
+			case ONLINE_RESOURCE_ID: {
+				XMLEventParser parser = this.allocate(ctx, event);
+				if (parser != null) {
+					Object o = parser.parse(ctx, event, args);
+					if (o != null && o instanceof OGCOnlineResource) this.setOnlineResource((OGCOnlineResource) o);
+				}
+				break;
 			}
-		} else if (ctx.isStartElement(event, CONTACT_INFORMATION)) {
-			XMLEventParser parser = this.allocate(ctx, event);
-			if (parser != null) {
-				Object o = parser.parse(ctx, event, args);
-				if (o != null && o instanceof OGCContactInformation) this.setContactInformation((OGCContactInformation) o);
+			case CONTACT_INFORMATION_ID: {
+				XMLEventParser parser = this.allocate(ctx, event);
+				if (parser != null) {
+					Object o = parser.parse(ctx, event, args);
+					if (o != null && o instanceof OGCContactInformation) this.setContactInformation((OGCContactInformation) o);
+				}
+				break;
 			}
 		}
 	}
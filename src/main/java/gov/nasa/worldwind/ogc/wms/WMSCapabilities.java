@@ -18,17 +18,19 @@
 
 package gov.nasa.worldwind.ogc.wms;
 
-import android.util.Log;
-
+import gov.nasa.worldwind.avlist.AVKey;
 import gov.nasa.worldwind.ogc.OGCCapabilities;
 import gov.nasa.worldwind.ogc.OGCConstants;
 import gov.nasa.worldwind.ogc.OGCOnlineResource;
 import gov.nasa.worldwind.ogc.OGCRequestDescription;
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 import gov.nasa.worldwind.util.WWUtil;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
+import gov.nasa.worldwind.util.xml.XMLEventParserFactory;
 import gov.nasa.worldwind.util.xml.XMLParserException;
 import gov.nasa.worldwind.wms.CapabilitiesRequest;
 
@@ -36,8 +38,12 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.xml.namespace.QName;
 
@@ -49,6 +55,10 @@ public class WMSCapabilities extends OGCCapabilities {
     protected static final QName ROOT_ELEMENT_NAME_1_1_1 = new QName("WMT_MS_Capabilities");
     protected static final QName ROOT_ELEMENT_NAME_1_3_0 = new QName("WMS_Capabilities");
 
+    protected WMSParseProfile parseProfile;
+    /** The named layers by name. Built when a layer is first looked up once the document has been parsed. */
+    protected volatile Map<String, WMSLayerCapabilities> layersByName;
+
     public static WMSCapabilities retrieve(URI uri) throws Exception {
         try {
             CapabilitiesRequest request = new CapabilitiesRequest(uri);
@@ -63,19 +73,18 @@ public class WMSCapabilities extends OGCCapabilities {
         return null;
     }
 
-//	/**
-//	 * Parses a WMS capabilities document.
-//	 *
-//	 * @param docSource
-//	 *            the XML source. May be a filename, file, stream or other type allowed by {@link gov.nasa.worldwind.util.WWXML#openEventReader(Object)}.
-//	 * @throws IllegalArgumentException
-//	 *             if the document source is null.
-//	 */
-//	public WMSCapabilities(Object docSource) {
-//		super(OGCConstants.WMS_NAMESPACE_URI, docSource);
-//
-//		this.initialize();
-//	}
+    /**
+     * Parses a WMS capabilities document.
+     *
+     * @param docSource the XML source. May be a filename, file, stream, byte buffer or other type allowed by {@link
+     *                  gov.nasa.worldwind.util.WWXML#openEventReader(Object)}. Files are memory-mapped.
+     * @throws IllegalArgumentException if the document source is null.
+     */
+    public WMSCapabilities(Object docSource) {
+        super(OGCConstants.WMS_NAMESPACE_URI, docSource);
+
+        this.initialize();
+    }
 
     public WMSCapabilities(CapabilitiesRequest docSource) throws URISyntaxException, MalformedURLException {
         super(OGCConstants.WMS_NAMESPACE_URI, docSource.getUri().toURL());
@@ -84,8 +93,18 @@ public class WMSCapabilities extends OGCCapabilities {
     }
 
     private void initialize() {
-        this.getParserContext().registerParser(new QName(this.getDefaultNamespaceURI(), "Service"), new WMSServiceInformation(this.getNamespaceURI()));
-        this.getParserContext().registerParser(new QName(this.getDefaultNamespaceURI(), "Capability"), new WMSCapabilityInformation(this.getNamespaceURI()));
+        final String namespaceURI = this.getNamespaceURI();
+
+        this.getParserContext().registerParserFactory(QNameTable.forNamespace(this.getDefaultNamespaceURI()).get("Service"), new XMLEventParserFactory() {
+            public XMLEventParser createParser() {
+                return new WMSServiceInformation(namespaceURI);
+            }
+        });
+        this.getParserContext().registerParserFactory(QNameTable.forNamespace(this.getDefaultNamespaceURI()).get("Capability"), new XMLEventParserFactory() {
+            public XMLEventParser createParser() {
+                return new WMSCapabilityInformation(namespaceURI);
+            }
+        });
     }
 
     @Override
@@ -105,36 +124,190 @@ public class WMSCapabilities extends OGCCapabilities {
 
     @Override
     public WMSCapabilities parse(Object... args) throws XMLParserException {
-        return (WMSCapabilities) super.parse(args);
+        this.layersByName = null;
+        try {
+            return (WMSCapabilities) super.parse(args);
+        } finally {
+            // Drop an index built by a layer listener from the layers parsed so far.
+            this.layersByName = null;
+        }
+    }
+
+    /**
+     * Parses the capabilities document, reading only the parts of the document declared by a parse profile. Elements
+     * outside the profile are skipped without being parsed, and the corresponding properties remain null.
+     *
+     * @param profile the parts of the document to parse. {@link WMSParseProfile#FULL} parses the complete document,
+     *                like {@link #parse(Object...)}.
+     * @param args    optional arguments to pass to parsers of sub-elements.
+     *
+     * @return <code>this</code> if parsing is successful, otherwise null.
+     *
+     * @throws IllegalArgumentException if the profile is null.
+     * @throws XMLParserException       if an exception occurs while attempting to read the event stream.
+     */
+    public WMSCapabilities parse(WMSParseProfile profile, Object... args) throws XMLParserException {
+        if (profile == null) {
+            String message = Messages.getMessage("nullValue.ProfileIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.getParserContext().setValue(AVKey.PARSE_PROFILE, profile);
+        this.parseProfile = profile;
+
+        return this.parse(args);
+    }
+
+    /**
+     * Returns the parse profile the document was parsed with.
+     *
+     * @return the parse profile, {@link WMSParseProfile#FULL} if the document was parsed without one.
+     */
+    public WMSParseProfile getParseProfile() {
+        return this.parseProfile != null ? this.parseProfile : WMSParseProfile.FULL;
+    }
+
+    /**
+     * Specifies a listener to receive each layer as soon as its element has been parsed, before the rest of the
+     * document is read. Must be called before {@link #parse(Object...)}.
+     *
+     * @param listener the listener. May be null, in which case no listener is called.
+     */
+    public void setLayerListener(WMSLayerCapabilitiesListener listener) {
+        this.getParserContext().setValue(AVKey.LAYER_LISTENER, listener);
+    }
+
+    /**
+     * Specifies a fork-join pool on which to parse the document's layers concurrently. The nested layers of the
+     * top-level layers are parsed by tasks on the pool while the rest of the document is read, and the parsed document
+     * is the same as when it is parsed sequentially. A layer listener is still called on the parsing thread, with the
+     * layers in the same order as in a sequential parse. Must be called before {@link #parse(Object...)}.
+     * <p/>
+     * Layers are parsed concurrently only when the document is read with the {@link
+     * gov.nasa.worldwind.util.xml.XMLEventReaderFactory.Backend#UTF8_TOKENIZER} backend; other documents are parsed
+     * sequentially. See {@link WMSParallelLayerParser}.
+     *
+     * @param pool the pool. May be null, in which case the document is parsed sequentially.
+     */
+    public void setParsePool(ForkJoinPool pool) {
+        this.getParserContext().setValue(AVKey.PARALLEL_LAYER_PARSER, pool != null ? new WMSParallelLayerParser(pool) : null);
+    }
+
+    public WMSLayerCapabilitiesListener getLayerListener() {
+        return getLayerListener(this.getParserContext());
     }
 
     /**
-     * Returns all named layers in the capabilities document.
+     * Returns the layer listener registered with a parser context.
      *
-     * @return an unordered list of the document's named layers.
+     * @param ctx the parser context. May be null.
+     *
+     * @return the context's layer listener, or null if the context has none.
+     */
+    public static WMSLayerCapabilitiesListener getLayerListener(XMLEventParserContext ctx) {
+        Object o = ctx != null ? ctx.getValue(AVKey.LAYER_LISTENER) : null;
+
+        return o instanceof WMSLayerCapabilitiesListener ? (WMSLayerCapabilitiesListener) o : null;
+    }
+
+    @Override
+    protected void doParseEventContent(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
+        if (ctx.isStartElement(event, SERVICE) && !WMSParseProfile.getProfile(ctx).includes(WMSParseProfile.Part.SERVICE))
+            ctx.skipElement(event);
+        else
+            super.doParseEventContent(ctx, event, args);
+    }
+
+    /**
+     * Returns all named layers in the capabilities document. To find or count layers without building a list, use
+     * {@link #getLayerIterator()} or {@link #accept(WMSLayerVisitor)}.
+     *
+     * @return a new list of the document's named layers, in depth-first order, or null if the document has no layers.
      */
     public List<WMSLayerCapabilities> getNamedLayers() {
         if (this.getCapabilityInformation() == null || this.getCapabilityInformation().getLayerCapabilities() == null)
             return null;
 
         List<WMSLayerCapabilities> namedLayers = new ArrayList<WMSLayerCapabilities>();
+        WMSLayerCapabilities.addNamedLayers(this.getLayerIterator(), namedLayers);
+
+        return namedLayers;
+    }
+
+    /**
+     * Returns an iterator over the document's layers, named or not, in depth-first order. The iterator can be split to
+     * traverse the layers in parallel; see {@link WMSLayerIterator}.
+     *
+     * @return an iterator over the document's layers.
+     */
+    public WMSLayerIterator getLayerIterator() {
+        WMSCapabilityInformation info = this.getCapabilityInformation();
+        List<WMSLayerCapabilities> layers = info != null ? info.getLayerCapabilities() : null;
+
+        return new WMSLayerIterator(layers != null ? layers : Collections.<WMSLayerCapabilities>emptyList());
+    }
+
+    /**
+     * Calls a visitor for the document's layers, in depth-first order, skipping the nested layers of a layer when the
+     * visitor returns {@link WMSLayerVisitor.Result#SKIP_SUBTREE} for it. The top-level layers are at depth 0.
+     *
+     * @param visitor the visitor.
+     *
+     * @return false if the visitor ended the traversal, otherwise true.
+     *
+     * @throws IllegalArgumentException if the visitor is null.
+     */
+    public boolean accept(WMSLayerVisitor visitor) {
+        if (visitor == null) {
+            String message = Messages.getMessage("nullValue.VisitorIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (this.getCapabilityInformation() == null || this.getCapabilityInformation().getLayerCapabilities() == null)
+            return true;
 
         for (WMSLayerCapabilities layer : this.getCapabilityInformation().getLayerCapabilities()) {
-            namedLayers.addAll(layer.getNamedLayers());
+            if (!layer.accept(visitor, 0)) return false;
         }
 
-        return namedLayers;
+        return true;
     }
 
+    /**
+     * Returns the named layer with a specified name. If several layers have the name, returns the first in document
+     * order.
+     *
+     * @param name the layer name.
+     *
+     * @return the layer, or null if the document has no layer with the name.
+     */
     public WMSLayerCapabilities getLayerByName(String name) {
         if (WWUtil.isEmpty(name)) return null;
 
-        List<WMSLayerCapabilities> namedLayers = this.getNamedLayers();
-        for (WMSLayerCapabilities layer : namedLayers) {
-            if (layer.getName().equals(name)) return layer;
+        return this.getLayerIndex().get(name);
+    }
+
+    /**
+     * Returns the index of the named layers by name, building it on first use. The layers of a parsed document do not
+     * change, so the index is built once, and is rebuilt only if the document is parsed again.
+     *
+     * @return the named layers by name.
+     */
+    protected Map<String, WMSLayerCapabilities> getLayerIndex() {
+        Map<String, WMSLayerCapabilities> index = this.layersByName;
+        if (index != null) return index;
+
+        index = new HashMap<String, WMSLayerCapabilities>();
+        for (WMSLayerIterator iterator = this.getLayerIterator(); iterator.hasNext(); ) {
+            WMSLayerCapabilities layer = iterator.next();
+            if (layer.getName() != null && !index.containsKey(layer.getName())) index.put(layer.getName(), layer);
         }
 
-        return null;
+        this.layersByName = index;
+
+        return index;
     }
 
     public WMSCapabilityInformation getCapabilityInformation() {
@@ -153,13 +326,13 @@ public class WMSCapabilities extends OGCCapabilities {
     public Long getLayerLatestLastUpdateTime(WMSCapabilities caps, String[] layerNames) {
         if (caps == null) {
             String message = Messages.getMessage("nullValue.WMSCapabilities");
-            Log.e("WMSCapabilities", message);
+            Logging.e("WMSCapabilities", message);
             throw new IllegalArgumentException(message);
         }
 
         if (layerNames == null) {
             String message = Messages.getMessage("nullValue.WMSLayerNames");
-            Log.e("WMSCapabilities", message);
+            Logging.e("WMSCapabilities", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -179,7 +352,7 @@ public class WMSCapabilities extends OGCCapabilities {
                 return Long.parseLong(lastUpdate);
             } catch (NumberFormatException e) {
                 String message = Messages.getMessage("generic.ConversionError", lastUpdate);
-                Log.e("WMSCapabilities", message);
+                Logging.e("WMSCapabilities", message);
             }
         }
 
@@ -189,13 +362,13 @@ public class WMSCapabilities extends OGCCapabilities {
     public Double[] getLayerExtremeElevations(WMSCapabilities caps, String[] layerNames) {
         if (caps == null) {
             String message = Messages.getMessage("nullValue.WMSCapabilities");
-            Log.e("WMSCapabilities", message);
+            Logging.e("WMSCapabilities", message);
             throw new IllegalArgumentException(message);
         }
 
         if (layerNames == null) {
             String message = Messages.getMessage("nullValue.WMSLayerNames");
-            Log.e("WMSCapabilities", message);
+            Logging.e("WMSCapabilities", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -8,6 +8,8 @@ package gov.nasa.worldwind.ogc.wms;
 
 import gov.nasa.worldwind.ogc.OGCCapabilityInformation;
 import gov.nasa.worldwind.ogc.OGCRequestDescription;
+import gov.nasa.worldwind.util.xml.QNameTable;
+import gov.nasa.worldwind.util.xml.XMLElementTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
@@ -26,6 +28,15 @@ import javax.xml.namespace.QName;
 public class WMSCapabilityInformation extends OGCCapabilityInformation {
 	private static final String[] rNames = new String[] { "GetCapabilities", "GetMap", "GetFeatureInfo", "DescribeLayer", "GetLegendGraphic" };
 
+	/** The request elements recognized in the Request element, looked up by {@link #isRequestName}. */
+	protected static final XMLElementTable REQUEST_ELEMENTS = new XMLElementTable();
+
+	static {
+		for (int i = 0; i < rNames.length; i++) {
+			REQUEST_ELEMENTS.add(rNames[i], i);
+		}
+	}
+
 	protected QName LAYER;
 
 	protected List<QName> requestNames;
@@ -37,12 +48,21 @@ public class WMSCapabilityInformation extends OGCCapabilityInformation {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSCapabilityInformation.class) return super.newInstance();
+
+		return new WMSCapabilityInformation(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		LAYER = new QName(this.getNamespaceURI(), "Layer");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		LAYER = names.get("Layer");
 
 		this.requestNames = new ArrayList<QName>(rNames.length);
 		for (String name : rNames) {
-			this.requestNames.add(new QName(this.getNamespaceURI(), name));
+			this.requestNames.add(names.get(name));
 		}
 
 		this.setLayerCapabilities(new ArrayList<WMSLayerCapabilities>());
@@ -59,7 +79,15 @@ public class WMSCapabilityInformation extends OGCCapabilityInformation {
 		if (ctx.isStartElement(event, LAYER)) {
 			XMLEventParser parser = this.allocate(ctx, event);
 			if (parser != null) {
+				// Layers reported to a layer listener while parsing already know their capabilities.
+				if (parser instanceof WMSLayerCapabilities) ((WMSLayerCapabilities) parser).setEnclosingCapabilityInformation(this);
+
 				Object o = parser.parse(ctx, event, args);
+
+				// Wait for nested layers parsed concurrently before resolving their attributes.
+				WMSParallelLayerParser parallelParser = WMSParallelLayerParser.getInstance(ctx);
+				if (parallelParser != null) parallelParser.join(ctx);
+
 				if (o != null && o instanceof WMSLayerCapabilities) {
 					WMSLayerCapabilities caps = (WMSLayerCapabilities) o;
 					caps.setEnclosingCapabilityInformation(this);
@@ -67,17 +95,15 @@ public class WMSCapabilityInformation extends OGCCapabilityInformation {
 					this.getLayerCapabilities().add(caps);
 				}
 			}
+		} else if (ctx.isStartElement(event, REQUEST) && !WMSParseProfile.getProfile(ctx).includes(WMSParseProfile.Part.REQUESTS)) {
+			ctx.skipElement(event);
 		} else {
 			super.doParseEventContent(ctx, event, args);
 		}
 	}
 
 	protected boolean isRequestName(XMLEventParserContext ctx, QName name) {
-		for (QName requestName : this.requestNames) {
-			if (ctx.isSameName(requestName, name)) return true;
-		}
-
-		return false;
+		return REQUEST_ELEMENTS.getId(ctx, name, this.getNamespaceURI()) != XMLElementTable.UNKNOWN;
 	}
 
 	public List<WMSLayerCapabilities> getLayerCapabilities() {
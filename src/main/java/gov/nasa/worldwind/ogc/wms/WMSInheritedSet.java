@@ -0,0 +1,165 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only view of an additive layer attribute, such as the styles or CRS of a layer: the values the layer declares
+ * itself followed by those of its ancestors, each value once. The ancestors' values are shared rather than copied into
+ * every nested layer, so the memory used by inherited attributes does not grow with the number of nested layers. The
+ * view reflects later changes to the layers' declared values. It cannot be modified: methods that would change it
+ * throw <code>UnsupportedOperationException</code>.
+ * <p/>
+ * A layer inherits from the parent its attributes were resolved with, see
+ * {@link WMSLayerCapabilities#resolveAttributes(WMSLayerCapabilities)}. Before they are resolved the view holds only the
+ * layer's own values. Looking up a value takes time proportional to the depth of the layer.
+ *
+ * @param <E>
+ *            the type of the attribute's values.
+ */
+public abstract class WMSInheritedSet<E> extends AbstractSet<E> {
+	protected final WMSLayerCapabilities layer;
+
+	/**
+	 * Creates a view of an attribute of a layer.
+	 *
+	 * @param layer
+	 *            the layer.
+	 */
+	public WMSInheritedSet(WMSLayerCapabilities layer) {
+		this.layer = layer;
+	}
+
+	/**
+	 * Returns the values of the attribute declared by a layer of the view.
+	 *
+	 * @param layer
+	 *            the layer or one of its ancestors.
+	 * @return the values the layer declares, or null if it declares none.
+	 */
+	protected abstract Set<E> getDeclaredValues(WMSLayerCapabilities layer);
+
+	@Override
+	public boolean contains(Object o) {
+		for (WMSLayerCapabilities l = this.layer; l != null; l = l.resolvedParent) {
+			Set<E> values = this.getDeclaredValues(l);
+			if (values != null && values.contains(o)) return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (WMSLayerCapabilities l = this.layer; l != null; l = l.resolvedParent) {
+			Set<E> values = this.getDeclaredValues(l);
+			if (values != null && !values.isEmpty()) return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public int size() {
+		// Values are declared at a single level in most documents, typically the root layer, and need not be counted.
+		Set<E> declaring = null;
+		for (WMSLayerCapabilities l = this.layer; l != null; l = l.resolvedParent) {
+			Set<E> values = this.getDeclaredValues(l);
+			if (values == null || values.isEmpty()) continue;
+			if (declaring != null) return this.count();
+			declaring = values;
+		}
+
+		return declaring != null ? declaring.size() : 0;
+	}
+
+	protected int count() {
+		int n = 0;
+		for (Iterator<E> iterator = this.iterator(); iterator.hasNext(); iterator.next()) {
+			n++;
+		}
+
+		return n;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			protected WMSLayerCapabilities level = layer;
+			protected Iterator<E> values = iteratorOf(layer);
+			protected E next;
+			protected boolean hasNext = this.advance();
+
+			public boolean hasNext() {
+				return this.hasNext;
+			}
+
+			public E next() {
+				if (!this.hasNext) throw new NoSuchElementException();
+
+				E e = this.next;
+				this.hasNext = this.advance();
+
+				return e;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+			protected boolean advance() {
+				while (this.level != null) {
+					while (this.values != null && this.values.hasNext()) {
+						E e = this.values.next();
+						if (!isDeclaredBelow(e, this.level)) {
+							this.next = e;
+							return true;
+						}
+					}
+
+					this.level = this.level.resolvedParent;
+					this.values = this.level != null ? iteratorOf(this.level) : null;
+				}
+
+				this.next = null;
+				return false;
+			}
+		};
+	}
+
+	protected Iterator<E> iteratorOf(WMSLayerCapabilities l) {
+		Set<E> values = this.getDeclaredValues(l);
+
+		return values != null ? values.iterator() : null;
+	}
+
+	/** Indicates whether a value has already been returned by an iterator, from a layer below an ancestor. */
+	protected boolean isDeclaredBelow(E e, WMSLayerCapabilities ancestor) {
+		for (WMSLayerCapabilities l = this.layer; l != ancestor; l = l.resolvedParent) {
+			Set<E> values = this.getDeclaredValues(l);
+			if (values != null && values.contains(e)) return true;
+		}
+
+		return false;
+	}
+}
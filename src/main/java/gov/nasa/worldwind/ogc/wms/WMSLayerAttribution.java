@@ -20,6 +20,7 @@ package gov.nasa.worldwind.ogc.wms;
 
 import gov.nasa.worldwind.ogc.OGCOnlineResource;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
@@ -47,10 +48,19 @@ public class WMSLayerAttribution extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSLayerAttribution.class) return super.newInstance();
+
+		return new WMSLayerAttribution(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		TITLE = new QName(this.getNamespaceURI(), "Title");
-		ONLINE_RESOURCE = new QName(this.getNamespaceURI(), "OnlineResource");
-		LOGO_URL = new QName(this.getNamespaceURI(), "LogoURL");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		TITLE = names.get("Title");
+		ONLINE_RESOURCE = names.get("OnlineResource");
+		LOGO_URL = names.get("LogoURL");
 	}
 
 	@Override
@@ -18,22 +18,27 @@
 
 package gov.nasa.worldwind.ogc.wms;
 
-import gov.nasa.worldwind.avlist.AVList;
 //import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.ogc.OGCBoundingBox;
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
 import gov.nasa.worldwind.util.WWUtil;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.StringSetXMLEventParser;
+import gov.nasa.worldwind.util.xml.XMLElementTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
 import gov.nasa.worldwind.util.xml.XMLParserException;
+import gov.nasa.worldwind.util.xml.XMLParserNotification;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Set;
 
 import javax.xml.namespace.QName;
@@ -71,10 +76,92 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     protected QName STYLE;
     protected QName TITLE;
 
+    // Identifiers of the child elements, used to dispatch elements through ELEMENTS.
+    protected static final int LAYER_ID = 0;
+    protected static final int TITLE_ID = 1;
+    protected static final int NAME_ID = 2;
+    protected static final int STYLE_ID = 3;
+    protected static final int SRS_ID = 4;
+    protected static final int CRS_ID = 5;
+    protected static final int GEOGRAPHIC_BOUNDING_BOX_ID = 6;
+    protected static final int LAT_LON_BOUNDING_BOX_ID = 7;
+    protected static final int ABSTRACT_ID = 8;
+    protected static final int LAST_UPDATE_ID = 9;
+    protected static final int MAX_SCALE_DENOMINATOR_ID = 10;
+    protected static final int MIN_SCALE_DENOMINATOR_ID = 11;
+    protected static final int EXTREME_ELEVATIONS_ID = 12;
+    protected static final int SCALE_HINT_ID = 13;
+    protected static final int BOUNDING_BOX_ID = 14;
+    protected static final int ATTRIBUTION_ID = 15;
+    protected static final int KEYWORD_LIST_ID = 16;
+    protected static final int IDENTIFIER_ID = 17;
+    protected static final int DIMENSION_ID = 18;
+    protected static final int EXTENT_ID = 19;
+    protected static final int AUTHORITY_URL_ID = 20;
+    protected static final int DATA_URL_ID = 21;
+    protected static final int FEATURE_LIST_URL_ID = 22;
+    protected static final int METADATA_URL_ID = 23;
+
+    /** Dispatch table for the child elements of a Layer element. */
+    protected static final XMLElementTable ELEMENTS = new XMLElementTable()
+        .add("Layer", LAYER_ID)
+        .add("Title", TITLE_ID)
+        .add("Name", NAME_ID)
+        .add("Style", STYLE_ID)
+        .add("SRS", SRS_ID)
+        .add("CRS", CRS_ID)
+        .add("EX_GeographicBoundingBox", GEOGRAPHIC_BOUNDING_BOX_ID)
+        .add("LatLonBoundingBox", LAT_LON_BOUNDING_BOX_ID)
+        .add("Abstract", ABSTRACT_ID)
+        .add("LastUpdate", LAST_UPDATE_ID)
+        .add("MaxScaleDenominator", MAX_SCALE_DENOMINATOR_ID)
+        .add("MinScaleDenominator", MIN_SCALE_DENOMINATOR_ID)
+        .add("ExtremeElevations", EXTREME_ELEVATIONS_ID)
+        .add("ScaleHint", SCALE_HINT_ID)
+        .add("BoundingBox", BOUNDING_BOX_ID)
+        .add("Attribution", ATTRIBUTION_ID)
+        .add("KeywordList", KEYWORD_LIST_ID)
+        .add("Identifier", IDENTIFIER_ID)
+        .add("Dimension", DIMENSION_ID)
+        .add("Extent", EXTENT_ID)
+        .add("AuthorityURL", AUTHORITY_URL_ID)
+        .add("DataURL", DATA_URL_ID)
+        .add("FeatureListURL", FEATURE_LIST_URL_ID)
+        .add("MetadataURL", METADATA_URL_ID);
+
+    /** The parse-profile part of each child element, indexed by identifier. Null for elements that are always parsed. */
+    protected static final WMSParseProfile.Part[] ELEMENT_PARTS = new WMSParseProfile.Part[METADATA_URL_ID + 1];
+
+    static {
+        ELEMENT_PARTS[TITLE_ID] = WMSParseProfile.Part.TITLE;
+        ELEMENT_PARTS[STYLE_ID] = WMSParseProfile.Part.STYLES;
+        ELEMENT_PARTS[SRS_ID] = WMSParseProfile.Part.COORDINATE_SYSTEMS;
+        ELEMENT_PARTS[CRS_ID] = WMSParseProfile.Part.COORDINATE_SYSTEMS;
+        ELEMENT_PARTS[GEOGRAPHIC_BOUNDING_BOX_ID] = WMSParseProfile.Part.GEOGRAPHIC_BOUNDING_BOX;
+        ELEMENT_PARTS[LAT_LON_BOUNDING_BOX_ID] = WMSParseProfile.Part.GEOGRAPHIC_BOUNDING_BOX;
+        ELEMENT_PARTS[ABSTRACT_ID] = WMSParseProfile.Part.ABSTRACT;
+        ELEMENT_PARTS[LAST_UPDATE_ID] = WMSParseProfile.Part.LAST_UPDATE;
+        ELEMENT_PARTS[MAX_SCALE_DENOMINATOR_ID] = WMSParseProfile.Part.SCALE_RANGE;
+        ELEMENT_PARTS[MIN_SCALE_DENOMINATOR_ID] = WMSParseProfile.Part.SCALE_RANGE;
+        ELEMENT_PARTS[EXTREME_ELEVATIONS_ID] = WMSParseProfile.Part.DIMENSIONS;
+        ELEMENT_PARTS[SCALE_HINT_ID] = WMSParseProfile.Part.SCALE_RANGE;
+        ELEMENT_PARTS[BOUNDING_BOX_ID] = WMSParseProfile.Part.BOUNDING_BOXES;
+        ELEMENT_PARTS[ATTRIBUTION_ID] = WMSParseProfile.Part.ATTRIBUTION;
+        ELEMENT_PARTS[KEYWORD_LIST_ID] = WMSParseProfile.Part.KEYWORDS;
+        ELEMENT_PARTS[IDENTIFIER_ID] = WMSParseProfile.Part.AUTHORITY;
+        ELEMENT_PARTS[DIMENSION_ID] = WMSParseProfile.Part.DIMENSIONS;
+        ELEMENT_PARTS[EXTENT_ID] = WMSParseProfile.Part.DIMENSIONS;
+        ELEMENT_PARTS[AUTHORITY_URL_ID] = WMSParseProfile.Part.AUTHORITY;
+        ELEMENT_PARTS[DATA_URL_ID] = WMSParseProfile.Part.URLS;
+        ELEMENT_PARTS[FEATURE_LIST_URL_ID] = WMSParseProfile.Part.URLS;
+        ELEMENT_PARTS[METADATA_URL_ID] = WMSParseProfile.Part.URLS;
+    }
+
     protected Set<WMSLayerAttribution> attributions;
     protected Set<WMSAuthorityURL> authorityURLs;
     protected Set<OGCBoundingBox> boundingBoxes;
     protected Boolean cascaded;
+    protected WMSParseProfile parseProfile;
     protected Set<String> crs;
     protected Set<WMSLayerInfoURL> dataURLs;
     protected Set<WMSLayerDimension> dimensions;
@@ -102,8 +189,22 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     protected Boolean queryable;
     protected Set<String> srs; // 1.1.1
     protected Set<WMSLayerStyle> styles;
+    /** The declared styles by name. Built when a style is first looked up, and dropped when styles are added. */
+    protected volatile Map<String, WMSLayerStyle> stylesByName;
     protected String title;
     protected WMSLayerCapabilities parent;
+    /**
+     * The parent whose styles, CRS, authority URLs, bounding boxes, dimensions and attributions this layer inherits.
+     * Set when the layer's attributes are resolved; see {@link WMSInheritedSet}.
+     */
+    protected WMSLayerCapabilities resolvedParent;
+    /** The read-only views of the inherited attributes, created when first requested. */
+    protected Set<WMSLayerDimension> dimensionsView;
+    protected Set<WMSLayerAttribution> attributionsView;
+    protected Set<WMSAuthorityURL> authorityURLsView;
+    protected Set<WMSLayerStyle> stylesView;
+    protected Set<OGCBoundingBox> boundingBoxesView;
+    protected Set<String> crsView;
     protected WMSCapabilityInformation enclosingCapabilityInformation;
 
     public WMSLayerCapabilities(String namespaceURI) {
@@ -112,32 +213,41 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         this.initialize();
     }
 
+    @Override
+    public XMLEventParser newInstance() throws Exception {
+        if (this.getClass() != WMSLayerCapabilities.class) return super.newInstance();
+
+        return new WMSLayerCapabilities(this.getNamespaceURI());
+    }
+
     private void initialize() {
-        ABSTRACT = new QName(this.getNamespaceURI(), "Abstract");
-        ATTRIBUTION = new QName(this.getNamespaceURI(), "Attribution");
-        AUTHORITY_URL = new QName(this.getNamespaceURI(), "AuthorityURL");
-        BOUNDING_BOX = new QName(this.getNamespaceURI(), "BoundingBox");
-        CRS = new QName(this.getNamespaceURI(), "CRS");
-        DATA_URL = new QName(this.getNamespaceURI(), "DataURL");
-        DIMENSION = new QName(this.getNamespaceURI(), "Dimension");
-        EXTENT = new QName(this.getNamespaceURI(), "Extent");
-        EXTREME_ELEVATIONS = new QName(this.getNamespaceURI(), "ExtremeElevations");
-        FEATURE_LIST_URL = new QName(this.getNamespaceURI(), "FeatureListURL");
-        GEOGRAPHIC_BOUNDING_BOX = new QName(this.getNamespaceURI(), "EX_GeographicBoundingBox");
-        IDENTIFIER = new QName(this.getNamespaceURI(), "Identifier");
-        KEYWORD_LIST = new QName(this.getNamespaceURI(), "KeywordList");
-        KEYWORD = new QName(this.getNamespaceURI(), "Keyword");
-        LAST_UPDATE = new QName(this.getNamespaceURI(), "LastUpdate");
-        LAT_LON_BOUNDING_BOX = new QName(this.getNamespaceURI(), "LatLonBoundingBox");
-        LAYER = new QName(this.getNamespaceURI(), "Layer");
-        MAX_SCALE_DENOMINATOR = new QName(this.getNamespaceURI(), "MaxScaleDenominator");
-        METADATA_URL = new QName(this.getNamespaceURI(), "MetadataURL");
-        MIN_SCALE_DENOMINATOR = new QName(this.getNamespaceURI(), "MinScaleDenominator");
-        NAME = new QName(this.getNamespaceURI(), "Name");
-        SCALE_HINT = new QName(this.getNamespaceURI(), "ScaleHint");
-        SRS = new QName(this.getNamespaceURI(), "SRS");
-        STYLE = new QName(this.getNamespaceURI(), "Style");
-        TITLE = new QName(this.getNamespaceURI(), "Title");
+        QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+        ABSTRACT = names.get("Abstract");
+        ATTRIBUTION = names.get("Attribution");
+        AUTHORITY_URL = names.get("AuthorityURL");
+        BOUNDING_BOX = names.get("BoundingBox");
+        CRS = names.get("CRS");
+        DATA_URL = names.get("DataURL");
+        DIMENSION = names.get("Dimension");
+        EXTENT = names.get("Extent");
+        EXTREME_ELEVATIONS = names.get("ExtremeElevations");
+        FEATURE_LIST_URL = names.get("FeatureListURL");
+        GEOGRAPHIC_BOUNDING_BOX = names.get("EX_GeographicBoundingBox");
+        IDENTIFIER = names.get("Identifier");
+        KEYWORD_LIST = names.get("KeywordList");
+        KEYWORD = names.get("Keyword");
+        LAST_UPDATE = names.get("LastUpdate");
+        LAT_LON_BOUNDING_BOX = names.get("LatLonBoundingBox");
+        LAYER = names.get("Layer");
+        MAX_SCALE_DENOMINATOR = names.get("MaxScaleDenominator");
+        METADATA_URL = names.get("MetadataURL");
+        MIN_SCALE_DENOMINATOR = names.get("MinScaleDenominator");
+        NAME = names.get("Name");
+        SCALE_HINT = names.get("ScaleHint");
+        SRS = names.get("SRS");
+        STYLE = names.get("Style");
+        TITLE = names.get("Title");
     }
 
     @Override
@@ -147,30 +257,40 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         XMLEventParser parser = super.allocate(ctx, event);
         if (parser != null) return parser;
 
-        if (ctx.isStartElement(event, LAYER))
-            defaultParser = new WMSLayerCapabilities(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, STYLE))
-            defaultParser = new WMSLayerStyle(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, KEYWORD_LIST))
-            defaultParser = new StringSetXMLEventParser(this.getNamespaceURI(), KEYWORD);
-        else if (ctx.isStartElement(event, BOUNDING_BOX))
-            defaultParser = new OGCBoundingBox(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, ATTRIBUTION))
-            defaultParser = new WMSLayerAttribution(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, IDENTIFIER))
-            defaultParser = new WMSLayerIdentifier(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, DIMENSION))
-            defaultParser = new WMSLayerDimension(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, EXTENT))
-            defaultParser = new WMSLayerExtent(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, AUTHORITY_URL))
-            defaultParser = new WMSAuthorityURL(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, DATA_URL))
-            defaultParser = new WMSLayerInfoURL(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, FEATURE_LIST_URL))
-            defaultParser = new WMSLayerInfoURL(this.getNamespaceURI());
-        else if (ctx.isStartElement(event, METADATA_URL))
-            defaultParser = new WMSLayerInfoURL(this.getNamespaceURI());
+        switch (ELEMENTS.getId(ctx, event, this.getNamespaceURI())) {
+            case LAYER_ID:
+                defaultParser = new WMSLayerCapabilities(this.getNamespaceURI());
+                break;
+            case STYLE_ID:
+                defaultParser = new WMSLayerStyle(this.getNamespaceURI());
+                break;
+            case KEYWORD_LIST_ID:
+                defaultParser = new StringSetXMLEventParser(this.getNamespaceURI(), KEYWORD);
+                break;
+            case BOUNDING_BOX_ID:
+                defaultParser = new OGCBoundingBox(this.getNamespaceURI());
+                break;
+            case ATTRIBUTION_ID:
+                defaultParser = new WMSLayerAttribution(this.getNamespaceURI());
+                break;
+            case IDENTIFIER_ID:
+                defaultParser = new WMSLayerIdentifier(this.getNamespaceURI());
+                break;
+            case DIMENSION_ID:
+                defaultParser = new WMSLayerDimension(this.getNamespaceURI());
+                break;
+            case EXTENT_ID:
+                defaultParser = new WMSLayerExtent(this.getNamespaceURI());
+                break;
+            case AUTHORITY_URL_ID:
+                defaultParser = new WMSAuthorityURL(this.getNamespaceURI());
+                break;
+            case DATA_URL_ID:
+            case FEATURE_LIST_URL_ID:
+            case METADATA_URL_ID:
+                defaultParser = new WMSLayerInfoURL(this.getNamespaceURI());
+                break;
+        }
 
         return ctx.allocate(event, defaultParser);
     }
@@ -193,6 +313,22 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     }
 
     public void resolveAttributes(WMSLayerCapabilities parentLayer) {
+        this.resolveLayerAttributes(parentLayer);
+
+        // Resolve inherited attributes for children.
+        for (WMSLayerCapabilities caps : this.getLayers()) {
+            caps.resolveAttributes(this);
+        }
+    }
+
+    /**
+     * Resolves the attributes this layer inherits from a parent layer, without resolving nested layers. Resolving
+     * again is harmless: inherited values only fill in missing values, and additive attributes are read through the
+     * parent.
+     *
+     * @param parentLayer the parent layer, or null if this is a top-level layer.
+     */
+    protected void resolveLayerAttributes(WMSLayerCapabilities parentLayer) {
         this.parent = parentLayer;
 
         // The following are inherited from parent if not specified in child, otherwise they're assigned a default.
@@ -230,164 +366,279 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
 
             if (this.getExtremeElevationMax() == null) // extremes are inherited from parent if not specified in child
                 this.setExtremeElevationMax(this.parent.getExtremeElevationMax());
+        }
+
+        // The styles, CRS, authority URLs, bounding boxes, dimensions and attributions are additive. They are read
+        // through the parent rather than copied, see WMSInheritedSet.
+        this.resolvedParent = this.parent;
+    }
+
+    @Override
+    public Object parse(XMLEventParserContext ctx, XMLEvent inputEvent, Object... args) throws XMLParserException {
+        // Look the profile up once per layer rather than once per child element.
+        this.parseProfile = WMSParseProfile.getProfile(ctx);
+
+        Object o = super.parse(ctx, inputEvent, args);
 
-            // The following are additive.
-            this.addStyles(this.parent.getStyles());
-            this.addCRS(this.parent.getCRS());
-            this.addAuthorityURLs(this.parent.getAuthorityURLs());
-            this.addBoundingBoxes(this.parent.getBoundingBoxes());
-            this.addDimensions(this.parent.getDimensions());
-            this.addAttributions(this.parent.getAttributions());
+        // A top-level layer's nested layers may have been handed to a parallel parser. They are parsed and reported
+        // before the layer itself, as in a sequential parse.
+        if (this.parent == null) {
+            WMSParallelLayerParser parallelParser = WMSParallelLayerParser.getInstance(ctx);
+            if (parallelParser != null) parallelParser.join(ctx);
         }
 
-        // Resolve inherited attributes for children.
-        for (WMSLayerCapabilities caps : this.getLayers()) {
-            caps.resolveAttributes(this);
+        WMSLayerCapabilitiesListener listener = WMSCapabilities.getLayerListener(ctx);
+        if (o != null && listener != null) {
+            this.resolveLayerAttributes(this.parent);
+
+            try {
+                listener.layerParsed(this);
+            } catch (RuntimeException e) {
+                ctx.firePropertyChange(new XMLParserNotification(ctx, XMLParserNotification.EXCEPTION, inputEvent,
+                    "XML.ExceptionParsingElement", null, e));
+            }
         }
+
+        return o;
+    }
+
+    /**
+     * Links a nested layer to this layer before the nested layer is parsed. When a layer listener is registered, this
+     * layer's inherited attributes are resolved before its first nested layer, so that nested layers reported to the
+     * listener can inherit from it. Inherited elements precede nested layers in the WMS schemas.
+     *
+     * @param ctx   the parser context.
+     * @param layer the nested layer.
+     */
+    protected void prepareNestedLayer(XMLEventParserContext ctx, WMSLayerCapabilities layer) {
+        layer.parent = this;
+        layer.enclosingCapabilityInformation = this.enclosingCapabilityInformation;
+
+        if (this.layers == null && WMSCapabilities.getLayerListener(ctx) != null)
+            this.resolveLayerAttributes(this.parent);
+    }
+
+    /**
+     * Indicates whether a child element is parsed under the current parse profile.
+     *
+     * @param elementId the element's identifier in {@link #ELEMENTS}.
+     *
+     * @return true if the element is parsed, false if it is skipped.
+     */
+    protected boolean isInProfile(int elementId) {
+        WMSParseProfile.Part part = ELEMENT_PARTS[elementId];
+
+        return part == null || this.parseProfile == null || this.parseProfile.includes(part);
     }
 
     @Override
     protected void doParseEventContent(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
-        if (ctx.isStartElement(event, LAYER)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerCapabilities)
-                    this.addLayer(((WMSLayerCapabilities) o));
+        int elementId = ELEMENTS.getId(ctx, event, this.getNamespaceURI());
+        if (elementId != XMLElementTable.UNKNOWN && !this.isInProfile(elementId)) {
+            ctx.skipElement(event);
+            return;
+        }
+
+        switch (elementId) {
+            case LAYER_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    if (parser instanceof WMSLayerCapabilities) {
+                        this.prepareNestedLayer(ctx, (WMSLayerCapabilities) parser);
+
+                        // The nested layers of top-level layers may be parsed concurrently; they are added now to
+                        // keep document order, and are parsed before the capability information uses them.
+                        WMSParallelLayerParser parallelParser = this.parent == null ? WMSParallelLayerParser.getInstance(ctx) : null;
+                        if (parallelParser != null && parallelParser.fork(ctx, event, (WMSLayerCapabilities) parser, args)) {
+                            this.addLayer((WMSLayerCapabilities) parser);
+                            break;
+                        }
+                    }
+
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerCapabilities)
+                        this.addLayer(((WMSLayerCapabilities) o));
+                }
+                break;
+            }
+            case TITLE_ID: {
+                String s = ctx.getStringParser().parseString(ctx, event);
+                if (!WWUtil.isEmpty(s)) this.setTitle(s);
+                break;
             }
-        } else if (ctx.isStartElement(event, TITLE)) {
-            String s = ctx.getStringParser().parseString(ctx, event);
-            if (!WWUtil.isEmpty(s)) this.setTitle(s);
-        } else if (ctx.isStartElement(event, NAME)) {
-            String s = ctx.getStringParser().parseString(ctx, event);
-            if (!WWUtil.isEmpty(s)) this.setName(s);
-        } else if (ctx.isStartElement(event, STYLE)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerStyle) this.addStyle(((WMSLayerStyle) o));
+            case NAME_ID: {
+                String s = ctx.getStringParser().parseString(ctx, event);
+                if (!WWUtil.isEmpty(s)) this.setName(s);
+                break;
             }
-        } else if (ctx.isStartElement(event, SRS)) {
-            String s = ctx.getStringParser().parseString(ctx, event);
-            if (!WWUtil.isEmpty(s)) this.addSRS(s);
-        } else if (ctx.isStartElement(event, CRS)) {
-            String s = ctx.getStringParser().parseString(ctx, event);
-            if (!WWUtil.isEmpty(s)) this.addCRS(s);
-        } else if (ctx.isStartElement(event, GEOGRAPHIC_BOUNDING_BOX)) {
-            this.parseGeographicBoundingBox(ctx, event);
-        } else if (ctx.isStartElement(event, LAT_LON_BOUNDING_BOX)) {
-            this.parseGeographicBoundingBoxV111(ctx, event);
-        } else if (ctx.isStartElement(event, ABSTRACT)) {
-            String s = ctx.getStringParser().parseString(ctx, event);
-            if (!WWUtil.isEmpty(s)) this.setLayerAbstract(s);
-        } else if (ctx.isStartElement(event, LAST_UPDATE)) {
-            String s = ctx.getStringParser().parseString(ctx, event);
-            if (!WWUtil.isEmpty(s)) this.setLastUpdate(s);
-        } else if (ctx.isStartElement(event, MAX_SCALE_DENOMINATOR)) {
-            Double d = ctx.getDoubleParser().parseDouble(ctx, event);
-            if (d != null) this.setMaxScaleDenominator(d);
-        } else if (ctx.isStartElement(event, MIN_SCALE_DENOMINATOR)) {
-            Double d = ctx.getDoubleParser().parseDouble(ctx, event);
-            if (d != null) this.setMinScaleDenominator(d);
-        } else if (ctx.isStartElement(event, EXTREME_ELEVATIONS)) {
-            this.parseExtremeElevations(ctx, event);
-        } else if (ctx.isStartElement(event, SCALE_HINT)) {
-            this.parseScaleHint(ctx, event);
-        } else if (ctx.isStartElement(event, BOUNDING_BOX)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof OGCBoundingBox)
-                    this.addBoundingBox((OGCBoundingBox) o);
+            case STYLE_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerStyle) this.addStyle(((WMSLayerStyle) o));
+                }
+                break;
+            }
+            case SRS_ID: {
+                String s = ctx.getStringParser().parseString(ctx, event);
+                if (!WWUtil.isEmpty(s)) this.addSRS(s);
+                break;
+            }
+            case CRS_ID: {
+                String s = ctx.getStringParser().parseString(ctx, event);
+                if (!WWUtil.isEmpty(s)) this.addCRS(s);
+                break;
             }
-        } else if (ctx.isStartElement(event, ATTRIBUTION)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerAttribution)
-                    this.addAttribution((WMSLayerAttribution) o);
+            case GEOGRAPHIC_BOUNDING_BOX_ID:
+                this.parseGeographicBoundingBox(ctx, event);
+                break;
+            case LAT_LON_BOUNDING_BOX_ID:
+                this.parseGeographicBoundingBoxV111(ctx, event);
+                break;
+            case ABSTRACT_ID: {
+                String s = ctx.getStringParser().parseString(ctx, event);
+                if (!WWUtil.isEmpty(s)) this.setLayerAbstract(s);
+                break;
             }
-        } else if (ctx.isStartElement(event, KEYWORD_LIST)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof StringSetXMLEventParser)
-                    this.setKeywords(((StringSetXMLEventParser) o).getStrings());
+            case LAST_UPDATE_ID: {
+                String s = ctx.getStringParser().parseString(ctx, event);
+                if (!WWUtil.isEmpty(s)) this.setLastUpdate(s);
+                break;
             }
-        } else if (ctx.isStartElement(event, IDENTIFIER)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerIdentifier)
-                    this.addIdentifer((WMSLayerIdentifier) o);
+            case MAX_SCALE_DENOMINATOR_ID: {
+                Double d = ctx.getDoubleParser().parseDouble(ctx, event);
+                if (d != null) this.setMaxScaleDenominator(d);
+                break;
+            }
+            case MIN_SCALE_DENOMINATOR_ID: {
+                Double d = ctx.getDoubleParser().parseDouble(ctx, event);
+                if (d != null) this.setMinScaleDenominator(d);
+                break;
+            }
+            case EXTREME_ELEVATIONS_ID:
+                this.parseExtremeElevations(ctx, event);
+                break;
+            case SCALE_HINT_ID:
+                this.parseScaleHint(ctx, event);
+                break;
+            case BOUNDING_BOX_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof OGCBoundingBox)
+                        this.addBoundingBox((OGCBoundingBox) o);
+                }
+                break;
             }
-        } else if (ctx.isStartElement(event, DIMENSION)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerDimension)
-                    this.addDimension((WMSLayerDimension) o);
+            case ATTRIBUTION_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerAttribution)
+                        this.addAttribution((WMSLayerAttribution) o);
+                }
+                break;
             }
-        } else if (ctx.isStartElement(event, EXTENT)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerExtent) this.addExtent((WMSLayerExtent) o);
+            case KEYWORD_LIST_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof StringSetXMLEventParser)
+                        this.setKeywords(((StringSetXMLEventParser) o).getStrings());
+                }
+                break;
             }
-        } else if (ctx.isStartElement(event, AUTHORITY_URL)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSAuthorityURL)
-                    this.addAuthorityURL((WMSAuthorityURL) o);
+            case IDENTIFIER_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerIdentifier)
+                        this.addIdentifer((WMSLayerIdentifier) o);
+                }
+                break;
             }
-        } else if (ctx.isStartElement(event, DATA_URL)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerInfoURL) this.addDataURL((WMSLayerInfoURL) o);
+            case DIMENSION_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerDimension)
+                        this.addDimension((WMSLayerDimension) o);
+                }
+                break;
             }
-        } else if (ctx.isStartElement(event, FEATURE_LIST_URL)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerInfoURL)
-                    this.addFeatureListURL((WMSLayerInfoURL) o);
+            case EXTENT_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerExtent) this.addExtent((WMSLayerExtent) o);
+                }
+                break;
             }
-        } else if (ctx.isStartElement(event, METADATA_URL)) {
-            XMLEventParser parser = this.allocate(ctx, event);
-            if (parser != null) {
-                Object o = parser.parse(ctx, event, args);
-                if (o != null && o instanceof WMSLayerInfoURL)
-                    this.addMetadataURL((WMSLayerInfoURL) o);
+            case AUTHORITY_URL_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSAuthorityURL)
+                        this.addAuthorityURL((WMSAuthorityURL) o);
+                }
+                break;
             }
+            case DATA_URL_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerInfoURL) this.addDataURL((WMSLayerInfoURL) o);
+                }
+                break;
+            }
+            case FEATURE_LIST_URL_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerInfoURL)
+                        this.addFeatureListURL((WMSLayerInfoURL) o);
+                }
+                break;
+            }
+            case METADATA_URL_ID: {
+                XMLEventParser parser = this.allocate(ctx, event);
+                if (parser != null) {
+                    Object o = parser.parse(ctx, event, args);
+                    if (o != null && o instanceof WMSLayerInfoURL)
+                        this.addMetadataURL((WMSLayerInfoURL) o);
+                }
+                break;
+            }
+            default:
+                // Vendor-specific and other unrecognized elements are skipped together with their content.
+                if (event.isStartElement()) ctx.skipElement(event);
+                break;
         }
     }
 
     protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent layerEvent, Object... args) {
-        AVList attrAvList = layerEvent.getAttributes();
-        if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
         // Iterator iter = layerEvent.asStartElement().getAttributes();
         // if (iter == null) return;
-        Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-        for (Entry<String, Object> entry : avListEntries) {
-            if (entry.getKey().equals("queryable") && entry.getValue() != null) {
-                Boolean b = this.parseBooleanLayerAttribute(entry.getValue().toString());
+        for (int i = 0; i < layerEvent.getAttributeCount(); i++) {
+            String name = layerEvent.getAttributeName(i);
+            String value = layerEvent.getAttributeValue(i);
+            if (name.equals("queryable")) {
+                Boolean b = this.parseBooleanLayerAttribute(value);
                 if (b != null) this.setQueryable(b);
-            } else if (entry.getKey().equals("cascaded") && entry.getValue() != null) {
-                Boolean b = this.parseBooleanLayerAttribute(entry.getValue().toString());
+            } else if (name.equals("cascaded")) {
+                Boolean b = this.parseBooleanLayerAttribute(value);
                 if (b != null) this.setCascaded(b);
-            } else if (entry.getKey().equals("opaque") && entry.getValue() != null) {
-                Boolean b = this.parseBooleanLayerAttribute(entry.getValue().toString());
+            } else if (name.equals("opaque")) {
+                Boolean b = this.parseBooleanLayerAttribute(value);
                 if (b != null) this.setOpaque(b);
-            } else if (entry.getKey().equals("noSubsets") && entry.getValue() != null) {
-                Boolean b = this.parseBooleanLayerAttribute(entry.getValue().toString());
+            } else if (name.equals("noSubsets")) {
+                Boolean b = this.parseBooleanLayerAttribute(value);
                 if (b != null) this.setNoSubsets(b);
-            } else if (entry.getKey().equals("fixedWidth") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+            } else if (name.equals("fixedWidth")) {
+                Double d = this.parseDoubleAttribute(ctx, layerEvent, i);
                 if (d != null) this.setFixedWidth(d.intValue());
-            } else if (entry.getKey().equals("fixedHeight") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+            } else if (name.equals("fixedHeight")) {
+                Double d = this.parseDoubleAttribute(ctx, layerEvent, i);
                 if (d != null) this.setFixedHeight(d.intValue());
             }
         }
@@ -426,17 +677,15 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     }
 
     protected void parseExtremeElevations(XMLEventParserContext ctx, XMLEvent layerEvent) {
-        AVList attrAvList = layerEvent.getAttributes();
-        if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
         // Iterator iter = layerEvent.asStartElement().getAttributes();
         // if (iter == null) return;
-        Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-        for (Entry<String, Object> entry : avListEntries) {
-            if (entry.getKey().equals("min") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+        for (int i = 0; i < layerEvent.getAttributeCount(); i++) {
+            String name = layerEvent.getAttributeName(i);
+            if (name.equals("min")) {
+                Double d = this.parseDoubleAttribute(ctx, layerEvent, i);
                 if (d != null) this.setExtremeElevationMin(d);
-            } else if (entry.getKey().equals("max") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+            } else if (name.equals("max")) {
+                Double d = this.parseDoubleAttribute(ctx, layerEvent, i);
                 if (d != null) this.setExtremeElevationMax(d);
             }
         }
@@ -458,8 +707,10 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         Double maxLat = null;
         Double maxLon = null;
 
+        int depth = bboxEvent.getDepth();
+
         for (XMLEvent event = ctx.nextEvent(); event != null; event = ctx.nextEvent()) {
-            if (ctx.isEndElement(event, bboxEvent)) {
+            if (ctx.isEndElement(event, depth)) {
                 if (minLat != null && minLon != null && maxLat != null && maxLon != null) {
                     snweLL = new double[]{minLat, maxLat, minLon, maxLon};
 //					this.setGeographicBoundingBox(Sector.fromDegrees(minLat, maxLat, minLon, maxLon));
@@ -488,23 +739,21 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         Double minLon = null;
         Double maxLat = null;
         Double maxLon = null;
-        AVList attrAvList = bboxEvent.getAttributes();
-        if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
         // Iterator iter = bboxEvent.asStartElement().getAttributes();
         // if (iter == null) return;
-        Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-        for (Entry<String, Object> entry : avListEntries) {
-            if (entry.getKey().equals("minx") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+        for (int i = 0; i < bboxEvent.getAttributeCount(); i++) {
+            String name = bboxEvent.getAttributeName(i);
+            if (name.equals("minx")) {
+                Double d = this.parseDoubleAttribute(ctx, bboxEvent, i);
                 if (d != null) minLon = d;
-            } else if (entry.getKey().equals("miny") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+            } else if (name.equals("miny")) {
+                Double d = this.parseDoubleAttribute(ctx, bboxEvent, i);
                 if (d != null) minLat = d;
-            } else if (entry.getKey().equals("maxx") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+            } else if (name.equals("maxx")) {
+                Double d = this.parseDoubleAttribute(ctx, bboxEvent, i);
                 if (d != null) maxLon = d;
-            } else if (entry.getKey().equals("maxy") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+            } else if (name.equals("maxy")) {
+                Double d = this.parseDoubleAttribute(ctx, bboxEvent, i);
                 if (d != null) maxLat = d;
             }
         }
@@ -532,17 +781,15 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     }
 
     protected void parseScaleHint(XMLEventParserContext ctx, XMLEvent bboxEvent) throws XMLParserException {
-        AVList attrAvList = bboxEvent.getAttributes();
-        if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
         // Iterator iter = bboxEvent.asStartElement().getAttributes();
         // if (iter == null) return;
-        Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-        for (Entry<String, Object> entry : avListEntries) {
-            if (entry.getKey().equals("min") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+        for (int i = 0; i < bboxEvent.getAttributeCount(); i++) {
+            String name = bboxEvent.getAttributeName(i);
+            if (name.equals("min")) {
+                Double d = this.parseDoubleAttribute(ctx, bboxEvent, i);
                 if (d != null) this.setMinScaleHint(d);
-            } else if (entry.getKey().equals("max") && entry.getValue() != null) {
-                Double d = WWUtil.convertStringToDouble(entry.getValue().toString());
+            } else if (name.equals("max")) {
+                Double d = this.parseDoubleAttribute(ctx, bboxEvent, i);
                 if (d != null) this.setMaxScaleHint(d);
             }
         }
@@ -558,16 +805,67 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         // }
     }
 
+    /**
+     * Returns this layer, if it is named, and its named nested layers, in depth-first order. To find or count layers
+     * without building a list, use {@link #getLayerIterator()} or {@link #accept(WMSLayerVisitor)}.
+     *
+     * @return a new list of the named layers.
+     */
     public List<WMSLayerCapabilities> getNamedLayers() {
         List<WMSLayerCapabilities> namedLayers = new ArrayList<WMSLayerCapabilities>();
+        addNamedLayers(new WMSLayerIterator(this), namedLayers);
 
-        if (this.getName() != null) namedLayers.add(this);
+        return namedLayers;
+    }
 
-        for (WMSLayerCapabilities layer : this.getLayers()) {
-            namedLayers.addAll(layer.getNamedLayers());
+    protected static void addNamedLayers(WMSLayerIterator iterator, List<WMSLayerCapabilities> namedLayers) {
+        while (iterator.hasNext()) {
+            WMSLayerCapabilities layer = iterator.next();
+            if (layer.getName() != null) namedLayers.add(layer);
         }
+    }
 
-        return namedLayers;
+    /**
+     * Returns an iterator over this layer and its nested layers, in depth-first order. The iterator can be split to
+     * traverse the layers in parallel; see {@link WMSLayerIterator}.
+     *
+     * @return an iterator over this layer and its nested layers.
+     */
+    public WMSLayerIterator getLayerIterator() {
+        return new WMSLayerIterator(this);
+    }
+
+    /**
+     * Calls a visitor for this layer and its nested layers, in depth-first order, skipping the nested layers of a layer
+     * when the visitor returns {@link WMSLayerVisitor.Result#SKIP_SUBTREE} for it. This layer is at depth 0.
+     *
+     * @param visitor the visitor.
+     *
+     * @return false if the visitor ended the traversal, otherwise true.
+     *
+     * @throws IllegalArgumentException if the visitor is null.
+     */
+    public boolean accept(WMSLayerVisitor visitor) {
+        if (visitor == null) {
+            String message = Messages.getMessage("nullValue.VisitorIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        return this.accept(visitor, 0);
+    }
+
+    protected boolean accept(WMSLayerVisitor visitor, int depth) {
+        WMSLayerVisitor.Result result = visitor.visit(this, depth);
+        if (result == WMSLayerVisitor.Result.TERMINATE) return false;
+
+        if (result != WMSLayerVisitor.Result.SKIP_SUBTREE) {
+            for (WMSLayerCapabilities layer : this.getLayers()) {
+                if (!layer.accept(visitor, depth + 1)) return false;
+            }
+        }
+
+        return true;
     }
 
     public WMSLayerCapabilities getLayerByName(String name) {
@@ -585,11 +883,23 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     public WMSLayerStyle getStyleByName(String name) {
         if (WWUtil.isEmpty(name)) return null;
 
-        for (WMSLayerStyle style : this.getStyles()) {
-            if (style.getName().equals(name)) return style;
+        Map<String, WMSLayerStyle> index = this.stylesByName;
+        if (index == null) {
+            index = new HashMap<String, WMSLayerStyle>();
+            if (this.styles != null) {
+                for (WMSLayerStyle style : this.styles) {
+                    if (style.getName() != null && !index.containsKey(style.getName()))
+                        index.put(style.getName(), style);
+                }
+            }
+            this.stylesByName = index;
         }
 
-        return null;
+        // The index holds the styles this layer declares. Inherited styles are looked up in the ancestors' indexes.
+        WMSLayerStyle style = index.get(name);
+        if (style == null && this.resolvedParent != null) style = this.resolvedParent.getStyleByName(name);
+
+        return style;
     }
 
     public Double getExtremeElevationMin() {
@@ -632,15 +942,29 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         this.maxScaleHint = scaleHint;
     }
 
+    /**
+     * Returns the layer's dimensions, including those inherited from its ancestors. The set is a read-only view, and the
+     * same instance is returned on every call; see {@link WMSInheritedSet}.
+     *
+     * @return the layer's dimensions.
+     */
     public Set<WMSLayerDimension> getDimensions() {
-        if (this.dimensions != null) return this.dimensions;
-        else return Collections.emptySet();
+        if (this.dimensionsView == null) {
+            this.dimensionsView = new WMSInheritedSet<WMSLayerDimension>(this) {
+                @Override
+                protected Set<WMSLayerDimension> getDeclaredValues(WMSLayerCapabilities layer) {
+                    return layer.dimensions;
+                }
+            };
+        }
+
+        return this.dimensionsView;
     }
 
     protected void addDimension(WMSLayerDimension dimension) {
         if (this.dimensions == null) this.dimensions = new HashSet<WMSLayerDimension>();
 
-        this.getDimensions().add(dimension);
+        this.dimensions.add(dimension);
     }
 
     protected void addDimensions(Set<WMSLayerDimension> dims) {
@@ -722,9 +1046,23 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         this.queryable = queryable;
     }
 
+    /**
+     * Returns the layer's attributions, including those inherited from its ancestors. The set is a read-only view, and the
+     * same instance is returned on every call; see {@link WMSInheritedSet}.
+     *
+     * @return the layer's attributions.
+     */
     public Set<WMSLayerAttribution> getAttributions() {
-        if (this.attributions != null) return attributions;
-        else return Collections.emptySet();
+        if (this.attributionsView == null) {
+            this.attributionsView = new WMSInheritedSet<WMSLayerAttribution>(this) {
+                @Override
+                protected Set<WMSLayerAttribution> getDeclaredValues(WMSLayerCapabilities layer) {
+                    return layer.attributions;
+                }
+            };
+        }
+
+        return this.attributionsView;
     }
 
     protected void setAttributions(Set<WMSLayerAttribution> attributions) {
@@ -734,7 +1072,7 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     protected void addAttribution(WMSLayerAttribution attribution) {
         if (this.attributions == null) this.attributions = new HashSet<WMSLayerAttribution>();
 
-        this.getAttributions().add(attribution);
+        this.attributions.add(attribution);
     }
 
     protected void addAttributions(Set<WMSLayerAttribution> attribs) {
@@ -743,9 +1081,23 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         }
     }
 
+    /**
+     * Returns the layer's authority URLs, including those inherited from its ancestors. The set is a read-only view, and the
+     * same instance is returned on every call; see {@link WMSInheritedSet}.
+     *
+     * @return the layer's authority URLs.
+     */
     public Set<WMSAuthorityURL> getAuthorityURLs() {
-        if (this.authorityURLs != null) return this.authorityURLs;
-        else return Collections.emptySet();
+        if (this.authorityURLsView == null) {
+            this.authorityURLsView = new WMSInheritedSet<WMSAuthorityURL>(this) {
+                @Override
+                protected Set<WMSAuthorityURL> getDeclaredValues(WMSLayerCapabilities layer) {
+                    return layer.authorityURLs;
+                }
+            };
+        }
+
+        return this.authorityURLsView;
     }
 
     protected void setAuthorityURLs(Set<WMSAuthorityURL> urls) {
@@ -755,7 +1107,7 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     protected void addAuthorityURL(WMSAuthorityURL authorityURL) {
         if (this.authorityURLs == null) this.authorityURLs = new HashSet<WMSAuthorityURL>();
 
-        this.getAuthorityURLs().add(authorityURL);
+        this.authorityURLs.add(authorityURL);
     }
 
     protected void addAuthorityURLs(Set<WMSAuthorityURL> urls) {
@@ -849,19 +1201,34 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         }
     }
 
+    /**
+     * Returns the layer's styles, including those inherited from its ancestors. The set is a read-only view, and the
+     * same instance is returned on every call; see {@link WMSInheritedSet}.
+     *
+     * @return the layer's styles.
+     */
     public Set<WMSLayerStyle> getStyles() {
-        if (this.styles != null) return this.styles;
-        else return Collections.emptySet();
+        if (this.stylesView == null) {
+            this.stylesView = new WMSInheritedSet<WMSLayerStyle>(this) {
+                @Override
+                protected Set<WMSLayerStyle> getDeclaredValues(WMSLayerCapabilities layer) {
+                    return layer.styles;
+                }
+            };
+        }
+
+        return this.stylesView;
     }
 
     protected void setStyles(Set<WMSLayerStyle> styles) {
         this.styles = styles;
+        this.stylesByName = null;
     }
 
     protected void addStyle(WMSLayerStyle style) {
         if (this.styles == null) this.styles = new HashSet<WMSLayerStyle>();
 
-        this.getStyles().add(style);
+        if (this.styles.add(style)) this.stylesByName = null;
     }
 
     protected void addStyles(Set<WMSLayerStyle> inStyles) {
@@ -870,9 +1237,23 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         }
     }
 
+    /**
+     * Returns the layer's bounding boxes, including those inherited from its ancestors. The set is a read-only view, and the
+     * same instance is returned on every call; see {@link WMSInheritedSet}.
+     *
+     * @return the layer's bounding boxes.
+     */
     public Set<OGCBoundingBox> getBoundingBoxes() {
-        if (this.boundingBoxes != null) return this.boundingBoxes;
-        else return Collections.emptySet();
+        if (this.boundingBoxesView == null) {
+            this.boundingBoxesView = new WMSInheritedSet<OGCBoundingBox>(this) {
+                @Override
+                protected Set<OGCBoundingBox> getDeclaredValues(WMSLayerCapabilities layer) {
+                    return layer.boundingBoxes;
+                }
+            };
+        }
+
+        return this.boundingBoxesView;
     }
 
     protected void setBoundingBoxes(Set<OGCBoundingBox> boxes) {
@@ -882,7 +1263,7 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
     protected void addBoundingBox(OGCBoundingBox box) {
         if (this.boundingBoxes == null) this.boundingBoxes = new HashSet<OGCBoundingBox>();
 
-        this.getBoundingBoxes().add(box);
+        this.boundingBoxes.add(box);
     }
 
     protected void addBoundingBoxes(Set<OGCBoundingBox> boxes) {
@@ -977,9 +1358,23 @@ public class WMSLayerCapabilities extends AbstractXMLEventParser {
         }
     }
 
+    /**
+     * Returns the layer's coordinate reference systems, including those inherited from its ancestors. The set is a read-only view, and the
+     * same instance is returned on every call; see {@link WMSInheritedSet}.
+     *
+     * @return the layer's coordinate reference systems.
+     */
     public Set<String> getCRS() {
-        if (this.crs != null) return this.crs;
-        else return Collections.emptySet();
+        if (this.crsView == null) {
+            this.crsView = new WMSInheritedSet<String>(this) {
+                @Override
+                protected Set<String> getDeclaredValues(WMSLayerCapabilities layer) {
+                    return layer.crs;
+                }
+            };
+        }
+
+        return this.crsView;
     }
 
     protected void setCRS(Set<String> crs) {
@@ -0,0 +1,37 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+/**
+ * Receives the layers of a WMS capabilities document while the document is parsed. Register a listener with {@link
+ * WMSCapabilities#setLayerListener(WMSLayerCapabilitiesListener)}.
+ */
+public interface WMSLayerCapabilitiesListener {
+	/**
+	 * Called on the parsing thread when a Layer element ends. Nested layers end before their parent, so they are
+	 * reported first. The attributes the layer inherits are resolved from the elements of its ancestors read so far,
+	 * which in a schema-valid document are all of the ancestors' inherited elements. Layers are resolved again when the
+	 * Capability element ends, so for a schema-valid document the final capabilities are the same with or without a
+	 * listener.
+	 * 
+	 * @param layer
+	 *            the parsed layer.
+	 */
+	void layerParsed(WMSLayerCapabilities layer);
+}
@@ -6,14 +6,12 @@
 
 package gov.nasa.worldwind.ogc.wms;
 
-import gov.nasa.worldwind.avlist.AVList;
 import gov.nasa.worldwind.util.WWUtil;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
 import gov.nasa.worldwind.util.xml.XMLParserException;
-import java.util.Map.Entry;
-import java.util.Set;
 
 /**
  * Parses a WMS layer Dimension element.
@@ -35,6 +33,13 @@ public class WMSLayerDimension extends AbstractXMLEventParser {
 		super(namespaceURI);
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSLayerDimension.class) return super.newInstance();
+
+		return new WMSLayerDimension(this.getNamespaceURI());
+	}
+
 	@Override
 	protected void doParseEventContent(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
 		if (event.isCharacters()) {
@@ -49,28 +54,27 @@ public class WMSLayerDimension extends AbstractXMLEventParser {
 
 	@Override
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
 		// Iterator iter = event.asStartElement().getAttributes();
 		// if (iter == null) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (entry.getKey().equals("name") && entry.getValue() != null) this.setName(entry.getValue().toString());
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			String name = event.getAttributeName(i);
+			String value = event.getAttributeValue(i);
+			if (name.equals("name")) this.setName(value);
 
-			else if (entry.getKey().equals("units") && entry.getValue() != null) this.setUnits(entry.getValue().toString());
+			else if (name.equals("units")) this.setUnits(value);
 
-			else if (entry.getKey().equals("unitSymbol") && entry.getValue() != null) this.setUnitSymbol(entry.getValue().toString());
+			else if (name.equals("unitSymbol")) this.setUnitSymbol(value);
 
-			else if (entry.getKey().equals("default") && entry.getValue() != null) this.setDefaultValue(entry.getValue().toString());
+			else if (name.equals("default")) this.setDefaultValue(value);
 
-			else if (entry.getKey().equals("multipleValues") && entry.getValue() != null) {
-				Boolean d = WWUtil.convertStringToBoolean(entry.getValue().toString());
+			else if (name.equals("multipleValues")) {
+				Boolean d = WWUtil.convertStringToBoolean(value);
 				if (d != null) this.setMultipleValues(d);
-			} else if (entry.getKey().equals("nearestValue") && entry.getValue() != null) {
-				Boolean d = WWUtil.convertStringToBoolean(entry.getValue().toString());
+			} else if (name.equals("nearestValue")) {
+				Boolean d = WWUtil.convertStringToBoolean(value);
 				if (d != null) this.setNearestValue(d);
-			} else if (entry.getKey().equals("current") && entry.getValue() != null) {
-				Boolean d = WWUtil.convertStringToBoolean(entry.getValue().toString());
+			} else if (name.equals("current")) {
+				Boolean d = WWUtil.convertStringToBoolean(value);
 				if (d != null) this.setCurrent(d);
 			}
 		}
@@ -6,13 +6,11 @@
 
 package gov.nasa.worldwind.ogc.wms;
 
-import gov.nasa.worldwind.avlist.AVList;
 import gov.nasa.worldwind.util.WWUtil;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
-import java.util.Map.Entry;
-import java.util.Set;
 
 /**
  * Parses a WMS layer Extent element. These elements are defined only in WMS 1.1.1.
@@ -30,18 +28,24 @@ public class WMSLayerExtent extends AbstractXMLEventParser {
 		super(namespaceURI);
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSLayerExtent.class) return super.newInstance();
+
+		return new WMSLayerExtent(this.getNamespaceURI());
+	}
+
 	@Override
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
 		// Iterator iter = event.asStartElement().getAttributes();
 		// if (iter == null) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (entry.getKey().equals("name") && entry.getValue() != null) this.setName(entry.getValue().toString());
-			else if (entry.getKey().equals("default") && entry.getValue() != null) this.setDefaultValue(entry.getValue().toString());
-			else if (entry.getKey().equals("nearestValue") && entry.getValue() != null) {
-				Boolean d = WWUtil.convertStringToBoolean(entry.getValue().toString());
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			String name = event.getAttributeName(i);
+			String value = event.getAttributeValue(i);
+			if (name.equals("name")) this.setName(value);
+			else if (name.equals("default")) this.setDefaultValue(value);
+			else if (name.equals("nearestValue")) {
+				Boolean d = WWUtil.convertStringToBoolean(value);
 				if (d != null) this.setNearestValue(d);
 			}
 		}
@@ -6,12 +6,10 @@
 
 package gov.nasa.worldwind.ogc.wms;
 
-import gov.nasa.worldwind.avlist.AVList;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
-import java.util.Map.Entry;
-import java.util.Set;
 
 /**
  * Parses a WMS layer Identifier element.
@@ -27,15 +25,21 @@ public class WMSLayerIdentifier extends AbstractXMLEventParser {
 		super(namespaceURI);
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSLayerIdentifier.class) return super.newInstance();
+
+		return new WMSLayerIdentifier(this.getNamespaceURI());
+	}
+
 	@Override
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
 		// Iterator iter = event.asStartElement().getAttributes();
 		// if (iter == null) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (entry.getKey().equals("authority") && entry.getValue() != null) this.setAuthority(entry.getValue().toString());
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			String name = event.getAttributeName(i);
+			String value = event.getAttributeValue(i);
+			if (name.equals("authority")) this.setAuthority(value);
 
 		}
 		// while (iter.hasNext()) {
@@ -6,15 +6,13 @@
 
 package gov.nasa.worldwind.ogc.wms;
 
-import gov.nasa.worldwind.avlist.AVList;
 import gov.nasa.worldwind.ogc.OGCOnlineResource;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
 import gov.nasa.worldwind.util.xml.XMLParserException;
-import java.util.Map.Entry;
-import java.util.Set;
 import javax.xml.namespace.QName;
 
 /**
@@ -38,9 +36,18 @@ public class WMSLayerInfoURL extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSLayerInfoURL.class) return super.newInstance();
+
+		return new WMSLayerInfoURL(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		FORMAT = new QName(this.getNamespaceURI(), "Format");
-		ONLINE_RESOURCE = new QName(this.getNamespaceURI(), "OnlineResource");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		FORMAT = names.get("Format");
+		ONLINE_RESOURCE = names.get("OnlineResource");
 	}
 
 	@Override
@@ -66,13 +73,12 @@ public class WMSLayerInfoURL extends AbstractXMLEventParser {
 	}
 
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
 		// Iterator iter = event.asStartElement().getAttributes();
 		// if (iter == null) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (entry.getKey().equals("name") && entry.getValue() != null) this.setName(entry.getValue().toString());
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			String name = event.getAttributeName(i);
+			String value = event.getAttributeValue(i);
+			if (name.equals("name")) this.setName(value);
 		}
 		// while (iter.hasNext()) {
 		// Attribute attr = (Attribute) iter.next();
@@ -0,0 +1,162 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over a tree of layers in depth-first order, each layer before its nested layers, without copying the layers
+ * into a list. The iterator keeps one frame per level of the tree, the position in a layer's nested layers, so
+ * advancing does not allocate once the deepest level has been reached.
+ * <p/>
+ * The layers still to be iterated can be divided with {@link #trySplit()}, which follows the contract of
+ * <code>java.util.Spliterator.trySplit</code>: it returns an iterator over a prefix of the remaining layers, and this
+ * iterator continues with the rest, so the two iterators together cover the remaining layers in the same order. The
+ * parts can be traversed on the threads of a fork-join pool, and on Java 8 and later an iterator is adapted to a
+ * <code>Spliterator</code> for parallel streams by delegating <code>tryAdvance</code> and <code>trySplit</code> to it.
+ * Iterators are not thread-safe, and the layers must not change while they are iterated.
+ */
+public class WMSLayerIterator implements Iterator<WMSLayerCapabilities> {
+	/** Whether to iterate over the nested layers of the first level's layers, false to iterate the first level only. */
+	protected final boolean descend;
+
+	// The frames of the levels being iterated, the first level at index 0: a list of layers, the index of the next
+	// layer to return, and the end of the range of layers to return.
+	protected List<?>[] lists = new List<?>[8];
+	protected int[] next = new int[8];
+	protected int[] end = new int[8];
+	protected int top = -1;
+
+	/**
+	 * Creates an iterator over a list of layers and their nested layers.
+	 *
+	 * @param layers
+	 *            the layers. May be empty.
+	 */
+	public WMSLayerIterator(List<WMSLayerCapabilities> layers) {
+		this(layers, 0, layers.size(), true);
+	}
+
+	/**
+	 * Creates an iterator over a layer and its nested layers.
+	 *
+	 * @param layer
+	 *            the layer.
+	 */
+	public WMSLayerIterator(WMSLayerCapabilities layer) {
+		this(Collections.singletonList(layer), 0, 1, true);
+	}
+
+	protected WMSLayerIterator(List<?> layers, int start, int end, boolean descend) {
+		this.descend = descend;
+		this.push(layers, start, end);
+	}
+
+	public boolean hasNext() {
+		while (this.top >= 0 && this.next[this.top] >= this.end[this.top]) {
+			this.lists[this.top--] = null;
+		}
+
+		return this.top >= 0;
+	}
+
+	public WMSLayerCapabilities next() {
+		if (!this.hasNext()) throw new NoSuchElementException();
+
+		WMSLayerCapabilities layer = (WMSLayerCapabilities) this.lists[this.top].get(this.next[this.top]++);
+
+		List<WMSLayerCapabilities> children = layer.getLayers();
+		if (this.descend && children.size() > 0) this.push(children, 0, children.size());
+
+		return layer;
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Splits off a prefix of the layers still to be iterated. The returned iterator covers the layers up to the middle
+	 * of the shallowest level that has layers left, and this iterator continues with the rest. If only a single layer
+	 * with nested layers is left, the returned iterator covers that layer alone and this iterator its nested layers.
+	 *
+	 * @return an iterator over a prefix of the remaining layers, or null if the remaining layers cannot be split.
+	 */
+	public WMSLayerIterator trySplit() {
+		if (!this.hasNext()) return null;
+
+		// Find the shallowest level with layers left. The levels above it have been iterated completely.
+		int level = 0;
+		while (this.next[level] >= this.end[level]) {
+			level++;
+		}
+
+		boolean deeperLeft = false;
+		for (int i = level + 1; i <= this.top && !deeperLeft; i++) {
+			deeperLeft = this.next[i] < this.end[i];
+		}
+
+		int remaining = this.end[level] - this.next[level];
+		WMSLayerIterator prefix;
+		if (deeperLeft || remaining >= 2) {
+			// The prefix takes the levels from the shallowest with layers left, and the first half of that level's
+			// layers, this iterator the other half.
+			int mid = this.next[level] + remaining / 2;
+			prefix = new WMSLayerIterator(this.lists[level], this.next[level], mid, this.descend);
+			for (int i = level + 1; i <= this.top; i++) {
+				prefix.push(this.lists[i], this.next[i], this.end[i]);
+			}
+
+			this.reset(this.lists[level], mid, this.end[level]);
+		} else {
+			// A single layer is left. The prefix is the layer itself, and this iterator continues with its nested
+			// layers.
+			WMSLayerCapabilities layer = (WMSLayerCapabilities) this.lists[level].get(this.next[level]);
+			List<WMSLayerCapabilities> children = layer.getLayers();
+			if (!this.descend || children.isEmpty()) return null;
+
+			prefix = new WMSLayerIterator(this.lists[level], this.next[level], this.next[level] + 1, false);
+			this.reset(children, 0, children.size());
+		}
+
+		return prefix;
+	}
+
+	protected void push(List<?> layers, int start, int end) {
+		if (++this.top == this.lists.length) {
+			this.lists = Arrays.copyOf(this.lists, 2 * this.top);
+			this.next = Arrays.copyOf(this.next, 2 * this.top);
+			this.end = Arrays.copyOf(this.end, 2 * this.top);
+		}
+
+		this.lists[this.top] = layers;
+		this.next[this.top] = start;
+		this.end[this.top] = end;
+	}
+
+	protected void reset(List<?> layers, int start, int end) {
+		Arrays.fill(this.lists, null);
+		this.top = -1;
+		this.push(layers, start, end);
+	}
+}
@@ -8,6 +8,8 @@ package gov.nasa.worldwind.ogc.wms;
 
 import gov.nasa.worldwind.util.WWUtil;
 import gov.nasa.worldwind.util.xml.AbstractXMLEventParser;
+import gov.nasa.worldwind.util.xml.QNameTable;
+import gov.nasa.worldwind.util.xml.XMLElementTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
 import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
@@ -31,6 +33,23 @@ public class WMSLayerStyle extends AbstractXMLEventParser {
 	protected QName STYLE_SHEET_URL;
 	protected QName STYLE_URL;
 
+	// Identifiers of the child elements, used to dispatch elements through ELEMENTS.
+	protected static final int TITLE_ID = 0;
+	protected static final int NAME_ID = 1;
+	protected static final int ABSTRACT_ID = 2;
+	protected static final int LEGEND_URL_ID = 3;
+	protected static final int STYLE_SHEET_URL_ID = 4;
+	protected static final int STYLE_URL_ID = 5;
+
+	/** Dispatch table for the child elements of a Style element. */
+	protected static final XMLElementTable ELEMENTS = new XMLElementTable()
+		.add("Title", TITLE_ID)
+		.add("Name", NAME_ID)
+		.add("Abstract", ABSTRACT_ID)
+		.add("LegendURL", LEGEND_URL_ID)
+		.add("StyleSheetURL", STYLE_SHEET_URL_ID)
+		.add("StyleURL", STYLE_URL_ID);
+
 	protected String name;
 	protected String title;
 	protected String styleAbstract;
@@ -44,13 +63,22 @@ public class WMSLayerStyle extends AbstractXMLEventParser {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSLayerStyle.class) return super.newInstance();
+
+		return new WMSLayerStyle(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		NAME = new QName(this.getNamespaceURI(), "Name");
-		TITLE = new QName(this.getNamespaceURI(), "Title");
-		ABSTRACT = new QName(this.getNamespaceURI(), "Abstract");
-		LEGEND_URL = new QName(this.getNamespaceURI(), "LegendURL");
-		STYLE_SHEET_URL = new QName(this.getNamespaceURI(), "StyleSheetURL");
-		STYLE_URL = new QName(this.getNamespaceURI(), "StyleURL");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		NAME = names.get("Name");
+		TITLE = names.get("Title");
+		ABSTRACT = names.get("Abstract");
+		LEGEND_URL = names.get("LegendURL");
+		STYLE_SHEET_URL = names.get("StyleSheetURL");
+		STYLE_URL = names.get("StyleURL");
 	}
 
 	@Override
@@ -60,41 +88,60 @@ public class WMSLayerStyle extends AbstractXMLEventParser {
 		XMLEventParser parser = super.allocate(ctx, event);
 		if (parser != null) return parser;
 
-		if (ctx.isStartElement(event, LEGEND_URL)) defaultParser = new WMSLogoURL(this.getNamespaceURI());
-		else if (ctx.isStartElement(event, STYLE_SHEET_URL)) defaultParser = new WMSLayerInfoURL(this.getNamespaceURI());
-		else if (ctx.isStartElement(event, STYLE_URL)) defaultParser = new WMSLayerInfoURL(this.getNamespaceURI());
+		switch (ELEMENTS.getId(ctx, event, this.getNamespaceURI())) {
+			case LEGEND_URL_ID:
+				defaultParser = new WMSLogoURL(this.getNamespaceURI());
+				break;
+			case STYLE_SHEET_URL_ID:
+			case STYLE_URL_ID:
+				defaultParser = new WMSLayerInfoURL(this.getNamespaceURI());
+				break;
+		}
 
 		return ctx.allocate(event, defaultParser);
 	}
 
 	@Override
 	protected void doParseEventContent(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
-		if (ctx.isStartElement(event, TITLE)) {
-			String s = ctx.getStringParser().parseString(ctx, event);
-			if (!WWUtil.isEmpty(s)) this.setTitle(s);
-		} else if (ctx.isStartElement(event, NAME)) {
-			String s = ctx.getStringParser().parseString(ctx, event);
-			if (!WWUtil.isEmpty(s)) this.setName(s);
-		} else if (ctx.isStartElement(event, ABSTRACT)) {
-			String s = ctx.getStringParser().parseString(ctx, event);
-			if (!WWUtil.isEmpty(s)) this.setStyleAbstract(s);
-		} else if (ctx.isStartElement(event, LEGEND_URL)) {
-			XMLEventParser parser = this.allocate(ctx, event);
-			if (parser != null) {
-				Object o = parser.parse(ctx, event, args);
-				if (o != null && o instanceof WMSLogoURL) this.addLegendURL((WMSLogoURL) o);
+		switch (ELEMENTS.getId(ctx, event, this.getNamespaceURI())) {
+			case TITLE_ID: {
+				String s = ctx.getStringParser().parseString(ctx, event);
+				if (!WWUtil.isEmpty(s)) this.setTitle(s);
+				break;
+			}
+			case NAME_ID: {
+				String s = ctx.getStringParser().parseString(ctx, event);
+				if (!WWUtil.isEmpty(s)) this.setName(s);
+				break;
+			}
+			case ABSTRACT_ID: {
+				String s = ctx.getStringParser().parseString(ctx, event);
+				if (!WWUtil.isEmpty(s)) this.setStyleAbstract(s);
+				break;
+			}
+			case LEGEND_URL_ID: {
+				XMLEventParser parser = this.allocate(ctx, event);
+				if (parser != null) {
+					Object o = parser.parse(ctx, event, args);
+					if (o != null && o instanceof WMSLogoURL) this.addLegendURL((WMSLogoURL) o);
+				}
+				break;
 			}
-		} else if (ctx.isStartElement(event, STYLE_SHEET_URL)) {
-			XMLEventParser parser = this.allocate(ctx, event);
-			if (parser != null) {
-				Object o = parser.parse(ctx, event, args);
-				if (o != null && o instanceof WMSLayerInfoURL) this.setStyleSheetURL((WMSLayerInfoURL) o);
+			case STYLE_SHEET_URL_ID: {
+				XMLEventParser parser = this.allocate(ctx, event);
+				if (parser != null) {
+					Object o = parser.parse(ctx, event, args);
+					if (o != null && o instanceof WMSLayerInfoURL) this.setStyleSheetURL((WMSLayerInfoURL) o);
+				}
+				break;
 			}
-		} else if (ctx.isStartElement(event, STYLE_URL)) {
-			XMLEventParser parser = this.allocate(ctx, event);
-			if (parser != null) {
-				Object o = parser.parse(ctx, event, args);
-				if (o != null && o instanceof WMSLayerInfoURL) this.setStyleURL((WMSLayerInfoURL) o);
+			case STYLE_URL_ID: {
+				XMLEventParser parser = this.allocate(ctx, event);
+				if (parser != null) {
+					Object o = parser.parse(ctx, event, args);
+					if (o != null && o instanceof WMSLayerInfoURL) this.setStyleURL((WMSLayerInfoURL) o);
+				}
+				break;
 			}
 		}
 	}
@@ -0,0 +1,48 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+/**
+ * Visits the layers of a capabilities document in depth-first order, each layer before its nested layers. A visitor
+ * can skip the nested layers of a layer, or end the traversal. See {@link WMSCapabilities#accept(WMSLayerVisitor)}
+ * and {@link WMSLayerCapabilities#accept(WMSLayerVisitor)}.
+ */
+public interface WMSLayerVisitor {
+	/** Indicates how a traversal continues after a layer has been visited. */
+	enum Result {
+		/** Continue with the layer's nested layers. */
+		CONTINUE,
+		/** Continue, but skip the layer's nested layers. */
+		SKIP_SUBTREE,
+		/** End the traversal. */
+		TERMINATE
+	}
+
+	/**
+	 * Called for each layer.
+	 * 
+	 * @param layer
+	 *            the layer.
+	 * @param depth
+	 *            the layer's depth below the layer the traversal started from, or below the document's top-level layers,
+	 *            which are at depth 0.
+	 * @return how the traversal continues.
+	 */
+	Result visit(WMSLayerCapabilities layer, int depth);
+}
@@ -6,12 +6,9 @@
 
 package gov.nasa.worldwind.ogc.wms;
 
-import gov.nasa.worldwind.avlist.AVList;
-import gov.nasa.worldwind.util.WWUtil;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
-import java.util.Map.Entry;
-import java.util.Set;
 
 /**
  * Parses a WMS layer LogoURL element. Also used for WMS layer LegendURL elements.
@@ -27,23 +24,28 @@ public class WMSLogoURL extends WMSLayerInfoURL {
 		super(namespaceURI);
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSLogoURL.class) return super.newInstance();
+
+		return new WMSLogoURL(this.getNamespaceURI());
+	}
+
 	@Override
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) {
 		super.doParseEventAttributes(ctx, event, args);
-		AVList attrAvList = event.getAttributes();
-		if (null == attrAvList || attrAvList.getEntries().isEmpty()) return;
 		// Iterator iter = event.asStartElement().getAttributes();
 		// if (iter == null) return;
-		Set<Entry<String, Object>> avListEntries = attrAvList.getEntries();
-		for (Entry<String, Object> entry : avListEntries) {
-			if (entry.getKey().equals("width") && entry.getValue() != null) {
-				Integer i = WWUtil.convertStringToInteger(entry.getValue().toString());
-				if (i != null) this.setWidth(i);
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			String name = event.getAttributeName(i);
+			if (name.equals("width")) {
+				Integer width = this.parseIntegerAttribute(ctx, event, i);
+				if (width != null) this.setWidth(width);
 			}
 
-			if (entry.getKey().equals("height") && entry.getValue() != null) {
-				Integer i = WWUtil.convertStringToInteger(entry.getValue().toString());
-				if (i != null) this.setHeight(i);
+			if (name.equals("height")) {
+				Integer height = this.parseIntegerAttribute(ctx, event, i);
+				if (height != null) this.setHeight(height);
 			}
 		}
 		// while (iter.hasNext()) {
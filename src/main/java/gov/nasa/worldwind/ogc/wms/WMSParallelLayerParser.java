@@ -0,0 +1,318 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.avlist.AVList;
+import gov.nasa.worldwind.avlist.AVListImpl;
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
+import gov.nasa.worldwind.util.xml.BasicXMLEventParserContext;
+import gov.nasa.worldwind.util.xml.UTF8XMLPullParser;
+import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParserContext;
+import gov.nasa.worldwind.util.xml.XMLEventParserContextPool;
+import gov.nasa.worldwind.util.xml.XMLEventReader;
+import gov.nasa.worldwind.util.xml.XMLParserDiagnostics;
+import gov.nasa.worldwind.util.xml.XMLParserException;
+import gov.nasa.worldwind.util.xml.XMLParserNotification;
+
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.xmlpull.v1.XmlPullParserException;
+
+/**
+ * Parses the nested layers of a capabilities document's top-level layers concurrently on a fork-join pool. Large
+ * documents have a single top-level layer holding thousands of layers, so the document is split below it.
+ * <p/>
+ * The document is parsed in two phases that overlap. While the document is read, each nested layer of a top-level
+ * layer is allocated, linked to its parent and added to it in document order, but its element is only scanned to find
+ * its end, without decoding its content. Runs of consecutive nested layers are then parsed into the allocated layers
+ * by tasks on the pool, each with its own reader over the same bytes and its own parser context, while the rest of the
+ * document is read. {@link #join(XMLEventParserContext)} waits for the tasks once a top-level layer has been read,
+ * before its layers are linked to their capabilities and their inherited attributes are resolved, so the parsed
+ * layers are the same as those of a sequential parse.
+ * <p/>
+ * Documents are split only when they are read by {@link UTF8XMLPullParser}, which locates elements by their byte
+ * offsets; other documents are parsed sequentially. Tasks parse with a copy of the document context's parsers and
+ * values, such as the parse profile. The layers a task parses are reported to the layer listener on the document's
+ * thread, run by run in document order, as soon as the task and those before it are done, so the listener sees the
+ * layers in the same order as in a sequential parse. The tasks' notifications are added to the document context's
+ * diagnostics.
+ */
+public class WMSParallelLayerParser {
+	/** The default number of bytes of nested layers parsed by one task. */
+	public static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+
+	protected final ForkJoinPool pool;
+	protected final int batchSize;
+
+	// Set up from the document context when the first layer is split off.
+	protected XMLEventParserContextPool contextPool;
+	protected AVList values;
+	protected String defaultNamespaceURI;
+	/** The document's layer listener, called on the document's thread. */
+	protected WMSLayerCapabilitiesListener listener;
+
+	/** The run of nested layers being collected, and the runs submitted to the pool. */
+	protected LayerBatch batch;
+	protected final List<LayerBatch> batches = new ArrayList<LayerBatch>();
+	/** The number of submitted runs whose layers have been reported to the listener. */
+	protected int reportedBatches;
+
+	/**
+	 * A run of consecutive nested layers, parsed by one task. The task's parsers report layers to the run, which keeps
+	 * them for the document's thread to pass on to the document's listener.
+	 */
+	protected class LayerBatch extends RecursiveAction implements WMSLayerCapabilitiesListener {
+		private static final long serialVersionUID = 1L;
+
+		protected final UTF8XMLPullParser parser;
+		protected final int start;
+		protected final Object[] args;
+		protected final List<WMSLayerCapabilities> layers = new ArrayList<WMSLayerCapabilities>();
+		protected int[] layerStarts = new int[16];
+		protected XMLParserException exception;
+		protected XMLParserDiagnostics diagnostics;
+		/** The layers parsed by the task, in the order they are reported to a listener. */
+		protected final List<WMSLayerCapabilities> parsedLayers = new ArrayList<WMSLayerCapabilities>();
+
+		public LayerBatch(UTF8XMLPullParser document, Object... args) throws XmlPullParserException {
+			this.parser = new UTF8XMLPullParser();
+			this.parser.setInput(document);
+			this.start = document.getTokenStart();
+			this.args = args;
+		}
+
+		protected void add(WMSLayerCapabilities layer, int layerStart) {
+			if (this.layers.size() == this.layerStarts.length) this.layerStarts = Arrays.copyOf(this.layerStarts, 2 * this.layerStarts.length);
+
+			this.layerStarts[this.layers.size()] = layerStart;
+			this.layers.add(layer);
+		}
+
+		public void layerParsed(WMSLayerCapabilities layer) {
+			this.parsedLayers.add(layer);
+		}
+
+		@Override
+		protected void compute() {
+			BasicXMLEventParserContext ctx = contextPool.acquire(new XMLEventReader(this.parser, true), defaultNamespaceURI);
+			try {
+				ctx.setValues(values);
+				if (listener != null) ctx.setValue(AVKey.LAYER_LISTENER, this);
+
+				// The batch's layers are the start tags at the recorded offsets. Other elements between them were
+				// parsed with their parent layer and are skipped. Reading stops after the last layer, as the parent's
+				// end tag follows it and is not open in this reader.
+				int next = 0;
+				while (next < this.layers.size()) {
+					XMLEvent event = ctx.nextEvent();
+					if (event == null) break;
+					if (!event.isStartElement()) continue;
+
+					if (this.parser.getTokenStart() == this.layerStarts[next]) this.layers.get(next++).parse(ctx, event, this.args);
+					else ctx.skipElement(event);
+				}
+			} catch (XMLParserException e) {
+				this.exception = e;
+			} finally {
+				this.diagnostics = ctx.getDiagnostics();
+				contextPool.release(ctx);
+			}
+		}
+	}
+
+	/**
+	 * Creates a parser that parses runs of about {@link #DEFAULT_BATCH_SIZE} bytes of nested layers per task.
+	 *
+	 * @param pool
+	 *            the pool to parse layers on.
+	 * @throws IllegalArgumentException
+	 *             if the pool is null.
+	 */
+	public WMSParallelLayerParser(ForkJoinPool pool) {
+		this(pool, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a parser.
+	 *
+	 * @param pool
+	 *            the pool to parse layers on.
+	 * @param batchSize
+	 *            the number of bytes of consecutive nested layers to parse per task. A task parses at least one layer.
+	 * @throws IllegalArgumentException
+	 *             if the pool is null.
+	 */
+	public WMSParallelLayerParser(ForkJoinPool pool, int batchSize) {
+		if (pool == null) {
+			String message = Messages.getMessage("nullValue.PoolIsNull");
+			Logging.e("NWW_ANDROID", message);
+			throw new IllegalArgumentException(message);
+		}
+
+		this.pool = pool;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the parallel layer parser registered with a parser context.
+	 *
+	 * @param ctx
+	 *            the parser context. May be null.
+	 * @return the context's parallel layer parser, or null if the context has none.
+	 */
+	public static WMSParallelLayerParser getInstance(XMLEventParserContext ctx) {
+		Object o = ctx != null ? ctx.getValue(AVKey.PARALLEL_LAYER_PARSER) : null;
+
+		return o instanceof WMSParallelLayerParser ? (WMSParallelLayerParser) o : null;
+	}
+
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Hands a nested layer of a top-level layer to a task, and skips the layer's element. The layer must have been
+	 * linked to its parent, and is parsed by the time {@link #join(XMLEventParserContext)} returns.
+	 *
+	 * @param ctx
+	 *            the document's parser context.
+	 * @param event
+	 *            the start event of the nested layer.
+	 * @param layer
+	 *            the nested layer.
+	 * @param args
+	 *            optional arguments to pass to parsers of sub-elements.
+	 * @return true if the layer was handed to a task, false if the document cannot be split and the layer must be
+	 *         parsed by the caller.
+	 * @throws XMLParserException
+	 *             if an exception occurs while skipping the layer's element.
+	 */
+	public boolean fork(XMLEventParserContext ctx, XMLEvent event, WMSLayerCapabilities layer, Object... args) throws XMLParserException {
+		XMLEventReader reader = ctx.getEventReader();
+		if (!(ctx instanceof BasicXMLEventParserContext) || reader == null || !(reader.getPullParser() instanceof UTF8XMLPullParser)) return false;
+
+		UTF8XMLPullParser document = (UTF8XMLPullParser) reader.getPullParser();
+
+		if (this.contextPool == null) {
+			this.contextPool = new XMLEventParserContextPool((BasicXMLEventParserContext) ctx, this.pool.getParallelism());
+			this.defaultNamespaceURI = ctx.getDefaultNamespaceURI();
+			this.listener = WMSCapabilities.getLayerListener(ctx);
+			// The context's property change support is one of its values, and is not shared with the tasks' contexts.
+			this.values = new AVListImpl();
+			for (Map.Entry<String, Object> entry : ctx.getEntries()) {
+				if (!(entry.getValue() instanceof PropertyChangeSupport)) this.values.setValue(entry.getKey(), entry.getValue());
+			}
+			this.values.removeKey(AVKey.PARALLEL_LAYER_PARSER);
+		}
+
+		if (this.batch == null) {
+			try {
+				this.batch = new LayerBatch(document, args);
+			} catch (XmlPullParserException e) {
+				throw new XMLParserException(e);
+			}
+		}
+
+		this.batch.add(layer, document.getTokenStart());
+		ctx.skipElement(event);
+
+		if (document.getTokenEnd() - this.batch.start >= this.batchSize) this.submit();
+
+		this.report(ctx, false);
+
+		return true;
+	}
+
+	/**
+	 * Waits for the layers handed to tasks to be parsed, reports those not yet reported to the layer listener, and adds
+	 * the tasks' notifications to the document context's diagnostics. Must be called once a top-level layer has been
+	 * read, before its nested layers are used and before the top-level layer is reported.
+	 *
+	 * @param ctx
+	 *            the document's parser context.
+	 * @throws XMLParserException
+	 *             the exception of the first run of layers, in document order, whose parsing failed.
+	 */
+	public void join(XMLEventParserContext ctx) throws XMLParserException {
+		this.submit();
+
+		this.report(ctx, true);
+
+		XMLParserException exception = null;
+		for (LayerBatch b : this.batches) {
+			ctx.getDiagnostics().add(b.diagnostics);
+			if (exception == null) exception = b.exception;
+		}
+		this.batches.clear();
+		this.reportedBatches = 0;
+
+		if (exception != null) throw exception;
+	}
+
+	/**
+	 * Reports the layers of submitted runs to the layer listener, run by run in document order, stopping at the first
+	 * run whose task is not done unless asked to wait for it.
+	 * 
+	 * @param ctx
+	 *            the document's parser context.
+	 * @param wait
+	 *            true to wait for all submitted runs, false to report only the runs done so far.
+	 */
+	protected void report(XMLEventParserContext ctx, boolean wait) {
+		while (this.reportedBatches < this.batches.size()) {
+			LayerBatch b = this.batches.get(this.reportedBatches);
+			if (!wait && !b.isDone()) return;
+
+			b.join();
+			this.reportedBatches++;
+
+			if (this.listener == null) continue;
+
+			for (WMSLayerCapabilities layer : b.parsedLayers) {
+				try {
+					this.listener.layerParsed(layer);
+				} catch (RuntimeException e) {
+					ctx.firePropertyChange(new XMLParserNotification(ctx, XMLParserNotification.EXCEPTION, null, "XML.ExceptionParsingElement", null, e));
+				}
+			}
+			b.parsedLayers.clear();
+		}
+	}
+
+	protected void submit() {
+		if (this.batch == null) return;
+
+		this.pool.execute(this.batch);
+		this.batches.add(this.batch);
+		this.batch = null;
+	}
+}
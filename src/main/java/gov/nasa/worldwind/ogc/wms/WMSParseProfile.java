@@ -0,0 +1,160 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.avlist.AVKey;
+import gov.nasa.worldwind.util.xml.XMLEventParserContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Declares which parts of a WMS capabilities document are parsed. Elements of parts not in the profile are skipped
+ * together with their content, so the corresponding properties of the capabilities model are null. Layer names, the
+ * layer hierarchy and layer attributes such as <code>queryable</code> are always parsed.
+ * <p/>
+ * Profiles are immutable. Pass a profile to {@link WMSCapabilities#parse(WMSParseProfile, Object...)}.
+ */
+public class WMSParseProfile {
+	/** The optional parts of a capabilities document. */
+	public enum Part {
+		/** The Service element: service title, abstract, keywords, contact information and online resource. */
+		SERVICE,
+		/** The Request element of the Capability element, which describes GetMap and the other operations. */
+		REQUESTS,
+		/** Layer titles. */
+		TITLE,
+		/** Layer abstracts. */
+		ABSTRACT,
+		/** Layer keyword lists. */
+		KEYWORDS,
+		/** Layer styles. */
+		STYLES,
+		/** The coordinate reference systems of layers, from SRS and CRS elements. */
+		COORDINATE_SYSTEMS,
+		/** The geographic bounding boxes of layers, from EX_GeographicBoundingBox and LatLonBoundingBox elements. */
+		GEOGRAPHIC_BOUNDING_BOX,
+		/** The bounding boxes of layers in their coordinate reference systems. */
+		BOUNDING_BOXES,
+		/** Layer scale ranges, from MinScaleDenominator, MaxScaleDenominator and ScaleHint elements. */
+		SCALE_RANGE,
+		/** Layer dimensions, from Dimension, Extent and ExtremeElevations elements. */
+		DIMENSIONS,
+		/** Layer attributions. */
+		ATTRIBUTION,
+		/** Layer authority URLs and identifiers. */
+		AUTHORITY,
+		/** Layer metadata, data and feature list URLs. */
+		URLS,
+		/** Layer last update times. */
+		LAST_UPDATE
+	}
+
+	/** A profile that parses the complete document. */
+	public static final WMSParseProfile FULL = new WMSParseProfile(Part.values());
+
+	/** A profile for choosing layers: layer names, titles, abstracts and styles. */
+	public static final WMSParseProfile LAYER_PICKER = new WMSParseProfile(Part.TITLE, Part.ABSTRACT, Part.STYLES);
+
+	protected final Set<Part> parts;
+
+	/**
+	 * Creates a profile that parses the specified parts.
+	 * 
+	 * @param parts
+	 *            the parts to parse. Null elements are ignored.
+	 */
+	public WMSParseProfile(Part... parts) {
+		EnumSet<Part> set = EnumSet.noneOf(Part.class);
+		if (parts != null) {
+			for (Part part : parts) {
+				if (part != null) set.add(part);
+			}
+		}
+
+		this.parts = Collections.unmodifiableSet(set);
+	}
+
+	/**
+	 * Returns the profile registered with a parser context, or {@link #FULL} if the context has none.
+	 * 
+	 * @param ctx
+	 *            the parser context. May be null.
+	 * @return the context's profile.
+	 */
+	public static WMSParseProfile getProfile(XMLEventParserContext ctx) {
+		Object o = ctx != null ? ctx.getValue(AVKey.PARSE_PROFILE) : null;
+
+		return o instanceof WMSParseProfile ? (WMSParseProfile) o : FULL;
+	}
+
+	/**
+	 * Indicates whether this profile parses a specified part.
+	 * 
+	 * @param part
+	 *            the part of interest.
+	 * @return true if the part is parsed, otherwise false.
+	 */
+	public boolean includes(Part part) {
+		return this.parts.contains(part);
+	}
+
+	/**
+	 * Returns the parts this profile parses.
+	 * 
+	 * @return an unmodifiable set of the parts parsed.
+	 */
+	public Set<Part> getParts() {
+		return this.parts;
+	}
+
+	/**
+	 * Creates a profile that parses the parts of this profile and some additional parts.
+	 * 
+	 * @param parts
+	 *            the additional parts to parse.
+	 * @return the new profile.
+	 */
+	public WMSParseProfile with(Part... parts) {
+		Part[] combined = this.parts.toArray(new Part[this.parts.size() + (parts != null ? parts.length : 0)]);
+		if (parts != null) System.arraycopy(parts, 0, combined, this.parts.size(), parts.length);
+
+		return new WMSParseProfile(combined);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || this.getClass() != o.getClass()) return false;
+
+		return this.parts.equals(((WMSParseProfile) o).parts);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.parts.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.parts.toArray());
+	}
+}
@@ -7,7 +7,9 @@
 package gov.nasa.worldwind.ogc.wms;
 
 import gov.nasa.worldwind.ogc.OGCServiceInformation;
+import gov.nasa.worldwind.util.xml.QNameTable;
 import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParser;
 import gov.nasa.worldwind.util.xml.XMLEventParserContext;
 import gov.nasa.worldwind.util.xml.XMLParserException;
 import javax.xml.namespace.QName;
@@ -33,10 +35,19 @@ public class WMSServiceInformation extends OGCServiceInformation {
 		this.initialize();
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != WMSServiceInformation.class) return super.newInstance();
+
+		return new WMSServiceInformation(this.getNamespaceURI());
+	}
+
 	private void initialize() {
-		MAX_WIDTH = new QName(this.getNamespaceURI(), "MaxWidth");
-		MAX_HEIGHT = new QName(this.getNamespaceURI(), "MaxHeight");
-		LAYER_LIMIT = new QName(this.getNamespaceURI(), "LayerLimit");
+		QNameTable names = QNameTable.forNamespace(this.getNamespaceURI());
+
+		MAX_WIDTH = names.get("MaxWidth");
+		MAX_HEIGHT = names.get("MaxHeight");
+		LAYER_LIMIT = names.get("LayerLimit");
 	}
 
 	@Override
@@ -0,0 +1,78 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package gov.nasa.worldwind.util;
+
+import android.util.Log;
+
+/**
+ * The {@link Logging} sink used on Android devices. Messages are written to <code>android.util.Log</code>. Verbose
+ * and debug messages are only logged when <code>Log.isLoggable</code> enables them for their tag, as it does not by
+ * default, so those messages are not built unless requested. This is the only class of the parsing and model packages
+ * that uses the Android API, and it is excluded from JVM builds. {@link Logging} loads it by name; the library's
+ * consumer ProGuard rules keep it in shrunk apps.
+ */
+public class AndroidLoggingSink implements Logging.Sink
+{
+    public boolean isLoggable(String tag, Logging.Level level)
+    {
+        switch (level)
+        {
+            case VERBOSE:
+                return isLoggable(tag, Log.VERBOSE);
+            case DEBUG:
+                return isLoggable(tag, Log.DEBUG);
+            default:
+                return true;
+        }
+    }
+
+    protected static boolean isLoggable(String tag, int priority)
+    {
+        try
+        {
+            return Log.isLoggable(tag, priority);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // Tags longer than 23 characters are rejected before API 24; log their messages rather than lose them.
+            return true;
+        }
+    }
+
+    public void log(String tag, Logging.Level level, String message, Throwable throwable)
+    {
+        switch (level)
+        {
+            case VERBOSE:
+                Log.v(tag, message, throwable);
+                break;
+            case DEBUG:
+                Log.d(tag, message, throwable);
+                break;
+            case INFO:
+                Log.i(tag, message, throwable);
+                break;
+            case WARN:
+                Log.w(tag, message, throwable);
+                break;
+            default:
+                Log.e(tag, message, throwable);
+                break;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package gov.nasa.worldwind.util;
+
+import java.util.logging.Logger;
+
+/**
+ * The logging facade of the parsing and model packages. Its methods mirror those of <code>android.util.Log</code>, and
+ * pass messages to a {@link Sink}: on Android devices the sink writes to <code>android.util.Log</code>, elsewhere it
+ * writes to <code>java.util.logging</code>, so the packages also run on a plain JVM. {@link #setSink(Sink)} replaces
+ * the sink, for example with {@link #NO_OP}.
+ * <p/>
+ * Messages are objects rather than strings, and are converted to strings only when the sink logs them at their level.
+ * Messages that are expensive to build and often not logged can be passed as an object that builds the string in
+ * its <code>toString</code> method, such as a {@link Messages.LazyMessage}.
+ */
+public class Logging
+{
+    /** Message priorities, in increasing order, as defined by <code>android.util.Log</code>. */
+    public enum Level
+    {
+        VERBOSE, DEBUG, INFO, WARN, ERROR
+    }
+
+    /** Writes log messages. Implementations must be safe to use from several threads. */
+    public interface Sink
+    {
+        /**
+         * Indicates whether messages with a specified tag and level are logged.
+         *
+         * @param tag   the message tag.
+         * @param level the message level.
+         *
+         * @return true if the messages are logged, otherwise false.
+         */
+        boolean isLoggable(String tag, Level level);
+
+        /**
+         * Writes a message.
+         *
+         * @param tag       the message tag.
+         * @param level     the message level.
+         * @param message   the message.
+         * @param throwable an exception to log with the message. May be null.
+         */
+        void log(String tag, Level level, String message, Throwable throwable);
+    }
+
+    /** A sink that discards all messages. */
+    public static final Sink NO_OP = new Sink()
+    {
+        public boolean isLoggable(String tag, Level level)
+        {
+            return false;
+        }
+
+        public void log(String tag, Level level, String message, Throwable throwable)
+        {
+        }
+    };
+
+    /** A sink that writes messages to the <code>java.util.logging</code> logger named by their tag. */
+    public static class JavaLoggingSink implements Sink
+    {
+        public boolean isLoggable(String tag, Level level)
+        {
+            return Logger.getLogger(tag).isLoggable(toJavaLevel(level));
+        }
+
+        public void log(String tag, Level level, String message, Throwable throwable)
+        {
+            Logger.getLogger(tag).log(toJavaLevel(level), message, throwable);
+        }
+
+        protected static java.util.logging.Level toJavaLevel(Level level)
+        {
+            switch (level)
+            {
+                case VERBOSE:
+                    return java.util.logging.Level.FINER;
+                case DEBUG:
+                    return java.util.logging.Level.FINE;
+                case INFO:
+                    return java.util.logging.Level.INFO;
+                case WARN:
+                    return java.util.logging.Level.WARNING;
+                default:
+                    return java.util.logging.Level.SEVERE;
+            }
+        }
+    }
+
+    /** The sink used on Android devices. It is not part of JVM builds, so it is loaded by name. */
+    protected static final String ANDROID_SINK_CLASS_NAME = "gov.nasa.worldwind.util.AndroidLoggingSink";
+
+    protected static volatile Sink sink = createDefaultSink();
+
+    // Singleton, prevent public instantiation.
+    protected Logging()
+    {
+    }
+
+    /**
+     * Creates the sink used until another is specified: the Android sink when running on Android, otherwise a {@link
+     * JavaLoggingSink}. The Android classes are also present in local unit tests of Android builds, where they cannot
+     * be called, so the platform is recognized by its virtual machine.
+     *
+     * @return the default sink.
+     */
+    protected static Sink createDefaultSink()
+    {
+        String vmName = System.getProperty("java.vm.name");
+        if (vmName != null && vmName.startsWith("Dalvik"))
+        {
+            try
+            {
+                return (Sink) Class.forName(ANDROID_SINK_CLASS_NAME).getConstructor().newInstance();
+            }
+            catch (Exception e)
+            {
+                // Not an Android build; use java.util.logging.
+            }
+        }
+
+        return new JavaLoggingSink();
+    }
+
+    public static Sink getSink()
+    {
+        return sink;
+    }
+
+    /**
+     * Specifies the sink that messages are written to.
+     *
+     * @param newSink the sink. May be null, in which case messages are discarded.
+     */
+    public static void setSink(Sink newSink)
+    {
+        sink = newSink != null ? newSink : NO_OP;
+    }
+
+    /**
+     * Indicates whether messages with a specified tag and level are logged. Use this to avoid building a message that
+     * is not logged when passing a lazily formatted message is not practical.
+     *
+     * @param tag   the message tag.
+     * @param level the message level.
+     *
+     * @return true if the messages are logged, otherwise false.
+     */
+    public static boolean isLoggable(String tag, Level level)
+    {
+        return sink.isLoggable(tag, level);
+    }
+
+    public static void v(String tag, Object message)
+    {
+        log(tag, Level.VERBOSE, message, null);
+    }
+
+    public static void v(String tag, Object message, Throwable throwable)
+    {
+        log(tag, Level.VERBOSE, message, throwable);
+    }
+
+    public static void d(String tag, Object message)
+    {
+        log(tag, Level.DEBUG, message, null);
+    }
+
+    public static void d(String tag, Object message, Throwable throwable)
+    {
+        log(tag, Level.DEBUG, message, throwable);
+    }
+
+    public static void i(String tag, Object message)
+    {
+        log(tag, Level.INFO, message, null);
+    }
+
+    public static void i(String tag, Object message, Throwable throwable)
+    {
+        log(tag, Level.INFO, message, throwable);
+    }
+
+    public static void w(String tag, Object message)
+    {
+        log(tag, Level.WARN, message, null);
+    }
+
+    public static void w(String tag, Object message, Throwable throwable)
+    {
+        log(tag, Level.WARN, message, throwable);
+    }
+
+    public static void e(String tag, Object message)
+    {
+        log(tag, Level.ERROR, message, null);
+    }
+
+    public static void e(String tag, Object message, Throwable throwable)
+    {
+        log(tag, Level.ERROR, message, throwable);
+    }
+
+    /**
+     * Writes a message if its tag and level are loggable. The message is converted to a string only if it is logged.
+     *
+     * @param tag       the message tag.
+     * @param level     the message level.
+     * @param message   the message. Its string form is logged.
+     * @param throwable an exception to log with the message. May be null.
+     */
+    public static void log(String tag, Level level, Object message, Throwable throwable)
+    {
+        Sink s = sink;
+        if (s.isLoggable(tag, level))
+            s.log(tag, level, String.valueOf(message), throwable);
+    }
+}
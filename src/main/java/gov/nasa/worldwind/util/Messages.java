@@ -1,18 +1,56 @@
 package gov.nasa.worldwind.util;
 
-import android.util.Log;
-
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Messages
- *
+ * <p/>
+ * The resource bundle is resolved once per locale, and each message's format string is compiled once per locale into
+ * a {@link MessageFormat} that is reused by later calls. A bundle that cannot be found is also remembered, so a missing
+ * bundle is reported once rather than on every call.
  */
 public class Messages {
     protected static final String MESSAGE_BUNDLE_NAME = Messages.class.getPackage().getName() + ".MessageStrings";
     public static final String LOGGING = "LOGGING";
 
+    /** Marks a locale whose bundle could not be found. */
+    protected static final Object MISSING_BUNDLE = new Object();
+
+    /** The resolved bundles, or {@link #MISSING_BUNDLE}, by locale. */
+    protected static final ConcurrentHashMap<Locale, Object> bundles = new ConcurrentHashMap<Locale, Object>();
+    /** The compiled message formats by locale and property. */
+    protected static final ConcurrentHashMap<Locale, ConcurrentHashMap<String, MessageFormat>> formats =
+            new ConcurrentHashMap<Locale, ConcurrentHashMap<String, MessageFormat>>();
+
+    /**
+     * A message whose arguments are formatted only when it is converted to a string, for messages that may never be
+     * shown. The formatted string is retained after the first conversion.
+     */
+    public static class LazyMessage {
+        protected final String property;
+        protected final Object[] args;
+        protected String message;
+
+        public LazyMessage(String property, Object... args) {
+            this.property = property;
+            this.args = args;
+        }
+
+        public String getProperty() {
+            return this.property;
+        }
+
+        @Override
+        public synchronized String toString() {
+            if (this.message == null)
+                this.message = getMessage(this.property, this.args);
+
+            return this.message;
+        }
+    }
+
     // Singleton, prevent public instantiation.
     protected Messages() {
     }
@@ -24,12 +62,14 @@ public class Messages {
      * @return The requested message.
      */
     public static String getMessage(String property) {
+        ResourceBundle bundle = getBundle(Locale.getDefault());
+        if (bundle == null)
+            return lookupFailed(null);
+
         try {
-            return (String) ResourceBundle.getBundle(MESSAGE_BUNDLE_NAME, Locale.getDefault()).getObject(property);
+            return (String) bundle.getObject(property);
         } catch (Exception e) {
-            String msg = "Exception looking up message from bundle " + MESSAGE_BUNDLE_NAME;
-            Log.e(LOGGING, msg, e);
-            return msg;
+            return lookupFailed(e);
         }
     }
 
@@ -43,23 +83,111 @@ public class Messages {
      * @see MessageFormat
      */
     public static String getMessage(String property, Object... args) {
-        String msg;
+        if (args == null)
+            return getMessage(property);
+
+        MessageFormat format;
 
         try {
-            msg = (String) ResourceBundle.getBundle(MESSAGE_BUNDLE_NAME, Locale.getDefault()).getObject(property);
+            format = getFormat(Locale.getDefault(), property);
         } catch (Exception e) {
-            msg = "Exception looking up message from bundle " + MESSAGE_BUNDLE_NAME;
-            Log.e(LOGGING, msg, e);
-            return msg;
+            return lookupFailed(e);
         }
 
+        if (format == null)
+            return lookupFailed(null);
+
         try {
-            // TODO: This is no longer working with more than one arg in the message string, e.g., {1}
-            return args == null ? msg : MessageFormat.format(msg, args);
+            // MessageFormat is not thread safe, and the compiled formats are shared.
+            synchronized (format) {
+                return format.format(args);
+            }
         } catch (IllegalArgumentException e) {
-            msg = "Message arguments do not match format string: " + property;
-            Log.e(LOGGING, msg, e);
+            String msg = "Message arguments do not match format string: " + property;
+            Logging.e(LOGGING, msg, e);
             return msg;
         }
     }
+
+    /**
+     * Returns a message whose arguments are formatted when the message is first converted to a string. Use this
+     * instead of {@link #getMessage(String, Object...)} when the message may never be displayed or logged.
+     *
+     * @param property the property identifying which message to retrieve.
+     * @param args     the arguments referenced by the format string identified <code>property</code>.
+     * @return The requested message, formatted on demand.
+     */
+    public static LazyMessage getLazyMessage(String property, Object... args) {
+        return new LazyMessage(property, args);
+    }
+
+    /**
+     * Returns the message bundle for a locale, resolving it the first time it is requested.
+     *
+     * @param locale the locale.
+     * @return the bundle, or null if the bundle cannot be found.
+     */
+    protected static ResourceBundle getBundle(Locale locale) {
+        Object bundle = bundles.get(locale);
+
+        if (bundle == null) {
+            try {
+                bundle = ResourceBundle.getBundle(MESSAGE_BUNDLE_NAME, locale);
+            } catch (MissingResourceException e) {
+                // Report the missing bundle once for this locale; later lookups fail without logging.
+                if (bundles.putIfAbsent(locale, MISSING_BUNDLE) == null)
+                    Logging.e(LOGGING, "Exception looking up message from bundle " + MESSAGE_BUNDLE_NAME, e);
+                return null;
+            }
+
+            bundles.putIfAbsent(locale, bundle);
+        }
+
+        return bundle != MISSING_BUNDLE ? (ResourceBundle) bundle : null;
+    }
+
+    /**
+     * Returns the compiled format of a message for a locale, compiling it the first time it is requested.
+     *
+     * @param locale   the locale.
+     * @param property the property identifying the message.
+     * @return the message format, or null if the bundle cannot be found.
+     * @throws MissingResourceException if the bundle has no message for the property.
+     */
+    protected static MessageFormat getFormat(Locale locale, String property) {
+        ConcurrentHashMap<String, MessageFormat> localeFormats = formats.get(locale);
+        if (localeFormats == null) {
+            localeFormats = new ConcurrentHashMap<String, MessageFormat>();
+            ConcurrentHashMap<String, MessageFormat> existing = formats.putIfAbsent(locale, localeFormats);
+            if (existing != null)
+                localeFormats = existing;
+        }
+
+        MessageFormat format = localeFormats.get(property);
+        if (format == null) {
+            ResourceBundle bundle = getBundle(locale);
+            if (bundle == null)
+                return null;
+
+            format = new MessageFormat((String) bundle.getObject(property), locale);
+            MessageFormat existing = localeFormats.putIfAbsent(property, format);
+            if (existing != null)
+                format = existing;
+        }
+
+        return format;
+    }
+
+    /**
+     * Returns the message used in place of one that cannot be found.
+     *
+     * @param e the lookup exception to log, or null if the failure has already been reported.
+     * @return the replacement message.
+     */
+    protected static String lookupFailed(Exception e) {
+        String msg = "Exception looking up message from bundle " + MESSAGE_BUNDLE_NAME;
+        if (e != null)
+            Logging.e(LOGGING, msg, e);
+        return msg;
+    }
 }
@@ -17,8 +17,6 @@
  */
 package gov.nasa.worldwind.util;
 
-import android.util.Log;
-
 import java.lang.reflect.*;
 
 /**
@@ -63,7 +61,7 @@ public class WWUtil
         if (s == null)
         {
             String message = Messages.getMessage("nullValue.StringIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -79,7 +77,7 @@ public class WWUtil
         catch (NumberFormatException e)
         {
             String message = Messages.getMessage("generic.ConversionError", s);
-            Log.e("NWW_ANDROID", message, e);
+            Logging.e("NWW_ANDROID", message, e);
             return null;
         }
     }
@@ -98,7 +96,7 @@ public class WWUtil
         if (s == null)
         {
             String message = Messages.getMessage("nullValue.StringIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -114,7 +112,7 @@ public class WWUtil
         catch (NumberFormatException e)
         {
             String message = Messages.getMessage("generic.ConversionError", s);
-            Log.e("NWW_ANDROID", message, e);
+            Logging.e("NWW_ANDROID", message, e);
             return null;
         }
     }
@@ -133,7 +131,7 @@ public class WWUtil
         if (s == null)
         {
             String message = Messages.getMessage("nullValue.StringIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -149,7 +147,7 @@ public class WWUtil
         catch (NumberFormatException e)
         {
             String message = Messages.getMessage("generic.ConversionError", s);
-            Log.e("NWW_ANDROID", message, e);
+            Logging.e("NWW_ANDROID", message, e);
             return null;
         }
     }
@@ -168,7 +166,7 @@ public class WWUtil
         if (s == null)
         {
             String message = Messages.getMessage("nullValue.StringIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -187,7 +185,7 @@ public class WWUtil
         catch (NumberFormatException e)
         {
             String message = Messages.getMessage("generic.ConversionError", s);
-            Log.e("NWW_ANDROID", message, e);
+            Logging.e("NWW_ANDROID", message, e);
             return null;
         }
     }
@@ -206,7 +204,7 @@ public class WWUtil
         if (s == null)
         {
             String message = Messages.getMessage("nullValue.StringIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -223,7 +221,7 @@ public class WWUtil
         catch (NumberFormatException e)
         {
             String message = Messages.getMessage("generic.ConversionError", s);
-            Log.e("NWW_ANDROID", message, e);
+            Logging.e("NWW_ANDROID", message, e);
             return null;
         }
     }
@@ -353,14 +351,14 @@ public class WWUtil
         if (parent == null)
         {
             String msg = Messages.getMessage("nullValue.ParentIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
         if (propertyName == null)
         {
             String msg = Messages.getMessage("nullValue.PropertyNameIsNull");
-            Log.e("NWW_ANDROID", msg);
+            Logging.e("NWW_ANDROID", msg);
             throw new IllegalArgumentException(msg);
         }
 
@@ -17,18 +17,17 @@
  */
 package gov.nasa.worldwind.util;
 
-import android.util.Log;
-
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
-import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
-import org.xmlpull.v1.XmlPullParserFactory;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -38,6 +37,7 @@ import javax.xml.xpath.XPathFactory;
 
 import gov.nasa.worldwind.exception.WWRuntimeException;
 import gov.nasa.worldwind.util.xml.XMLEventReader;
+import gov.nasa.worldwind.util.xml.XMLEventReaderFactory;
 
 /**
  * A collection of static methods use for opening, reading and otherwise working with XML files.
@@ -83,7 +83,7 @@ public class WWXML {
 			return docBuilderFactory.newDocumentBuilder();
 		} catch (ParserConfigurationException e) {
 			String msg = Messages.getMessage("XML.ParserConfigurationException");
-			Log.v("NWW_ANDROID", msg);
+			Logging.v("NWW_ANDROID", msg);
 			throw new WWRuntimeException(msg, e);
 		}
 	}
@@ -2818,7 +2818,8 @@ public class WWXML {
      * <ul>
      * <li>{@link URL}</li>
      * <li>{@link InputStream}</li>
-     * <li>{@link java.io.File}</li>
+     * <li>{@link java.io.File}, which is memory-mapped</li>
+     * <li>{@link ByteBuffer}</li>
      * <li>{@link String} containing a valid URL description or a file or resource name available on the classpath.</li>
      * </ul>
      *
@@ -2835,7 +2836,8 @@ public class WWXML {
      * <ul>
      * <li>{@link URL}</li>
      * <li>{@link InputStream}</li>
-     * <li>{@link File}</li>
+     * <li>{@link File}, which is memory-mapped</li>
+     * <li>{@link ByteBuffer}</li>
      * <li>{@link String} containing a valid URL description or a file or resource name available on the classpath.</li>
      * </ul>
      *
@@ -2845,24 +2847,40 @@ public class WWXML {
      * identify a URL, a file or a resource available on the classpath.
      */
     public static XMLEventReader openEventReader(Object docSource, boolean isNamespaceAware) {
+        return openEventReader(docSource, isNamespaceAware, XMLEventReaderFactory.getDefaultBackend());
+    }
+
+    /**
+     * Open an XML event stream from a general source, read by a specified parser. The source type may be one of the
+     * types accepted by {@link #openEventReader(Object, boolean)}. Documents that the
+     * {@link XMLEventReaderFactory.Backend#UTF8_TOKENIZER} backend does not support are read with the platform's pull
+     * parser.
+     *
+     * @param docSource        the source of the XML document.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @param backend          the parser that reads the document.
+     * @return the source document as a {@link XMLEventReader}, or null if the source object is a string that does not
+     * identify a URL, a file or a resource available on the classpath.
+     */
+    public static XMLEventReader openEventReader(Object docSource, boolean isNamespaceAware,
+        XMLEventReaderFactory.Backend backend) {
         if (docSource == null || WWUtil.isEmpty(docSource)) {
             String message = Messages.getMessage("nullValue.DocumentSourceIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
         if (docSource instanceof URL) {
-            return openEventReaderURL((URL) docSource, isNamespaceAware);
+            return openEventReaderURL((URL) docSource, isNamespaceAware, backend);
         } else if (docSource instanceof InputStream) {
-            return openEventReaderStream((InputStream) docSource, isNamespaceAware);
-//		} else if (docSource instanceof File) {
-//			return openEventReaderFile(((File) docSource).getPath(), null, isNamespaceAware);
-//		} else if (docSource instanceof java.nio.ByteBuffer) {
-//			InputStream is = WWIO.getInputStreamFromByteBuffer((java.nio.ByteBuffer) docSource);
-//			return openEventReaderStream(is, isNamespaceAware);
+            return openEventReaderStream((InputStream) docSource, isNamespaceAware, backend);
+        } else if (docSource instanceof File) {
+            return openEventReaderFile((File) docSource, isNamespaceAware, backend);
+        } else if (docSource instanceof ByteBuffer) {
+            return openEventReaderBuffer((ByteBuffer) docSource, isNamespaceAware, backend);
         } else if (!(docSource instanceof String)) {
             String message = Messages.getMessage("generic.UnrecognizedSourceType", docSource.toString());
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -2888,7 +2906,7 @@ public class WWXML {
     public static XMLEventReader openEventReader(URL url, boolean isNamespaceAware) {
         if (url == null) {
             String message = Messages.getMessage("nullValue.URLIsNull"); // TODO
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -2912,25 +2930,144 @@ public class WWXML {
      *                                  is included in this exception's {@link Throwable#initCause(Throwable)}
      */
     public static XMLEventReader openEventReaderStream(InputStream inputStream, boolean isNamespaceAware) {
+        return openEventReaderStream(inputStream, isNamespaceAware, XMLEventReaderFactory.getDefaultBackend());
+    }
+
+    /**
+     * Opens an XML event stream given an input stream, a namespace-aware processing mode and the parser that reads the
+     * stream.
+     *
+     * @param inputStream      an XML document as an input stream.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @param backend          the parser that reads the document.
+     * @return an XMLEventReader for the stream content.
+     * @throws IllegalArgumentException if the input stream or the backend is null.
+     * @throws WWRuntimeException       if an exception or error occurs while parsing the stream. The causing exception
+     *                                  is included in this exception's {@link Throwable#initCause(Throwable)}
+     */
+    public static XMLEventReader openEventReaderStream(InputStream inputStream, boolean isNamespaceAware,
+        XMLEventReaderFactory.Backend backend) {
         if (inputStream == null) {
             String message = Messages.getMessage("nullValue.InputStreamIsNull"); // TODO
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
         try {
-            XmlPullParserFactory inputFactory = XmlPullParserFactory.newInstance();
-            inputFactory.setNamespaceAware(isNamespaceAware);
+            // The pull parser factory is looked up once per namespace mode; the stream is buffered and its encoding
+            // determined from the byte order mark or XML declaration.
+            return XMLEventReaderFactory.getInstance(isNamespaceAware, backend).createReader(inputStream);
+        } catch (XmlPullParserException e) {
+            String message = Messages.getMessage("generic.ExceptionAttemptingToParseXml", inputStream); // TODO
+            throw new WWRuntimeException(message, e);
+        } catch (IOException e) {
+            String message = Messages.getMessage("generic.ExceptionAttemptingToParseXml", inputStream); // TODO
+            throw new WWRuntimeException(message, e);
+        }
+    }
+
+    /**
+     * Opens an XML event stream for a file. The file is memory-mapped and decoded directly from the mapping, so
+     * re-reading a file whose pages are cached by the operating system involves little I/O.
+     *
+     * @param file             the XML document.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @return an XMLEventReader for the file content.
+     * @throws IllegalArgumentException if the file is null.
+     * @throws WWRuntimeException       if an exception or error occurs while mapping or parsing the file. The causing
+     *                                  exception is included in this exception's {@link Throwable#initCause(Throwable)}
+     */
+    public static XMLEventReader openEventReaderFile(File file, boolean isNamespaceAware) {
+        return openEventReaderFile(file, isNamespaceAware, XMLEventReaderFactory.getDefaultBackend());
+    }
 
-            XmlPullParser pullParser = inputFactory.newPullParser();
-            pullParser.setInput(inputStream, null);
+    /**
+     * Opens an XML event stream for a file, read by a specified parser. The file is memory-mapped.
+     *
+     * @param file             the XML document.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @param backend          the parser that reads the document.
+     * @return an XMLEventReader for the file content.
+     * @throws IllegalArgumentException if the file or the backend is null.
+     * @throws WWRuntimeException       if an exception or error occurs while mapping or parsing the file. The causing
+     *                                  exception is included in this exception's {@link Throwable#initCause(Throwable)}
+     */
+    public static XMLEventReader openEventReaderFile(File file, boolean isNamespaceAware,
+        XMLEventReaderFactory.Backend backend) {
+        if (file == null) {
+            String message = Messages.getMessage("nullValue.FileIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
 
-            return new XMLEventReader(pullParser);
+        try {
+            return openEventReaderBuffer(mapFile(file), isNamespaceAware, backend);
+        } catch (IOException e) {
+            String message = Messages.getMessage("generic.ExceptionAttemptingToParseXml", file.getPath());
+            throw new WWRuntimeException(message, e);
+        }
+    }
+
+    /**
+     * Opens an XML event stream for a document held in a byte buffer, such as a memory-mapped file. The document is
+     * decoded directly from the buffer, without an intermediate stream or copy.
+     *
+     * @param buffer           the XML document, from the buffer's position to its limit. The buffer's position is not
+     *                         changed.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @return an XMLEventReader for the buffer content.
+     * @throws IllegalArgumentException if the buffer is null.
+     * @throws WWRuntimeException       if an exception or error occurs while parsing the buffer. The causing exception
+     *                                  is included in this exception's {@link Throwable#initCause(Throwable)}
+     */
+    public static XMLEventReader openEventReaderBuffer(ByteBuffer buffer, boolean isNamespaceAware) {
+        return openEventReaderBuffer(buffer, isNamespaceAware, XMLEventReaderFactory.getDefaultBackend());
+    }
+
+    /**
+     * Opens an XML event stream for a document held in a byte buffer, read by a specified parser.
+     *
+     * @param buffer           the XML document, from the buffer's position to its limit. The buffer's position is not
+     *                         changed.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @param backend          the parser that reads the document.
+     * @return an XMLEventReader for the buffer content.
+     * @throws IllegalArgumentException if the buffer or the backend is null.
+     * @throws WWRuntimeException       if an exception or error occurs while parsing the buffer. The causing exception
+     *                                  is included in this exception's {@link Throwable#initCause(Throwable)}
+     */
+    public static XMLEventReader openEventReaderBuffer(ByteBuffer buffer, boolean isNamespaceAware,
+        XMLEventReaderFactory.Backend backend) {
+        if (buffer == null) {
+            String message = Messages.getMessage("nullValue.BufferIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        try {
+            return XMLEventReaderFactory.getInstance(isNamespaceAware, backend).createReader(buffer);
         } catch (XmlPullParserException e) {
-            String message = Messages.getMessage("generic.ExceptionAttemptingToParseXml", inputStream); // TODO
+            String message = Messages.getMessage("generic.ExceptionAttemptingToParseXml", buffer);
             throw new WWRuntimeException(message, e);
         }
     }
+
+    /**
+     * Maps a file into memory, read only. The mapping remains valid after the file is closed.
+     *
+     * @param file the file to map.
+     * @return a buffer holding the file's content.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public static ByteBuffer mapFile(File file) throws IOException {
+        FileInputStream stream = new FileInputStream(file);
+        try {
+            FileChannel channel = stream.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            stream.close();
+        }
+    }
 //
 //	/**
 //	 * Opens an XML event stream given the file's location in the file system or on the classpath.
@@ -2973,15 +3110,31 @@ public class WWXML {
      *                                  exception is included in this exception's {@link Throwable#initCause(Throwable)}.
      */
     public static XMLEventReader openEventReaderURL(URL url, boolean isNamespaceAware) {
+        return openEventReaderURL(url, isNamespaceAware, XMLEventReaderFactory.getDefaultBackend());
+    }
+
+    /**
+     * Open an XML event stream given a generic {@link URL} reference, read by a specified parser.
+     *
+     * @param url              the URL to the document.
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @param backend          the parser that reads the document.
+     * @return an XMLEventReader for the URL.
+     * @throws IllegalArgumentException if the url or the backend is null.
+     * @throws WWRuntimeException       if an exception or error occurs while opening and parsing the url. The causing
+     *                                  exception is included in this exception's {@link Throwable#initCause(Throwable)}.
+     */
+    public static XMLEventReader openEventReaderURL(URL url, boolean isNamespaceAware,
+        XMLEventReaderFactory.Backend backend) {
         if (url == null) {
             String message = Messages.getMessage("nullValue.URLIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
         try {
             InputStream inputStream = url.openStream();
-            return openEventReaderStream(inputStream, isNamespaceAware);
+            return openEventReaderStream(inputStream, isNamespaceAware, backend);
         } catch (IOException e) {
             String message = Messages.getMessage("generic.ExceptionAttemptingToParseXml", url.toString());
             throw new WWRuntimeException(message, e);
@@ -18,15 +18,14 @@
 
 package gov.nasa.worldwind.util.xml;
 
-import android.util.Log;
-
 import gov.nasa.worldwind.avlist.AVList;
-import gov.nasa.worldwind.avlist.AVListImpl;
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 import gov.nasa.worldwind.util.WWUtil;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.namespace.QName;
 
 /**
@@ -38,8 +37,12 @@ import javax.xml.namespace.QName;
 public class AbstractXMLEventParser implements XMLEventParser {
 	protected static final String CHARACTERS_CONTENT = "CharactersContent";
 
+	/** Constructors used by {@link #newInstance()}, keyed by parser class. */
+	protected static final ConcurrentHashMap<Class<?>, Constructor<?>> constructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
 	protected final String namespaceURI;
 
+	/** The parsed fields, created with the first field. Held in an unsynchronized {@link XMLFieldList}. */
 	protected AVList fields;
 	protected XMLEventParser parent;
 
@@ -67,14 +70,25 @@ public class AbstractXMLEventParser implements XMLEventParser {
 		return this.namespaceURI;
 	}
 
+	/**
+	 * Creates a new parser of this parser's class by reflection, using its namespace-URI constructor if it has one or
+	 * its no-argument constructor otherwise. The constructor is looked up once per class. Parser classes that are
+	 * instantiated often override this method to call their constructor directly, falling back to this method for
+	 * subclasses.
+	 */
 	public XMLEventParser newInstance() throws Exception {
-		Constructor<? extends AbstractXMLEventParser> constructor = this.getAConstructor(String.class);
-		if (constructor != null) return constructor.newInstance(this.getNamespaceURI());
+		Constructor<?> constructor = constructors.get(this.getClass());
+		if (constructor == null) {
+			constructor = this.getAConstructor(String.class);
+			if (constructor == null) constructor = this.getAConstructor();
+			if (constructor == null) return null;
 
-		constructor = this.getAConstructor();
-		if (constructor != null) return constructor.newInstance();
+			constructors.put(this.getClass(), constructor);
+		}
 
-		return null;
+		if (constructor.getParameterTypes().length == 1) return (XMLEventParser) constructor.newInstance(this.getNamespaceURI());
+
+		return (XMLEventParser) constructor.newInstance();
 	}
 
 	public void setField(QName keyName, Object value) {
@@ -82,13 +96,13 @@ public class AbstractXMLEventParser implements XMLEventParser {
 	}
 
 	public void setField(String keyName, Object value) {
-		if (this.fields == null) this.fields = new AVListImpl();
+		if (this.fields == null) this.fields = new XMLFieldList();
 
 		this.fields.setValue(keyName, value);
 	}
 
 	public void setFields(Map<String, Object> newFields) {
-		if (this.fields == null) this.fields = new AVListImpl();
+		if (this.fields == null) this.fields = new XMLFieldList();
 
 		for (Map.Entry<String, Object> nf : newFields.entrySet()) {
 			this.setField(nf.getKey(), nf.getValue());
@@ -184,7 +198,7 @@ public class AbstractXMLEventParser implements XMLEventParser {
 	public XMLEventParser allocate(XMLEventParserContext ctx, XMLEvent event) {
 		if (ctx == null) {
 			String message = Messages.getMessage("nullValue.ParserContextIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -198,13 +212,13 @@ public class AbstractXMLEventParser implements XMLEventParser {
 	public Object parse(XMLEventParserContext ctx, XMLEvent inputEvent, Object... args) throws XMLParserException {
 		if (ctx == null) {
 			String message = Messages.getMessage("nullValue.ParserContextIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
 		if (inputEvent == null) {
 			String message = Messages.getMessage("nullValue.EventIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -218,13 +232,14 @@ public class AbstractXMLEventParser implements XMLEventParser {
 		} catch (Exception e) {
 			ctx.firePropertyChange(new XMLParserNotification(ctx, XMLParserNotification.EXCEPTION, inputEvent, "XML.ExceptionParsingElement", null, e));
 		}
-		// XXX: Fix for the unclosed tag. A final Input event that is an holder for the tag parsed at the moment
-		final XMLEvent fixedInputEvent = doCopyInputEvent(inputEvent);
+		// The element ends at the end tag at its own depth. The input event is not compared by name: the reader may
+		// reuse it for the following events, and nested elements may have the same name.
+		int depth = inputEvent.getDepth();
 
 		// Parse the event's sub-elements.
 		XMLEvent event = ctx.nextEvent();
 		while (event != null) {
-			if (ctx.isEndElement(event, fixedInputEvent)) {
+			if (ctx.isEndElement(event, depth)) {
 				if (this.hasField(CHARACTERS_CONTENT)) {
 					StringBuilder sb = (StringBuilder) this.getField(CHARACTERS_CONTENT);
 					if (sb != null && sb.length() > 0) this.setField(CHARACTERS_CONTENT, sb.toString());
@@ -247,11 +262,6 @@ public class AbstractXMLEventParser implements XMLEventParser {
 		return null;
 	}
 
-	private XMLEvent doCopyInputEvent(XMLEvent inputEvent) {
-		XMLEvent newEv = new FakeXMLEvent(inputEvent.getName().getNamespaceURI(), inputEvent.getName().getLocalPart());
-		return newEv;
-	}
-
 	protected void doAddCharacters(XMLEventParserContext ctx, XMLEvent event, Object... args) {
 		String s = ctx.getCharacters(event);
 		if (WWUtil.isEmpty(s)) return;
@@ -285,7 +295,9 @@ public class AbstractXMLEventParser implements XMLEventParser {
 			XMLEventParser parser = this.allocate(ctx, event);
 
 			if (parser == null) {
-				ctx.firePropertyChange(new XMLParserNotification(ctx, XMLParserNotification.UNRECOGNIZED, event, "XML.UnrecognizedElement", null, event));
+				// The event is also the notification's value, so pass the copy the notification keeps.
+				XMLEvent detached = event.copy();
+				ctx.firePropertyChange(new XMLParserNotification(ctx, XMLParserNotification.UNRECOGNIZED, detached, "XML.UnrecognizedElement", null, detached));
 				parser = ctx.getUnrecognizedElementParser();
 
 				// Register an unrecognized parser for the element type.
@@ -318,11 +330,8 @@ public class AbstractXMLEventParser implements XMLEventParser {
 	 *            an optional list of arguments that may by used by subclasses.
 	 */
 	protected void doParseEventAttributes(XMLEventParserContext ctx, XMLEvent event, Object... args) throws XMLParserException {
-		AVList attributes = event.getAttributes();
-		if (attributes == null) return;
-
-		for (Map.Entry<String, Object> entry : attributes.getEntries()) {
-			this.doAddEventAttribute(entry.getKey(), entry.getValue(), ctx, event, args);
+		for (int i = 0; i < event.getAttributeCount(); i++) {
+			this.doAddEventAttribute(event.getAttributeName(i), event.getAttributeValue(i), ctx, event, args);
 		}
 	}
 
@@ -334,8 +343,11 @@ public class AbstractXMLEventParser implements XMLEventParser {
 	protected String parseCharacterContent(XMLEventParserContext ctx, XMLEvent stringEvent, Object... args) throws XMLParserException {
 		StringBuilder value = new StringBuilder();
 
+		// The element ends at the first end tag at its own depth; nested elements contribute only their text.
+		int depth = stringEvent.getDepth();
+
 		for (XMLEvent event = ctx.nextEvent(); event != null; event = ctx.nextEvent()) {
-			if (ctx.isEndElement(event, stringEvent)) return value.length() > 0 ? value.toString() : null;
+			if (ctx.isEndElement(event, depth)) return value.length() > 0 ? value.toString() : null;
 
 			if (event.isCharacters()) {
 				String s = ctx.getCharacters(event);
@@ -345,4 +357,107 @@ public class AbstractXMLEventParser implements XMLEventParser {
 
 		return null;
 	}
+
+	/**
+	 * Parses the character content of an element as a number. The text is read directly from the pull parser's
+	 * character buffer with {@link XMLNumberParser}, so no string is created, and content that is not a valid number
+	 * is reported to the context as an {@link XMLParserNotification#EXCEPTION} notification rather than thrown.
+	 * Numbers split by nested elements are not valid.
+	 * 
+	 * @param ctx
+	 *            the parser context.
+	 * @param numberEvent
+	 *            the start element whose content is parsed.
+	 * @param integer
+	 *            true to parse an integer, false to parse a floating point value.
+	 * 
+	 * @return an {@link Integer} or {@link Double}, or null if the element is empty or its content is not a valid
+	 *         number.
+	 * 
+	 * @throws XMLParserException
+	 *             if an exception occurs during event-stream reading.
+	 */
+	protected Number parseNumericContent(XMLEventParserContext ctx, XMLEvent numberEvent, boolean integer) throws XMLParserException {
+		int depth = numberEvent.getDepth();
+		int[] range = null;
+		Number value = null;
+		boolean valid = true;
+		boolean blank = true;
+
+		for (XMLEvent event = ctx.nextEvent(); event != null; event = ctx.nextEvent()) {
+			if (ctx.isEndElement(event, depth)) {
+				if (!valid) {
+					this.notifyInvalidNumber(ctx, event);
+					return null;
+				}
+
+				return value;
+			}
+
+			if (event.isCharacters()) {
+				if (range == null) range = new int[2];
+
+				// The buffer is overwritten when the reader advances, so the text is parsed now.
+				char[] chars = event.getTextCharacters(range);
+				if (XMLNumberParser.isBlank(chars, range[0], range[1])) continue;
+
+				if (blank) {
+					value = integer ? XMLNumberParser.toInteger(chars, range[0], range[1]) : XMLNumberParser.toDouble(chars, range[0], range[1]);
+					valid = value != null;
+					blank = false;
+				} else {
+					value = null;
+					valid = false;
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Parses a floating point attribute value with {@link XMLNumberParser}. A value that is not a valid number is
+	 * reported to the context as an {@link XMLParserNotification#EXCEPTION} notification rather than thrown.
+	 * 
+	 * @param ctx
+	 *            the parser context.
+	 * @param event
+	 *            the start element holding the attribute.
+	 * @param index
+	 *            the attribute index.
+	 * 
+	 * @return the value, or null if the attribute is empty or not a valid number.
+	 */
+	protected Double parseDoubleAttribute(XMLEventParserContext ctx, XMLEvent event, int index) {
+		String s = event.getAttributeValue(index);
+		Double d = XMLNumberParser.toDouble(s);
+		if (d == null && !XMLNumberParser.isBlank(s)) this.notifyInvalidNumber(ctx, event);
+
+		return d;
+	}
+
+	/**
+	 * Parses an integer attribute value with {@link XMLNumberParser}. A value that is not a valid integer is reported
+	 * to the context as an {@link XMLParserNotification#EXCEPTION} notification rather than thrown.
+	 * 
+	 * @param ctx
+	 *            the parser context.
+	 * @param event
+	 *            the start element holding the attribute.
+	 * @param index
+	 *            the attribute index.
+	 * 
+	 * @return the value, or null if the attribute is empty or not a valid integer.
+	 */
+	protected Integer parseIntegerAttribute(XMLEventParserContext ctx, XMLEvent event, int index) {
+		String s = event.getAttributeValue(index);
+		Integer i = XMLNumberParser.toInteger(s);
+		if (i == null && !XMLNumberParser.isBlank(s)) this.notifyInvalidNumber(ctx, event);
+
+		return i;
+	}
+
+	protected void notifyInvalidNumber(XMLEventParserContext ctx, XMLEvent event) {
+		if (ctx != null) ctx.firePropertyChange(new XMLParserNotification(ctx, XMLParserNotification.EXCEPTION, event, "XML.ImproperDataType", null, null));
+	}
 }
@@ -18,12 +18,12 @@
 
 package gov.nasa.worldwind.util.xml;
 
-import android.util.Log;
-
 import gov.nasa.worldwind.avlist.AVListImpl;
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,6 +32,13 @@ import javax.xml.namespace.QName;
 
 /**
  * Edited By: Nicola Dorigatti, Trilogis
+ * <p/>
+ * Parsers are looked up in two tables. The base table is an immutable table shared between contexts: the default
+ * parsers for all contexts, or for a context created with the copy constructor, a snapshot of the prototype context's
+ * parsers. Parsers registered with a context, including those registered for unrecognized elements while parsing, are
+ * held in the context's own table, which is consulted first and never affects other contexts. Creating a context
+ * therefore does not populate a parser table, and contexts can be reused with {@link #reset(XMLEventReader)} or
+ * through an {@link XMLEventParserContextPool}.
  * 
  * @author tag
  * @version $Id: BasicXMLEventParserContext.java 771 2012-09-14 19:30:10Z tgaskins $
@@ -58,9 +65,32 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	protected BooleanIntegerXMLEventParser booleanIntegerParser;
 	protected String defaultNamespaceURI = XMLConstants.NULL_NS_URI;
 	protected XMLParserNotificationListener notificationListener;
+	protected XMLParserDiagnostics diagnostics = new XMLParserDiagnostics();
 	protected ConcurrentHashMap<String, Object> idTable = new ConcurrentHashMap<String, Object>();
 
-	protected ConcurrentHashMap<QName, XMLEventParser> parsers = new ConcurrentHashMap<QName, XMLEventParser>();
+	/** The default parsers, shared by all contexts and never modified. */
+	protected static final Map<QName, XMLEventParserFactory> DEFAULT_PARSERS = createDefaultParsers();
+
+	/** The immutable, shared table of parsers this context was created with. */
+	protected Map<QName, XMLEventParserFactory> baseParsers = Collections.emptyMap();
+	/** The parsers registered with this context. These take precedence over the base parsers. */
+	protected ConcurrentHashMap<QName, XMLEventParserFactory> parsers = new ConcurrentHashMap<QName, XMLEventParserFactory>();
+
+	/**
+	 * A factory that creates parsers by asking a registered prototype parser for a new instance of itself. Used for
+	 * parsers registered via {@link #registerParser(QName, XMLEventParser)}.
+	 */
+	protected static class PrototypeParserFactory implements XMLEventParserFactory {
+		protected final XMLEventParser prototype;
+
+		public PrototypeParserFactory(XMLEventParser prototype) {
+			this.prototype = prototype;
+		}
+
+		public XMLEventParser createParser() throws Exception {
+			return this.prototype.newInstance();
+		}
+	}
 
 	/** Construct an instance. Invokes {@link #initializeParsers()} and {@link #initialize()}. */
 	public BasicXMLEventParserContext() {
@@ -97,8 +127,15 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 		this.initialize();
 	}
 
+	/**
+	 * Construct an instance with the parsers of another context. The new context's base table is a snapshot of the
+	 * other context's parsers, so parsers registered later with either context are not visible to the other.
+	 * 
+	 * @param ctx
+	 *            the context to copy.
+	 */
 	public BasicXMLEventParserContext(BasicXMLEventParserContext ctx) {
-		this.parsers = ctx.parsers;
+		this.baseParsers = ctx.getParserTable();
 		this.setDefaultNamespaceURI(ctx.getDefaultNamespaceURI());
 		this.initialize();
 	}
@@ -112,35 +149,74 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 			public void propertyChange(PropertyChangeEvent propEvent) {
 				XMLParserNotification notification = (XMLParserNotification) propEvent;
 
-				if (notificationListener != null) {
-					notificationListener.notify(notification);
-					return;
-				}
+				// Notifications are aggregated rather than formatted and logged one by one; see getDiagnostics().
+				diagnostics.notify(notification);
 
-				String msg;
-				if (notification.getEvent() != null) {
-					msg = Messages.getMessage(notification.getMessage(), notification.getEvent().toString(), notification.getEvent().getLineNumber());
-				} else {
-					msg = Messages.getMessage(notification.getMessage(), "", "");
-				}
-
-				if (notification.getPropertyName().equals(XMLParserNotification.EXCEPTION)) Log.w("NWW_ANDROID", msg);
-				else if (notification.getPropertyName().equals(XMLParserNotification.UNRECOGNIZED)) Log.w("NWW_ANDROID", msg);
+				if (notificationListener != null) notificationListener.notify(notification);
 			}
 		});
 	}
 
 	/**
 	 * Initializes the parser table with the default parsers for the strings, integers, etc., qualified for the default
-	 * namespace.
+	 * namespace. The default parsers are shared with all other contexts.
 	 */
 	protected void initializeParsers() {
-		this.parsers.put(STRING, new StringXMLEventParser());
-		this.parsers.put(DOUBLE, new DoubleXMLEventParser());
-		this.parsers.put(INTEGER, new IntegerXMLEventParser());
-		this.parsers.put(BOOLEAN, new BooleanXMLEventParser());
-		this.parsers.put(BOOLEAN_INTEGER, new BooleanIntegerXMLEventParser());
-		this.parsers.put(UNRECOGNIZED, new UnrecognizedXMLEventParser(null));
+		this.baseParsers = DEFAULT_PARSERS;
+	}
+
+	protected static Map<QName, XMLEventParserFactory> createDefaultParsers() {
+		Map<QName, XMLEventParserFactory> table = new HashMap<QName, XMLEventParserFactory>();
+		table.put(STRING, new PrototypeParserFactory(new StringXMLEventParser()));
+		table.put(DOUBLE, new PrototypeParserFactory(new DoubleXMLEventParser()));
+		table.put(INTEGER, new PrototypeParserFactory(new IntegerXMLEventParser()));
+		table.put(BOOLEAN, new PrototypeParserFactory(new BooleanXMLEventParser()));
+		table.put(BOOLEAN_INTEGER, new PrototypeParserFactory(new BooleanIntegerXMLEventParser()));
+		table.put(UNRECOGNIZED, new PrototypeParserFactory(new UnrecognizedXMLEventParser(null)));
+
+		return Collections.unmodifiableMap(table);
+	}
+
+	/**
+	 * Returns an immutable snapshot of this context's parsers: the base parsers together with the parsers registered
+	 * with this context. The snapshot can be shared by any number of contexts.
+	 * 
+	 * @return this context's parser table.
+	 */
+	public Map<QName, XMLEventParserFactory> getParserTable() {
+		if (this.parsers.isEmpty()) return this.baseParsers;
+
+		Map<QName, XMLEventParserFactory> table = new HashMap<QName, XMLEventParserFactory>(this.baseParsers);
+		table.putAll(this.parsers);
+
+		return Collections.unmodifiableMap(table);
+	}
+
+	/**
+	 * Prepares this context to parse another document. The parsers registered with this context, the identifier
+	 * table, the context's values, its diagnostics and its notification listener are discarded. The base parser table
+	 * and the default namespace are kept.
+	 * 
+	 * @param eventReader
+	 *            the event reader for the next document. May be null.
+	 */
+	public void reset(XMLEventReader eventReader) {
+		this.reader = eventReader;
+		this.parsers.clear();
+		this.idTable.clear();
+		this.clearList();
+		this.diagnostics = new XMLParserDiagnostics();
+		this.notificationListener = null;
+
+		// The property change support is one of the cleared values; restore the listener that records notifications.
+		this.initializeDefaultNotificationListener();
+
+		// Cached parsers may have come from the discarded registrations.
+		this.stringParser = null;
+		this.doubleParser = null;
+		this.integerParser = null;
+		this.booleanParser = null;
+		this.booleanIntegerParser = null;
 	}
 
 	/**
@@ -152,9 +228,9 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	 *            the string parsers.
 	 */
 	protected void addStringParsers(String namespace, String[] stringFields) {
-		StringXMLEventParser stringParser = this.getStringParser();
+		XMLEventParserFactory factory = new PrototypeParserFactory(this.getStringParser());
 		for (String s : stringFields) {
-			this.parsers.put(new QName(namespace, s), stringParser);
+			this.parsers.put(QNameTable.forNamespace(namespace).get(s), factory);
 		}
 	}
 
@@ -167,9 +243,9 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	 *            the string parsers.
 	 */
 	protected void addDoubleParsers(String namespace, String[] doubleFields) {
-		DoubleXMLEventParser doubleParser = this.getDoubleParser();
+		XMLEventParserFactory factory = new PrototypeParserFactory(this.getDoubleParser());
 		for (String s : doubleFields) {
-			this.parsers.put(new QName(namespace, s), doubleParser);
+			this.parsers.put(QNameTable.forNamespace(namespace).get(s), factory);
 		}
 	}
 
@@ -182,9 +258,9 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	 *            the string parsers.
 	 */
 	protected void addIntegerParsers(String namespace, String[] integerFields) {
-		IntegerXMLEventParser integerParser = this.getIntegerParser();
+		XMLEventParserFactory factory = new PrototypeParserFactory(this.getIntegerParser());
 		for (String s : integerFields) {
-			this.parsers.put(new QName(namespace, s), integerParser);
+			this.parsers.put(QNameTable.forNamespace(namespace).get(s), factory);
 		}
 	}
 
@@ -197,9 +273,9 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	 *            the string parsers.
 	 */
 	protected void addBooleanParsers(String namespace, String[] booleanFields) {
-		BooleanXMLEventParser booleanParser = this.getBooleanParser();
+		XMLEventParserFactory factory = new PrototypeParserFactory(this.getBooleanParser());
 		for (String s : booleanFields) {
-			this.parsers.put(new QName(namespace, s), booleanParser);
+			this.parsers.put(QNameTable.forNamespace(namespace).get(s), factory);
 		}
 	}
 
@@ -212,9 +288,9 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	 *            the string parser.
 	 */
 	protected void addBooleanIntegerParsers(String namespace, String[] booleanIntegerFields) {
-		BooleanIntegerXMLEventParser booleanIntegerParser = this.getBooleanIntegerParser();
+		XMLEventParserFactory factory = new PrototypeParserFactory(this.getBooleanIntegerParser());
 		for (String s : booleanIntegerFields) {
-			this.parsers.put(new QName(namespace, s), booleanIntegerParser);
+			this.parsers.put(QNameTable.forNamespace(namespace).get(s), factory);
 		}
 	}
 
@@ -236,7 +312,7 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	public void setEventReader(XMLEventReader reader) {
 		if (reader == null) {
 			String message = Messages.getMessage("nullValue.EventIsNull"); // TODO
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -255,6 +331,10 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 		this.notificationListener = listener;
 	}
 
+	public XMLParserDiagnostics getDiagnostics() {
+		return this.diagnostics;
+	}
+
 	public Map<String, Object> getIdTable() {
 		return this.idTable;
 	}
@@ -266,7 +346,8 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	public XMLEvent nextEvent() throws XMLParserException {
 		XMLEvent event = this.getEventReader().nextEvent();
 		while (event != null) {
-			if (event.isCharacters() && event.isWhiteSpace()) {
+			// Whitespace is detected in the pull parser's buffer, so skipped text never becomes a string.
+			if (event.isWhiteSpace()) {
 				event = this.getEventReader().nextEvent();
 				continue;
 			}
@@ -292,7 +373,7 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	protected XMLEventParser getParser(XMLEvent event, XMLEventParser defaultParser) {
 		if (event == null) {
 			String message = Messages.getMessage("nullValue.EventIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -348,17 +429,34 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	public String getCharacters(XMLEvent event) {
 		if (event == null) {
 			String message = Messages.getMessage("nullValue.EventIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
 		return event.isCharacters() ? event.getData() : null;
 	}
 
+	public void skipElement(XMLEvent event) throws XMLParserException {
+		if (event == null) {
+			String message = Messages.getMessage("nullValue.EventIsNull");
+			Logging.e("NWW_ANDROID", message);
+			throw new IllegalArgumentException(message);
+		}
+
+		if (event.isStartElement()) this.getEventReader().skipElement();
+	}
+
 	public boolean isSameName(QName qa, QName qb) {
-		if (qa.equals(qb)) return true;
+		if (qa == qb) return true;
+
+		if (QNameTable.isShared(qa) && QNameTable.isShared(qb)) {
+			// Distinct shared names differ in local part or namespace, and their local parts are themselves shared.
+			if (qa.getLocalPart() != qb.getLocalPart()) return false;
+		} else {
+			if (qa.equals(qb)) return true;
 
-		if (!qa.getLocalPart().equals(qb.getLocalPart())) return false;
+			if (!qa.getLocalPart().equals(qb.getLocalPart())) return false;
+		}
 
 		if (qa.getNamespaceURI().equals(XMLConstants.NULL_NS_URI)) return qb.getNamespaceURI().equals(this.getDefaultNamespaceURI());
 
@@ -374,13 +472,13 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	public boolean isStartElement(XMLEvent event, QName elementName) {
 		if (event == null) {
 			String message = Messages.getMessage("nullValue.EventIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
 		if (elementName == null) {
 			String message = Messages.getMessage("nullValue.ElementNameIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -390,17 +488,28 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	public boolean isEndElement(XMLEvent event, XMLEvent startElement) {
 		if (event == null || startElement == null) {
 			String message = Messages.getMessage("nullValue.EventIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
 		return isEndElementEvent(event, startElement);
 	}
 
+	public boolean isEndElement(XMLEvent event, int startDepth) {
+		if (event == null) {
+			String message = Messages.getMessage("nullValue.EventIsNull");
+			Logging.e("NWW_ANDROID", message);
+			throw new IllegalArgumentException(message);
+		}
+
+		// An end tag above the start depth means the element was never closed; it ends there too.
+		return event.isEndElement() && event.getDepth() <= startDepth;
+	}
+
 	public static boolean isEndElementEvent(XMLEvent event, XMLEvent startElement) {
 		if (event == null || startElement == null) {
 			String message = Messages.getMessage("nullValue.EventIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -410,51 +519,75 @@ public class BasicXMLEventParserContext extends AVListImpl implements XMLEventPa
 	public void registerParser(QName elementName, XMLEventParser parser) {
 		if (parser == null) {
 			String message = Messages.getMessage("nullValue.ParserIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
 		if (elementName == null) {
 			String message = Messages.getMessage("nullValue.ElementNameIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
-		this.parsers.put(elementName, parser);
+		this.parsers.put(elementName, new PrototypeParserFactory(parser));
+	}
+
+	public void registerParserFactory(QName elementName, XMLEventParserFactory factory) {
+		if (factory == null) {
+			String message = Messages.getMessage("nullValue.ParserIsNull");
+			Logging.e("NWW_ANDROID", message);
+			throw new IllegalArgumentException(message);
+		}
+
+		if (elementName == null) {
+			String message = Messages.getMessage("nullValue.ElementNameIsNull");
+			Logging.e("NWW_ANDROID", message);
+			throw new IllegalArgumentException(message);
+		}
+
+		this.parsers.put(elementName, factory);
 	}
 
 	public XMLEventParser getParser(QName name) {
 		if (name == null) {
 			String message = Messages.getMessage("nullValue.ElementNameIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
-		XMLEventParser factoryParser = this.parsers.get(name);
-		if (factoryParser == null) {
-			// Try alternate forms that assume a default namespace in either the input name or the table key.
+		XMLEventParserFactory factory = this.getParserFactory(name);
+		if (factory == null) {
+			// Try alternate forms that assume a default namespace in either the input name or the table key. The
+			// alternate name is looked up rather than created; parsers are registered under the shared names.
+			QName altName = null;
 			if (isNullNamespace(name.getNamespaceURI())) {
 				// input name has no namespace but table key has the default namespace
-				QName altName = new QName(this.getDefaultNamespaceURI(), name.getLocalPart());
-				factoryParser = this.parsers.get(altName);
+				altName = QNameTable.lookup(this.getDefaultNamespaceURI(), name.getLocalPart());
 			} else if (this.isDefaultNamespace(name.getNamespaceURI())) {
 				// input name has the default namespace but table name has no namespace
-				QName altName = new QName(name.getLocalPart());
-				factoryParser = this.parsers.get(altName);
+				altName = QNameTable.lookup(XMLConstants.NULL_NS_URI, name.getLocalPart());
 			}
+
+			if (altName != null) factory = this.getParserFactory(altName);
 		}
 
 		try {
-			if (factoryParser == null) return null;
+			if (factory == null) return null;
 
-			return factoryParser.newInstance();
+			return factory.createParser();
 		} catch (Exception e) {
 			String message = Messages.getMessage("XML.ParserCreationException", name);
-			Log.w("NWW_ANDROID", message, e);
+			Logging.w("NWW_ANDROID", message, e);
 			return null;
 		}
 	}
 
+	protected XMLEventParserFactory getParserFactory(QName name) {
+		XMLEventParserFactory factory = this.parsers.get(name);
+
+		return factory != null ? factory : this.baseParsers.get(name);
+	}
+
 	protected static boolean isNullNamespace(String namespaceURI) {
 		return namespaceURI == null || XMLConstants.NULL_NS_URI.equals(namespaceURI);
 	}
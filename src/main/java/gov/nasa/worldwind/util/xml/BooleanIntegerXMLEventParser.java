@@ -21,6 +21,15 @@ public class BooleanIntegerXMLEventParser extends AbstractXMLEventParser
         super(namespaceUri);
     }
 
+    @Override
+    public XMLEventParser newInstance() throws Exception
+    {
+        if (this.getClass() != BooleanIntegerXMLEventParser.class)
+            return super.newInstance();
+
+        return new BooleanIntegerXMLEventParser(this.getNamespaceURI());
+    }
+
     public Object parse(XMLEventParserContext ctx, XMLEvent booleanEvent, Object... args)
         throws XMLParserException
     {
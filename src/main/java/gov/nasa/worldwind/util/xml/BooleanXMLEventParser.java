@@ -21,6 +21,15 @@ public class BooleanXMLEventParser extends AbstractXMLEventParser
         super(namespaceUri);
     }
 
+    @Override
+    public XMLEventParser newInstance() throws Exception
+    {
+        if (this.getClass() != BooleanXMLEventParser.class)
+            return super.newInstance();
+
+        return new BooleanXMLEventParser(this.getNamespaceURI());
+    }
+
     public Object parse(XMLEventParserContext ctx, XMLEvent booleanEvent, Object... args)
         throws XMLParserException
 
@@ -0,0 +1,114 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import javax.xml.namespace.QName;
+
+/**
+ * An {@link XMLEvent} holding a snapshot of a pull-parser token, created by {@link XMLEvent#copy()}. Unlike the events
+ * returned by {@link XMLEventReader}, it does not change when the reader advances.
+ */
+public class DetachedXMLEvent extends XMLEvent {
+	protected final QName name;
+	protected final String data;
+	protected final int lineNumber;
+	protected final int depth;
+	protected final String[] attributeNames;
+	protected final String[] attributeNamespaces;
+	protected final String[] attributeValues;
+
+	public DetachedXMLEvent(XMLEvent event) {
+		super(event.eventType, null);
+
+		this.name = event.isStartElement() || event.isEndElement() ? event.getName() : null;
+		this.data = event.isCharacters() ? event.getData() : null;
+		this.lineNumber = event.getLineNumber();
+		this.depth = event.getDepth();
+
+		int count = event.getAttributeCount();
+		this.attributeNames = new String[count];
+		this.attributeNamespaces = new String[count];
+		this.attributeValues = new String[count];
+		for (int i = 0; i < count; i++) {
+			this.attributeNames[i] = event.getAttributeName(i);
+			this.attributeNamespaces[i] = event.getAttributeNamespace(i);
+			this.attributeValues[i] = event.getAttributeValue(i);
+		}
+	}
+
+	@Override
+	public int getLineNumber() {
+		return this.lineNumber;
+	}
+
+	@Override
+	public int getDepth() {
+		return this.depth;
+	}
+
+	@Override
+	public boolean isWhiteSpace() {
+		return this.isCharacters() && (this.data == null || this.data.trim().length() == 0);
+	}
+
+	@Override
+	public QName getName() {
+		return this.name;
+	}
+
+	@Override
+	public String getData() {
+		return this.data;
+	}
+
+	@Override
+	public char[] getTextCharacters(int[] holderForStartAndLength) {
+		if (this.data == null) return null;
+
+		holderForStartAndLength[0] = 0;
+		holderForStartAndLength[1] = this.data.length();
+
+		return this.data.toCharArray();
+	}
+
+	@Override
+	public int getAttributeCount() {
+		return this.attributeNames.length;
+	}
+
+	@Override
+	public String getAttributeName(int index) {
+		return this.attributeNames[index];
+	}
+
+	@Override
+	public String getAttributeNamespace(int index) {
+		return this.attributeNamespaces[index];
+	}
+
+	@Override
+	public String getAttributeValue(int index) {
+		return this.attributeValues[index];
+	}
+
+	@Override
+	public XMLEvent copy() {
+		return this;
+	}
+}
@@ -4,8 +4,6 @@
 
 package gov.nasa.worldwind.util.xml;
 
-import gov.nasa.worldwind.util.WWUtil;
-
 /**
  * @author tag
  * @version $Id: DoubleXMLEventParser.java 771 2012-09-14 19:30:10Z tgaskins $
@@ -18,11 +16,17 @@ public class DoubleXMLEventParser extends AbstractXMLEventParser {
 		super(namespaceUri);
 	}
 
+	@Override
+	public XMLEventParser newInstance() throws Exception {
+		if (this.getClass() != DoubleXMLEventParser.class) return super.newInstance();
+
+		return new DoubleXMLEventParser(this.getNamespaceURI());
+	}
+
 	public Object parse(XMLEventParserContext ctx, XMLEvent doubleEvent, Object... args) throws XMLParserException
 
 	{
-		String s = this.parseCharacterContent(ctx, doubleEvent);
-		return s != null ? WWUtil.convertStringToDouble(s) : null;
+		return this.parseNumericContent(ctx, doubleEvent, false);
 	}
 
 	public Double parseDouble(XMLEventParserContext ctx, XMLEvent doubleEvent, Object... args) throws XMLParserException
@@ -31,6 +31,11 @@ public class FakeXMLEvent extends XMLEvent {
 		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
 	}
 
+	@Override
+	public int getDepth() {
+		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
+	}
+
 	@Override
 	public boolean isStartElement() {
 		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
@@ -61,8 +66,39 @@ public class FakeXMLEvent extends XMLEvent {
 		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
 	}
 
+	@Override
+	public char[] getTextCharacters(int[] holderForStartAndLength) {
+		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
+	}
+
 	@Override
 	public AVList getAttributes() {
 		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
 	}
+
+	@Override
+	public int getAttributeCount() {
+		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
+	}
+
+	@Override
+	public String getAttributeName(int index) {
+		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
+	}
+
+	@Override
+	public String getAttributeNamespace(int index) {
+		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
+	}
+
+	@Override
+	public String getAttributeValue(int index) {
+		throw new IllegalArgumentException("This is a fake element, only get Name method is allowed!");
+	}
+
+	@Override
+	public XMLEvent copy() {
+		// Already detached from the pull parser.
+		return this;
+	}
 }
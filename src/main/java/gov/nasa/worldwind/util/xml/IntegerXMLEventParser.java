@@ -4,8 +4,6 @@
 
 package gov.nasa.worldwind.util.xml;
 
-import gov.nasa.worldwind.util.WWUtil;
-
 /**
  * @author tag
  * @version $Id: IntegerXMLEventParser.java 771 2012-09-14 19:30:10Z tgaskins $
@@ -21,11 +19,19 @@ public class IntegerXMLEventParser extends AbstractXMLEventParser
         super(namespaceUri);
     }
 
+    @Override
+    public XMLEventParser newInstance() throws Exception
+    {
+        if (this.getClass() != IntegerXMLEventParser.class)
+            return super.newInstance();
+
+        return new IntegerXMLEventParser(this.getNamespaceURI());
+    }
+
     public Object parse(XMLEventParserContext ctx, XMLEvent integerEvent, Object... args)
         throws XMLParserException
 
     {
-        String s = this.parseCharacterContent(ctx, integerEvent);
-        return s != null ? WWUtil.convertStringToInteger(s) : null;
+        return this.parseNumericContent(ctx, integerEvent, true);
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.namespace.QName;
+
+/**
+ * A table of element and attribute names in a single namespace. Tables are shared process-wide, one per namespace URI,
+ * and each local name maps to a single immutable {@link QName} that is created the first time it is requested. Parsers
+ * obtain their element names here rather than constructing them, so the number of name objects is independent of the
+ * number of parsers created, and names can be compared by reference. The local part strings of all shared names are
+ * also shared, so two shared names have equal local parts exactly when their local parts are the same instance.
+ * <p/>
+ * Tables only grow through {@link #forNamespace(String)} and {@link #get(String)}, which are meant for the fixed names
+ * of the parsers. Names read from documents are looked up with {@link #lookup(String, String)}, which never adds to
+ * the tables, so documents from arbitrary servers cannot grow them.
+ */
+public class QNameTable
+{
+    protected static final ConcurrentHashMap<String, QNameTable> tables = new ConcurrentHashMap<String, QNameTable>();
+    protected static final ConcurrentHashMap<String, String> localParts = new ConcurrentHashMap<String, String>();
+
+    /** The class of names created by the tables, which identifies a name as shared. */
+    protected static class SharedQName extends QName
+    {
+        private static final long serialVersionUID = 1L;
+
+        public SharedQName(String namespaceURI, String localPart)
+        {
+            super(namespaceURI, localPart);
+        }
+    }
+
+    protected final String namespaceURI;
+    protected final ConcurrentHashMap<String, QName> names = new ConcurrentHashMap<String, QName>();
+
+    /**
+     * Returns the shared table for a namespace.
+     *
+     * @param namespaceURI the namespace URI. A null URI is treated as the empty namespace, consistent with {@link
+     *                     QName}.
+     *
+     * @return the table for the namespace.
+     */
+    public static QNameTable forNamespace(String namespaceURI)
+    {
+        String key = namespaceURI != null ? namespaceURI : "";
+
+        QNameTable table = tables.get(key);
+        if (table == null)
+        {
+            table = new QNameTable(key);
+            QNameTable existing = tables.putIfAbsent(key, table);
+            if (existing != null)
+                table = existing;
+        }
+
+        return table;
+    }
+
+    /**
+     * Indicates whether a name was obtained from a table. Two distinct shared names are never equal.
+     *
+     * @param name the name to test.
+     *
+     * @return true if the name is shared, otherwise false.
+     */
+    public static boolean isShared(QName name)
+    {
+        return name instanceof SharedQName;
+    }
+
+    /**
+     * Returns the shared name for a namespace and local part if a table already holds one. Neither a table nor a name
+     * is created.
+     *
+     * @param namespaceURI the namespace URI. A null URI is treated as the empty namespace.
+     * @param localPart    the local part of the name.
+     *
+     * @return the shared name, or null if no table holds the name.
+     */
+    public static QName lookup(String namespaceURI, String localPart)
+    {
+        QNameTable table = tables.get(namespaceURI != null ? namespaceURI : "");
+
+        return table != null && localPart != null ? table.names.get(localPart) : null;
+    }
+
+    protected static String internLocalPart(String localPart)
+    {
+        String existing = localParts.putIfAbsent(localPart, localPart);
+
+        return existing != null ? existing : localPart;
+    }
+
+    protected QNameTable(String namespaceURI)
+    {
+        this.namespaceURI = namespaceURI;
+    }
+
+    public String getNamespaceURI()
+    {
+        return this.namespaceURI;
+    }
+
+    /**
+     * Returns the shared name for a local part in this table's namespace.
+     *
+     * @param localPart the local part of the name.
+     *
+     * @return the name, equal to <code>new QName(getNamespaceURI(), localPart)</code>.
+     *
+     * @throws IllegalArgumentException if the local part is null.
+     */
+    public QName get(String localPart)
+    {
+        if (localPart == null)
+        {
+            String message = Messages.getMessage("nullValue.NameIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        QName name = this.names.get(localPart);
+        if (name == null)
+        {
+            name = new SharedQName(this.namespaceURI, internLocalPart(localPart));
+            QName existing = this.names.putIfAbsent(localPart, name);
+            if (existing != null)
+                name = existing;
+        }
+
+        return name;
+    }
+}
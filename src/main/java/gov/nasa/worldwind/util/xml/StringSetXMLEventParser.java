@@ -40,6 +40,15 @@ public class StringSetXMLEventParser extends AbstractXMLEventParser implements I
         this.elementName = elementName;
     }
 
+    @Override
+    public XMLEventParser newInstance() throws Exception
+    {
+        if (this.getClass() != StringSetXMLEventParser.class)
+            return super.newInstance();
+
+        return new StringSetXMLEventParser(this.getNamespaceURI(), this.elementName);
+    }
+
     public Object parse(XMLEventParserContext ctx, XMLEvent listEvent, Object... args)
         throws XMLParserException
 
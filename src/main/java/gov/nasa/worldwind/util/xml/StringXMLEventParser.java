@@ -19,6 +19,15 @@ public class StringXMLEventParser extends AbstractXMLEventParser
         super(namespaceUri);
     }
 
+    @Override
+    public XMLEventParser newInstance() throws Exception
+    {
+        if (this.getClass() != StringXMLEventParser.class)
+            return super.newInstance();
+
+        return new StringXMLEventParser(this.getNamespaceURI());
+    }
+
     public Object parse(XMLEventParserContext ctx, XMLEvent stringEvent, Object... args)
         throws XMLParserException
 
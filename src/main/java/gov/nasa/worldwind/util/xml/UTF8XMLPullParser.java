@@ -0,0 +1,1498 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.util.Messages;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+/**
+ * A pull parser that tokenizes UTF-8 encoded XML directly from its bytes. It is an alternative to the platform's
+ * general purpose {@link XmlPullParser} for the documents WMS servers produce, and is used by {@link
+ * XMLEventReaderFactory} when the {@link XMLEventReaderFactory.Backend#UTF8_TOKENIZER} backend is selected.
+ * <p/>
+ * The whole document is held in memory, and markup is scanned as bytes, which is possible because every byte of a
+ * multi-byte UTF-8 sequence is outside the ASCII range. Names are looked up in a table keyed by their bytes, so a
+ * repeated element or attribute name is decoded once per document and its tags create no strings. Text and attribute
+ * values are decoded only when they are requested, so content that is skipped or ignored is never decoded.
+ * <p/>
+ * Tokens are reported as by the platform parser's {@link #next()}: character data, character and predefined entity
+ * references and CDATA sections are merged into one {@link #TEXT} event, comments and processing instructions are
+ * skipped, and whitespace outside the root element is not reported. Line ends are normalized to line feeds, and line
+ * ends in attribute values to spaces. The document type declaration is skipped; entities declared in it are not
+ * supported, and documents that declare any should be read with the platform parser, as {@link
+ * #isSupported(byte[], int, int)} determines. Invalid UTF-8 sequences are replaced by U+FFFD.
+ * <p/>
+ * {@link #nextToken()} reports the same tokens as {@link #next()}, the {@link #FEATURE_PROCESS_NAMESPACES} feature is
+ * the only feature supported, and input is given as bytes; {@link #setInput(Reader)} is not supported.
+ */
+public class UTF8XMLPullParser implements XmlPullParser
+{
+    protected static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
+    protected static final String XMLNS_NAMESPACE = "http://www.w3.org/2000/xmlns/";
+
+    /** Content flag: the range contains bytes outside the ASCII range. */
+    protected static final int NON_ASCII = 1;
+    /** Content flag: the range contains character or entity references. */
+    protected static final int REFERENCES = 2;
+    /** Content flag: the range contains carriage returns, or line feeds in an attribute value. */
+    protected static final int LINE_ENDS = 4;
+    /** Content flag: the range contains comments, processing instructions or CDATA sections. */
+    protected static final int MARKUP = 8;
+
+    /** Bytes that may appear in names. All bytes outside the ASCII range are accepted. */
+    protected static final boolean[] NAME_BYTES = new boolean[128];
+
+    static
+    {
+        for (int c = 'a'; c <= 'z'; c++)
+        {
+            NAME_BYTES[c] = true;
+        }
+        for (int c = 'A'; c <= 'Z'; c++)
+        {
+            NAME_BYTES[c] = true;
+        }
+        for (int c = '0'; c <= '9'; c++)
+        {
+            NAME_BYTES[c] = true;
+        }
+        NAME_BYTES['_'] = true;
+        NAME_BYTES['-'] = true;
+        NAME_BYTES['.'] = true;
+        NAME_BYTES[':'] = true;
+    }
+
+    /** A name of the document, with its qualified name split at the prefix when namespaces are processed. */
+    protected static class Name
+    {
+        protected final byte[] bytes;
+        protected final int hash;
+        protected final String qualifiedName;
+        protected final String prefix;
+        protected final String localName;
+        protected Name next;
+
+        public Name(byte[] bytes, int hash, String qualifiedName, boolean processNamespaces)
+        {
+            this.bytes = bytes;
+            this.hash = hash;
+            this.qualifiedName = qualifiedName;
+
+            int colon = processNamespaces ? qualifiedName.indexOf(':') : -1;
+            this.prefix = colon > 0 ? qualifiedName.substring(0, colon) : null;
+            this.localName = colon > 0 ? qualifiedName.substring(colon + 1) : qualifiedName;
+        }
+
+        protected boolean matches(byte[] buffer, int start, int length, int hash)
+        {
+            if (this.hash != hash || this.bytes.length != length)
+                return false;
+
+            for (int i = 0; i < length; i++)
+            {
+                if (this.bytes[i] != buffer[start + i])
+                    return false;
+            }
+
+            return true;
+        }
+    }
+
+    protected boolean processNamespaces;
+
+    protected byte[] buffer;
+    protected int position;
+    protected int limit;
+    /** The index of the first byte of the current token. */
+    protected int tokenStart;
+
+    protected int eventType = START_DOCUMENT;
+    protected int depth;
+    protected boolean emptyElement;
+    protected boolean pendingEmptyElementEnd;
+    /** The name and namespace of the current start or end tag. */
+    protected Name name;
+    protected String namespace;
+
+    // The names of the document, in hash buckets.
+    protected Name[] names = new Name[256];
+    protected int nameCount;
+
+    // The open elements, by depth.
+    protected Name[] elementNames = new Name[16];
+    protected String[] elementNamespaces = new String[16];
+
+    // The namespace declarations in scope, and the number in scope at each depth.
+    protected String[] namespacePrefixes = new String[8];
+    protected String[] namespaceURIs = new String[8];
+    protected int[] namespaceCounts = new int[16];
+
+    // The attributes of the current start tag.
+    protected int attributeCount = -1;
+    protected Name[] attributeNames = new Name[8];
+    protected String[] attributeNamespaces = new String[8];
+    protected int[] attributeStarts = new int[8];
+    protected int[] attributeEnds = new int[8];
+    protected int[] attributeFlags = new int[8];
+    protected String[] attributeValues = new String[8];
+
+    // The current text, as a byte range of the document, and its characters once decoded.
+    protected int textStart;
+    protected int textEnd;
+    protected int textFlags;
+    protected boolean textDecoded;
+    protected String text;
+    protected char[] chars = new char[256];
+    protected int charCount;
+
+    // Line numbers are counted on request, up to the current position.
+    protected int lineNumber = 1;
+    protected int lineStart;
+    protected int lineScanPosition;
+
+    public UTF8XMLPullParser()
+    {
+    }
+
+    /**
+     * Indicates whether a document can be read by this parser: its byte order mark, if any, is the UTF-8 byte order
+     * mark, it declares the UTF-8 or US-ASCII encoding or none, and it declares no entities. Documents that are not
+     * supported should be read with the platform parser.
+     *
+     * @param bytes  the document.
+     * @param offset the index of the document's first byte.
+     * @param length the number of bytes in the document.
+     *
+     * @return true if the document can be read by this parser, otherwise false.
+     */
+    public static boolean isSupported(byte[] bytes, int offset, int length)
+    {
+        if (bytes == null)
+            return false;
+
+        int end = offset + length;
+        int start = offset + skipByteOrderMark(bytes, offset, end);
+
+        byte[] prolog = Arrays.copyOfRange(bytes, start, Math.min(end, start + XMLEventReaderFactory.PROLOG_SIZE));
+        String encoding = XMLEventReaderFactory.detectEncoding(prolog, prolog.length);
+        if (!"UTF-8".equalsIgnoreCase(encoding) && !"UTF8".equalsIgnoreCase(encoding)
+            && !"US-ASCII".equalsIgnoreCase(encoding) && !"ASCII".equalsIgnoreCase(encoding))
+            return false;
+
+        // Entity declarations can only appear in the internal subset of the document type declaration, which
+        // precedes the root element.
+        int doctype = indexOf(bytes, start, end, "<!DOCTYPE");
+        if (doctype < 0)
+            return true;
+
+        int root = findRootElement(bytes, start, end);
+        if (root >= 0 && root < doctype)
+            return true;
+
+        int subsetEnd = skipDoctype(bytes, doctype, end);
+
+        return indexOf(bytes, doctype, subsetEnd, "<!ENTITY") < 0;
+    }
+
+    protected static int skipByteOrderMark(byte[] bytes, int start, int end)
+    {
+        if (end - start >= 3 && (bytes[start] & 0xFF) == 0xEF && (bytes[start + 1] & 0xFF) == 0xBB
+            && (bytes[start + 2] & 0xFF) == 0xBF)
+            return 3;
+
+        return 0;
+    }
+
+    /** Returns the index of the first start tag of a document, or -1 if there is none. */
+    protected static int findRootElement(byte[] bytes, int start, int end)
+    {
+        for (int i = start; i < end - 1; i++)
+        {
+            if (bytes[i] == '<')
+            {
+                byte b = bytes[i + 1];
+                if (b != '?' && b != '!')
+                    return i;
+            }
+        }
+
+        return -1;
+    }
+
+    protected static int indexOf(byte[] bytes, int start, int end, String s)
+    {
+        int last = end - s.length();
+        for (int i = start; i <= last; i++)
+        {
+            int j = 0;
+            while (j < s.length() && bytes[i + j] == s.charAt(j))
+            {
+                j++;
+            }
+
+            if (j == s.length())
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index following a document type declaration, skipping its internal subset and quoted strings.
+     *
+     * @return the index following the declaration, or the end of the document if the declaration is not closed.
+     */
+    protected static int skipDoctype(byte[] bytes, int start, int end)
+    {
+        int nesting = 0;
+        byte quote = 0;
+        for (int i = start + 2; i < end; i++)
+        {
+            byte b = bytes[i];
+            if (quote != 0)
+            {
+                if (b == quote)
+                    quote = 0;
+            }
+            else if (b == '"' || b == '\'')
+            {
+                quote = b;
+            }
+            else if (b == '[')
+            {
+                nesting++;
+            }
+            else if (b == ']')
+            {
+                nesting--;
+            }
+            else if (b == '>' && nesting <= 0)
+            {
+                return i + 1;
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Specifies the document to parse.
+     *
+     * @param bytes  the UTF-8 encoded document. The array is read in place and must not change while it is parsed.
+     * @param offset the index of the document's first byte.
+     * @param length the number of bytes in the document.
+     */
+    public void setInput(byte[] bytes, int offset, int length)
+    {
+        this.buffer = bytes;
+        this.limit = offset + length;
+        this.position = offset + skipByteOrderMark(bytes, offset, this.limit);
+
+        this.eventType = START_DOCUMENT;
+        this.depth = 0;
+        this.emptyElement = false;
+        this.pendingEmptyElementEnd = false;
+        this.attributeCount = -1;
+        this.namespaceCounts[0] = 0;
+        this.textDecoded = false;
+        this.text = null;
+        this.lineNumber = 1;
+        this.lineStart = offset;
+        this.lineScanPosition = offset;
+    }
+
+    /**
+     * Specifies the rest of the document read by another parser, starting at that parser's current start tag. The
+     * namespace declarations in scope at the tag are taken from the other parser and line numbers continue those of
+     * the document, so this parser reads the element, and the content following it, as the other parser would. The
+     * document's elements can then be read by several parsers at once, one element or run of sibling elements each;
+     * the element's parent is not open in this parser, so its end tag is reported as an error.
+     *
+     * @param document the parser whose document to read. Its current token must be a start tag. This method must be
+     *                 called from the thread using that parser, but this parser may then be used from another thread.
+     *
+     * @throws XmlPullParserException if the other parser's current token is not a start tag.
+     */
+    public void setInput(UTF8XMLPullParser document) throws XmlPullParserException
+    {
+        if (document.eventType != START_TAG)
+            throw document.error("XML.UnexpectedEvent", TYPES[START_TAG]);
+
+        int start = document.tokenStart;
+        int lineNumber = document.getLineNumber() - document.countLineEnds(start, document.position);
+
+        if (this.processNamespaces != document.processNamespaces)
+            this.setFeature(FEATURE_PROCESS_NAMESPACES, document.processNamespaces);
+        this.setInput(document.buffer, start, document.limit - start);
+
+        int count = document.namespaceCounts[document.depth - 1];
+        if (count > this.namespacePrefixes.length)
+        {
+            this.namespacePrefixes = new String[count];
+            this.namespaceURIs = new String[count];
+        }
+        System.arraycopy(document.namespacePrefixes, 0, this.namespacePrefixes, 0, count);
+        System.arraycopy(document.namespaceURIs, 0, this.namespaceURIs, 0, count);
+        this.namespaceCounts[0] = count;
+
+        this.lineNumber = lineNumber;
+        this.lineStart = start;
+        while (this.lineStart > 0 && this.buffer[this.lineStart - 1] != '\n' && this.buffer[this.lineStart - 1] != '\r')
+        {
+            this.lineStart--;
+        }
+    }
+
+    /**
+     * Returns the index in the document of the first byte of the current token. For the end of an empty element tag,
+     * this is the start of the tag.
+     *
+     * @return the index of the token's first byte.
+     */
+    public int getTokenStart()
+    {
+        return this.tokenStart;
+    }
+
+    /**
+     * Returns the index in the document of the byte following the current token.
+     *
+     * @return the index following the token's last byte.
+     */
+    public int getTokenEnd()
+    {
+        return this.position;
+    }
+
+    public void setInput(Reader in) throws XmlPullParserException
+    {
+        throw new XmlPullParserException(Messages.getMessage("XML.ReaderInputNotSupported"), this, null);
+    }
+
+    /**
+     * Reads a document from a stream. The stream is read to its end and is not closed.
+     *
+     * @param inputStream     the document.
+     * @param inputEncoding the encoding of the document, or null to accept the encoding declared by the document.
+     *
+     * @throws XmlPullParserException if the encoding is not UTF-8 or US-ASCII, or the stream cannot be read.
+     */
+    public void setInput(InputStream inputStream, String inputEncoding) throws XmlPullParserException
+    {
+        if (inputEncoding != null && !"UTF-8".equalsIgnoreCase(inputEncoding)
+            && !"US-ASCII".equalsIgnoreCase(inputEncoding))
+        {
+            throw new XmlPullParserException(Messages.getMessage("XML.EncodingNotSupported", inputEncoding), this,
+                null);
+        }
+
+        try
+        {
+            byte[] bytes = new byte[XMLEventReaderFactory.DEFAULT_BUFFER_SIZE];
+            int length = 0;
+            for (int n; (n = inputStream.read(bytes, length, bytes.length - length)) >= 0; )
+            {
+                length += n;
+                if (length == bytes.length)
+                    bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+            }
+
+            this.setInput(bytes, 0, length);
+        }
+        catch (IOException e)
+        {
+            throw new XmlPullParserException(e.getMessage(), this, e);
+        }
+    }
+
+    public String getInputEncoding()
+    {
+        return this.buffer != null ? "UTF-8" : null;
+    }
+
+    public void setFeature(String name, boolean state) throws XmlPullParserException
+    {
+        if (!FEATURE_PROCESS_NAMESPACES.equals(name))
+        {
+            if (state)
+                throw new XmlPullParserException(Messages.getMessage("XML.FeatureNotSupported", name), this, null);
+            return;
+        }
+
+        if (this.processNamespaces != state)
+        {
+            // Names are split at their prefix only when namespaces are processed.
+            this.processNamespaces = state;
+            Arrays.fill(this.names, null);
+            this.nameCount = 0;
+        }
+    }
+
+    public boolean getFeature(String name)
+    {
+        return FEATURE_PROCESS_NAMESPACES.equals(name) && this.processNamespaces;
+    }
+
+    public void setProperty(String name, Object value) throws XmlPullParserException
+    {
+        throw new XmlPullParserException(Messages.getMessage("XML.PropertyNotSupported", name), this, null);
+    }
+
+    public Object getProperty(String name)
+    {
+        return null;
+    }
+
+    public void defineEntityReplacementText(String entityName, String replacementText) throws XmlPullParserException
+    {
+        throw new XmlPullParserException(Messages.getMessage("XML.EntityDeclarationNotSupported", entityName), this,
+            null);
+    }
+
+    public int getEventType()
+    {
+        return this.eventType;
+    }
+
+    public int getDepth()
+    {
+        return this.depth;
+    }
+
+    public int next() throws XmlPullParserException, IOException
+    {
+        if (this.buffer == null)
+            throw new XmlPullParserException(Messages.getMessage("XML.NoInput"), this, null);
+
+        this.attributeCount = -1;
+        this.textDecoded = false;
+        this.text = null;
+
+        if (this.pendingEmptyElementEnd)
+        {
+            this.pendingEmptyElementEnd = false;
+            this.emptyElement = false;
+            return this.eventType = END_TAG;
+        }
+
+        if (this.eventType == END_TAG)
+            this.depth--;
+
+        this.emptyElement = false;
+
+        while (true)
+        {
+            this.tokenStart = this.position;
+            if (this.position >= this.limit)
+            {
+                if (this.depth > 0)
+                    throw this.error("XML.UnexpectedEndOfDocument");
+
+                return this.eventType = END_DOCUMENT;
+            }
+
+            if (this.buffer[this.position] == '<' && this.position + 1 < this.limit)
+            {
+                byte b = this.buffer[this.position + 1];
+                if (b == '/')
+                {
+                    this.parseEndTag();
+                    return this.eventType = END_TAG;
+                }
+                else if (b != '!' && b != '?')
+                {
+                    this.parseStartTag();
+                    return this.eventType = START_TAG;
+                }
+                else if (b == '!' && this.depth == 0 && this.startsWith(this.position, "<!DOCTYPE"))
+                {
+                    this.position = skipDoctype(this.buffer, this.position, this.limit);
+                    continue;
+                }
+            }
+
+            if (this.scanText())
+                return this.eventType = TEXT;
+        }
+    }
+
+    public int nextToken() throws XmlPullParserException, IOException
+    {
+        return this.next();
+    }
+
+    public void require(int type, String namespace, String name) throws XmlPullParserException
+    {
+        if (type != this.eventType || (namespace != null && !namespace.equals(this.getNamespace()))
+            || (name != null && !name.equals(this.getName())))
+        {
+            throw this.error("XML.UnexpectedEvent", TYPES[type]);
+        }
+    }
+
+    public String nextText() throws XmlPullParserException, IOException
+    {
+        if (this.eventType != START_TAG)
+            throw this.error("XML.UnexpectedEvent", TYPES[START_TAG]);
+
+        String result = "";
+        if (this.next() == TEXT)
+        {
+            result = this.getText();
+            this.next();
+        }
+
+        if (this.eventType != END_TAG)
+            throw this.error("XML.UnexpectedEvent", TYPES[END_TAG]);
+
+        return result;
+    }
+
+    public int nextTag() throws XmlPullParserException, IOException
+    {
+        this.next();
+        if (this.eventType == TEXT && this.isWhitespace())
+            this.next();
+
+        if (this.eventType != START_TAG && this.eventType != END_TAG)
+            throw this.error("XML.UnexpectedEvent", TYPES[START_TAG]);
+
+        return this.eventType;
+    }
+
+    /**
+     * Parses a start tag at the current position. Attribute values are located but not decoded; namespace
+     * declarations are decoded and removed from the attributes when namespaces are processed.
+     */
+    protected void parseStartTag() throws XmlPullParserException
+    {
+        this.position++;
+        Name name = this.readName();
+
+        int count = 0;
+        while (true)
+        {
+            this.skipWhitespace();
+            if (this.position >= this.limit)
+                throw this.error("XML.UnexpectedEndOfDocument");
+
+            byte b = this.buffer[this.position];
+            if (b == '>')
+            {
+                this.position++;
+                break;
+            }
+            else if (b == '/')
+            {
+                if (++this.position >= this.limit || this.buffer[this.position] != '>')
+                    throw this.error("XML.UnexpectedCharacter", "/");
+                this.position++;
+                this.emptyElement = true;
+                break;
+            }
+
+            if (count == this.attributeNames.length)
+                this.growAttributes();
+
+            this.attributeNames[count] = this.readName();
+            this.skipWhitespace();
+            this.expect('=');
+            this.skipWhitespace();
+
+            if (this.position >= this.limit)
+                throw this.error("XML.UnexpectedEndOfDocument");
+
+            byte quote = this.buffer[this.position];
+            if (quote != '"' && quote != '\'')
+                throw this.error("XML.AttributeValueDelimiterMissing");
+
+            int start = ++this.position;
+            int flags = 0;
+            byte[] bytes = this.buffer;
+            int i = start;
+            for (; i < this.limit; i++)
+            {
+                byte c = bytes[i];
+                if (c == quote)
+                    break;
+
+                if (c < 0)
+                    flags |= NON_ASCII;
+                else if (c == '&')
+                {
+                    flags |= REFERENCES;
+                    i = this.checkReference(i) - 1;
+                }
+                else if (c == '\n' || c == '\r')
+                    flags |= LINE_ENDS;
+                else if (c == '<')
+                    throw this.error("XML.UnexpectedCharacter", "<");
+            }
+
+            if (i >= this.limit)
+                throw this.error("XML.UnexpectedEndOfDocument");
+
+            this.attributeStarts[count] = start;
+            this.attributeEnds[count] = i;
+            this.attributeFlags[count] = flags;
+            this.attributeValues[count] = null;
+            this.attributeNamespaces[count] = "";
+            this.position = i + 1;
+            count++;
+        }
+
+        this.attributeCount = count;
+        this.depth++;
+        this.ensureDepthCapacity();
+        this.namespaceCounts[this.depth] = this.namespaceCounts[this.depth - 1];
+
+        String namespace = "";
+        if (this.processNamespaces)
+        {
+            this.declareNamespaces();
+            namespace = this.resolvePrefix(name.prefix);
+
+            for (int i = 0; i < this.attributeCount; i++)
+            {
+                String prefix = this.attributeNames[i].prefix;
+                if (prefix != null)
+                    this.attributeNamespaces[i] = this.resolvePrefix(prefix);
+            }
+        }
+
+        this.elementNames[this.depth] = name;
+        this.elementNamespaces[this.depth] = namespace;
+        this.name = name;
+        this.namespace = namespace;
+
+        this.pendingEmptyElementEnd = this.emptyElement;
+    }
+
+    /** Moves the namespace declarations of the current start tag from its attributes to the namespace stack. */
+    protected void declareNamespaces()
+    {
+        int kept = 0;
+        for (int i = 0; i < this.attributeCount; i++)
+        {
+            Name name = this.attributeNames[i];
+            boolean isDefault = name.prefix == null && "xmlns".equals(name.qualifiedName);
+            if (isDefault || "xmlns".equals(name.prefix))
+            {
+                int n = this.namespaceCounts[this.depth];
+                if (n == this.namespacePrefixes.length)
+                {
+                    this.namespacePrefixes = Arrays.copyOf(this.namespacePrefixes, 2 * n);
+                    this.namespaceURIs = Arrays.copyOf(this.namespaceURIs, 2 * n);
+                }
+
+                this.namespacePrefixes[n] = isDefault ? null : name.localName;
+                this.namespaceURIs[n] = this.getAttributeValue(i);
+                this.namespaceCounts[this.depth] = n + 1;
+                continue;
+            }
+
+            if (kept != i)
+            {
+                this.attributeNames[kept] = name;
+                this.attributeStarts[kept] = this.attributeStarts[i];
+                this.attributeEnds[kept] = this.attributeEnds[i];
+                this.attributeFlags[kept] = this.attributeFlags[i];
+                this.attributeValues[kept] = this.attributeValues[i];
+            }
+            kept++;
+        }
+
+        for (int i = kept; i < this.attributeCount; i++)
+        {
+            this.attributeValues[i] = null;
+        }
+
+        this.attributeCount = kept;
+    }
+
+    protected String resolvePrefix(String prefix) throws XmlPullParserException
+    {
+        if ("xml".equals(prefix))
+            return XML_NAMESPACE;
+
+        for (int i = this.namespaceCounts[this.depth] - 1; i >= 0; i--)
+        {
+            String p = this.namespacePrefixes[i];
+            if (prefix == null ? p == null : prefix.equals(p))
+                return this.namespaceURIs[i];
+        }
+
+        if (prefix != null)
+            throw this.error("XML.UndefinedPrefix", prefix);
+
+        return "";
+    }
+
+    protected void parseEndTag() throws XmlPullParserException
+    {
+        this.position += 2;
+        Name name = this.readName();
+        this.skipWhitespace();
+        this.expect('>');
+
+        if (this.depth == 0 || name != this.elementNames[this.depth])
+        {
+            String expected = this.depth > 0 ? this.elementNames[this.depth].qualifiedName : "";
+            throw this.error("XML.UnexpectedEndTag", expected, name.qualifiedName);
+        }
+
+        this.name = name;
+        this.namespace = this.elementNamespaces[this.depth];
+    }
+
+    /**
+     * Scans character data at the current position up to the next start or end tag. Comments, processing
+     * instructions and CDATA sections within the text are passed over.
+     *
+     * @return true if the text is to be reported, false if it was skipped: it contains no characters, or it is
+     *         whitespace outside the root element.
+     */
+    protected boolean scanText() throws XmlPullParserException
+    {
+        byte[] bytes = this.buffer;
+        int start = this.position;
+        int end = this.limit;
+        int flags = 0;
+        boolean content = false;
+
+        int i = start;
+        while (i < end)
+        {
+            byte b = bytes[i];
+            if (b == '<')
+            {
+                if (i + 1 >= end)
+                    throw this.error("XML.UnexpectedEndOfDocument");
+
+                byte c = bytes[i + 1];
+                if (c == '!' && this.startsWith(i, "<!--"))
+                {
+                    i = this.indexOfClose(i + 4, "-->") + 3;
+                    flags |= MARKUP;
+                }
+                else if (c == '!' && this.startsWith(i, "<![CDATA["))
+                {
+                    // A CDATA section is reported as text even if it is empty, as by the platform parser.
+                    i = this.indexOfClose(i + 9, "]]>") + 3;
+                    content = true;
+                    flags |= MARKUP;
+                }
+                else if (c == '?')
+                {
+                    i = this.indexOfClose(i + 2, "?>") + 2;
+                    flags |= MARKUP;
+                }
+                else if (c == '!' && (this.depth > 0 || !this.startsWith(i, "<!DOCTYPE")))
+                {
+                    this.position = i;
+                    throw this.error("XML.UnexpectedCharacter", "<!");
+                }
+                else
+                {
+                    break;
+                }
+
+                continue;
+            }
+
+            content = true;
+            if (b < 0)
+            {
+                flags |= NON_ASCII;
+            }
+            else if (b == '&')
+            {
+                i = this.checkReference(i);
+                flags |= REFERENCES;
+                continue;
+            }
+            else if (b == '\r')
+            {
+                flags |= LINE_ENDS;
+            }
+            else if (b == ']' && i + 2 < end && bytes[i + 1] == ']' && bytes[i + 2] == '>')
+            {
+                this.position = i;
+                throw this.error("XML.UnexpectedCharacter", "]]>");
+            }
+
+            i++;
+        }
+
+        this.position = i;
+        this.textStart = start;
+        this.textEnd = i;
+        this.textFlags = flags;
+
+        return content && (this.depth > 0 || !this.isTextWhitespace());
+    }
+
+    /**
+     * Checks the character or entity reference at a specified index.
+     *
+     * @return the index following the reference.
+     */
+    protected int checkReference(int start) throws XmlPullParserException
+    {
+        int semicolon = -1;
+        for (int i = start + 1; i < this.limit && i < start + 32; i++)
+        {
+            if (this.buffer[i] == ';')
+            {
+                semicolon = i;
+                break;
+            }
+        }
+
+        if (semicolon < 0 || this.resolveReference(start + 1, semicolon) < 0)
+        {
+            this.position = start;
+            String reference = semicolon > 0 ? this.decodeString(start, semicolon + 1, 0) : "&";
+            throw this.error("XML.UnresolvedEntity", reference);
+        }
+
+        return semicolon + 1;
+    }
+
+    /**
+     * Resolves the character or predefined entity reference between an ampersand and a semicolon.
+     *
+     * @return the code point of the reference, or -1 if it is not a valid reference.
+     */
+    protected int resolveReference(int start, int end)
+    {
+        byte[] bytes = this.buffer;
+        int length = end - start;
+        if (length <= 0)
+            return -1;
+
+        if (bytes[start] == '#')
+        {
+            int radix = 10;
+            int i = start + 1;
+            if (i < end && bytes[i] == 'x')
+            {
+                radix = 16;
+                i++;
+            }
+
+            if (i == end)
+                return -1;
+
+            int codePoint = 0;
+            for (; i < end; i++)
+            {
+                int digit = Character.digit((char) bytes[i], radix);
+                if (digit < 0 || bytes[i] < 0)
+                    return -1;
+                codePoint = radix * codePoint + digit;
+                if (codePoint > Character.MAX_CODE_POINT)
+                    return -1;
+            }
+
+            return codePoint;
+        }
+
+        if (length == 2 && bytes[start + 1] == 't')
+        {
+            if (bytes[start] == 'l')
+                return '<';
+            if (bytes[start] == 'g')
+                return '>';
+        }
+        else if (length == 3 && bytes[start] == 'a' && bytes[start + 1] == 'm' && bytes[start + 2] == 'p')
+        {
+            return '&';
+        }
+        else if (length == 4 && bytes[start] == 'q' && bytes[start + 1] == 'u' && bytes[start + 2] == 'o'
+            && bytes[start + 3] == 't')
+        {
+            return '"';
+        }
+        else if (length == 4 && bytes[start] == 'a' && bytes[start + 1] == 'p' && bytes[start + 2] == 'o'
+            && bytes[start + 3] == 's')
+        {
+            return '\'';
+        }
+
+        return -1;
+    }
+
+    /** Reads a name at the current position and returns its entry in the names table. */
+    protected Name readName() throws XmlPullParserException
+    {
+        byte[] bytes = this.buffer;
+        int start = this.position;
+        int hash = 0;
+        int i = start;
+        for (; i < this.limit; i++)
+        {
+            byte b = bytes[i];
+            if (b >= 0 && !NAME_BYTES[b])
+                break;
+            hash = 31 * hash + b;
+        }
+
+        int length = i - start;
+        if (length == 0)
+        {
+            String c = i < this.limit ? String.valueOf((char) bytes[i]) : "";
+            throw this.error("XML.UnexpectedCharacter", c);
+        }
+
+        this.position = i;
+
+        int index = hash & (this.names.length - 1);
+        for (Name name = this.names[index]; name != null; name = name.next)
+        {
+            if (name.matches(bytes, start, length, hash))
+                return name;
+        }
+
+        Name name = new Name(Arrays.copyOfRange(bytes, start, i), hash, this.decodeString(start, i, NON_ASCII),
+            this.processNamespaces);
+        name.next = this.names[index];
+        this.names[index] = name;
+
+        if (++this.nameCount > this.names.length * 3 / 4)
+            this.rehashNames();
+
+        return name;
+    }
+
+    protected void rehashNames()
+    {
+        Name[] table = new Name[2 * this.names.length];
+        for (Name name : this.names)
+        {
+            while (name != null)
+            {
+                Name next = name.next;
+                int index = name.hash & (table.length - 1);
+                name.next = table[index];
+                table[index] = name;
+                name = next;
+            }
+        }
+
+        this.names = table;
+    }
+
+    protected void skipWhitespace()
+    {
+        byte[] bytes = this.buffer;
+        while (this.position < this.limit)
+        {
+            byte b = bytes[this.position];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t')
+                break;
+            this.position++;
+        }
+    }
+
+    protected void expect(char c) throws XmlPullParserException
+    {
+        if (this.position >= this.limit)
+            throw this.error("XML.UnexpectedEndOfDocument");
+
+        if (this.buffer[this.position] != c)
+            throw this.error("XML.UnexpectedCharacter", String.valueOf((char) this.buffer[this.position]));
+
+        this.position++;
+    }
+
+    protected boolean startsWith(int start, String s)
+    {
+        if (start + s.length() > this.limit)
+            return false;
+
+        for (int i = 0; i < s.length(); i++)
+        {
+            if (this.buffer[start + i] != s.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    /** Returns the index of the delimiter closing a comment, processing instruction or CDATA section. */
+    protected int indexOfClose(int start, String delimiter) throws XmlPullParserException
+    {
+        int i = indexOf(this.buffer, start, this.limit, delimiter);
+        if (i < 0)
+        {
+            this.position = this.limit;
+            throw this.error("XML.UnexpectedEndOfDocument");
+        }
+
+        return i;
+    }
+
+    protected int indexOfByte(int start, int end, char c)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (this.buffer[i] == c)
+                return i;
+        }
+
+        return -1;
+    }
+
+    protected void growAttributes()
+    {
+        int n = 2 * this.attributeNames.length;
+        this.attributeNames = Arrays.copyOf(this.attributeNames, n);
+        this.attributeNamespaces = Arrays.copyOf(this.attributeNamespaces, n);
+        this.attributeStarts = Arrays.copyOf(this.attributeStarts, n);
+        this.attributeEnds = Arrays.copyOf(this.attributeEnds, n);
+        this.attributeFlags = Arrays.copyOf(this.attributeFlags, n);
+        this.attributeValues = Arrays.copyOf(this.attributeValues, n);
+    }
+
+    protected void ensureDepthCapacity()
+    {
+        if (this.depth < this.elementNames.length)
+            return;
+
+        int n = 2 * this.elementNames.length;
+        this.elementNames = Arrays.copyOf(this.elementNames, n);
+        this.elementNamespaces = Arrays.copyOf(this.elementNamespaces, n);
+        this.namespaceCounts = Arrays.copyOf(this.namespaceCounts, n);
+    }
+
+    /** Decodes the current text into the character buffer, once per token. */
+    protected void decodeText()
+    {
+        if (!this.textDecoded)
+        {
+            this.charCount = this.decode(this.textStart, this.textEnd, this.textFlags, false);
+            this.textDecoded = true;
+        }
+    }
+
+    protected String decodeString(int start, int end, int flags)
+    {
+        int count = this.decode(start, end, flags, true);
+
+        return new String(this.chars, 0, count);
+    }
+
+    /**
+     * Decodes a range of the document into the character buffer.
+     *
+     * @param start     the index of the first byte.
+     * @param end       the index following the last byte.
+     * @param flags     the content flags of the range, which select the decoding steps needed.
+     * @param attribute true if the range is an attribute value, whose line ends are replaced by spaces.
+     *
+     * @return the number of characters decoded.
+     */
+    protected int decode(int start, int end, int flags, boolean attribute)
+    {
+        if (this.chars.length < end - start)
+            this.chars = new char[Math.max(end - start, 2 * this.chars.length)];
+
+        byte[] bytes = this.buffer;
+        char[] out = this.chars;
+
+        if (flags == 0)
+        {
+            // ASCII characters only: widen each byte.
+            for (int i = start; i < end; i++)
+            {
+                out[i - start] = (char) bytes[i];
+            }
+
+            return end - start;
+        }
+
+        int n = 0;
+        int i = start;
+        while (i < end)
+        {
+            byte b = bytes[i];
+            if (b == '<')
+            {
+                if (bytes[i + 1] == '!' && bytes[i + 2] == '[')
+                {
+                    // A CDATA section: its content is decoded without references.
+                    int close = indexOf(bytes, i + 9, end, "]]>");
+                    n = this.decodeCharacters(i + 9, close, n, attribute);
+                    i = close + 3;
+                }
+                else if (bytes[i + 1] == '!')
+                {
+                    i = indexOf(bytes, i + 4, end, "-->") + 3;
+                }
+                else
+                {
+                    i = indexOf(bytes, i + 2, end, "?>") + 2;
+                }
+                continue;
+            }
+
+            int next = i;
+            while (next < end && bytes[next] != '<' && bytes[next] != '&')
+            {
+                next++;
+            }
+
+            if (next > i)
+            {
+                n = this.decodeCharacters(i, next, n, attribute);
+                i = next;
+            }
+            else
+            {
+                // References were checked when the range was scanned.
+                int semicolon = this.indexOfByte(i, end, ';');
+                n += Character.toChars(this.resolveReference(i + 1, semicolon), out, n);
+                i = semicolon + 1;
+            }
+        }
+
+        return n;
+    }
+
+    /** Decodes UTF-8 characters without references, normalizing line ends. */
+    protected int decodeCharacters(int start, int end, int n, boolean attribute)
+    {
+        byte[] bytes = this.buffer;
+        char[] out = this.chars;
+
+        int i = start;
+        while (i < end)
+        {
+            int b = bytes[i];
+            if (b >= 0)
+            {
+                if (b == '\r')
+                {
+                    out[n++] = attribute ? ' ' : '\n';
+                    i += i + 1 < end && bytes[i + 1] == '\n' ? 2 : 1;
+                    continue;
+                }
+
+                out[n++] = attribute && b == '\n' ? ' ' : (char) b;
+                i++;
+                continue;
+            }
+
+            b &= 0xFF;
+            int codePoint = 0xFFFD;
+            int length = 1;
+            if (b >= 0xC2 && b < 0xE0 && i + 1 < end && isContinuation(bytes[i + 1]))
+            {
+                codePoint = ((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F);
+                length = 2;
+            }
+            else if (b >= 0xE0 && b < 0xF0 && i + 2 < end && isContinuation(bytes[i + 1])
+                && isContinuation(bytes[i + 2]))
+            {
+                int c = ((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F);
+                if (c >= 0x800 && (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE))
+                    codePoint = c;
+                length = 3;
+            }
+            else if (b >= 0xF0 && b < 0xF5 && i + 3 < end && isContinuation(bytes[i + 1])
+                && isContinuation(bytes[i + 2]) && isContinuation(bytes[i + 3]))
+            {
+                int c = ((b & 0x07) << 18) | ((bytes[i + 1] & 0x3F) << 12) | ((bytes[i + 2] & 0x3F) << 6)
+                    | (bytes[i + 3] & 0x3F);
+                if (c >= 0x10000 && c <= Character.MAX_CODE_POINT)
+                    codePoint = c;
+                length = 4;
+            }
+
+            n += Character.toChars(codePoint, out, n);
+            i += length;
+        }
+
+        return n;
+    }
+
+    protected static boolean isContinuation(byte b)
+    {
+        return (b & 0xC0) == 0x80;
+    }
+
+    protected XmlPullParserException error(String key, Object... args)
+    {
+        return new XmlPullParserException(Messages.getMessage(key, args), this, null);
+    }
+
+    public String getPositionDescription()
+    {
+        StringBuilder sb = new StringBuilder(TYPES[this.eventType]);
+        if (this.eventType == START_TAG || this.eventType == END_TAG)
+            sb.append(" <").append(this.getName()).append('>');
+        sb.append('@').append(this.getLineNumber()).append(':').append(this.getColumnNumber());
+
+        return sb.toString();
+    }
+
+    public int getLineNumber()
+    {
+        if (this.buffer == null)
+            return -1;
+
+        byte[] bytes = this.buffer;
+        int end = Math.min(this.position, this.limit);
+        for (int i = this.lineScanPosition; i < end; i++)
+        {
+            byte b = bytes[i];
+            if (b == '\n' || (b == '\r' && (i + 1 >= this.limit || bytes[i + 1] != '\n')))
+            {
+                this.lineNumber++;
+                this.lineStart = i + 1;
+            }
+        }
+
+        if (end > this.lineScanPosition)
+            this.lineScanPosition = end;
+
+        return this.lineNumber;
+    }
+
+    /** Counts the line ends in a range of the document, as {@link #getLineNumber()} counts them. */
+    protected int countLineEnds(int start, int end)
+    {
+        byte[] bytes = this.buffer;
+        int count = 0;
+        for (int i = start; i < end; i++)
+        {
+            byte b = bytes[i];
+            if (b == '\n' || (b == '\r' && (i + 1 >= this.limit || bytes[i + 1] != '\n')))
+                count++;
+        }
+
+        return count;
+    }
+
+    public int getColumnNumber()
+    {
+        if (this.buffer == null)
+            return -1;
+
+        this.getLineNumber();
+
+        return this.position - this.lineStart + 1;
+    }
+
+    public boolean isWhitespace() throws XmlPullParserException
+    {
+        if (this.eventType != TEXT)
+            throw this.error("XML.UnexpectedEvent", TYPES[TEXT]);
+
+        return this.isTextWhitespace();
+    }
+
+    protected boolean isTextWhitespace()
+    {
+        this.decodeText();
+        for (int i = 0; i < this.charCount; i++)
+        {
+            if (this.chars[i] > ' ')
+                return false;
+        }
+
+        return true;
+    }
+
+    public String getText()
+    {
+        if (this.eventType != TEXT)
+            return null;
+
+        if (this.text == null)
+        {
+            this.decodeText();
+            this.text = new String(this.chars, 0, this.charCount);
+        }
+
+        return this.text;
+    }
+
+    public char[] getTextCharacters(int[] holderForStartAndLength)
+    {
+        if (this.eventType != TEXT)
+        {
+            holderForStartAndLength[0] = -1;
+            holderForStartAndLength[1] = -1;
+            return null;
+        }
+
+        this.decodeText();
+        holderForStartAndLength[0] = 0;
+        holderForStartAndLength[1] = this.charCount;
+
+        return this.chars;
+    }
+
+    public String getNamespace()
+    {
+        return this.eventType == START_TAG || this.eventType == END_TAG ? this.namespace : null;
+    }
+
+    public String getName()
+    {
+        if (this.eventType != START_TAG && this.eventType != END_TAG)
+            return null;
+
+        return this.name.localName;
+    }
+
+    public String getPrefix()
+    {
+        if (this.eventType != START_TAG && this.eventType != END_TAG)
+            return null;
+
+        return this.name.prefix;
+    }
+
+    public boolean isEmptyElementTag() throws XmlPullParserException
+    {
+        if (this.eventType != START_TAG)
+            throw this.error("XML.UnexpectedEvent", TYPES[START_TAG]);
+
+        return this.emptyElement;
+    }
+
+    public int getNamespaceCount(int depth) throws XmlPullParserException
+    {
+        if (depth > this.depth)
+            throw new IndexOutOfBoundsException();
+
+        return this.processNamespaces ? this.namespaceCounts[depth] : 0;
+    }
+
+    public String getNamespacePrefix(int pos) throws XmlPullParserException
+    {
+        return this.namespacePrefixes[pos];
+    }
+
+    public String getNamespaceUri(int pos) throws XmlPullParserException
+    {
+        return this.namespaceURIs[pos];
+    }
+
+    public String getNamespace(String prefix)
+    {
+        if ("xml".equals(prefix))
+            return XML_NAMESPACE;
+        if ("xmlns".equals(prefix))
+            return XMLNS_NAMESPACE;
+
+        for (int i = this.namespaceCounts[this.depth] - 1; i >= 0; i--)
+        {
+            String p = this.namespacePrefixes[i];
+            if (prefix == null ? p == null : prefix.equals(p))
+                return this.namespaceURIs[i];
+        }
+
+        return null;
+    }
+
+    public int getAttributeCount()
+    {
+        return this.attributeCount;
+    }
+
+    protected void checkAttributeIndex(int index)
+    {
+        if (index < 0 || index >= this.attributeCount)
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+
+    public String getAttributeNamespace(int index)
+    {
+        this.checkAttributeIndex(index);
+
+        return this.attributeNamespaces[index];
+    }
+
+    public String getAttributeName(int index)
+    {
+        this.checkAttributeIndex(index);
+
+        return this.attributeNames[index].localName;
+    }
+
+    public String getAttributePrefix(int index)
+    {
+        this.checkAttributeIndex(index);
+
+        return this.attributeNames[index].prefix;
+    }
+
+    public String getAttributeType(int index)
+    {
+        return "CDATA";
+    }
+
+    public boolean isAttributeDefault(int index)
+    {
+        return false;
+    }
+
+    /**
+     * Returns the value of an attribute of the current start tag. Values are decoded on the first request.
+     *
+     * @param index the attribute index.
+     *
+     * @return the attribute's value.
+     */
+    public String getAttributeValue(int index)
+    {
+        this.checkAttributeIndex(index);
+
+        String value = this.attributeValues[index];
+        if (value == null)
+        {
+            value = this.decodeString(this.attributeStarts[index], this.attributeEnds[index],
+                this.attributeFlags[index]);
+            this.attributeValues[index] = value;
+        }
+
+        return value;
+    }
+
+    public String getAttributeValue(String namespace, String name)
+    {
+        for (int i = 0; i < this.attributeCount; i++)
+        {
+            if (this.attributeNames[i].localName.equals(name)
+                && (namespace == null || namespace.equals(this.attributeNamespaces[i])))
+                return this.getAttributeValue(i);
+        }
+
+        return null;
+    }
+}
@@ -4,7 +4,13 @@
 
 package gov.nasa.worldwind.util.xml;
 
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
+
 /**
+ * Handles elements for which no parser is registered. The element's attributes are retained as fields, and its content
+ * is skipped without being read as events.
+ *
  * @author tag
  * @version $Id: UnrecognizedXMLEventParser.java 771 2012-09-14 19:30:10Z tgaskins $
  */
@@ -18,4 +24,41 @@ public class UnrecognizedXMLEventParser extends AbstractXMLEventParser
     {
         super(namespaceURI);
     }
+
+    @Override
+    public XMLEventParser newInstance() throws Exception
+    {
+        if (this.getClass() != UnrecognizedXMLEventParser.class)
+            return super.newInstance();
+
+        return new UnrecognizedXMLEventParser(this.getNamespaceURI());
+    }
+
+    @Override
+    public Object parse(XMLEventParserContext ctx, XMLEvent inputEvent, Object... args) throws XMLParserException
+    {
+        if (ctx == null)
+        {
+            String message = Messages.getMessage("nullValue.ParserContextIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (inputEvent == null)
+        {
+            String message = Messages.getMessage("nullValue.EventIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.doParseEventAttributes(ctx, inputEvent, args);
+
+        String id = (String) this.getField("id");
+        if (id != null)
+            ctx.addId(id, this);
+
+        ctx.skipElement(inputEvent);
+
+        return this;
+    }
 }
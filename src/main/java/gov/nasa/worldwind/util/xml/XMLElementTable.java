@@ -0,0 +1,153 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
+import java.util.HashMap;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+
+/**
+ * Maps the child elements a parser recognizes to integer identifiers, so that a parser can dispatch an element with a
+ * single table lookup and a <code>switch</code> instead of testing the element against each of its names in turn.
+ * Tables are keyed by local name and are independent of namespace; the namespace is checked on lookup, with the same
+ * default-namespace aliasing as {@link XMLEventParserContext#isSameName(QName, QName)}.
+ * <p/>
+ * Tables are intended to be created and populated once, in a static initializer, and then shared by all instances of
+ * a parser class. They are not modified after that and may be read concurrently.
+ */
+public class XMLElementTable
+{
+    /** The identifier returned for elements that are not in the table. */
+    public static final int UNKNOWN = -1;
+
+    protected final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+    /** Creates an empty table. */
+    public XMLElementTable()
+    {
+    }
+
+    /**
+     * Creates a table holding the entries of another table. Used by parser subclasses to extend their superclass'
+     * table.
+     *
+     * @param table the table to copy.
+     *
+     * @throws IllegalArgumentException if the table is null.
+     */
+    public XMLElementTable(XMLElementTable table)
+    {
+        if (table == null)
+        {
+            String message = Messages.getMessage("nullValue.TableIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.ids.putAll(table.ids);
+    }
+
+    /**
+     * Adds an element to this table.
+     *
+     * @param localPart the element's local name.
+     * @param id        the identifier to return for the element. Must not be {@link #UNKNOWN}.
+     *
+     * @return this table, to allow chained calls.
+     *
+     * @throws IllegalArgumentException if the local name is null.
+     */
+    public XMLElementTable add(String localPart, int id)
+    {
+        if (localPart == null)
+        {
+            String message = Messages.getMessage("nullValue.NameIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.ids.put(localPart, id);
+
+        return this;
+    }
+
+    /**
+     * Returns the identifier of a start element.
+     *
+     * @param ctx          the parser context.
+     * @param event        the event to look up.
+     * @param namespaceURI the namespace of the elements in this table, typically the calling parser's namespace.
+     *
+     * @return the element's identifier, or {@link #UNKNOWN} if the event is not a start element, or its name is not in
+     *         this table or not in the specified namespace.
+     *
+     * @throws IllegalArgumentException if the event is null.
+     */
+    public int getId(XMLEventParserContext ctx, XMLEvent event, String namespaceURI)
+    {
+        if (event == null)
+        {
+            String message = Messages.getMessage("nullValue.EventIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (!event.isStartElement())
+            return UNKNOWN;
+
+        return this.getId(ctx, event.getName(), namespaceURI);
+    }
+
+    /**
+     * Returns the identifier of an element name.
+     *
+     * @param ctx          the parser context.
+     * @param name         the name to look up.
+     * @param namespaceURI the namespace of the elements in this table, typically the calling parser's namespace.
+     *
+     * @return the element's identifier, or {@link #UNKNOWN} if the name is not in this table or not in the specified
+     *         namespace.
+     *
+     * @throws IllegalArgumentException if the name is null.
+     */
+    public int getId(XMLEventParserContext ctx, QName name, String namespaceURI)
+    {
+        if (name == null)
+        {
+            String message = Messages.getMessage("nullValue.ElementNameIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        Integer id = this.ids.get(name.getLocalPart());
+        if (id == null)
+            return UNKNOWN;
+
+        // Same local name and namespace is a match; otherwise the namespaces may still alias through the default one.
+        String namespace = namespaceURI != null ? namespaceURI : XMLConstants.NULL_NS_URI;
+        if (namespace.equals(name.getNamespaceURI()))
+            return id;
+
+        QName elementName = QNameTable.forNamespace(namespace).get(name.getLocalPart());
+
+        return ctx.isSameName(name, elementName) ? id : UNKNOWN;
+    }
+}
@@ -19,7 +19,6 @@
 package gov.nasa.worldwind.util.xml;
 
 import gov.nasa.worldwind.avlist.AVList;
-import gov.nasa.worldwind.avlist.AVListImpl;
 import javax.xml.namespace.QName;
 import org.xmlpull.v1.XmlPullParser;
 
@@ -32,16 +31,49 @@ import org.xmlpull.v1.XmlPullParser;
 public class XMLEvent {
 	protected int eventType;
 	protected XmlPullParser xpp;
+	/** Start and length of the current text, filled by the pull parser when scanning for whitespace. */
+	protected int[] textRange;
+	/** The name of the current token, looked up on the first call to {@link #getName()}. */
+	protected QName name;
+	/** The reader that created this event, whose document name table resolves names not shared by the parsers. */
+	protected XMLEventReader reader;
 
 	public XMLEvent(int eventType, XmlPullParser pullParser) {
 		this.eventType = eventType;
 		this.xpp = pullParser;
 	}
 
+	XMLEvent(int eventType, XmlPullParser pullParser, XMLEventReader reader) {
+		this(eventType, pullParser);
+		this.reader = reader;
+	}
+
+	/**
+	 * Re-targets this event to the pull parser's current token. Used by {@link XMLEventReader} when it reuses a single
+	 * event for all tokens.
+	 * 
+	 * @param eventType
+	 *            the pull parser's current event type.
+	 */
+	void setEventType(int eventType) {
+		this.eventType = eventType;
+		this.name = null;
+	}
+
 	public int getLineNumber() {
 		return this.xpp.getLineNumber();
 	}
 
+	/**
+	 * Returns the element depth of this event. The root element's start and end tags are at depth 1, and an element's
+	 * start and end tags are at the same depth, so an end tag can be matched to its start tag by depth alone.
+	 * 
+	 * @return the depth of this event's element.
+	 */
+	public int getDepth() {
+		return this.xpp.getDepth();
+	}
+
 	public boolean isStartElement() {
 		return this.eventType == XmlPullParser.START_TAG;
 	}
@@ -54,27 +86,170 @@ public class XMLEvent {
 		return this.eventType == XmlPullParser.TEXT;
 	}
 
+	/**
+	 * Indicates whether this is a character event holding only whitespace. The pull parser's character buffer is
+	 * scanned in place, so no string is created for the text.
+	 * 
+	 * @return true if this is a character event whose text is empty or contains only whitespace, otherwise false.
+	 */
 	public boolean isWhiteSpace() {
-		return this.isCharacters() && (this.getData() == null || this.getData().trim().length() == 0);
+		if (!this.isCharacters()) return false;
+
+		if (this.textRange == null) this.textRange = new int[2];
+
+		char[] chars = this.xpp.getTextCharacters(this.textRange);
+		if (chars == null) return true;
+
+		// Same definition of whitespace as String.trim().
+		for (int i = this.textRange[0], end = this.textRange[0] + this.textRange[1]; i < end; i++) {
+			if (chars[i] > ' ') return false;
+		}
+
+		return true;
 	}
 
+	/**
+	 * Returns the element name of this event. The names parsers obtain from {@link QNameTable} are returned as those
+	 * same instances. Other names are held by the event's reader for the document, see
+	 * {@link XMLEventReader#getName(String, String)}, and are never added to the shared tables.
+	 * 
+	 * @return the element name.
+	 */
 	public QName getName() {
-		return new QName(this.xpp.getNamespace(), xpp.getName());
+		if (this.name == null) this.name = this.lookupName(this.xpp.getNamespace(), this.xpp.getName());
+
+		return this.name;
+	}
+
+	protected QName lookupName(String namespaceURI, String localPart) {
+		if (this.reader != null) return this.reader.getName(namespaceURI, localPart);
+
+		QName name = QNameTable.lookup(namespaceURI, localPart);
+
+		return name != null ? name : new QName(namespaceURI != null ? namespaceURI : "", localPart);
 	}
 
 	public String getData() {
 		return this.xpp.getText();
 	}
 
+	/**
+	 * Returns the pull parser's buffer holding the text of this character event, without creating a string. The
+	 * buffer is shared with the parser and is overwritten when the reader advances.
+	 * 
+	 * @param holderForStartAndLength
+	 *            a two-element array that receives the start and length of the text in the returned buffer.
+	 * 
+	 * @return the buffer holding the text, or null if this is not a character event.
+	 */
+	public char[] getTextCharacters(int[] holderForStartAndLength) {
+		return this.isCharacters() ? this.xpp.getTextCharacters(holderForStartAndLength) : null;
+	}
+
+	/**
+	 * Returns the attributes of this event as a new attribute-value list keyed by local name. Parsers should prefer the
+	 * indexed accessors such as {@link #getAttributeValue(int)}, which do not create a list.
+	 * 
+	 * @return the attributes, or null if there are none.
+	 */
 	public AVList getAttributes() {
-		if (this.xpp.getAttributeCount() == 0) return null;
+		int count = this.getAttributeCount();
+		if (count <= 0) return null;
 
-		AVListImpl avList = new AVListImpl();
+		XMLFieldList avList = new XMLFieldList();
 
-		for (int i = 0; i < this.xpp.getAttributeCount(); i++) {
-			avList.setValue(this.xpp.getAttributeName(i), this.xpp.getAttributeValue(i));
+		for (int i = 0; i < count; i++) {
+			avList.setValue(this.getAttributeName(i), this.getAttributeValue(i));
 		}
 
 		return avList;
 	}
+
+	/**
+	 * Returns the number of attributes of this event. Together with {@link #getAttributeName(int)} and
+	 * {@link #getAttributeValue(int)} this reads the attributes directly from the pull parser, without creating the
+	 * list returned by {@link #getAttributes()}.
+	 * 
+	 * @return the number of attributes if this is a start element, otherwise 0.
+	 */
+	public int getAttributeCount() {
+		return this.isStartElement() ? this.xpp.getAttributeCount() : 0;
+	}
+
+	/**
+	 * Returns the local name of an attribute.
+	 * 
+	 * @param index
+	 *            the attribute index, from 0 to {@link #getAttributeCount()} - 1.
+	 * 
+	 * @return the attribute's local name.
+	 */
+	public String getAttributeName(int index) {
+		return this.xpp.getAttributeName(index);
+	}
+
+	/**
+	 * Returns the namespace URI of an attribute.
+	 * 
+	 * @param index
+	 *            the attribute index, from 0 to {@link #getAttributeCount()} - 1.
+	 * 
+	 * @return the attribute's namespace URI, or the empty string if the attribute has no namespace.
+	 */
+	public String getAttributeNamespace(int index) {
+		return this.xpp.getAttributeNamespace(index);
+	}
+
+	/**
+	 * Returns the qualified name of an attribute. Names are resolved as element names are, see {@link #getName()}.
+	 * 
+	 * @param index
+	 *            the attribute index, from 0 to {@link #getAttributeCount()} - 1.
+	 * 
+	 * @return the attribute's qualified name.
+	 */
+	public QName getAttributeQName(int index) {
+		return this.lookupName(this.getAttributeNamespace(index), this.getAttributeName(index));
+	}
+
+	/**
+	 * Returns the value of an attribute.
+	 * 
+	 * @param index
+	 *            the attribute index, from 0 to {@link #getAttributeCount()} - 1.
+	 * 
+	 * @return the attribute's value.
+	 */
+	public String getAttributeValue(int index) {
+		return this.xpp.getAttributeValue(index);
+	}
+
+	/**
+	 * Returns the value of the attribute with a specified local name, in any namespace. If several attributes have the
+	 * local name the last one is returned, consistent with {@link #getAttributes()}.
+	 * 
+	 * @param localName
+	 *            the attribute's local name.
+	 * 
+	 * @return the attribute's value, or null if this event has no attribute with the name.
+	 */
+	public String getAttributeValue(String localName) {
+		for (int i = this.getAttributeCount() - 1; i >= 0; i--) {
+			if (localName.equals(this.getAttributeName(i))) return this.getAttributeValue(i);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns a copy of this event that is detached from the pull parser. The copy keeps the event type, element name,
+	 * character data, line number and attributes of the current token, and remains valid after the reader advances.
+	 * Parsers that need to keep an event past the next call to {@link XMLEventParserContext#nextEvent()} should keep a
+	 * copy, since the reader may reuse event instances.
+	 * 
+	 * @return a detached copy of this event.
+	 */
+	public XMLEvent copy() {
+		return new DetachedXMLEvent(this);
+	}
 }
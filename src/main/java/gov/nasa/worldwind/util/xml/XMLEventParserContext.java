@@ -83,6 +83,20 @@ public interface XMLEventParserContext extends AVList {
 	 */
 	boolean isEndElement(XMLEvent event, XMLEvent startElement);
 
+	/**
+	 * Determines whether an event ends the element whose start event was at a specified depth. Only the event type and
+	 * the pull parser's depth are compared, so the start event need not be kept and no names are compared. This
+	 * remains correct when the reader reuses event instances, and when the element contains nested elements of the same
+	 * name.
+	 * 
+	 * @param event
+	 *            the event of interest.
+	 * @param startDepth
+	 *            the depth of the start event, from {@link XMLEvent#getDepth()}.
+	 * @return true if the event is an end event at or above the start event's depth, otherwise false.
+	 */
+	boolean isEndElement(XMLEvent event, int startDepth);
+
 	/**
 	 * Returns the text associated with the event.
 	 * 
@@ -92,6 +106,18 @@ public interface XMLEventParserContext extends AVList {
 	 */
 	String getCharacters(XMLEvent event);
 
+	/**
+	 * Skips a start element and all of its content without creating events for it. The event must be the event most
+	 * recently returned by {@link #nextEvent()}. When this method returns, the next call to {@link #nextEvent()}
+	 * returns the event following the element's end tag.
+	 * 
+	 * @param event
+	 *            the start element to skip. Nothing is skipped if the event is not a start element.
+	 * @throws XMLParserException
+	 *             if a parsing exception occurs while reading the skipped content.
+	 */
+	void skipElement(XMLEvent event) throws XMLParserException;
+
 	/**
 	 * Returns the default parser for a simple string.
 	 * 
@@ -128,7 +154,8 @@ public interface XMLEventParserContext extends AVList {
 	IntegerXMLEventParser getIntegerParser();
 
 	/**
-	 * Registers a parser for a specified element name.
+	 * Registers a parser for a specified element name. The parser acts as a prototype: new parsers for the element are
+	 * created by calling its {@link XMLEventParser#newInstance()} method.
 	 * 
 	 * @param elementName
 	 *            the element name for which to return a parser.
@@ -137,6 +164,18 @@ public interface XMLEventParserContext extends AVList {
 	 */
 	void registerParser(QName elementName, XMLEventParser parser);
 
+	/**
+	 * Registers a parser factory for a specified element name. The factory is invoked each time a parser for the
+	 * element is requested, and is the preferred registration for parsers created in large numbers because no
+	 * reflection is involved.
+	 * 
+	 * @param elementName
+	 *            the element name for which the factory creates parsers.
+	 * @param factory
+	 *            the factory to register.
+	 */
+	void registerParserFactory(QName elementName, XMLEventParserFactory factory);
+
 	/**
 	 * Returns the next event in the event stream associated with this context.
 	 * 
@@ -257,6 +296,14 @@ public interface XMLEventParserContext extends AVList {
 	 */
 	void setNotificationListener(XMLParserNotificationListener listener);
 
+	/**
+	 * Returns the collector of this context's notifications. Notifications are recorded whether or not a notification
+	 * listener is specified.
+	 * 
+	 * @return the context's diagnostics.
+	 */
+	XMLParserDiagnostics getDiagnostics();
+
 	/**
 	 * Indicates whether the specified namespace URI is the default namespace URI used by this parser context.
 	 * 
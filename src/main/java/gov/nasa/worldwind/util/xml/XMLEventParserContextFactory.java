@@ -4,8 +4,7 @@
 
 package gov.nasa.worldwind.util.xml;
 
-import android.util.Log;
-
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 
 import javax.xml.XMLConstants;
@@ -58,7 +57,7 @@ public class XMLEventParserContextFactory
             catch (NoSuchMethodException e)
             {
                 String message = Messages.getMessage("XML.NoCopyConstructor");
-                Log.e("NWW_ANDROID", message);
+                Logging.e("NWW_ANDROID", message);
                 throw new IllegalArgumentException(message);
             }
         }
@@ -94,14 +93,14 @@ public class XMLEventParserContextFactory
         if (mimeTypes == null || mimeTypes.length == 0)
         {
             String message = Messages.getMessage("nullValue.MimeTypeListIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
         if (prototypeContext == null)
         {
             String message = Messages.getMessage("nullValue.ParserContextIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -125,14 +124,14 @@ public class XMLEventParserContextFactory
         if (mimeTypes == null || mimeTypes.length == 0)
         {
             String message = Messages.getMessage("nullValue.MimeTypeListIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
         if (prototypeContext == null)
         {
             String message = Messages.getMessage("nullValue.ParserContextIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -162,7 +161,7 @@ public class XMLEventParserContextFactory
         if (mimeType == null)
         {
             String message = Messages.getMessage("nullValue.MimeTypeIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
@@ -184,7 +183,7 @@ public class XMLEventParserContextFactory
                         catch (Exception e)
                         {
                             String message = Messages.getMessage("XML.ExceptionCreatingParserContext", e.getMessage());
-                            Log.w("NWW_ANDROID", message);
+                            Logging.w("NWW_ANDROID", message);
                             // continue on to subsequent entries
                         }
                 }
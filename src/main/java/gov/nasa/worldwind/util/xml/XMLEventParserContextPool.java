@@ -0,0 +1,153 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.exception.WWRuntimeException;
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
+import java.util.ArrayDeque;
+
+/**
+ * A pool of reusable parser contexts created from a prototype context. Contexts are created with the prototype's copy
+ * constructor, so they share the prototype's parser table as an immutable snapshot, and are reset with {@link
+ * BasicXMLEventParserContext#reset(XMLEventReader)} when they are released. Parsing a series of documents, or several
+ * documents at once, then needs no parser table setup per document.
+ * <p/>
+ * The pool may be used from several threads. A context must be used by one thread at a time, and must not be used
+ * after it has been released.
+ */
+public class XMLEventParserContextPool
+{
+    /** The default number of idle contexts kept by a pool. */
+    public static final int DEFAULT_MAX_IDLE = 4;
+
+    protected final BasicXMLEventParserContext prototype;
+    protected final int maxIdle;
+    protected final ArrayDeque<BasicXMLEventParserContext> idle = new ArrayDeque<BasicXMLEventParserContext>();
+
+    /**
+     * Creates a pool that keeps up to {@link #DEFAULT_MAX_IDLE} idle contexts.
+     *
+     * @param prototype the context to create pooled contexts from. Its class must provide a copy constructor.
+     *
+     * @throws IllegalArgumentException if the prototype is null.
+     */
+    public XMLEventParserContextPool(BasicXMLEventParserContext prototype)
+    {
+        this(prototype, DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param prototype the context to create pooled contexts from. Its class must provide a copy constructor.
+     * @param maxIdle   the maximum number of idle contexts to keep. Contexts released while the pool is full are
+     *                  discarded.
+     *
+     * @throws IllegalArgumentException if the prototype is null.
+     */
+    public XMLEventParserContextPool(BasicXMLEventParserContext prototype, int maxIdle)
+    {
+        if (prototype == null)
+        {
+            String message = Messages.getMessage("nullValue.ParserContextIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        this.prototype = prototype;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns a context for a document, either an idle one or a new one created from the prototype.
+     *
+     * @param eventReader      the event reader for the document.
+     * @param defaultNamespace the default namespace URI of the document.
+     *
+     * @return a context with no registered parsers, values or notifications beyond those of the prototype.
+     *
+     * @throws WWRuntimeException if a new context cannot be created from the prototype.
+     */
+    public BasicXMLEventParserContext acquire(XMLEventReader eventReader, String defaultNamespace)
+    {
+        BasicXMLEventParserContext ctx;
+        synchronized (this.idle)
+        {
+            ctx = this.idle.poll();
+        }
+
+        if (ctx == null)
+            ctx = this.createContext();
+
+        ctx.reset(eventReader);
+        ctx.setDefaultNamespaceURI(defaultNamespace);
+
+        return ctx;
+    }
+
+    /**
+     * Returns a context to the pool. The context is reset, so the reader, parsers, values and diagnostics of the
+     * document it parsed are no longer reachable from it.
+     *
+     * @param ctx the context to release. Must have been returned by {@link #acquire(XMLEventReader, String)}. Null
+     *            contexts are ignored.
+     */
+    public void release(BasicXMLEventParserContext ctx)
+    {
+        if (ctx == null)
+            return;
+
+        ctx.reset(null);
+
+        synchronized (this.idle)
+        {
+            if (this.idle.size() < this.maxIdle)
+                this.idle.push(ctx);
+        }
+    }
+
+    /**
+     * Returns the number of idle contexts in the pool.
+     *
+     * @return the number of idle contexts.
+     */
+    public int getIdleCount()
+    {
+        synchronized (this.idle)
+        {
+            return this.idle.size();
+        }
+    }
+
+    protected BasicXMLEventParserContext createContext()
+    {
+        try
+        {
+            return (BasicXMLEventParserContext) XMLEventParserContextFactory.createInstanceFromPrototype(
+                this.prototype);
+        }
+        catch (Exception e)
+        {
+            String message = Messages.getMessage("XML.ExceptionCreatingParserContext", e.getMessage());
+            Logging.e("NWW_ANDROID", message);
+            throw new WWRuntimeException(message, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+/**
+ * Creates new, empty parsers for an element type. Factories are registered with a parser context via {@link
+ * XMLEventParserContext#registerParserFactory(javax.xml.namespace.QName, XMLEventParserFactory)} and are invoked once
+ * for every occurrence of the element, so implementations should simply call a constructor.
+ */
+public interface XMLEventParserFactory
+{
+    /**
+     * Creates a new parser.
+     *
+     * @return a new parser with empty fields.
+     *
+     * @throws Exception if an error or exception occurs while attempting to create the parser.
+     */
+    XMLEventParser createParser() throws Exception;
+}
@@ -5,29 +5,153 @@
 package gov.nasa.worldwind.util.xml;
 
 import java.io.IOException;
+import java.util.HashMap;
+import javax.xml.namespace.QName;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 /**
  * Edited By: Nicola Dorigatti, Trilogis
+ * <p/>
+ * Wraps an {@link XmlPullParser} and exposes its tokens as {@link XMLEvent}s. By default a new event is created for
+ * every token. When event reuse is enabled (see {@link #setReuseEvents(boolean)}) the reader instead returns a single
+ * flyweight event that always describes the current token, so reading a document allocates no events at all. Parsers
+ * that must keep an event past the next call to {@link #nextEvent()} should keep {@link XMLEvent#copy()} instead.
  * 
  * @author tag
  * @version $Id: XMLEventReader.java 771 2012-09-14 19:30:10Z tgaskins $
  */
 public class XMLEventReader {
 	protected XmlPullParser parser;
+	protected boolean reuseEvents;
+	protected XMLEvent currentEvent;
+	/**
+	 * The names read from this reader's document that are not in {@link QNameTable}, by namespace URI and local part.
+	 * The table is discarded with the reader.
+	 */
+	protected HashMap<String, HashMap<String, QName>> documentNames;
 
 	public XMLEventReader(XmlPullParser parser) {
 		this.parser = parser;
 	}
 
+	/**
+	 * Construct a reader and specify whether it returns a single reused event for all tokens.
+	 * 
+	 * @param parser
+	 *            the pull parser to read from.
+	 * @param reuseEvents
+	 *            true to return a flyweight event describing the current token, false to create a new event per token.
+	 */
+	public XMLEventReader(XmlPullParser parser, boolean reuseEvents) {
+		this.parser = parser;
+		this.reuseEvents = reuseEvents;
+	}
+
+	/**
+	 * Indicates whether this reader returns a single reused event for all tokens.
+	 * 
+	 * @return true if events are reused, otherwise false.
+	 */
+	public boolean isReuseEvents() {
+		return this.reuseEvents;
+	}
+
+	/**
+	 * Specifies whether this reader returns a single reused event for all tokens. When enabled, the event returned by
+	 * {@link #nextEvent()} is only valid until the next call to that method.
+	 * 
+	 * @param reuseEvents
+	 *            true to reuse events, false to create a new event per token.
+	 */
+	public void setReuseEvents(boolean reuseEvents) {
+		this.reuseEvents = reuseEvents;
+	}
+
+	/**
+	 * Returns the pull parser this reader reads from.
+	 * 
+	 * @return the underlying pull parser.
+	 */
+	public XmlPullParser getPullParser() {
+		return this.parser;
+	}
+
+	/**
+	 * Returns the name for a namespace and local part read from this reader's document. The parsers' shared name from
+	 * {@link QNameTable} is returned when there is one. Other names are held by this reader only, so each is created
+	 * once per document, and names from untrusted documents are not retained after the reader is discarded.
+	 * 
+	 * @param namespaceURI
+	 *            the namespace URI of the name.
+	 * @param localPart
+	 *            the local part of the name.
+	 * 
+	 * @return the name.
+	 */
+	public QName getName(String namespaceURI, String localPart) {
+		QName name = QNameTable.lookup(namespaceURI, localPart);
+		if (name != null) return name;
+
+		String namespace = namespaceURI != null ? namespaceURI : "";
+
+		if (this.documentNames == null) this.documentNames = new HashMap<String, HashMap<String, QName>>();
+
+		HashMap<String, QName> names = this.documentNames.get(namespace);
+		if (names == null) {
+			names = new HashMap<String, QName>();
+			this.documentNames.put(namespace, names);
+		}
+
+		name = names.get(localPart);
+		if (name == null) {
+			name = new QName(namespace, localPart);
+			names.put(localPart, name);
+		}
+
+		return name;
+	}
+
 	public XMLEvent nextEvent() throws XMLParserException {
 		try {
 			int eventType = this.parser.next();
 
 			if (eventType == XmlPullParser.END_DOCUMENT) return null;
 
-			return new XMLEvent(eventType, parser);
+			if (!this.reuseEvents) return new XMLEvent(eventType, parser, this);
+
+			if (this.currentEvent == null) this.currentEvent = new XMLEvent(eventType, parser, this);
+			else this.currentEvent.setEventType(eventType);
+
+			return this.currentEvent;
+		} catch (IOException e) {
+			throw new XMLParserException(e);
+		} catch (XmlPullParserException e) {
+			throw new XMLParserException(e);
+		}
+	}
+
+	/**
+	 * Skips the content of the element whose start tag is the current token. The pull parser is advanced until it
+	 * reaches the end tag at the start tag's depth, and no events are created for the skipped tokens. Afterwards the
+	 * current token is that end tag, so the next call to {@link #nextEvent()} returns the token following the element.
+	 * If the document ends before the element is closed, the current token is the end of the document. Does nothing if
+	 * the current token is not a start tag.
+	 * 
+	 * @throws XMLParserException
+	 *             if the pull parser fails while reading the skipped content.
+	 */
+	public void skipElement() throws XMLParserException {
+		try {
+			if (this.parser.getEventType() != XmlPullParser.START_TAG) return;
+
+			int depth = this.parser.getDepth();
+			int eventType = this.parser.next();
+			while (eventType != XmlPullParser.END_DOCUMENT && (eventType != XmlPullParser.END_TAG || this.parser.getDepth() > depth)) {
+				eventType = this.parser.next();
+			}
+
+			if (this.reuseEvents && this.currentEvent != null) this.currentEvent.setEventType(eventType);
 		} catch (IOException e) {
 			throw new XMLParserException(e);
 		} catch (XmlPullParserException e) {
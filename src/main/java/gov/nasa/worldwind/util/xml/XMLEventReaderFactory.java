@@ -0,0 +1,615 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+/**
+ * Creates {@link XMLEventReader}s for input streams. Each factory holds a configured {@link XmlPullParserFactory},
+ * which is looked up once rather than for every document, and the shared factories returned by {@link
+ * #getInstance(boolean)} may be used by any number of threads.
+ * <p/>
+ * Input is read through a buffer, and its character encoding is determined once, before parsing, from the byte order
+ * mark or the encoding declared in the XML declaration, as described in appendix F of the XML specification. A byte
+ * order mark is removed. Documents with neither are read as UTF-8.
+ * <p/>
+ * Documents held in a {@link ByteBuffer}, such as a memory-mapped file, are decoded directly from the buffer into the
+ * pull parser's character buffer, without copying the bytes through an input stream.
+ * <p/>
+ * Readers are backed by the platform's pull parser, or by {@link UTF8XMLPullParser}, which tokenizes UTF-8 documents
+ * from their bytes, depending on the factory's {@link Backend}. The tokenizer reads the whole document into memory
+ * first, and documents it does not support are read with the platform parser.
+ */
+public class XMLEventReaderFactory
+{
+    /** The default size of the input buffer, in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    /** The number of bytes examined to find the encoding declared in the XML declaration. */
+    protected static final int PROLOG_SIZE = 256;
+    protected static final String DEFAULT_ENCODING = "UTF-8";
+
+    /** The parsers that read documents. */
+    public enum Backend
+    {
+        /** The platform's {@link XmlPullParser}, which reads documents in any supported encoding. */
+        PULL_PARSER,
+        /**
+         * {@link UTF8XMLPullParser}, which tokenizes UTF-8 and US-ASCII documents from their bytes. Other documents,
+         * and documents that declare entities, are read with the platform's pull parser.
+         */
+        UTF8_TOKENIZER
+    }
+
+    protected static volatile Backend defaultBackend = Backend.PULL_PARSER;
+    /** The shared factories, by backend and namespace-processing mode. */
+    protected static final AtomicReferenceArray<XMLEventReaderFactory> instances =
+        new AtomicReferenceArray<XMLEventReaderFactory>(2 * Backend.values().length);
+
+    protected final XmlPullParserFactory pullParserFactory;
+    protected final int bufferSize;
+    protected final Backend backend;
+
+    /**
+     * Returns the backend of the factories returned by {@link #getInstance(boolean)}.
+     *
+     * @return the default backend.
+     */
+    public static Backend getDefaultBackend()
+    {
+        return defaultBackend;
+    }
+
+    /**
+     * Specifies the backend of the factories returned by {@link #getInstance(boolean)}, and so of the readers opened by
+     * {@link gov.nasa.worldwind.util.WWXML#openEventReader(Object)}. The initial default is {@link
+     * Backend#PULL_PARSER}.
+     *
+     * @param backend the default backend.
+     *
+     * @throws IllegalArgumentException if the backend is null.
+     */
+    public static void setDefaultBackend(Backend backend)
+    {
+        if (backend == null)
+        {
+            String message = Messages.getMessage("nullValue.BackendIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        defaultBackend = backend;
+    }
+
+    /**
+     * Returns the shared factory for a namespace-processing mode and the default backend.
+     *
+     * @param isNamespaceAware true for a factory whose readers process namespaces, false for one whose readers do not.
+     *
+     * @return the shared factory.
+     *
+     * @throws XmlPullParserException if no pull parser factory is available.
+     */
+    public static XMLEventReaderFactory getInstance(boolean isNamespaceAware) throws XmlPullParserException
+    {
+        return getInstance(isNamespaceAware, defaultBackend);
+    }
+
+    /**
+     * Returns the shared factory for a namespace-processing mode and a backend.
+     *
+     * @param isNamespaceAware true for a factory whose readers process namespaces, false for one whose readers do not.
+     * @param backend          the parser that reads documents.
+     *
+     * @return the shared factory.
+     *
+     * @throws IllegalArgumentException if the backend is null.
+     * @throws XmlPullParserException   if no pull parser factory is available.
+     */
+    public static XMLEventReaderFactory getInstance(boolean isNamespaceAware, Backend backend)
+        throws XmlPullParserException
+    {
+        if (backend == null)
+        {
+            String message = Messages.getMessage("nullValue.BackendIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        int index = 2 * backend.ordinal() + (isNamespaceAware ? 1 : 0);
+        XMLEventReaderFactory factory = instances.get(index);
+        if (factory == null)
+        {
+            // Creating a second instance in a race is harmless; the last one created is kept.
+            factory = new XMLEventReaderFactory(isNamespaceAware, DEFAULT_BUFFER_SIZE, backend);
+            instances.set(index, factory);
+        }
+
+        return factory;
+    }
+
+    /**
+     * Creates a factory.
+     *
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @param bufferSize       the size of the input buffer, in bytes.
+     *
+     * @throws IllegalArgumentException if the buffer size is not positive.
+     * @throws XmlPullParserException   if no pull parser factory is available.
+     */
+    public XMLEventReaderFactory(boolean isNamespaceAware, int bufferSize) throws XmlPullParserException
+    {
+        this(isNamespaceAware, bufferSize, Backend.PULL_PARSER);
+    }
+
+    /**
+     * Creates a factory with a specified backend.
+     *
+     * @param isNamespaceAware true to enable namespace-aware processing and false to disable it.
+     * @param bufferSize       the size of the input buffer, in bytes.
+     * @param backend          the parser that reads documents.
+     *
+     * @throws IllegalArgumentException if the buffer size is not positive or the backend is null.
+     * @throws XmlPullParserException   if no pull parser factory is available.
+     */
+    public XMLEventReaderFactory(boolean isNamespaceAware, int bufferSize, Backend backend)
+        throws XmlPullParserException
+    {
+        if (backend == null)
+        {
+            String message = Messages.getMessage("nullValue.BackendIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (bufferSize <= 0)
+        {
+            String message = Messages.getMessage("generic.InvalidBufferSize", bufferSize);
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        // The factory is configured here and only read afterwards, so it can be shared between threads.
+        this.pullParserFactory = XmlPullParserFactory.newInstance();
+        this.pullParserFactory.setNamespaceAware(isNamespaceAware);
+        this.bufferSize = bufferSize;
+        this.backend = backend;
+    }
+
+    public boolean isNamespaceAware()
+    {
+        return this.pullParserFactory.isNamespaceAware();
+    }
+
+    public int getBufferSize()
+    {
+        return this.bufferSize;
+    }
+
+    public Backend getBackend()
+    {
+        return this.backend;
+    }
+
+    /**
+     * Creates an event reader for an input stream.
+     *
+     * @param inputStream the XML document. The stream is read by the returned reader and is not closed.
+     *
+     * @return a reader for the document.
+     *
+     * @throws IllegalArgumentException if the input stream is null.
+     * @throws XmlPullParserException   if the pull parser cannot be created.
+     * @throws IOException              if the start of the document cannot be read.
+     */
+    public XMLEventReader createReader(InputStream inputStream) throws XmlPullParserException, IOException
+    {
+        if (inputStream == null)
+        {
+            String message = Messages.getMessage("nullValue.InputStreamIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (this.backend == Backend.UTF8_TOKENIZER)
+        {
+            byte[] bytes = readAll(inputStream, this.bufferSize);
+            return this.createReader(bytes, 0, bytes.length);
+        }
+
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, this.bufferSize);
+
+        XmlPullParser pullParser = this.pullParserFactory.newPullParser();
+        pullParser.setInput(this.createCharacterReader(buffered));
+
+        return new XMLEventReader(pullParser);
+    }
+
+    /**
+     * Creates an event reader for a document held in a byte buffer, such as a memory-mapped file. The bytes are
+     * decoded directly from the buffer.
+     *
+     * @param buffer the XML document, from the buffer's position to its limit. The buffer's position is not changed.
+     *
+     * @return a reader for the document.
+     *
+     * @throws IllegalArgumentException if the buffer is null.
+     * @throws XmlPullParserException   if the pull parser cannot be created.
+     */
+    public XMLEventReader createReader(ByteBuffer buffer) throws XmlPullParserException
+    {
+        if (buffer == null)
+        {
+            String message = Messages.getMessage("nullValue.BufferIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        ByteBuffer input = buffer.duplicate();
+
+        if (this.backend == Backend.UTF8_TOKENIZER)
+        {
+            // The tokenizer reads a byte array; a direct buffer, such as a mapped file, is copied into one.
+            if (input.hasArray())
+                return this.createReader(input.array(), input.arrayOffset() + input.position(), input.remaining());
+
+            byte[] bytes = new byte[input.remaining()];
+            input.get(bytes);
+            return this.createReader(bytes, 0, bytes.length);
+        }
+
+        return this.createPullParserReader(input);
+    }
+
+    /**
+     * Creates an event reader backed by the platform's pull parser for a document held in a byte buffer.
+     *
+     * @param input the XML document, from the buffer's position to its limit. The buffer's position is advanced past
+     *              the byte order mark, if there is one.
+     *
+     * @return a reader for the document.
+     *
+     * @throws XmlPullParserException if the pull parser cannot be created.
+     */
+    protected XMLEventReader createPullParserReader(ByteBuffer input) throws XmlPullParserException
+    {
+        byte[] prolog = new byte[Math.min(PROLOG_SIZE, input.remaining())];
+        for (int i = 0; i < prolog.length; i++)
+        {
+            prolog[i] = input.get(input.position() + i);
+        }
+
+        input.position(input.position() + getByteOrderMarkLength(prolog, prolog.length));
+
+        String encoding = detectEncoding(prolog, prolog.length);
+        if (!isSupportedEncoding(encoding))
+            encoding = DEFAULT_ENCODING;
+
+        XmlPullParser pullParser = this.pullParserFactory.newPullParser();
+        pullParser.setInput(new ByteBufferReader(input, Charset.forName(encoding)));
+
+        return new XMLEventReader(pullParser);
+    }
+
+    /**
+     * Creates an event reader for a document held in a byte array.
+     *
+     * @param bytes  the XML document. The array is read in place and must not change while it is parsed.
+     * @param offset the index of the document's first byte.
+     * @param length the number of bytes in the document.
+     *
+     * @return a reader for the document.
+     *
+     * @throws IllegalArgumentException if the array is null.
+     * @throws XmlPullParserException   if the pull parser cannot be created.
+     */
+    public XMLEventReader createReader(byte[] bytes, int offset, int length) throws XmlPullParserException
+    {
+        if (bytes == null)
+        {
+            String message = Messages.getMessage("nullValue.ArrayIsNull");
+            Logging.e("NWW_ANDROID", message);
+            throw new IllegalArgumentException(message);
+        }
+
+        if (this.backend != Backend.UTF8_TOKENIZER || !UTF8XMLPullParser.isSupported(bytes, offset, length))
+            return this.createPullParserReader(ByteBuffer.wrap(bytes, offset, length));
+
+        UTF8XMLPullParser pullParser = new UTF8XMLPullParser();
+        pullParser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, this.isNamespaceAware());
+        pullParser.setInput(bytes, offset, length);
+
+        return new XMLEventReader(pullParser);
+    }
+
+    /**
+     * Determines the encoding of a buffered stream and returns a character reader for it. The stream is positioned
+     * after the byte order mark, if there is one.
+     *
+     * @param buffered the stream.
+     *
+     * @return a reader decoding the stream.
+     *
+     * @throws IOException if the start of the stream cannot be read.
+     */
+    protected Reader createCharacterReader(BufferedInputStream buffered) throws IOException
+    {
+        byte[] prolog = new byte[PROLOG_SIZE];
+
+        buffered.mark(PROLOG_SIZE);
+        int length = readFully(buffered, prolog);
+        buffered.reset();
+
+        int bomLength = getByteOrderMarkLength(prolog, length);
+        for (int i = 0; i < bomLength; i++)
+        {
+            buffered.read();
+        }
+
+        String encoding = detectEncoding(prolog, length);
+        if (!isSupportedEncoding(encoding))
+            encoding = DEFAULT_ENCODING;
+
+        return new InputStreamReader(buffered, encoding);
+    }
+
+    protected static byte[] readAll(InputStream stream, int bufferSize) throws IOException
+    {
+        byte[] bytes = new byte[bufferSize];
+        int length = 0;
+        for (int n; (n = stream.read(bytes, length, bytes.length - length)) >= 0; )
+        {
+            length += n;
+            if (length == bytes.length)
+                bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+        }
+
+        return Arrays.copyOf(bytes, length);
+    }
+
+    protected static int readFully(InputStream stream, byte[] buffer) throws IOException
+    {
+        int length = 0;
+        while (length < buffer.length)
+        {
+            int n = stream.read(buffer, length, buffer.length - length);
+            if (n < 0)
+                break;
+            length += n;
+        }
+
+        return length;
+    }
+
+    /**
+     * Returns the length of the byte order mark at the start of a document.
+     *
+     * @param bytes  the first bytes of the document.
+     * @param length the number of bytes available.
+     *
+     * @return the length of the byte order mark, or 0 if the document has none.
+     */
+    public static int getByteOrderMarkLength(byte[] bytes, int length)
+    {
+        if (length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF)
+            return 3;
+
+        if (length >= 2 && (((bytes[0] & 0xFF) == 0xFE && (bytes[1] & 0xFF) == 0xFF)
+            || ((bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xFE)))
+            return 2;
+
+        return 0;
+    }
+
+    /**
+     * Determines the character encoding of a document from its first bytes: the byte order mark if there is one,
+     * otherwise the encoding named in the XML declaration.
+     *
+     * @param bytes  the first bytes of the document.
+     * @param length the number of bytes available.
+     *
+     * @return the name of the encoding, UTF-8 if the document has neither a byte order mark nor a declared encoding.
+     */
+    public static String detectEncoding(byte[] bytes, int length)
+    {
+        if (length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF)
+            return "UTF-8";
+
+        if (length >= 2)
+        {
+            int b0 = bytes[0] & 0xFF;
+            int b1 = bytes[1] & 0xFF;
+
+            if (b0 == 0xFE && b1 == 0xFF)
+                return "UTF-16BE";
+            if (b0 == 0xFF && b1 == 0xFE)
+                return "UTF-16LE";
+            if (b0 == 0x00 && b1 == '<')
+                return "UTF-16BE";
+            if (b0 == '<' && b1 == 0x00)
+                return "UTF-16LE";
+        }
+
+        String declared = getDeclaredEncoding(bytes, length);
+
+        return declared != null ? declared : DEFAULT_ENCODING;
+    }
+
+    /**
+     * Returns the encoding named in the XML declaration of a document in an ASCII-compatible encoding.
+     *
+     * @param bytes  the first bytes of the document.
+     * @param length the number of bytes available.
+     *
+     * @return the declared encoding, or null if the document has no XML declaration or the declaration names no
+     *         encoding.
+     */
+    protected static String getDeclaredEncoding(byte[] bytes, int length)
+    {
+        if (length < 5 || bytes[0] != '<' || bytes[1] != '?' || bytes[2] != 'x' || bytes[3] != 'm'
+            || bytes[4] != 'l')
+            return null;
+
+        // The declaration is ASCII up to its end, which must be within the examined bytes.
+        int end = -1;
+        for (int i = 5; i < length - 1; i++)
+        {
+            if (bytes[i] == '?' && bytes[i + 1] == '>')
+            {
+                end = i;
+                break;
+            }
+        }
+
+        if (end < 0)
+            return null;
+
+        String declaration = new String(bytes, 0, end, Charset.forName("US-ASCII"));
+        int i = declaration.indexOf("encoding");
+        if (i < 0)
+            return null;
+
+        i = declaration.indexOf('=', i);
+        if (i < 0)
+            return null;
+
+        for (i++; i < declaration.length() && declaration.charAt(i) <= ' '; i++)
+        {
+        }
+
+        if (i >= declaration.length())
+            return null;
+
+        char quote = declaration.charAt(i);
+        if (quote != '"' && quote != '\'')
+            return null;
+
+        int close = declaration.indexOf(quote, i + 1);
+
+        return close > i + 1 ? declaration.substring(i + 1, close) : null;
+    }
+
+    protected static boolean isSupportedEncoding(String encoding)
+    {
+        try
+        {
+            return Charset.isSupported(encoding);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * A reader that decodes the bytes of a buffer directly into the caller's character array. The whole document is
+     * in the buffer, so every decoding step sees the end of the input.
+     */
+    protected static class ByteBufferReader extends Reader
+    {
+        protected final ByteBuffer buffer;
+        protected final CharsetDecoder decoder;
+        /** A character decoded but not yet returned, when a read asks for fewer characters than were decoded. */
+        protected final CharBuffer pending = CharBuffer.allocate(2);
+        protected boolean decoded;
+        protected boolean flushed;
+
+        public ByteBufferReader(ByteBuffer buffer, Charset charset)
+        {
+            this.buffer = buffer;
+            // Malformed input is replaced, as by InputStreamReader.
+            this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(
+                CodingErrorAction.REPLACE);
+            this.pending.flip();
+        }
+
+        @Override
+        public int read(char[] chars, int offset, int length) throws IOException
+        {
+            if (length == 0)
+                return 0;
+
+            int count = 0;
+            while (this.pending.hasRemaining() && count < length)
+            {
+                chars[offset + count++] = this.pending.get();
+            }
+
+            if (count == length)
+                return count;
+
+            CharBuffer out = CharBuffer.wrap(chars, offset + count, length - count);
+            this.decode(out);
+            count += out.position() - (offset + count);
+
+            // A surrogate pair does not fit a single character; decode it aside and return its first half.
+            if (count == 0 && !this.flushed)
+            {
+                this.pending.clear();
+                this.decode(this.pending);
+                this.pending.flip();
+                if (this.pending.hasRemaining())
+                    chars[offset + count++] = this.pending.get();
+            }
+
+            return count > 0 ? count : -1;
+        }
+
+        protected void decode(CharBuffer out) throws IOException
+        {
+            if (this.flushed)
+                return;
+
+            if (!this.decoded)
+            {
+                CoderResult result = this.decoder.decode(this.buffer, out, true);
+                if (result.isError())
+                    result.throwException();
+                if (result.isOverflow())
+                    return;
+
+                this.decoded = true;
+            }
+
+            if (this.decoder.flush(out).isUnderflow())
+                this.flushed = true;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.avlist.AVList;
+import gov.nasa.worldwind.exception.WWRuntimeException;
+import gov.nasa.worldwind.util.Logging;
+import gov.nasa.worldwind.util.Messages;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An attribute-value list for the fields and attributes of parsed XML elements. Elements have few fields, so they are
+ * held in parallel key and value arrays and looked up by a linear scan, which is faster and smaller than a hash table
+ * at these sizes. Keys are usually shared element-name strings and are compared by reference before
+ * <code>equals</code>.
+ * <p/>
+ * Unlike {@link gov.nasa.worldwind.avlist.AVListImpl}, this class is not synchronized. Parsing is single threaded, and
+ * lists must be externally synchronized if they are shared between threads after parsing. Entries are kept in the
+ * order their keys were first added.
+ */
+public class XMLFieldList implements AVList
+{
+    protected static final int INITIAL_CAPACITY = 4;
+
+    protected String[] keys;
+    protected Object[] values;
+    protected int size;
+    protected PropertyChangeSupport changeSupport;
+
+    /** Creates an empty list. Storage is allocated when the first value is added. */
+    public XMLFieldList()
+    {
+    }
+
+    protected int indexOf(String key)
+    {
+        if (key == null)
+        {
+            String msg = Messages.getMessage("nullValue.KeyIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        for (int i = 0; i < this.size; i++)
+        {
+            if (this.keys[i] == key)
+                return i;
+        }
+
+        for (int i = 0; i < this.size; i++)
+        {
+            if (this.keys[i].equals(key))
+                return i;
+        }
+
+        return -1;
+    }
+
+    public Object getValue(String key)
+    {
+        int i = this.indexOf(key);
+
+        return i >= 0 ? this.values[i] : null;
+    }
+
+    public String getStringValue(String key)
+    {
+        Object value = this.getValue(key);
+        try
+        {
+            return (String) value;
+        }
+        catch (ClassCastException e)
+        {
+            String msg = Messages.getMessage("generic.ValueForKeyIsNotAString", key, value);
+            Logging.e("NWW_ANDROID", msg);
+            throw new WWRuntimeException(msg, e);
+        }
+    }
+
+    public Object setValue(String key, Object value)
+    {
+        int i = this.indexOf(key);
+        if (i >= 0)
+        {
+            Object old = this.values[i];
+            this.values[i] = value;
+            return old;
+        }
+
+        if (this.keys == null)
+        {
+            this.keys = new String[INITIAL_CAPACITY];
+            this.values = new Object[INITIAL_CAPACITY];
+        }
+        else if (this.size == this.keys.length)
+        {
+            this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+            this.values = Arrays.copyOf(this.values, 2 * this.size);
+        }
+
+        this.keys[this.size] = key;
+        this.values[this.size] = value;
+        this.size++;
+
+        return null;
+    }
+
+    /**
+     * Returns the values in this list. Unlike the other implementations of this method, the returned collection is a
+     * copy and does not change when the list changes.
+     *
+     * @return the values in this list.
+     */
+    public Collection<Object> getValues()
+    {
+        ArrayList<Object> list = new ArrayList<Object>(this.size);
+        for (int i = 0; i < this.size; i++)
+        {
+            list.add(this.values[i]);
+        }
+
+        return list;
+    }
+
+    public AVList setValues(AVList list)
+    {
+        if (list == null)
+        {
+            String msg = Messages.getMessage("nullValue.ListIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        for (Map.Entry<String, Object> entry : list.getEntries())
+        {
+            this.setValue(entry.getKey(), entry.getValue());
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns a view of the entries in this list. Changes to the list are visible in the view, and the view's iterator
+     * and entries support removing entries and replacing values.
+     *
+     * @return the entries in this list.
+     */
+    public Set<Map.Entry<String, Object>> getEntries()
+    {
+        return new AbstractSet<Map.Entry<String, Object>>()
+        {
+            public Iterator<Map.Entry<String, Object>> iterator()
+            {
+                return new EntryIterator();
+            }
+
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+
+    public boolean hasKey(String key)
+    {
+        return this.indexOf(key) >= 0;
+    }
+
+    public Object removeKey(String key)
+    {
+        int i = this.indexOf(key);
+
+        return i >= 0 ? this.removeIndex(i) : null;
+    }
+
+    protected Object removeIndex(int i)
+    {
+        Object old = this.values[i];
+
+        int tail = this.size - i - 1;
+        if (tail > 0)
+        {
+            System.arraycopy(this.keys, i + 1, this.keys, i, tail);
+            System.arraycopy(this.values, i + 1, this.values, i, tail);
+        }
+
+        this.size--;
+        this.keys[this.size] = null;
+        this.values[this.size] = null;
+
+        return old;
+    }
+
+    public AVList copy()
+    {
+        XMLFieldList clone = new XMLFieldList();
+
+        if (this.size > 0)
+        {
+            clone.keys = Arrays.copyOf(this.keys, this.size);
+            clone.values = Arrays.copyOf(this.values, this.size);
+            clone.size = this.size;
+        }
+
+        return clone;
+    }
+
+    public AVList clearList()
+    {
+        if (this.size > 0)
+        {
+            Arrays.fill(this.keys, 0, this.size, null);
+            Arrays.fill(this.values, 0, this.size, null);
+            this.size = 0;
+        }
+
+        return this;
+    }
+
+    public void addPropertyChangeListener(String propertyName, PropertyChangeListener listener)
+    {
+        if (propertyName == null)
+        {
+            String msg = Messages.getMessage("nullValue.PropertyNameIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (listener == null)
+        {
+            String msg = Messages.getMessage("nullValue.ListenerIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.getChangeSupport().addPropertyChangeListener(propertyName, listener);
+    }
+
+    public void removePropertyChangeListener(String propertyName, PropertyChangeListener listener)
+    {
+        if (propertyName == null)
+        {
+            String msg = Messages.getMessage("nullValue.PropertyNameIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        if (listener == null)
+        {
+            String msg = Messages.getMessage("nullValue.ListenerIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.getChangeSupport().removePropertyChangeListener(propertyName, listener);
+    }
+
+    public void addPropertyChangeListener(PropertyChangeListener listener)
+    {
+        if (listener == null)
+        {
+            String msg = Messages.getMessage("nullValue.ListenerIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.getChangeSupport().addPropertyChangeListener(listener);
+    }
+
+    public void removePropertyChangeListener(PropertyChangeListener listener)
+    {
+        if (listener == null)
+        {
+            String msg = Messages.getMessage("nullValue.ListenerIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.getChangeSupport().removePropertyChangeListener(listener);
+    }
+
+    public void firePropertyChange(String propertyName, Object oldValue, Object newValue)
+    {
+        if (propertyName == null)
+        {
+            String msg = Messages.getMessage("nullValue.PropertyNameIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.getChangeSupport().firePropertyChange(propertyName, oldValue, newValue);
+    }
+
+    public void firePropertyChange(PropertyChangeEvent event)
+    {
+        if (event == null)
+        {
+            String msg = Messages.getMessage("nullValue.EventIsNull");
+            Logging.e("NWW_ANDROID", msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.getChangeSupport().firePropertyChange(event);
+    }
+
+    protected PropertyChangeSupport getChangeSupport()
+    {
+        if (this.changeSupport == null)
+            this.changeSupport = new PropertyChangeSupport(this);
+
+        return this.changeSupport;
+    }
+
+    protected class EntryIterator implements Iterator<Map.Entry<String, Object>>
+    {
+        protected int next;
+        protected int current = -1;
+
+        public boolean hasNext()
+        {
+            return this.next < size;
+        }
+
+        public Map.Entry<String, Object> next()
+        {
+            if (this.next >= size)
+                throw new NoSuchElementException();
+
+            this.current = this.next++;
+
+            return new Entry(keys[this.current]);
+        }
+
+        public void remove()
+        {
+            if (this.current < 0)
+                throw new IllegalStateException();
+
+            removeIndex(this.current);
+            this.next = this.current;
+            this.current = -1;
+        }
+    }
+
+    /** An entry that reads and writes its value through the list. */
+    protected class Entry implements Map.Entry<String, Object>
+    {
+        protected final String key;
+
+        public Entry(String key)
+        {
+            this.key = key;
+        }
+
+        public String getKey()
+        {
+            return this.key;
+        }
+
+        public Object getValue()
+        {
+            return XMLFieldList.this.getValue(this.key);
+        }
+
+        public Object setValue(Object value)
+        {
+            return XMLFieldList.this.setValue(this.key, value);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Map.Entry))
+                return false;
+
+            Map.Entry<?, ?> that = (Map.Entry<?, ?>) o;
+            Object value = this.getValue();
+
+            return this.key.equals(that.getKey()) && (value == null ? that.getValue() == null
+                : value.equals(that.getValue()));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            Object value = this.getValue();
+
+            return this.key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.key + "=" + this.getValue();
+        }
+    }
+}
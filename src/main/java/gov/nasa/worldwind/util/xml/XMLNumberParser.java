@@ -0,0 +1,419 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import java.nio.CharBuffer;
+
+/**
+ * Parses decimal numbers directly from character sequences and from ranges of the pull parser's character buffer,
+ * without creating a string and without throwing on invalid input. Invalid input is reported by returning null or a
+ * caller-supplied value. Leading and trailing whitespace is ignored.
+ * <p/>
+ * Floating point values accept the decimal syntax of {@link Double#valueOf(String)}, including <code>NaN</code>,
+ * <code>Infinity</code> and a trailing type suffix, but not hexadecimal notation. Values with at most 15 significant
+ * digits and a small exponent, which covers the coordinates and scales in capabilities documents, are computed
+ * directly and exactly; longer values are passed to {@link Double#parseDouble(String)} once their syntax has been
+ * validated, so the result is always the same as <code>Double.valueOf</code>.
+ */
+public class XMLNumberParser
+{
+    /** Powers of ten that are exactly representable as doubles. */
+    protected static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    /** The largest mantissa for which a double computed from a mantissa and a power of ten is exact. */
+    protected static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /** The number of significant digits accumulated before falling back to the platform parser. */
+    protected static final int MAX_FAST_DIGITS = 15;
+    /** Returned by {@link #parseLong(CharSequence, int, int)} for invalid input. */
+    protected static final long INVALID_LONG = Long.MIN_VALUE;
+
+    protected XMLNumberParser()
+    {
+    }
+
+    /**
+     * Parses a floating point value from a range of a character array, such as the range returned by {@link
+     * org.xmlpull.v1.XmlPullParser#getTextCharacters(int[])}.
+     *
+     * @param chars  the characters.
+     * @param start  the index of the first character.
+     * @param length the number of characters.
+     *
+     * @return the value, or null if the range is empty, blank or not a valid number.
+     */
+    public static Double toDouble(char[] chars, int start, int length)
+    {
+        return chars != null ? toDouble(CharBuffer.wrap(chars, start, length)) : null;
+    }
+
+    /**
+     * Parses a floating point value from a character sequence.
+     *
+     * @param s the characters to parse.
+     *
+     * @return the value, or null if the sequence is null, empty, blank or not a valid number.
+     */
+    public static Double toDouble(CharSequence s)
+    {
+        if (s == null)
+            return null;
+
+        double d = parseDouble(s, 0, s.length(), Double.NaN);
+        if (Double.isNaN(d) && !isNaN(s))
+            return null;
+
+        return d;
+    }
+
+    /**
+     * Parses a floating point value from a character sequence.
+     *
+     * @param s            the characters to parse.
+     * @param invalidValue the value to return if the sequence is not a valid number.
+     *
+     * @return the value, or <code>invalidValue</code> if the sequence is null, empty, blank or not a valid number.
+     */
+    public static double parseDouble(CharSequence s, double invalidValue)
+    {
+        return s != null ? parseDouble(s, 0, s.length(), invalidValue) : invalidValue;
+    }
+
+    /**
+     * Parses an integer value from a range of a character array, such as the range returned by {@link
+     * org.xmlpull.v1.XmlPullParser#getTextCharacters(int[])}.
+     *
+     * @param chars  the characters.
+     * @param start  the index of the first character.
+     * @param length the number of characters.
+     *
+     * @return the value, or null if the range is empty, blank, not a valid integer or out of the range of an int.
+     */
+    public static Integer toInteger(char[] chars, int start, int length)
+    {
+        return chars != null ? toInteger(CharBuffer.wrap(chars, start, length)) : null;
+    }
+
+    /**
+     * Parses an integer value from a character sequence.
+     *
+     * @param s the characters to parse.
+     *
+     * @return the value, or null if the sequence is null, empty, blank, not a valid integer or out of the range of an
+     *         int.
+     */
+    public static Integer toInteger(CharSequence s)
+    {
+        if (s == null)
+            return null;
+
+        long l = parseLong(s, 0, s.length());
+
+        return l != INVALID_LONG && l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE ? Integer.valueOf((int) l) : null;
+    }
+
+    /**
+     * Parses an integer value from a character sequence.
+     *
+     * @param s            the characters to parse.
+     * @param invalidValue the value to return if the sequence is not a valid integer.
+     *
+     * @return the value, or <code>invalidValue</code> if the sequence is null, empty, blank, not a valid integer or out
+     *         of the range of an int.
+     */
+    public static int parseInt(CharSequence s, int invalidValue)
+    {
+        if (s == null)
+            return invalidValue;
+
+        long l = parseLong(s, 0, s.length());
+
+        return l != INVALID_LONG && l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE ? (int) l : invalidValue;
+    }
+
+    /**
+     * Indicates whether a range of a character array is empty or contains only whitespace.
+     *
+     * @param chars  the characters.
+     * @param start  the index of the first character.
+     * @param length the number of characters.
+     *
+     * @return true if the range is blank, otherwise false.
+     */
+    public static boolean isBlank(char[] chars, int start, int length)
+    {
+        if (chars == null)
+            return true;
+
+        for (int i = start, end = start + length; i < end; i++)
+        {
+            if (chars[i] > ' ')
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Indicates whether a character sequence is null, empty or contains only whitespace.
+     *
+     * @param s the characters.
+     *
+     * @return true if the sequence is blank, otherwise false.
+     */
+    public static boolean isBlank(CharSequence s)
+    {
+        if (s == null)
+            return true;
+
+        for (int i = 0, end = s.length(); i < end; i++)
+        {
+            if (s.charAt(i) > ' ')
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses a floating point value from a range of a character sequence.
+     *
+     * @param s            the characters to parse.
+     * @param start        the index of the first character.
+     * @param end          the index following the last character.
+     * @param invalidValue the value to return if the range is not a valid number.
+     *
+     * @return the value, or <code>invalidValue</code> if the range is not a valid number.
+     */
+    protected static double parseDouble(CharSequence s, int start, int end, double invalidValue)
+    {
+        // Same definition of whitespace as String.trim(), which Double.valueOf applies to its argument.
+        while (start < end && s.charAt(start) <= ' ')
+        {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+
+        int i = start;
+        if (i == end)
+            return invalidValue;
+
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+')
+        {
+            negative = c == '-';
+            if (++i == end)
+                return invalidValue;
+            c = s.charAt(i);
+        }
+
+        if (c == 'N' || c == 'I')
+            return parseSpecial(s, i, end, negative, invalidValue);
+
+        long mantissa = 0;
+        int digits = 0; // significant digits accumulated in the mantissa
+        int scale = 0; // power of ten applied to the mantissa by the position of the decimal point
+        boolean exact = true;
+        boolean anyDigits = false;
+
+        for (; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; i++)
+        {
+            anyDigits = true;
+            if (digits < MAX_FAST_DIGITS)
+            {
+                mantissa = 10 * mantissa + (c - '0');
+                if (mantissa != 0)
+                    digits++;
+            }
+            else
+            {
+                exact = false;
+                scale++;
+            }
+        }
+
+        if (i < end && s.charAt(i) == '.')
+        {
+            for (i++; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; i++)
+            {
+                anyDigits = true;
+                if (digits < MAX_FAST_DIGITS)
+                {
+                    mantissa = 10 * mantissa + (c - '0');
+                    if (mantissa != 0)
+                        digits++;
+                    scale--;
+                }
+                else if (c != '0')
+                {
+                    exact = false;
+                }
+            }
+        }
+
+        if (!anyDigits)
+            return invalidValue;
+
+        int exponent = 0;
+        if (i < end && ((c = s.charAt(i)) == 'e' || c == 'E'))
+        {
+            if (++i == end)
+                return invalidValue;
+
+            boolean negativeExponent = false;
+            c = s.charAt(i);
+            if (c == '-' || c == '+')
+            {
+                negativeExponent = c == '-';
+                if (++i == end)
+                    return invalidValue;
+            }
+
+            boolean anyExponentDigits = false;
+            for (; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; i++)
+            {
+                anyExponentDigits = true;
+                if (exponent < 100000) // Far beyond the range of a double; stop before overflowing.
+                    exponent = 10 * exponent + (c - '0');
+            }
+
+            if (!anyExponentDigits)
+                return invalidValue;
+
+            if (negativeExponent)
+                exponent = -exponent;
+        }
+
+        // Double.valueOf accepts a float or double type suffix.
+        if (i < end && ((c = s.charAt(i)) == 'd' || c == 'D' || c == 'f' || c == 'F'))
+            i++;
+
+        if (i != end)
+            return invalidValue;
+
+        if (mantissa == 0 && exact)
+            return negative ? -0d : 0d;
+
+        // Both the mantissa and the power of ten are exact, so a single multiplication or division rounds correctly.
+        int power = scale + exponent;
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && power >= -22 && power <= 22)
+        {
+            double d = power >= 0 ? mantissa * POWERS_OF_TEN[power] : mantissa / POWERS_OF_TEN[-power];
+            return negative ? -d : d;
+        }
+
+        // The syntax has been validated, so the platform parser does not throw.
+        return Double.parseDouble(s.subSequence(start, end).toString());
+    }
+
+    protected static double parseSpecial(CharSequence s, int start, int end, boolean negative, double invalidValue)
+    {
+        if (regionMatches(s, start, end, "NaN"))
+            return Double.NaN;
+        else if (regionMatches(s, start, end, "Infinity"))
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        else
+            return invalidValue;
+    }
+
+    protected static boolean isNaN(CharSequence s)
+    {
+        int start = 0;
+        int end = s.length();
+        while (start < end && s.charAt(start) <= ' ')
+        {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+
+        if (start < end && (s.charAt(start) == '-' || s.charAt(start) == '+'))
+            start++;
+
+        return regionMatches(s, start, end, "NaN");
+    }
+
+    protected static boolean regionMatches(CharSequence s, int start, int end, String value)
+    {
+        if (end - start != value.length())
+            return false;
+
+        for (int i = 0; i < value.length(); i++)
+        {
+            if (s.charAt(start + i) != value.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses an integer value from a range of a character sequence.
+     *
+     * @param s     the characters to parse.
+     * @param start the index of the first character.
+     * @param end   the index following the last character.
+     *
+     * @return the value, or {@link #INVALID_LONG} if the range is not a valid integer or is out of the range of an
+     *         int.
+     */
+    protected static long parseLong(CharSequence s, int start, int end)
+    {
+        while (start < end && s.charAt(start) <= ' ')
+        {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+
+        int i = start;
+        if (i == end)
+            return INVALID_LONG;
+
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+')
+        {
+            negative = c == '-';
+            if (++i == end)
+                return INVALID_LONG;
+        }
+
+        long value = 0;
+        for (; i < end; i++)
+        {
+            c = s.charAt(i);
+            if (c < '0' || c > '9')
+                return INVALID_LONG;
+
+            value = 10 * value + (c - '0');
+            if (value > 1L + Integer.MAX_VALUE)
+                return INVALID_LONG;
+        }
+
+        return negative ? -value : value;
+    }
+}
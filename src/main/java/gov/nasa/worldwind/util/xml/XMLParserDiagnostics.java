@@ -0,0 +1,333 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.util.Messages;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.namespace.QName;
+
+/**
+ * Collects the notifications of a parser context. Notifications are aggregated by notification type and element
+ * name, with a count and the first and last line at which they occurred, so recording a notification allocates nothing
+ * after the first occurrence and formats no message. Messages are formatted only when a report is requested.
+ * <p/>
+ * Every {@link BasicXMLEventParserContext} records its notifications in a collector, available from {@link
+ * XMLEventParserContext#getDiagnostics()}.
+ */
+public class XMLParserDiagnostics implements XMLParserNotificationListener
+{
+    /** The notifications of one type for one element name. */
+    public static class Entry
+    {
+        protected final String notificationType;
+        protected final QName elementName;
+        protected final String message;
+        protected final Exception firstException;
+        protected final int firstLine;
+        protected int lastLine;
+        protected int count;
+
+        public Entry(String notificationType, QName elementName, String message, Exception firstException,
+            int firstLine)
+        {
+            this.notificationType = notificationType;
+            this.elementName = elementName;
+            this.message = message;
+            this.firstException = firstException;
+            this.firstLine = firstLine;
+            this.lastLine = firstLine;
+        }
+
+        /**
+         * Returns the notification type, such as {@link XMLParserNotification#EXCEPTION} or {@link
+         * XMLParserNotification#UNRECOGNIZED}.
+         *
+         * @return the notification type.
+         */
+        public String getNotificationType()
+        {
+            return this.notificationType;
+        }
+
+        /**
+         * Returns the name of the element the notifications refer to.
+         *
+         * @return the element name, or null if the notifications were not associated with an element.
+         */
+        public QName getElementName()
+        {
+            return this.elementName;
+        }
+
+        /**
+         * Returns the message key of the first notification.
+         *
+         * @return the message key.
+         */
+        public String getMessage()
+        {
+            return this.message;
+        }
+
+        /**
+         * Returns the exception of the first notification.
+         *
+         * @return the exception, or null if the first notification had none.
+         */
+        public Exception getFirstException()
+        {
+            return this.firstException;
+        }
+
+        /**
+         * Returns the line number of the first notification.
+         *
+         * @return the line number, or -1 if it is not known.
+         */
+        public int getFirstLine()
+        {
+            return this.firstLine;
+        }
+
+        /**
+         * Returns the line number of the last notification.
+         *
+         * @return the line number, or -1 if it is not known.
+         */
+        public int getLastLine()
+        {
+            return this.lastLine;
+        }
+
+        /**
+         * Returns the number of notifications.
+         *
+         * @return the number of notifications.
+         */
+        public int getCount()
+        {
+            return this.count;
+        }
+
+        /**
+         * Formats this entry's message.
+         *
+         * @return the formatted message followed by the count and line range.
+         */
+        public String format()
+        {
+            String name = this.elementName != null ? this.elementName.toString() : "";
+            StringBuilder sb = new StringBuilder(Messages.getMessage(this.message, name, this.firstLine));
+
+            sb.append(" (").append(this.count).append(this.count == 1 ? " time" : " times");
+            if (this.lastLine != this.firstLine)
+                sb.append(", lines ").append(this.firstLine).append('-').append(this.lastLine);
+            sb.append(')');
+
+            if (this.firstException != null)
+                sb.append(": ").append(this.firstException);
+
+            return sb.toString();
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.format();
+        }
+    }
+
+    /** Entries by notification type, then by element name, in the order they were first recorded. */
+    protected final Map<String, Map<QName, Entry>> entries = new LinkedHashMap<String, Map<QName, Entry>>();
+    protected int totalCount;
+
+    public XMLParserDiagnostics()
+    {
+    }
+
+    /**
+     * Records a notification.
+     *
+     * @param notification the notification to record. Null notifications are ignored.
+     */
+    public synchronized void notify(XMLParserNotification notification)
+    {
+        if (notification == null)
+            return;
+
+        String type = notification.getNotificationType();
+        QName elementName = null;
+        int line = -1;
+
+        // Read the event now: events returned by a reader that reuses events change as parsing continues.
+        XMLEvent event = notification.getEvent();
+        if (event != null)
+        {
+            if (event.isStartElement() || event.isEndElement())
+                elementName = event.getName();
+            line = event.getLineNumber();
+        }
+
+        Map<QName, Entry> typeEntries = this.entries.get(type);
+        if (typeEntries == null)
+        {
+            typeEntries = new HashMap<QName, Entry>();
+            this.entries.put(type, typeEntries);
+        }
+
+        Entry entry = typeEntries.get(elementName);
+        if (entry == null)
+        {
+            entry = new Entry(type, elementName, notification.getMessage(), notification.getException(), line);
+            typeEntries.put(elementName, entry);
+        }
+
+        entry.count++;
+        entry.lastLine = line;
+        this.totalCount++;
+    }
+
+    /**
+     * Records the notifications collected by another collector, such as the collector of a context that parsed part
+     * of the same document. Entries of the other collector are merged with this collector's entries for the same
+     * notification type and element name, whose first occurrence is kept.
+     *
+     * @param diagnostics the notifications to record. Null collectors are ignored.
+     */
+    public void add(XMLParserDiagnostics diagnostics)
+    {
+        if (diagnostics == null || diagnostics == this)
+            return;
+
+        List<Entry> otherEntries = diagnostics.getEntries();
+
+        synchronized (this)
+        {
+            for (Entry other : otherEntries)
+            {
+                Map<QName, Entry> typeEntries = this.entries.get(other.notificationType);
+                if (typeEntries == null)
+                {
+                    typeEntries = new HashMap<QName, Entry>();
+                    this.entries.put(other.notificationType, typeEntries);
+                }
+
+                Entry entry = typeEntries.get(other.elementName);
+                if (entry == null)
+                {
+                    entry = new Entry(other.notificationType, other.elementName, other.message,
+                        other.firstException, other.firstLine);
+                    typeEntries.put(other.elementName, entry);
+                }
+
+                entry.count += other.count;
+                entry.lastLine = other.lastLine;
+                this.totalCount += other.count;
+            }
+        }
+    }
+
+    /**
+     * Returns the aggregated notifications.
+     *
+     * @return a new list of the entries, grouped by notification type.
+     */
+    public synchronized List<Entry> getEntries()
+    {
+        List<Entry> list = new ArrayList<Entry>();
+        for (Map<QName, Entry> typeEntries : this.entries.values())
+        {
+            list.addAll(typeEntries.values());
+        }
+
+        return list;
+    }
+
+    /**
+     * Returns the number of notifications of a specified type.
+     *
+     * @param notificationType the notification type.
+     *
+     * @return the number of notifications of the type.
+     */
+    public synchronized int getCount(String notificationType)
+    {
+        Map<QName, Entry> typeEntries = this.entries.get(notificationType);
+        if (typeEntries == null)
+            return 0;
+
+        int count = 0;
+        for (Entry entry : typeEntries.values())
+        {
+            count += entry.count;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of notifications recorded.
+     *
+     * @return the number of notifications.
+     */
+    public synchronized int getTotalCount()
+    {
+        return this.totalCount;
+    }
+
+    public synchronized boolean isEmpty()
+    {
+        return this.totalCount == 0;
+    }
+
+    /** Removes all recorded notifications. */
+    public synchronized void clear()
+    {
+        this.entries.clear();
+        this.totalCount = 0;
+    }
+
+    /**
+     * Formats the recorded notifications, one line per entry.
+     *
+     * @return the report, or an empty string if no notifications were recorded.
+     */
+    public synchronized String getReport()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : this.getEntries())
+        {
+            if (sb.length() > 0)
+                sb.append('\n');
+            sb.append(entry.format());
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.getReport();
+    }
+}
@@ -39,7 +39,8 @@ public class XMLParserNotification extends PropertyChangeEvent {
 	 * @param notificationType
 	 *            the notification type, such as {@link #EXCEPTION} or {@link #UNRECOGNIZED}.
 	 * @param event
-	 *            if an event is associated with the notification, that event. May be null.
+	 *            if an event is associated with the notification, that event. May be null. A detached copy is kept,
+	 *            since the reader may reuse the event for later tokens; see {@link XMLEvent#copy()}.
 	 * @param msg
 	 *            a message from the notification source suitable for logging.
 	 * @param oldValue
@@ -53,7 +54,7 @@ public class XMLParserNotification extends PropertyChangeEvent {
 
 		this.notificationSource = source;
 		this.notificationType = notificationType;
-		this.event = event;
+		this.event = event != null ? event.copy() : null;
 		this.message = msg;
 
 		if (newValue instanceof Exception) this.exception = (Exception) newValue;
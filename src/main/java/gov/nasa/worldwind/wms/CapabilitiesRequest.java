@@ -5,8 +5,7 @@
  */
 package gov.nasa.worldwind.wms;
 
-import android.util.Log;
-
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 
 import java.net.*;
@@ -38,7 +37,7 @@ public final class CapabilitiesRequest extends Request
         if (uri == null)
         {
             String message = Messages.getMessage("nullValue.URIIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
     }
@@ -59,14 +58,14 @@ public final class CapabilitiesRequest extends Request
         if (uri == null)
         {
             String message = Messages.getMessage("nullValue.URIIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
 
         if (service == null)
         {
             String message = Messages.getMessage("nullValue.WMSServiceNameIsNull");
-            Log.e("NWW_ANDROID", message);
+            Logging.e("NWW_ANDROID", message);
             throw new IllegalArgumentException(message);
         }
     }
@@ -17,8 +17,7 @@
  */
 package gov.nasa.worldwind.wms;
 
-import android.util.Log;
-
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Messages;
 import gov.nasa.worldwind.util.WWUtil;
 import java.net.URI;
@@ -73,7 +72,7 @@ public abstract class Request {
 			try {
 				this.setUri(uri);
 			} catch (URISyntaxException e) {
-				Log.v("NWW_ANDROID", Messages.getMessage("generic.URIInvalid", uri.toString()));
+				Logging.v("NWW_ANDROID", Messages.getLazyMessage("generic.URIInvalid", uri));
 				throw e;
 			}
 		}
@@ -94,7 +93,7 @@ public abstract class Request {
 	public Request(Request sourceRequest) throws URISyntaxException {
 		if (sourceRequest == null) {
 			String message = Messages.getMessage("nullValue.CopyConstructorSourceIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -110,7 +109,7 @@ public abstract class Request {
 	private void copyParamsTo(Request destinationRequest) {
 		if (destinationRequest == null) {
 			String message = Messages.getMessage("nullValue.CopyTargetIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -122,7 +121,7 @@ public abstract class Request {
 	protected void setUri(URI uri) throws URISyntaxException {
 		if (uri == null) {
 			String message = Messages.getMessage("nullValue.URIIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -130,7 +129,7 @@ public abstract class Request {
 			this.uri = new URI(uri.getScheme(), uri.getUserInfo(), uri.getHost(), uri.getPort(), uri.getPath(), this.buildQueryString(uri.getQuery()), null);
 		} catch (URISyntaxException e) {
 			String message = Messages.getMessage("generic.URIInvalid", uri.toString());
-			Log.v("NWW_ANDROID", message);
+			Logging.v("NWW_ANDROID", message);
 			throw e;
 		}
 	}
@@ -146,7 +145,7 @@ public abstract class Request {
 	public void setVersion(String version) {
 		if (version == null) {
 			String message = Messages.getMessage("nullValue.WMSVersionIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -160,7 +159,7 @@ public abstract class Request {
 	public void setService(String service) {
 		if (service == null) {
 			String message = Messages.getMessage("nullValue.WMSServiceNameIsNull");
-			Log.e("NWW_ANDROID", message);
+			Logging.e("NWW_ANDROID", message);
 			throw new IllegalArgumentException(message);
 		}
 
@@ -182,7 +181,7 @@ public abstract class Request {
 			return new URI(this.uri.getScheme(), this.uri.getUserInfo(), this.uri.getHost(), this.uri.getPort(), uri.getPath(), this.buildQueryString(uri.getQuery()), null);
 		} catch (URISyntaxException e) {
 			String message = Messages.getMessage("generic.URIInvalid", uri.toString());
-			Log.v("NWW_ANDROID", message);
+			Logging.v("NWW_ANDROID", message);
 			throw e;
 		}
 	}
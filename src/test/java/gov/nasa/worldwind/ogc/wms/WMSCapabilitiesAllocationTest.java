@@ -0,0 +1,258 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.util.WWXML;
+import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventReader;
+import gov.nasa.worldwind.util.xml.XMLEventReaderFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * Checks that reading and parsing reference capabilities documents stays within recorded allocation budgets: the bytes
+ * allocated per layer, measured with the JVM's per-thread allocation counter, and the heap retained per layer by the
+ * parsed capabilities, measured from the used heap after garbage collections. The budgets are the values measured
+ * when they were recorded plus a margin, so that a change that allocates noticeably more in {@link XMLEvent}, the
+ * attribute lists or the parsers fails these tests.
+ * <p/>
+ * When a change reduces allocation, lower the budgets to the new values printed by the tests plus the same margin.
+ * The budgets were recorded on a 64-bit HotSpot JVM with compressed references. The tests are skipped on virtual
+ * machines without a per-thread allocation counter.
+ */
+public class WMSCapabilitiesAllocationTest {
+    private static final int LAYERS = 5000;
+    private static final int DEPTH = 3;
+    private static final int CRS = 16;
+    private static final int ROUNDS = 5;
+
+    // The budgets are about 15% above the values measured when they were recorded.
+
+    /** Bytes allocated per layer to read all events of a document. */
+    private static final long READ_BUDGET_PULL_PARSER_130 = 6600;
+    private static final long READ_BUDGET_TOKENIZER_130 = 2500;
+    /** Bytes allocated per layer to parse a document. */
+    private static final long PARSE_BUDGET_PULL_PARSER_130 = 8850;
+    private static final long PARSE_BUDGET_TOKENIZER_130 = 5100;
+    private static final long PARSE_BUDGET_PULL_PARSER_111 = 8000;
+    private static final long PARSE_BUDGET_TOKENIZER_111 = 5100;
+    /** Bytes of heap retained per layer by parsed capabilities. */
+    private static final long RETAINED_BUDGET_130 = 2560;
+    private static final long RETAINED_BUDGET_111 = 2290;
+
+    private static byte[] wms130;
+    private static byte[] wms111;
+
+    private XMLEventReaderFactory.Backend defaultBackend;
+
+    @Before
+    public void setUp() {
+        if (wms130 == null) {
+            wms130 = new WMSCapabilitiesDocuments(true, LAYERS, DEPTH, CRS).generate();
+            wms111 = new WMSCapabilitiesDocuments(false, LAYERS, DEPTH, CRS).generate();
+        }
+
+        this.defaultBackend = XMLEventReaderFactory.getDefaultBackend();
+    }
+
+    @After
+    public void tearDown() {
+        XMLEventReaderFactory.setDefaultBackend(this.defaultBackend);
+    }
+
+    @Test
+    public void readWithPullParser() throws Exception {
+        this.checkRead("read WMS 1.3.0, pull parser", wms130, XMLEventReaderFactory.Backend.PULL_PARSER,
+                READ_BUDGET_PULL_PARSER_130);
+    }
+
+    @Test
+    public void readWithTokenizer() throws Exception {
+        this.checkRead("read WMS 1.3.0, tokenizer", wms130, XMLEventReaderFactory.Backend.UTF8_TOKENIZER,
+                READ_BUDGET_TOKENIZER_130);
+    }
+
+    @Test
+    public void parseWMS130WithPullParser() throws Exception {
+        this.checkParse("parse WMS 1.3.0, pull parser", wms130, XMLEventReaderFactory.Backend.PULL_PARSER,
+                PARSE_BUDGET_PULL_PARSER_130);
+    }
+
+    @Test
+    public void parseWMS130WithTokenizer() throws Exception {
+        this.checkParse("parse WMS 1.3.0, tokenizer", wms130, XMLEventReaderFactory.Backend.UTF8_TOKENIZER,
+                PARSE_BUDGET_TOKENIZER_130);
+    }
+
+    @Test
+    public void parseWMS111WithPullParser() throws Exception {
+        this.checkParse("parse WMS 1.1.1, pull parser", wms111, XMLEventReaderFactory.Backend.PULL_PARSER,
+                PARSE_BUDGET_PULL_PARSER_111);
+    }
+
+    @Test
+    public void parseWMS111WithTokenizer() throws Exception {
+        this.checkParse("parse WMS 1.1.1, tokenizer", wms111, XMLEventReaderFactory.Backend.UTF8_TOKENIZER,
+                PARSE_BUDGET_TOKENIZER_111);
+    }
+
+    @Test
+    public void retainedHeapWMS130() throws Exception {
+        this.checkRetained("retained WMS 1.3.0", wms130, RETAINED_BUDGET_130);
+    }
+
+    @Test
+    public void retainedHeapWMS111() throws Exception {
+        this.checkRetained("retained WMS 1.1.1", wms111, RETAINED_BUDGET_111);
+    }
+
+    private void checkRead(String label, byte[] document, XMLEventReaderFactory.Backend backend, long budget)
+            throws Exception {
+        AllocationCounter counter = AllocationCounter.getInstance();
+        assumeTrue(counter != null);
+
+        // The least allocation of several rounds, once the code has been compiled.
+        long allocated = Long.MAX_VALUE;
+        int events = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = counter.getAllocatedBytes();
+            XMLEventReader reader = WWXML.openEventReader(ByteBuffer.wrap(document), true, backend);
+            events = 0;
+            for (XMLEvent event = reader.nextEvent(); event != null; event = reader.nextEvent()) {
+                if (event.isStartElement()) events += event.getAttributeCount();
+                events++;
+            }
+            allocated = Math.min(allocated, counter.getAllocatedBytes() - start);
+        }
+
+        assertTrue(events > LAYERS);
+        checkBudget(label, allocated / LAYERS, budget);
+    }
+
+    private void checkParse(String label, byte[] document, XMLEventReaderFactory.Backend backend, long budget)
+            throws Exception {
+        AllocationCounter counter = AllocationCounter.getInstance();
+        assumeTrue(counter != null);
+
+        XMLEventReaderFactory.setDefaultBackend(backend);
+
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = counter.getAllocatedBytes();
+            WMSCapabilities caps = new WMSCapabilities(ByteBuffer.wrap(document)).parse();
+            allocated = Math.min(allocated, counter.getAllocatedBytes() - start);
+
+            assertEquals(LAYERS, caps.getNamedLayers().size());
+        }
+
+        checkBudget(label, allocated / LAYERS, budget);
+    }
+
+    private void checkRetained(String label, byte[] document, long budget) throws Exception {
+        assumeTrue(AllocationCounter.getInstance() != null);
+
+        // Parse once first, so that classes and shared tables are not counted.
+        new WMSCapabilities(ByteBuffer.wrap(document)).parse();
+
+        long before = usedHeap();
+        WMSCapabilities caps = new WMSCapabilities(ByteBuffer.wrap(document)).parse();
+        long after = usedHeap();
+
+        assertEquals(LAYERS, caps.getNamedLayers().size());
+        checkBudget(label, (after - before) / LAYERS, budget);
+    }
+
+    private static void checkBudget(String label, long bytesPerLayer, long budget) {
+        System.out.printf("%s: %d bytes per layer, budget %d%n", label, bytesPerLayer, budget);
+        assertTrue(label + ": " + bytesPerLayer + " bytes per layer exceeds the budget of " + budget,
+                bytesPerLayer <= budget);
+    }
+
+    /** Returns the used heap once garbage collections no longer reduce it. */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(20);
+
+            long u = runtime.totalMemory() - runtime.freeMemory();
+            if (u >= used) break;
+            used = u;
+        }
+
+        return used;
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread, from the HotSpot extension of {@link ThreadMXBean}. The
+     * extension is called through reflection, as it is not part of the Android class library.
+     */
+    private static class AllocationCounter {
+        private static AllocationCounter instance;
+
+        private final ThreadMXBean bean;
+        private final Method getThreadAllocatedBytes;
+
+        private AllocationCounter(ThreadMXBean bean, Method getThreadAllocatedBytes) {
+            this.bean = bean;
+            this.getThreadAllocatedBytes = getThreadAllocatedBytes;
+        }
+
+        /** Returns the counter, or null if the virtual machine does not count allocated bytes. */
+        static synchronized AllocationCounter getInstance() {
+            if (instance == null) {
+                try {
+                    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                    Class<?> c = Class.forName("com.sun.management.ThreadMXBean");
+                    if (!c.isInstance(bean)) return null;
+
+                    c.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(bean, true);
+                    instance = new AllocationCounter(bean, c.getMethod("getThreadAllocatedBytes", long.class));
+                    instance.getAllocatedBytes();
+                } catch (Exception e) {
+                    instance = null;
+                } catch (LinkageError e) {
+                    instance = null;
+                }
+            }
+
+            return instance;
+        }
+
+        long getAllocatedBytes() {
+            try {
+                return (Long) this.getThreadAllocatedBytes.invoke(this.bean, Thread.currentThread().getId());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
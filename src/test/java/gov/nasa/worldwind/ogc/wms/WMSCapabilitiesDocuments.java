@@ -0,0 +1,165 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.ogc.OGCConstants;
+
+import java.nio.charset.Charset;
+
+/**
+ * Generates capabilities documents shaped like those of real WMS servers, for benchmarks. A document has a single
+ * unnamed root layer declaring the CRS its layers inherit, and a tree of named layers below it, each with the elements
+ * of a typical server layer: a title, an abstract, keywords, a CRS of its own, bounding boxes and a style with a
+ * legend.
+ */
+public class WMSCapabilitiesDocuments {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final boolean wms130;
+    private final int layerCount;
+    private final int depth;
+    private final int crsCount;
+    private final int fanOut;
+
+    private final StringBuilder sb = new StringBuilder();
+    private int layers;
+
+    /**
+     * Creates a document generator.
+     *
+     * @param wms130     true for a WMS 1.3.0 document, false for a WMS 1.1.1 document.
+     * @param layerCount the number of named layers.
+     * @param depth      the number of levels of named layers below the root layer. Each level has about the same number
+     *                   of layers per parent, so that the deepest level holds most layers.
+     * @param crsCount   the number of CRS the root layer declares, and all layers inherit.
+     */
+    public WMSCapabilitiesDocuments(boolean wms130, int layerCount, int depth, int crsCount) {
+        this.wms130 = wms130;
+        this.layerCount = layerCount;
+        this.depth = Math.max(1, depth);
+        this.crsCount = crsCount;
+        this.fanOut = Math.max(2, (int) Math.ceil(Math.pow(layerCount, 1d / this.depth)));
+    }
+
+    /**
+     * Returns the name of a layer of the generated document.
+     *
+     * @param index the layer's index, in document order, from 0 to the layer count - 1.
+     *
+     * @return the layer name.
+     */
+    public static String getLayerName(int index) {
+        return "ns:layer_" + index;
+    }
+
+    /**
+     * Generates the document.
+     *
+     * @return the document's UTF-8 bytes.
+     */
+    public byte[] generate() {
+        this.sb.setLength(0);
+        this.layers = 0;
+
+        String crs = this.getCRSElementName();
+        this.sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        if (this.wms130) {
+            this.sb.append("<WMS_Capabilities version=\"1.3.0\" xmlns=\"").append(OGCConstants.WMS_NAMESPACE_URI).append(
+                    "\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">\n");
+        } else {
+            this.sb.append("<WMT_MS_Capabilities version=\"1.1.1\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">\n");
+        }
+
+        this.sb.append("  <Service>\n    <Name>").append(this.wms130 ? "WMS" : "OGC:WMS").append("</Name>\n");
+        this.sb.append("    <Title>Benchmark server</Title>\n");
+        this.sb.append("    <OnlineResource xlink:type=\"simple\" xlink:href=\"http://example.com/wms?\"/>\n");
+        this.sb.append("  </Service>\n  <Capability>\n    <Request>\n      <GetCapabilities>\n");
+        this.sb.append("        <Format>text/xml</Format>\n");
+        this.appendDCPType();
+        this.sb.append("      </GetCapabilities>\n      <GetMap>\n");
+        this.sb.append("        <Format>image/png</Format>\n        <Format>image/jpeg</Format>\n");
+        this.appendDCPType();
+        this.sb.append("      </GetMap>\n    </Request>\n");
+        this.sb.append("    <Exception><Format>XML</Format></Exception>\n");
+
+        this.sb.append("    <Layer>\n      <Title>Root</Title>\n");
+        for (int i = 0; i < this.crsCount; i++) {
+            this.sb.append("      <").append(crs).append(">EPSG:").append(32601 + i).append("</").append(crs).append(
+                    ">\n");
+        }
+        while (this.layers < this.layerCount) {
+            this.appendLayer(1, "      ");
+        }
+        this.sb.append("    </Layer>\n  </Capability>\n");
+        this.sb.append(this.wms130 ? "</WMS_Capabilities>\n" : "</WMT_MS_Capabilities>\n");
+
+        return this.sb.toString().getBytes(UTF8);
+    }
+
+    private String getCRSElementName() {
+        return this.wms130 ? "CRS" : "SRS";
+    }
+
+    private void appendDCPType() {
+        this.sb.append("        <DCPType><HTTP><Get><OnlineResource xlink:type=\"simple\" ").append(
+                "xlink:href=\"http://example.com/wms?\"/></Get></HTTP></DCPType>\n");
+    }
+
+    private void appendLayer(int level, String indent) {
+        int index = this.layers++;
+        String crs = this.getCRSElementName();
+
+        this.sb.append(indent).append("<Layer queryable=\"1\" opaque=\"0\">\n");
+        this.sb.append(indent).append("  <Name>").append(getLayerName(index)).append("</Name>\n");
+        this.sb.append(indent).append("  <Title>Layer ").append(index).append(" at level ").append(level).append(
+                "</Title>\n");
+        this.sb.append(indent).append("  <Abstract>Measurements of station ").append(index).append(
+                ", updated hourly.</Abstract>\n");
+        this.sb.append(indent).append("  <KeywordList><Keyword>air</Keyword><Keyword>PM10</Keyword>").append(
+                "</KeywordList>\n");
+        this.sb.append(indent).append("  <").append(crs).append(">EPSG:3857</").append(crs).append(">\n");
+        if (this.wms130) {
+            this.sb.append(indent).append("  <EX_GeographicBoundingBox><westBoundLongitude>10.4").append(index % 10).append(
+                    "</westBoundLongitude><eastBoundLongitude>12.5</eastBoundLongitude>").append(
+                    "<southBoundLatitude>45.67</southBoundLatitude><northBoundLatitude>47.09").append(
+                    "</northBoundLatitude></EX_GeographicBoundingBox>\n");
+        } else {
+            this.sb.append(indent).append("  <LatLonBoundingBox minx=\"10.4").append(index % 10).append(
+                    "\" miny=\"45.67\" maxx=\"12.5\" maxy=\"47.09\"/>\n");
+        }
+        this.sb.append(indent).append("  <BoundingBox ").append(crs).append("=\"EPSG:3857\" minx=\"1157881.2\"").append(
+                " miny=\"5727542.5\" maxx=\"1391453.9\" maxy=\"5960982.1\"/>\n");
+        this.sb.append(indent).append("  <Style>\n");
+        this.sb.append(indent).append("    <Name>default</Name>\n");
+        this.sb.append(indent).append("    <Title>Default style</Title>\n");
+        this.sb.append(indent).append("    <LegendURL width=\"20\" height=\"20\"><Format>image/png</Format>").append(
+                "<OnlineResource xlink:type=\"simple\" xlink:href=\"http://example.com/wms?").append(
+                "request=GetLegendGraphic&amp;layer=").append(getLayerName(index)).append("\"/></LegendURL>\n");
+        this.sb.append(indent).append("  </Style>\n");
+
+        if (level < this.depth) {
+            for (int i = 0; i < this.fanOut && this.layers < this.layerCount; i++) {
+                this.appendLayer(level + 1, indent + "  ");
+            }
+        }
+
+        this.sb.append(indent).append("</Layer>\n");
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.ogc.OGCConstants;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the inherited attribute views of {@link WMSLayerCapabilities}: a nested layer sees its own values followed by
+ * those of its ancestors, each value once.
+ */
+public class WMSInheritedSetTest {
+    private static final String DOCUMENT = ""
+            + "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<WMS_Capabilities version=\"1.3.0\" xmlns=\"" + OGCConstants.WMS_NAMESPACE_URI + "\">\n"
+            + "  <Service><Name>WMS</Name><Title>Test</Title></Service>\n"
+            + "  <Capability>\n"
+            + "    <Layer>\n"
+            + "      <Title>Root</Title>\n"
+            + "      <CRS>EPSG:4326</CRS><CRS>EPSG:3857</CRS>\n"
+            + "      <Style><Name>root</Name><Title>Root style</Title></Style>\n"
+            + "      <Layer>\n"
+            + "        <Name>group</Name><Title>Group</Title>\n"
+            + "        <CRS>EPSG:3857</CRS><CRS>EPSG:32632</CRS>\n"
+            + "        <Layer>\n"
+            + "          <Name>leaf</Name><Title>Leaf</Title>\n"
+            + "          <CRS>EPSG:32632</CRS><CRS>EPSG:25832</CRS>\n"
+            + "          <Style><Name>leaf</Name><Title>Leaf style</Title></Style>\n"
+            + "        </Layer>\n"
+            + "        <Layer><Name>plain</Name><Title>Plain</Title></Layer>\n"
+            + "      </Layer>\n"
+            + "    </Layer>\n"
+            + "  </Capability>\n"
+            + "</WMS_Capabilities>\n";
+
+    private static WMSCapabilities caps;
+
+    @BeforeClass
+    public static void parseDocument() throws Exception {
+        caps = new WMSCapabilities(ByteBuffer.wrap(DOCUMENT.getBytes(Charset.forName("UTF-8")))).parse();
+        assertNotNull(caps);
+    }
+
+    @Test
+    public void inheritedAndLocalValuesAreReturnedOnce() {
+        Set<String> crs = caps.getLayerByName("leaf").getCRS();
+
+        List<String> iterated = new ArrayList<String>(crs);
+        assertEquals(4, crs.size());
+        assertEquals(4, iterated.size());
+        assertEquals(new HashSet<String>(Arrays.asList("EPSG:4326", "EPSG:3857", "EPSG:32632", "EPSG:25832")),
+                new HashSet<String>(iterated));
+        assertTrue(crs.contains("EPSG:4326"));
+        assertFalse(crs.contains("EPSG:900913"));
+        assertFalse(crs.isEmpty());
+    }
+
+    @Test
+    public void localValuesComeBeforeInheritedValues() {
+        List<String> iterated = new ArrayList<String>(caps.getLayerByName("leaf").getCRS());
+
+        assertEquals(new HashSet<String>(Arrays.asList("EPSG:32632", "EPSG:25832")),
+                new HashSet<String>(iterated.subList(0, 2)));
+        assertEquals("EPSG:3857", iterated.get(2));
+        assertEquals("EPSG:4326", iterated.get(3));
+    }
+
+    @Test
+    public void layerWithoutDeclaredValuesSeesItsAncestorsValues() {
+        WMSLayerCapabilities plain = caps.getLayerByName("plain");
+
+        assertEquals(new HashSet<String>(Arrays.asList("EPSG:4326", "EPSG:3857", "EPSG:32632")),
+                new HashSet<String>(plain.getCRS()));
+        assertEquals(3, plain.getCRS().size());
+
+        assertEquals(1, plain.getStyles().size());
+        assertEquals("root", plain.getStyles().iterator().next().getName());
+        assertEquals(2, caps.getLayerByName("leaf").getStyles().size());
+    }
+
+    @Test
+    public void viewsAreCachedAndReadOnly() {
+        WMSLayerCapabilities leaf = caps.getLayerByName("leaf");
+        assertSame(leaf.getCRS(), leaf.getCRS());
+        assertSame(leaf.getStyles(), leaf.getStyles());
+        assertSame(leaf.getBoundingBoxes(), leaf.getBoundingBoxes());
+
+        try {
+            leaf.getCRS().add("EPSG:900913");
+            fail("the view accepted a value");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertFalse(leaf.getCRS().contains("EPSG:900913"));
+    }
+}
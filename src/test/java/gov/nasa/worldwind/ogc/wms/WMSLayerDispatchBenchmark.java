@@ -0,0 +1,148 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.ogc.OGCConstants;
+import gov.nasa.worldwind.util.xml.BasicXMLEventParserContext;
+import gov.nasa.worldwind.util.xml.QNameTable;
+import gov.nasa.worldwind.util.xml.XMLElementTable;
+import gov.nasa.worldwind.util.xml.XMLEvent;
+import gov.nasa.worldwind.util.xml.XMLEventParserContext;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+
+import javax.xml.namespace.QName;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the per-element cost of dispatching Layer child elements through {@link WMSLayerCapabilities#ELEMENTS}
+ * with the chain of name tests the Layer parser used before. Both WMS 1.3.0 (namespaced) and WMS 1.1.1 (no
+ * namespace) element names are measured, and the two dispatch methods must agree on every element.
+ */
+public class WMSLayerDispatchBenchmark {
+    /** Child elements in roughly the proportions of a typical Layer element, plus a few the parser ignores. */
+    private static final String[] CHILDREN = {"Name", "Title", "Abstract", "KeywordList", "CRS", "CRS", "SRS",
+            "EX_GeographicBoundingBox", "LatLonBoundingBox", "BoundingBox", "BoundingBox", "Dimension", "Attribution",
+            "AuthorityURL", "Identifier", "MetadataURL", "DataURL", "FeatureListURL", "Style", "Style",
+            "MinScaleDenominator", "MaxScaleDenominator", "Layer", "VendorElement", "Extent", "ScaleHint"};
+
+    private static final int ROUNDS = 10;
+    private static final int ITERATIONS = 20000;
+
+    /** A start element with a fixed name, independent of a pull parser. */
+    private static class StartElement extends XMLEvent {
+        private final QName name;
+
+        StartElement(QName name) {
+            super(XmlPullParser.START_TAG, null);
+            this.name = name;
+        }
+
+        @Override
+        public QName getName() {
+            return this.name;
+        }
+    }
+
+    @Test
+    public void dispatchWMS130() {
+        this.run("WMS 1.3.0", OGCConstants.WMS_NAMESPACE_URI);
+    }
+
+    @Test
+    public void dispatchWMS111() {
+        this.run("WMS 1.1.1", null);
+    }
+
+    private void run(String label, String documentNamespace) {
+        XMLEventParserContext ctx = new BasicXMLEventParserContext();
+        ctx.setDefaultNamespaceURI(OGCConstants.WMS_NAMESPACE_URI);
+        WMSLayerCapabilities layer = new WMSLayerCapabilities(OGCConstants.WMS_NAMESPACE_URI);
+
+        XMLEvent[] events = new XMLEvent[CHILDREN.length];
+        for (int i = 0; i < CHILDREN.length; i++) {
+            events[i] = new StartElement(QNameTable.forNamespace(documentNamespace).get(CHILDREN[i]));
+        }
+
+        for (XMLEvent event : events) {
+            assertEquals(event.getName().toString(), chainId(ctx, event, layer), tableId(ctx, event, layer));
+        }
+
+        long chainTime = Long.MAX_VALUE;
+        long tableTime = Long.MAX_VALUE;
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            for (int n = 0; n < ITERATIONS; n++) {
+                for (XMLEvent event : events) {
+                    sink += chainId(ctx, event, layer);
+                }
+            }
+            long t1 = System.nanoTime();
+            for (int n = 0; n < ITERATIONS; n++) {
+                for (XMLEvent event : events) {
+                    sink += tableId(ctx, event, layer);
+                }
+            }
+            long t2 = System.nanoTime();
+
+            chainTime = Math.min(chainTime, t1 - t0);
+            tableTime = Math.min(tableTime, t2 - t1);
+        }
+
+        double perElement = 1d / ((double) ITERATIONS * events.length);
+        System.out.printf("%s Layer child dispatch: name chain %.1f ns/element, table %.1f ns/element (%d)%n", label,
+                chainTime * perElement, tableTime * perElement, sink);
+    }
+
+    private static int tableId(XMLEventParserContext ctx, XMLEvent event, WMSLayerCapabilities layer) {
+        return WMSLayerCapabilities.ELEMENTS.getId(ctx, event, layer.getNamespaceURI());
+    }
+
+    /** The element tests of the Layer parser's former if-else chain, in their original order. */
+    private static int chainId(XMLEventParserContext ctx, XMLEvent event, WMSLayerCapabilities layer) {
+        if (ctx.isStartElement(event, layer.LAYER)) return WMSLayerCapabilities.LAYER_ID;
+        else if (ctx.isStartElement(event, layer.TITLE)) return WMSLayerCapabilities.TITLE_ID;
+        else if (ctx.isStartElement(event, layer.NAME)) return WMSLayerCapabilities.NAME_ID;
+        else if (ctx.isStartElement(event, layer.STYLE)) return WMSLayerCapabilities.STYLE_ID;
+        else if (ctx.isStartElement(event, layer.SRS)) return WMSLayerCapabilities.SRS_ID;
+        else if (ctx.isStartElement(event, layer.CRS)) return WMSLayerCapabilities.CRS_ID;
+        else if (ctx.isStartElement(event, layer.GEOGRAPHIC_BOUNDING_BOX)) return WMSLayerCapabilities.GEOGRAPHIC_BOUNDING_BOX_ID;
+        else if (ctx.isStartElement(event, layer.LAT_LON_BOUNDING_BOX)) return WMSLayerCapabilities.LAT_LON_BOUNDING_BOX_ID;
+        else if (ctx.isStartElement(event, layer.ABSTRACT)) return WMSLayerCapabilities.ABSTRACT_ID;
+        else if (ctx.isStartElement(event, layer.LAST_UPDATE)) return WMSLayerCapabilities.LAST_UPDATE_ID;
+        else if (ctx.isStartElement(event, layer.MAX_SCALE_DENOMINATOR)) return WMSLayerCapabilities.MAX_SCALE_DENOMINATOR_ID;
+        else if (ctx.isStartElement(event, layer.MIN_SCALE_DENOMINATOR)) return WMSLayerCapabilities.MIN_SCALE_DENOMINATOR_ID;
+        else if (ctx.isStartElement(event, layer.EXTREME_ELEVATIONS)) return WMSLayerCapabilities.EXTREME_ELEVATIONS_ID;
+        else if (ctx.isStartElement(event, layer.SCALE_HINT)) return WMSLayerCapabilities.SCALE_HINT_ID;
+        else if (ctx.isStartElement(event, layer.BOUNDING_BOX)) return WMSLayerCapabilities.BOUNDING_BOX_ID;
+        else if (ctx.isStartElement(event, layer.ATTRIBUTION)) return WMSLayerCapabilities.ATTRIBUTION_ID;
+        else if (ctx.isStartElement(event, layer.KEYWORD_LIST)) return WMSLayerCapabilities.KEYWORD_LIST_ID;
+        else if (ctx.isStartElement(event, layer.IDENTIFIER)) return WMSLayerCapabilities.IDENTIFIER_ID;
+        else if (ctx.isStartElement(event, layer.DIMENSION)) return WMSLayerCapabilities.DIMENSION_ID;
+        else if (ctx.isStartElement(event, layer.EXTENT)) return WMSLayerCapabilities.EXTENT_ID;
+        else if (ctx.isStartElement(event, layer.AUTHORITY_URL)) return WMSLayerCapabilities.AUTHORITY_URL_ID;
+        else if (ctx.isStartElement(event, layer.DATA_URL)) return WMSLayerCapabilities.DATA_URL_ID;
+        else if (ctx.isStartElement(event, layer.FEATURE_LIST_URL)) return WMSLayerCapabilities.FEATURE_LIST_URL_ID;
+        else if (ctx.isStartElement(event, layer.METADATA_URL)) return WMSLayerCapabilities.METADATA_URL_ID;
+        else return XMLElementTable.UNKNOWN;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that {@link WMSLayerIterator} and the iterators split from it visit every layer exactly once, in depth-first
+ * order.
+ */
+public class WMSLayerIteratorTest {
+    private static WMSCapabilities caps;
+    private static List<WMSLayerCapabilities> expected;
+
+    @BeforeClass
+    public static void parseDocument() throws Exception {
+        caps = new WMSCapabilities(ByteBuffer.wrap(new WMSCapabilitiesDocuments(true, 300, 3, 2).generate())).parse();
+        assertNotNull(caps);
+
+        expected = new ArrayList<WMSLayerCapabilities>();
+        for (WMSLayerCapabilities layer : caps.getCapabilityInformation().getLayerCapabilities()) {
+            addDepthFirst(layer, expected);
+        }
+        assertEquals(301, expected.size());
+    }
+
+    private static void addDepthFirst(WMSLayerCapabilities layer, List<WMSLayerCapabilities> layers) {
+        layers.add(layer);
+        for (WMSLayerCapabilities child : layer.getLayers()) {
+            addDepthFirst(child, layers);
+        }
+    }
+
+    /** Splits an iterator until it cannot be split, and collects the parts' layers, each prefix before its rest. */
+    private static void collectSplit(WMSLayerIterator iterator, List<WMSLayerCapabilities> layers, int depth) {
+        assertTrue("the iterator does not stop splitting", depth < 1000);
+
+        WMSLayerIterator prefix = iterator.trySplit();
+        if (prefix == null) {
+            drain(iterator, layers);
+            return;
+        }
+
+        collectSplit(prefix, layers, depth + 1);
+        collectSplit(iterator, layers, depth + 1);
+    }
+
+    private static void drain(WMSLayerIterator iterator, List<WMSLayerCapabilities> layers) {
+        while (iterator.hasNext()) {
+            layers.add(iterator.next());
+        }
+    }
+
+    private static void assertEachOnceInOrder(List<WMSLayerCapabilities> expected, List<WMSLayerCapabilities> actual) {
+        Map<WMSLayerCapabilities, Boolean> seen = new IdentityHashMap<WMSLayerCapabilities, Boolean>();
+        for (WMSLayerCapabilities layer : actual) {
+            assertNull("layer visited twice: " + layer.getName(), seen.put(layer, Boolean.TRUE));
+        }
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame("layer " + i, expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void iteratesDepthFirst() {
+        List<WMSLayerCapabilities> actual = new ArrayList<WMSLayerCapabilities>();
+        drain(caps.getLayerIterator(), actual);
+
+        assertEachOnceInOrder(expected, actual);
+    }
+
+    @Test
+    public void splitPartsVisitEveryLayerOnceInOrder() {
+        List<WMSLayerCapabilities> actual = new ArrayList<WMSLayerCapabilities>();
+        collectSplit(caps.getLayerIterator(), actual, 0);
+
+        assertEachOnceInOrder(expected, actual);
+    }
+
+    @Test
+    public void splitAfterPartialIterationCoversTheRemainingLayers() {
+        for (int advanced : new int[] {1, 2, 7, 50, 150, 299, 300}) {
+            WMSLayerIterator iterator = caps.getLayerIterator();
+            List<WMSLayerCapabilities> actual = new ArrayList<WMSLayerCapabilities>();
+            for (int i = 0; i < advanced; i++) {
+                actual.add(iterator.next());
+            }
+
+            collectSplit(iterator, actual, 0);
+
+            assertEachOnceInOrder(expected, actual);
+        }
+    }
+
+    @Test
+    public void singleLayerIsSplitFromItsNestedLayers() {
+        WMSLayerCapabilities root = expected.get(0);
+        WMSLayerIterator iterator = new WMSLayerIterator(root);
+
+        WMSLayerIterator prefix = iterator.trySplit();
+        assertNotNull(prefix);
+        assertSame(root, prefix.next());
+        assertFalse(prefix.hasNext());
+
+        List<WMSLayerCapabilities> actual = new ArrayList<WMSLayerCapabilities>(Collections.singletonList(root));
+        drain(iterator, actual);
+        assertEachOnceInOrder(expected, actual);
+    }
+
+    @Test
+    public void exhaustedOrLeafIteratorCannotBeSplit() {
+        WMSLayerCapabilities leaf = expected.get(expected.size() - 1);
+        assertTrue(leaf.getLayers().isEmpty());
+        assertNull(new WMSLayerIterator(leaf).trySplit());
+
+        WMSLayerIterator iterator = caps.getLayerIterator();
+        drain(iterator, new ArrayList<WMSLayerCapabilities>());
+        assertNull(iterator.trySplit());
+    }
+}
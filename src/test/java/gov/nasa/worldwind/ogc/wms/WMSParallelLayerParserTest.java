@@ -0,0 +1,182 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.ogc.wms;
+
+import gov.nasa.worldwind.ogc.OGCBoundingBox;
+import gov.nasa.worldwind.util.xml.XMLEventReaderFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that parsing a document's layers on a fork-join pool gives the same layers, the same inherited attributes and
+ * the same layer listener calls as parsing it sequentially.
+ */
+public class WMSParallelLayerParserTest {
+    private static final int LAYERS = 3000;
+
+    /** A pool that counts the tasks it is given, to check that the document was actually split. */
+    private static class CountingPool extends ForkJoinPool {
+        final AtomicInteger tasks = new AtomicInteger();
+
+        CountingPool() {
+            super(4);
+        }
+
+        @Override
+        public void execute(ForkJoinTask<?> task) {
+            this.tasks.incrementAndGet();
+            super.execute(task);
+        }
+    }
+
+    /** Records the layers it receives, and the threads it is called on. */
+    private static class RecordingListener implements WMSLayerCapabilitiesListener {
+        final List<String> layers = Collections.synchronizedList(new ArrayList<String>());
+        final Thread parsingThread = Thread.currentThread();
+        volatile boolean calledOnOtherThread;
+
+        public void layerParsed(WMSLayerCapabilities layer) {
+            this.layers.add(layer.getName() != null ? layer.getName() : layer.getTitle());
+            if (Thread.currentThread() != this.parsingThread)
+                this.calledOnOtherThread = true;
+        }
+    }
+
+    private XMLEventReaderFactory.Backend savedBackend;
+    private CountingPool pool;
+
+    @Before
+    public void setUp() {
+        // Only documents read by the tokenizer are split.
+        this.savedBackend = XMLEventReaderFactory.getDefaultBackend();
+        XMLEventReaderFactory.setDefaultBackend(XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+        this.pool = new CountingPool();
+    }
+
+    @After
+    public void tearDown() {
+        XMLEventReaderFactory.setDefaultBackend(this.savedBackend);
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void parallelParseOfWMS130EqualsSequentialParse() throws Exception {
+        this.checkParallelParse(new WMSCapabilitiesDocuments(true, LAYERS, 3, 4).generate());
+    }
+
+    @Test
+    public void parallelParseOfWMS111EqualsSequentialParse() throws Exception {
+        this.checkParallelParse(new WMSCapabilitiesDocuments(false, LAYERS, 3, 4).generate());
+    }
+
+    @Test
+    public void parallelParseWithoutListenerEqualsSequentialParse() throws Exception {
+        byte[] document = new WMSCapabilitiesDocuments(true, LAYERS, 2, 2).generate();
+
+        WMSCapabilities sequential = new WMSCapabilities(ByteBuffer.wrap(document)).parse();
+
+        WMSCapabilities parallel = new WMSCapabilities(ByteBuffer.wrap(document));
+        parallel.setParsePool(this.pool);
+        parallel.parse();
+
+        assertTrue(this.pool.tasks.get() > 1);
+        assertEquals(describe(sequential), describe(parallel));
+    }
+
+    private void checkParallelParse(byte[] document) throws Exception {
+        RecordingListener sequentialListener = new RecordingListener();
+        WMSCapabilities sequential = new WMSCapabilities(ByteBuffer.wrap(document));
+        sequential.setLayerListener(sequentialListener);
+        sequential.parse();
+
+        RecordingListener parallelListener = new RecordingListener();
+        WMSCapabilities parallel = new WMSCapabilities(ByteBuffer.wrap(document));
+        parallel.setLayerListener(parallelListener);
+        parallel.setParsePool(this.pool);
+        parallel.parse();
+
+        assertTrue("the document was not split", this.pool.tasks.get() > 1);
+
+        assertEquals(LAYERS, parallel.getNamedLayers().size());
+        assertEquals(describe(sequential), describe(parallel));
+
+        assertEquals(LAYERS + 1, sequentialListener.layers.size());
+        assertEquals(sequentialListener.layers, parallelListener.layers);
+        assertFalse(parallelListener.calledOnOtherThread);
+    }
+
+    /** Describes a document's layer trees, including the attributes each layer inherits. */
+    private static String describe(WMSCapabilities caps) {
+        StringBuilder sb = new StringBuilder();
+        for (WMSLayerCapabilities layer : caps.getCapabilityInformation().getLayerCapabilities()) {
+            describe(layer, caps.getCapabilityInformation(), "", sb);
+        }
+
+        return sb.toString();
+    }
+
+    private static void describe(WMSLayerCapabilities layer, WMSCapabilityInformation info, String indent,
+            StringBuilder sb) {
+        assertSame(info, layer.getEnclosingCapabilityInformation());
+
+        sb.append(indent).append(layer.getName()).append(" | ").append(layer.getTitle()).append(" | ");
+        sb.append(layer.getLayerAbstract()).append(" | ").append(sorted(layer.getKeywords())).append('\n');
+        sb.append(indent).append("  queryable ").append(layer.isQueryable()).append(", opaque ").append(
+                layer.isOpaque()).append('\n');
+        sb.append(indent).append("  crs ").append(sorted(layer.getCRS())).append(", srs ").append(
+                sorted(layer.getSRS())).append('\n');
+
+        List<String> styles = new ArrayList<String>();
+        for (WMSLayerStyle style : layer.getStyles()) {
+            styles.add(style.getName() + "/" + style.getTitle());
+        }
+        sb.append(indent).append("  styles ").append(sorted(styles)).append('\n');
+
+        List<String> boxes = new ArrayList<String>();
+        for (OGCBoundingBox box : layer.getBoundingBoxes()) {
+            boxes.add(box.getCRS() + " " + box.getMinx() + " " + box.getMiny() + " " + box.getMaxx() + " "
+                    + box.getMaxy());
+        }
+        sb.append(indent).append("  boxes ").append(sorted(boxes)).append('\n');
+
+        for (WMSLayerCapabilities child : layer.getLayers()) {
+            describe(child, info, indent + "  ", sb);
+        }
+    }
+
+    private static List<String> sorted(Collection<String> values) {
+        List<String> list = values != null ? new ArrayList<String>(values) : new ArrayList<String>();
+        Collections.sort(list);
+
+        return list;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.ogc.OGCConstants;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the throughput of the UTF-8 tokenizer backend with the platform pull parser on large capabilities
+ * documents shaped like those of real WMS servers, and checks that both backends report the same events. Two reading
+ * patterns are measured: reading every event with its name, attributes and text, and reading only the element names
+ * while skipping the content of the elements a capabilities parser ignores.
+ */
+public class UTF8XMLPullParserBenchmark {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int LAYERS = 5000;
+    private static final int ROUNDS = 8;
+
+    @Test
+    public void readWMS130() throws Exception {
+        this.run("WMS 1.3.0", makeDocument(true, LAYERS));
+    }
+
+    @Test
+    public void readWMS111() throws Exception {
+        this.run("WMS 1.1.1", makeDocument(false, LAYERS));
+    }
+
+    @Test
+    public void fallBackToPullParser() throws Exception {
+        XMLEventReaderFactory factory = XMLEventReaderFactory.getInstance(true,
+                XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+
+        byte[] utf8 = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><a>café</a>".getBytes(UTF8);
+        assertTrue(factory.createReader(utf8, 0, utf8.length).getPullParser() instanceof UTF8XMLPullParser);
+
+        byte[] latin1 = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><a>café</a>".getBytes("ISO-8859-1");
+        XMLEventReader reader = factory.createReader(latin1, 0, latin1.length);
+        assertFalse(reader.getPullParser() instanceof UTF8XMLPullParser);
+        assertEquals("<a>café</a>", dump(reader));
+
+        byte[] entities = "<!DOCTYPE a [<!ENTITY e \"x\">]><a/>".getBytes(UTF8);
+        assertFalse(factory.createReader(entities, 0, entities.length).getPullParser() instanceof UTF8XMLPullParser);
+    }
+
+    private void run(String label, byte[] document) throws Exception {
+        XMLEventReaderFactory pullParser = XMLEventReaderFactory.getInstance(true,
+                XMLEventReaderFactory.Backend.PULL_PARSER);
+        XMLEventReaderFactory tokenizer = XMLEventReaderFactory.getInstance(true,
+                XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+
+        assertEquals(label, dump(pullParser.createReader(document, 0, document.length)),
+                dump(tokenizer.createReader(document, 0, document.length)));
+
+        long pullReadTime = Long.MAX_VALUE;
+        long tokenizerReadTime = Long.MAX_VALUE;
+        long pullSkipTime = Long.MAX_VALUE;
+        long tokenizerSkipTime = Long.MAX_VALUE;
+        int sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            sink += readAll(pullParser.createReader(document, 0, document.length));
+            long t1 = System.nanoTime();
+            sink += readAll(tokenizer.createReader(document, 0, document.length));
+            long t2 = System.nanoTime();
+            sink += readNames(pullParser.createReader(document, 0, document.length));
+            long t3 = System.nanoTime();
+            sink += readNames(tokenizer.createReader(document, 0, document.length));
+            long t4 = System.nanoTime();
+
+            pullReadTime = Math.min(pullReadTime, t1 - t0);
+            tokenizerReadTime = Math.min(tokenizerReadTime, t2 - t1);
+            pullSkipTime = Math.min(pullSkipTime, t3 - t2);
+            tokenizerSkipTime = Math.min(tokenizerSkipTime, t4 - t3);
+        }
+
+        System.out.printf("%s, %d layers, %.1f MB: read all: pull parser %.1f MB/s, tokenizer %.1f MB/s; "
+                        + "names and skip: pull parser %.1f MB/s, tokenizer %.1f MB/s (%d)%n", label, LAYERS,
+                document.length / 1e6, throughput(document, pullReadTime), throughput(document, tokenizerReadTime),
+                throughput(document, pullSkipTime), throughput(document, tokenizerSkipTime), sink);
+    }
+
+    private static double throughput(byte[] document, long nanos) {
+        return document.length / 1e6 / (nanos / 1e9);
+    }
+
+    /** Reads every event, with element names, attribute values and text. */
+    private static int readAll(XMLEventReader reader) throws Exception {
+        int n = 0;
+        for (XMLEvent event = reader.nextEvent(); event != null; event = reader.nextEvent()) {
+            if (event.isStartElement()) {
+                n += event.getName().getLocalPart().length();
+                for (int i = 0; i < event.getAttributeCount(); i++) {
+                    n += event.getAttributeValue(i).length();
+                }
+            } else if (event.isCharacters() && !event.isWhiteSpace()) {
+                n += event.getData().length();
+            }
+        }
+
+        return n;
+    }
+
+    /** Reads element names, skipping the content of the elements a layer picker ignores. */
+    private static int readNames(XMLEventReader reader) throws Exception {
+        int n = 0;
+        for (XMLEvent event = reader.nextEvent(); event != null; event = reader.nextEvent()) {
+            if (event.isStartElement()) {
+                String name = event.getName().getLocalPart();
+                n += name.length();
+                if (name.equals("BoundingBox") || name.equals("Style") || name.equals("KeywordList")
+                        || name.equals("Dimension") || name.equals("Request"))
+                    reader.skipElement();
+            }
+        }
+
+        return n;
+    }
+
+    /** Describes the events of a document, to compare the events reported by the two backends. */
+    private static String dump(XMLEventReader reader) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (XMLEvent event = reader.nextEvent(); event != null; event = reader.nextEvent()) {
+            if (event.isStartElement()) {
+                sb.append('<').append(event.getName().getLocalPart());
+                for (int i = 0; i < event.getAttributeCount(); i++) {
+                    sb.append(' ').append(event.getAttributeQName(i)).append("=\"").append(
+                            event.getAttributeValue(i)).append('"');
+                }
+                sb.append('>');
+            } else if (event.isEndElement()) {
+                sb.append("</").append(event.getName().getLocalPart()).append('>');
+            } else if (event.isCharacters()) {
+                sb.append(event.getData());
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /** Creates a capabilities document with a nested layer hierarchy and the elements of typical server layers. */
+    static byte[] makeDocument(boolean wms130, int layerCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        if (wms130) {
+            sb.append("<WMS_Capabilities version=\"1.3.0\" xmlns=\"").append(OGCConstants.WMS_NAMESPACE_URI).append(
+                    "\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" ").append(
+                    "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n");
+        } else {
+            sb.append("<!DOCTYPE WMT_MS_Capabilities SYSTEM \"http://schemas.opengis.net/wms/1.1.1/capabilities_1_1_1.dtd\"\n");
+            sb.append(" [\n <!ELEMENT VendorSpecificCapabilities EMPTY>\n ]>\n");
+            sb.append("<WMT_MS_Capabilities version=\"1.1.1\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">\n");
+        }
+
+        sb.append("  <Service>\n    <Name>").append(wms130 ? "WMS" : "OGC:WMS").append("</Name>\n");
+        sb.append("    <Title>Servizio di visualizzazione &amp; consultazione</Title>\n");
+        sb.append("    <Abstract><![CDATA[Cartografia <regionale> di base]]></Abstract>\n");
+        sb.append("    <OnlineResource xlink:type=\"simple\" xlink:href=\"http://example.com/wms?\"/>\n");
+        sb.append("  </Service>\n  <Capability>\n    <Request>\n      <GetMap>\n");
+        sb.append("        <Format>image/png</Format>\n        <Format>image/jpeg</Format>\n");
+        sb.append("        <DCPType><HTTP><Get><OnlineResource xlink:href=\"http://example.com/wms?\"/></Get></HTTP>");
+        sb.append("</DCPType>\n      </GetMap>\n    </Request>\n");
+        sb.append("    <Layer>\n      <Title>Root</Title>\n");
+
+        int groups = Math.max(1, layerCount / 50);
+        for (int g = 0; g < groups; g++) {
+            sb.append("      <Layer>\n        <Title>Gruppo ").append(g).append(" — Qualità dell'aria</Title>\n");
+            for (int i = 0; i < layerCount / groups; i++) {
+                appendLayer(sb, wms130, g, i);
+            }
+            sb.append("      </Layer>\n");
+        }
+
+        sb.append("    </Layer>\n  </Capability>\n");
+        sb.append(wms130 ? "</WMS_Capabilities>\n" : "</WMT_MS_Capabilities>\n");
+
+        return sb.toString().getBytes(UTF8);
+    }
+
+    private static void appendLayer(StringBuilder sb, boolean wms130, int group, int index) {
+        String crs = wms130 ? "CRS" : "SRS";
+        sb.append("        <Layer queryable=\"1\" opaque=\"0\">\n");
+        sb.append("          <Name>ns:layer_").append(group).append('_').append(index).append("</Name>\n");
+        sb.append("          <Title>Stazione di misura n° ").append(index).append(" &lt;").append(group).append(
+                "&gt;</Title>\n");
+        sb.append("          <Abstract>Dati rilevati dalla stazione ").append(index).append(
+                ", aggiornati ogni ora.</Abstract>\n");
+        sb.append("          <KeywordList><Keyword>aria</Keyword><Keyword>PM10</Keyword><Keyword>").append(
+                "stazione</Keyword></KeywordList>\n");
+        sb.append("          <").append(crs).append(">EPSG:4326</").append(crs).append(">\n");
+        sb.append("          <").append(crs).append(">EPSG:3857</").append(crs).append(">\n");
+        if (wms130) {
+            sb.append("          <EX_GeographicBoundingBox><westBoundLongitude>10.4").append(index % 10).append(
+                    "</westBoundLongitude><eastBoundLongitude>12.5</eastBoundLongitude>").append(
+                    "<southBoundLatitude>45.67</southBoundLatitude><northBoundLatitude>47.09").append(
+                    "</northBoundLatitude></EX_GeographicBoundingBox>\n");
+        } else {
+            sb.append("          <LatLonBoundingBox minx=\"10.4").append(index % 10).append(
+                    "\" miny=\"45.67\" maxx=\"12.5\" maxy=\"47.09\"/>\n");
+        }
+        sb.append("          <BoundingBox ").append(crs).append("=\"EPSG:3857\" minx=\"1157881.2\" miny=\"5727542.5\"").append(
+                " maxx=\"1391453.9\" maxy=\"5960982.1\"/>\n");
+        sb.append("          <Style>\n            <Name>default</Name>\n            <Title>Stile predefinito</Title>\n");
+        sb.append("            <LegendURL width=\"20\" height=\"20\"><Format>image/png</Format>");
+        sb.append("<OnlineResource xlink:type=\"simple\" xlink:href=\"http://example.com/wms?request=GetLegendGraphic");
+        sb.append("&amp;layer=ns:layer_").append(group).append('_').append(index).append("\"/></LegendURL>\n");
+        sb.append("          </Style>\n");
+        sb.append("        </Layer>\n");
+    }
+}
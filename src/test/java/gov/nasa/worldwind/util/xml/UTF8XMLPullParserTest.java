@@ -0,0 +1,239 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.ogc.wms.WMSCapabilitiesDocuments;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the {@link XMLEventReaderFactory.Backend#UTF8_TOKENIZER} backend reads documents as the platform pull
+ * parser does: the same events, names, text, attributes and depths.
+ */
+public class UTF8XMLPullParserTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final String EDGE_CASES = ""
+        + "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
+        + "<!DOCTYPE WMT_MS_Capabilities SYSTEM \"http://schemas.opengis.net/wms/1.1.1/capabilities_1_1_1.dtd\"\n"
+        + " [ <!ELEMENT VendorSpecificCapabilities EMPTY> ]>\n"
+        + "<!-- a comment before the root -->\n"
+        + "<?processing instruction?>\n"
+        + "<root xmlns=\"http://www.opengis.net/wms\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" version='1.3.0'>\n"
+        + "  <Title>Café &amp; été &lt;&gt;&quot;&apos; &#233;&#xE9; 😀 世界</Title>\n"
+        + "  <Abstract><![CDATA[<not> & markup]]> and text<!-- inside -->joined<?pi inside?>again</Abstract>\n"
+        + "  <Empty/><Empty a=\"1\"/>\n"
+        + "  <OnlineResource xlink:type=\"simple\" xlink:href=\"http://host/wms?a=1&amp;b=&#x32;\"\n"
+        + "      title=\"tab&#9;newline&#10;quote&quot;\"/>\n"
+        + "  <other:Element xmlns:other=\"urn:other\" other:attr=\"v\">\n"
+        + "    <other:Child>é</other:Child><Inherited/>\n"
+        + "  </other:Element>\n"
+        + "  <Keyword>\r\n line\r end </Keyword>\n"
+        + "</root>\n";
+
+    @Test
+    public void readsCapabilitiesLikeThePullParser() throws Exception {
+        for (boolean wms130 : new boolean[] {true, false}) {
+            byte[] document = new WMSCapabilitiesDocuments(wms130, 200, 3, 4).generate();
+            assertSameEvents(document, true);
+            assertSameEvents(document, false);
+        }
+    }
+
+    @Test
+    public void readsEdgeCasesLikeThePullParser() throws Exception {
+        byte[] document = EDGE_CASES.getBytes(UTF8);
+        assertTrue(UTF8XMLPullParser.isSupported(document, 0, document.length));
+
+        assertSameEvents(document, true);
+        assertSameEvents(document, false);
+    }
+
+    @Test
+    public void readsDocumentWithoutDeclarationLikeThePullParser() throws Exception {
+        assertSameEvents("<a><b x='1'>t</b>\n<c/></a>".getBytes(UTF8), true);
+    }
+
+    @Test
+    public void decodesSupplementaryCharacterReferences() throws Exception {
+        // Compared with the literal character rather than the platform parser: kxml 2.3.0 truncates character
+        // references above U+FFFF to a single char.
+        XMLEventReader reader = read("<a>&#x1F600;|&#128512;|\uD83D\uDE00</a>".getBytes(UTF8), true,
+            XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+        assertTrue(reader.getPullParser() instanceof UTF8XMLPullParser);
+
+        List<String> events = describe(reader);
+        assertEquals("TEXT 1 [\uD83D\uDE00|\uD83D\uDE00|\uD83D\uDE00]", events.get(1));
+    }
+
+    @Test
+    public void readsStreamsLikeBuffers() throws Exception {
+        byte[] document = EDGE_CASES.getBytes(UTF8);
+        XMLEventReaderFactory factory = XMLEventReaderFactory.getInstance(true,
+            XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+
+        XMLEventReader reader = factory.createReader(new ByteArrayInputStream(document));
+        assertTrue(reader.getPullParser() instanceof UTF8XMLPullParser);
+        assertEquals(describe(read(document, true, XMLEventReaderFactory.Backend.PULL_PARSER)), describe(reader));
+    }
+
+    @Test
+    public void readsOtherEncodingsWithThePullParser() throws Exception {
+        byte[] document = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><a b=\"é\">été</a>".getBytes(
+            Charset.forName("ISO-8859-1"));
+        assertFalse(UTF8XMLPullParser.isSupported(document, 0, document.length));
+
+        XMLEventReader reader = read(document, true, XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+        assertFalse(reader.getPullParser() instanceof UTF8XMLPullParser);
+
+        List<String> events = describe(reader);
+        assertTrue(events.toString(), events.contains("TEXT 1 [été]"));
+        assertSameEvents(document, true);
+
+        UTF8XMLPullParser parser = new UTF8XMLPullParser();
+        try {
+            parser.setInput(new ByteArrayInputStream(document), "ISO-8859-1");
+            fail("the encoding is not supported");
+        } catch (XmlPullParserException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void readsEntityDeclarationsWithThePullParser() throws Exception {
+        byte[] document = ("<?xml version=\"1.0\"?>\n"
+            + "<!DOCTYPE a [ <!ENTITY e \"expanded\"> ]>\n"
+            + "<a>text</a>").getBytes(UTF8);
+        assertFalse(UTF8XMLPullParser.isSupported(document, 0, document.length));
+
+        XMLEventReader reader = read(document, true, XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+        assertFalse(reader.getPullParser() instanceof UTF8XMLPullParser);
+        assertSameEvents(document, true);
+
+        // An entity declaration after the root element is not a declaration; the tokenizer still reads the document.
+        byte[] text = "<a>&lt;!ENTITY e \"x\"&gt; <!DOCTYPE not a declaration></a>".getBytes(UTF8);
+        assertTrue(UTF8XMLPullParser.isSupported(text, 0, text.length));
+
+        UTF8XMLPullParser parser = new UTF8XMLPullParser();
+        try {
+            parser.defineEntityReplacementText("e", "expanded");
+            fail("entity declarations are not supported");
+        } catch (XmlPullParserException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void rejectsReaderInput() throws Exception {
+        UTF8XMLPullParser parser = new UTF8XMLPullParser();
+        try {
+            parser.setInput(new StringReader("<a/>"));
+            fail("character input is not supported");
+        } catch (XmlPullParserException e) {
+            // expected
+        }
+
+        try {
+            parser.next();
+            fail("the parser has no input");
+        } catch (XmlPullParserException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void reportsUnclosedDocuments() throws Exception {
+        XMLEventReader reader = read("<a><b>text</b>".getBytes(UTF8), true,
+            XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+        assertTrue(reader.getPullParser() instanceof UTF8XMLPullParser);
+
+        try {
+            describe(reader);
+            fail("the document is not closed");
+        } catch (XMLParserException e) {
+            // expected
+        }
+    }
+
+    private static void assertSameEvents(byte[] document, boolean isNamespaceAware) throws Exception {
+        XMLEventReader expected = read(document, isNamespaceAware, XMLEventReaderFactory.Backend.PULL_PARSER);
+        XMLEventReader actual = read(document, isNamespaceAware, XMLEventReaderFactory.Backend.UTF8_TOKENIZER);
+        assertTrue(actual.getPullParser() instanceof UTF8XMLPullParser
+            || !UTF8XMLPullParser.isSupported(document, 0, document.length));
+
+        List<String> expectedEvents = describe(expected);
+        List<String> actualEvents = describe(actual);
+        assertFalse(expectedEvents.isEmpty());
+
+        for (int i = 0; i < Math.min(expectedEvents.size(), actualEvents.size()); i++) {
+            assertEquals("event " + i, expectedEvents.get(i), actualEvents.get(i));
+        }
+        assertEquals(expectedEvents.size(), actualEvents.size());
+    }
+
+    private static XMLEventReader read(byte[] document, boolean isNamespaceAware,
+        XMLEventReaderFactory.Backend backend) throws Exception {
+        XMLEventReader reader = XMLEventReaderFactory.getInstance(isNamespaceAware, backend).createReader(
+            ByteBuffer.wrap(document));
+        reader.setReuseEvents(true);
+
+        return reader;
+    }
+
+    /** Describes each event of a document, including its depth, name, text and attributes. */
+    private static List<String> describe(XMLEventReader reader) throws XMLParserException {
+        List<String> events = new ArrayList<String>();
+
+        for (XMLEvent event = reader.nextEvent(); event != null; event = reader.nextEvent()) {
+            StringBuilder sb = new StringBuilder();
+            if (event.isStartElement()) {
+                sb.append("START ").append(event.getDepth()).append(' ').append(event.getName());
+                for (int i = 0; i < event.getAttributeCount(); i++) {
+                    sb.append(' ').append(event.getAttributeQName(i)).append("=[").append(
+                        event.getAttributeValue(i)).append(']');
+                }
+            } else if (event.isEndElement()) {
+                sb.append("END ").append(event.getDepth()).append(' ').append(event.getName());
+            } else if (event.isCharacters()) {
+                sb.append("TEXT ").append(event.getDepth()).append(" [").append(event.getData()).append(']');
+                sb.append(event.isWhiteSpace() ? " whitespace" : "");
+
+                int[] range = new int[2];
+                char[] chars = event.getTextCharacters(range);
+                assertEquals(event.getData(), new String(chars, range[0], range[1]));
+            } else {
+                fail("unexpected event");
+            }
+
+            events.add(sb.toString());
+        }
+
+        return events;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import gov.nasa.worldwind.avlist.AVList;
+import gov.nasa.worldwind.avlist.AVListImpl;
+import gov.nasa.worldwind.exception.WWRuntimeException;
+
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link XMLFieldList} against the {@link AVListImpl} it replaces in parsed elements.
+ */
+public class XMLFieldListTest {
+    private static final String[] KEYS = {"Name", "Title", "Abstract", "KeywordList", "CRS", "Style", "queryable",
+        "opaque", "noSubsets", "fixedWidth"};
+
+    @Test
+    public void setsGetsAndReplacesLikeAVListImpl() {
+        AVList expected = new AVListImpl();
+        AVList actual = new XMLFieldList();
+
+        for (int i = 0; i < KEYS.length; i++) {
+            assertEquals(expected.setValue(KEYS[i], i), actual.setValue(KEYS[i], i));
+        }
+        assertSameContents(expected, actual);
+
+        // Replacing returns the previous value and keeps a single entry per key.
+        assertEquals(expected.setValue("Title", "title"), actual.setValue("Title", "title"));
+        assertEquals("title", actual.setValue("Title", "other"));
+        expected.setValue("Title", "other");
+        assertSameContents(expected, actual);
+
+        // Keys are compared by value, not only by reference.
+        String key = new String("Abstract");
+        assertNotSame("Abstract", key);
+        assertEquals(expected.getValue(key), actual.getValue(key));
+        assertEquals(expected.setValue(key, "abstract"), actual.setValue(key, "abstract"));
+        assertSameContents(expected, actual);
+
+        // A key may be mapped to null.
+        assertEquals(expected.setValue("Name", null), actual.setValue("Name", null));
+        assertTrue(actual.hasKey("Name"));
+        assertNull(actual.getValue("Name"));
+        assertSameContents(expected, actual);
+
+        assertEquals(expected.getValue("missing"), actual.getValue("missing"));
+        assertEquals(expected.hasKey("missing"), actual.hasKey("missing"));
+    }
+
+    @Test
+    public void removesLikeAVListImpl() {
+        AVList expected = new AVListImpl();
+        AVList actual = new XMLFieldList();
+        for (String key : KEYS) {
+            expected.setValue(key, key.toUpperCase());
+            actual.setValue(key, key.toUpperCase());
+        }
+
+        // The first, a middle and the last entry.
+        for (String key : new String[] {KEYS[0], KEYS[4], KEYS[KEYS.length - 1], "missing", KEYS[4]}) {
+            assertEquals(key, expected.removeKey(key), actual.removeKey(key));
+            assertFalse(actual.hasKey(key));
+            assertSameContents(expected, actual);
+        }
+
+        // Removed keys can be added again.
+        assertEquals(expected.setValue(KEYS[0], "again"), actual.setValue(KEYS[0], "again"));
+        assertSameContents(expected, actual);
+
+        assertSame(actual, actual.clearList());
+        expected.clearList();
+        assertSameContents(expected, actual);
+        assertNull(actual.getValue(KEYS[1]));
+        assertNull(actual.setValue(KEYS[1], "after clear"));
+    }
+
+    @Test
+    public void matchesAVListImplForRandomOperations() {
+        Random random = new Random(7);
+        AVList expected = new AVListImpl();
+        AVList actual = new XMLFieldList();
+
+        for (int i = 0; i < 20000; i++) {
+            String key = KEYS[random.nextInt(KEYS.length)];
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1:
+                case 2:
+                    Object value = random.nextInt(4) == 0 ? null : random.nextInt(100);
+                    assertEquals(expected.setValue(key, value), actual.setValue(key, value));
+                    break;
+                case 3:
+                    assertEquals(expected.removeKey(key), actual.removeKey(key));
+                    break;
+                case 4:
+                    assertEquals(expected.hasKey(key), actual.hasKey(key));
+                    break;
+                default:
+                    if (random.nextInt(50) == 0) {
+                        expected.clearList();
+                        actual.clearList();
+                    }
+            }
+
+            assertEquals(expected.getValue(key), actual.getValue(key));
+            assertSameContents(expected, actual);
+        }
+    }
+
+    @Test
+    public void copiesLikeAVListImpl() {
+        AVList list = new XMLFieldList();
+        List<String> shared = new ArrayList<String>();
+        for (String key : KEYS) {
+            list.setValue(key, key);
+        }
+        list.setValue("shared", shared);
+
+        AVList copy = list.copy();
+        assertTrue(copy instanceof XMLFieldList);
+        assertNotSame(list, copy);
+        assertSameContents(list, copy);
+
+        // The copy holds the same values, not copies of them.
+        assertSame(shared, copy.getValue("shared"));
+
+        // Changes to either list do not change the other.
+        copy.setValue("Name", "changed");
+        copy.setValue("added", 1);
+        copy.removeKey("Title");
+        assertEquals("Name", list.getValue("Name"));
+        assertFalse(list.hasKey("added"));
+        assertEquals("Title", list.getValue("Title"));
+
+        list.setValue("Abstract", "changed");
+        list.clearList();
+        assertEquals("Abstract", copy.getValue("Abstract"));
+        assertEquals("changed", copy.getValue("Name"));
+
+        // Copies of empty lists are independent too.
+        AVList empty = new XMLFieldList();
+        AVList emptyCopy = empty.copy();
+        emptyCopy.setValue("Name", "name");
+        assertFalse(empty.hasKey("Name"));
+
+        // The same holds for the replaced implementation.
+        AVList expected = new AVListImpl();
+        expected.setValue("Name", "Name");
+        AVList expectedCopy = expected.copy();
+        expectedCopy.setValue("Name", "changed");
+        assertEquals("Name", expected.getValue("Name"));
+    }
+
+    @Test
+    public void setsValuesFromOtherLists() {
+        AVList source = new AVListImpl();
+        source.setValue("Name", "name");
+        source.setValue("Title", null);
+
+        AVList expected = new AVListImpl();
+        AVList actual = new XMLFieldList();
+        expected.setValue("Name", "old");
+        actual.setValue("Name", "old");
+        expected.setValue("CRS", "EPSG:4326");
+        actual.setValue("CRS", "EPSG:4326");
+
+        assertSame(actual, actual.setValues(source));
+        expected.setValues(source);
+        assertSameContents(expected, actual);
+
+        AVList fromFields = new AVListImpl().setValues(actual);
+        assertSameContents(actual, fromFields);
+    }
+
+    @Test
+    public void keepsInsertionOrder() {
+        XMLFieldList list = new XMLFieldList();
+        for (int i = KEYS.length - 1; i >= 0; i--) {
+            list.setValue(KEYS[i], i);
+        }
+        list.setValue(KEYS[3], "replaced");
+        list.removeKey(KEYS[5]);
+
+        List<String> keys = new ArrayList<String>();
+        for (Map.Entry<String, Object> entry : list.getEntries()) {
+            keys.add(entry.getKey());
+        }
+
+        List<String> expected = new ArrayList<String>();
+        for (int i = KEYS.length - 1; i >= 0; i--) {
+            if (i != 5)
+                expected.add(KEYS[i]);
+        }
+        assertEquals(expected, keys);
+        assertEquals(Arrays.asList((Object) 9, 8, 7, 6, 4, "replaced", 2, 1, 0), list.getValues());
+    }
+
+    @Test
+    public void entriesWriteThroughLikeAVListImpl() {
+        AVList expected = new AVListImpl();
+        AVList actual = new XMLFieldList();
+        for (String key : KEYS) {
+            expected.setValue(key, key.length());
+            actual.setValue(key, key.length());
+        }
+
+        for (AVList list : new AVList[] {expected, actual}) {
+            for (Iterator<Map.Entry<String, Object>> iter = list.getEntries().iterator(); iter.hasNext(); ) {
+                Map.Entry<String, Object> entry = iter.next();
+                if (entry.getKey().startsWith("o") || entry.getKey().startsWith("n"))
+                    iter.remove();
+                else if (entry.getKey().length() > 4)
+                    assertEquals(entry.getKey().length(), entry.setValue("long"));
+            }
+        }
+        assertSameContents(expected, actual);
+        assertEquals(expected.getEntries(), actual.getEntries());
+        assertEquals(actual.getEntries(), expected.getEntries());
+        assertEquals(expected.getEntries().hashCode(), actual.getEntries().hashCode());
+
+        Iterator<Map.Entry<String, Object>> iter = actual.getEntries().iterator();
+        try {
+            iter.remove();
+            fail("nothing to remove yet");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void getValuesIsACopy() {
+        AVList list = new XMLFieldList();
+        list.setValue("Name", "name");
+        List<Object> values = new ArrayList<Object>(list.getValues());
+
+        list.setValue("Title", "title");
+        assertEquals(Arrays.asList((Object) "name"), values);
+        assertEquals(Arrays.asList((Object) "name", "title"), new ArrayList<Object>(list.getValues()));
+    }
+
+    @Test
+    public void rejectsInvalidArgumentsLikeAVListImpl() {
+        for (AVList list : new AVList[] {new AVListImpl(), new XMLFieldList()}) {
+            list.setValue("number", 1);
+            list.setValue("string", "s");
+
+            assertEquals("s", list.getStringValue("string"));
+            assertNull(list.getStringValue("missing"));
+            try {
+                list.getStringValue("number");
+                fail(list.getClass().getSimpleName() + ": not a string");
+            } catch (WWRuntimeException e) {
+                // expected
+            }
+
+            try {
+                list.getValue(null);
+                fail(list.getClass().getSimpleName() + ": null key");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            try {
+                list.setValue(null, 1);
+                fail(list.getClass().getSimpleName() + ": null key");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            try {
+                list.hasKey(null);
+                fail(list.getClass().getSimpleName() + ": null key");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            try {
+                list.removeKey(null);
+                fail(list.getClass().getSimpleName() + ": null key");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            try {
+                list.setValues(null);
+                fail(list.getClass().getSimpleName() + ": null list");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void firesPropertyChanges() {
+        final List<String> changes = new ArrayList<String>();
+        XMLFieldList list = new XMLFieldList();
+        PropertyChangeListener listener = new PropertyChangeListener() {
+            public void propertyChange(PropertyChangeEvent event) {
+                changes.add(event.getPropertyName() + ":" + event.getOldValue() + "->" + event.getNewValue());
+            }
+        };
+
+        list.addPropertyChangeListener("Name", listener);
+        list.firePropertyChange("Name", "a", "b");
+        list.firePropertyChange("Title", "a", "b");
+        list.removePropertyChangeListener("Name", listener);
+        list.firePropertyChange("Name", "b", "c");
+
+        assertEquals(Arrays.asList("Name:a->b"), changes);
+    }
+
+    /** Asserts that two lists hold the same keys and values. */
+    private static void assertSameContents(AVList expected, AVList actual) {
+        assertEquals(toMap(expected), toMap(actual));
+        assertEquals(expected.getEntries().size(), actual.getEntries().size());
+        assertEquals(expected.getValues().size(), actual.getValues().size());
+
+        for (String key : KEYS) {
+            assertEquals(key, expected.hasKey(key), actual.hasKey(key));
+            assertEquals(key, expected.getValue(key), actual.getValue(key));
+        }
+    }
+
+    private static Map<String, Object> toMap(AVList list) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        for (Map.Entry<String, Object> entry : list.getEntries()) {
+            assertNull("duplicate key " + entry.getKey(), map.put(entry.getKey(), entry.getValue()));
+        }
+
+        return map;
+    }
+}
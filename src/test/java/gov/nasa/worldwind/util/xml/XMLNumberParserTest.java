@@ -0,0 +1,195 @@
+/*
+ * Geopaparazzi - Digital field mapping on Android based devices
+ * Copyright (C) 2016  HydroloGIS (www.hydrologis.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gov.nasa.worldwind.util.xml;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link XMLNumberParser} against the platform parsers, {@link Double#valueOf(String)} and {@link
+ * Integer#valueOf(String)}, which it replaces.
+ */
+public class XMLNumberParserTest {
+    private static final String[] DOUBLES = {
+        // plain values and signs
+        "0", "-0", "+0", "0.0", "-0.0", "1", "-1", "+1", "42", "00012", "3.25", "-3.25", "+3.25", "0.1", "0.3",
+        "123.456", "-180", "90.000000", "0.5", "1.5", "2.5",
+        // missing integer or fraction digits
+        "1.", ".5", "-.5", "+.5", "1.e2", ".5e1", "0.", ".0",
+        // NaN and infinity
+        "NaN", "-NaN", "+NaN", "Infinity", "-Infinity", "+Infinity", "nan", "infinity", "Inf", "NaNd", "Infinityf",
+        // type suffixes
+        "1d", "1D", "1f", "1F", "1.5d", "-2.5e3f", ".5D", "1.f", "1e2d", "1dd", "1l", "1L",
+        // exponents
+        "1e0", "1E5", "1e+5", "1e-5", "-1e-5", "1.5e10", "12345e-3", "1e22", "1e-22", "1e23", "1e-23", "1e30",
+        "1e-30", "123456789012345e-22", "123456789012345e22", "1e100", "1e-100", "1e308", "1.7976931348623157e308",
+        "4.9e-324", "2.2250738585072014E-308", "1e1000000000", "1e-1000000000", "0e1000000000",
+        // overflow and underflow
+        "1e309", "-1e309", "1.8e308", "1e-324", "-1e-400", "2e-324", "3e-324",
+        // mantissas longer than 15 digits
+        "1234567890123456", "12345678901234567890", "123456789012345678901234567890", "9007199254740992",
+        "9007199254740993", "9007199254740995", "3.141592653589793238462643383279", "0.1000000000000000055511151231257827",
+        "1.00000000000000000000000000001", "100000000000000000000000", "0.000000000000000000000001234",
+        "1234567890.1234567890123", "999999999999999.9", "9999999999999999", "1.0000000000000000",
+        "2.22507385850720138309e-308", "179769313486231570000000000000000000000000000000000000000e252",
+        // whitespace
+        " 12 ", "\t3.25\n", "\r\n-1e3 ", "  ", "", "\t",
+        // invalid syntax
+        "-", "+", ".", "-.", "e5", "1e", "1e+", "1e-", "1e5.5", "1.2.3", "1..2", "--1", "+-1", "1-", "1 2", "1,5",
+        "1_000", "12a", "a12", "- 1", "1e 5", "0x10", "#10", "1e5x", ".e1", "d", "f",
+    };
+
+    private static final String[] INTEGERS = {
+        "0", "-0", "+0", "1", "-1", "+5", "42", "007", "2147483647", "-2147483648", "+2147483647", "2147483648",
+        "-2147483649", "+2147483648", "4294967296", "99999999999999999999", "-99999999999999999999",
+        " 42 ", "\t-7\n", "", "  ", "-", "+", "--1", "+-1", "1.0", "1.", ".5", "1e3", "12a", "a12", "1 2", "0x1F",
+        "#1F", "1,000", "1_000", "NaN", "Infinity", "1d", "1L",
+    };
+
+    @Test
+    public void parsesDoublesLikeDoubleValueOf() {
+        for (String s : DOUBLES) {
+            assertDoubleMatches(s);
+        }
+    }
+
+    @Test
+    public void parsesRandomDoublesLikeDoubleValueOf() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            assertDoubleMatches(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            assertDoubleMatches(Float.toString(random.nextFloat() * 360 - 180));
+        }
+
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder sb = new StringBuilder();
+            if (random.nextBoolean())
+                sb.append(random.nextBoolean() ? '-' : '+');
+
+            int digits = 1 + random.nextInt(20);
+            int point = random.nextInt(digits + 1);
+            for (int d = 0; d < digits; d++) {
+                if (d == point)
+                    sb.append('.');
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+
+            if (random.nextBoolean())
+                sb.append('e').append(random.nextInt(80) - 40);
+
+            assertDoubleMatches(sb.toString());
+        }
+    }
+
+    @Test
+    public void rejectsHexadecimalDoubles() {
+        // Double.valueOf accepts hexadecimal floating point values; capabilities documents do not use them.
+        assertEquals(16d, Double.valueOf("0x1p4"), 0);
+        assertNull(XMLNumberParser.toDouble("0x1p4"));
+        assertEquals(3d, Double.valueOf("0X1.8P1"), 0);
+        assertNull(XMLNumberParser.toDouble("0X1.8P1"));
+        assertNull(XMLNumberParser.toDouble("0x10"));
+    }
+
+    @Test
+    public void parsesDoubleRangesOfCharacterArrays() {
+        char[] chars = "<a> -12.5e1 |NaN|x|  </a>".toCharArray();
+
+        assertEquals(-125d, XMLNumberParser.toDouble(chars, 3, 9), 0);
+        assertTrue(XMLNumberParser.toDouble(chars, 13, 3).isNaN());
+        assertNull(XMLNumberParser.toDouble(chars, 17, 1));
+        assertNull(XMLNumberParser.toDouble(chars, 19, 2));
+        assertNull(XMLNumberParser.toDouble(chars, 3, 0));
+        assertNull(XMLNumberParser.toDouble(null, 0, 0));
+        assertNull(XMLNumberParser.toDouble((CharSequence) null));
+    }
+
+    @Test
+    public void returnsInvalidDoubleValue() {
+        assertEquals(-1d, XMLNumberParser.parseDouble("x", -1d), 0);
+        assertEquals(-1d, XMLNumberParser.parseDouble("", -1d), 0);
+        assertEquals(-1d, XMLNumberParser.parseDouble(null, -1d), 0);
+        assertEquals(2.5d, XMLNumberParser.parseDouble(" 2.5 ", -1d), 0);
+        assertTrue(Double.isNaN(XMLNumberParser.parseDouble("NaN", -1d)));
+    }
+
+    @Test
+    public void parsesIntegersLikeIntegerValueOf() {
+        for (String s : INTEGERS) {
+            // The parser ignores surrounding whitespace, which the string parsers trimmed before Integer.valueOf.
+            Integer expected;
+            try {
+                expected = Integer.valueOf(s.trim());
+            } catch (NumberFormatException e) {
+                expected = null;
+            }
+
+            assertEquals("\"" + s + "\"", expected, XMLNumberParser.toInteger(s));
+            assertEquals("\"" + s + "\"", expected != null ? expected : -99, XMLNumberParser.parseInt(s, -99));
+
+            char[] chars = ("<" + s + ">").toCharArray();
+            assertEquals("\"" + s + "\"", expected, XMLNumberParser.toInteger(chars, 1, s.length()));
+        }
+    }
+
+    @Test
+    public void parsesIntegerRangesOfCharacterArrays() {
+        assertNull(XMLNumberParser.toInteger(null, 0, 0));
+        assertNull(XMLNumberParser.toInteger((CharSequence) null));
+        assertEquals(-99, XMLNumberParser.parseInt(null, -99));
+        assertEquals(Integer.valueOf(12), XMLNumberParser.toInteger("x12x".toCharArray(), 1, 2));
+    }
+
+    @Test
+    public void detectsBlankText() {
+        assertTrue(XMLNumberParser.isBlank((CharSequence) null));
+        assertTrue(XMLNumberParser.isBlank(""));
+        assertTrue(XMLNumberParser.isBlank(" \t\r\n"));
+        assertFalse(XMLNumberParser.isBlank(" 1 "));
+
+        char[] chars = "a \n b".toCharArray();
+        assertTrue(XMLNumberParser.isBlank(null, 0, 0));
+        assertTrue(XMLNumberParser.isBlank(chars, 1, 3));
+        assertTrue(XMLNumberParser.isBlank(chars, 0, 0));
+        assertFalse(XMLNumberParser.isBlank(chars, 1, 4));
+    }
+
+    private static void assertDoubleMatches(String s) {
+        Double expected;
+        try {
+            expected = Double.valueOf(s);
+        } catch (NumberFormatException e) {
+            expected = null;
+        }
+
+        String message = "\"" + s + "\"";
+        assertEquals(message, expected, XMLNumberParser.toDouble(s));
+
+        char[] chars = ("<" + s + ">").toCharArray();
+        assertEquals(message, expected, XMLNumberParser.toDouble(chars, 1, s.length()));
+
+        double invalid = -12345.678;
+        assertEquals(message, Double.doubleToLongBits(expected != null ? expected : invalid),
+            Double.doubleToLongBits(XMLNumberParser.parseDouble(s, invalid)));
+    }
+}